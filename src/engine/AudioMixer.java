@@ -0,0 +1,411 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.logging.Logger;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Software mixer. Mixes any number of voices into fixed-size blocks on a single high priority thread
+ * and plays them through one audio line, so overlapping sounds never open more lines.
+ */
+public final class AudioMixer {
+
+  /**
+   * Output sample rate.
+   */
+  public static final float SAMPLE_RATE = 44100;
+  /**
+   * Output channels, interleaved.
+   */
+  public static final int CHANNELS = 2;
+  /**
+   * Frames mixed at once, about 12 ms.
+   */
+  private static final int BLOCK_FRAMES = 512;
+  /**
+   * Blocks buffered by the audio line, bounding the output latency.
+   */
+  private static final int LINE_BLOCKS = 3;
+  /**
+   * Bytes per output frame, 16 bit samples.
+   */
+  private static final int FRAME_SIZE = CHANNELS * 2;
+
+  /**
+   * Singleton instance of the class.
+   */
+  private static AudioMixer instance;
+
+  /**
+   * Application logger.
+   */
+  private Logger logger;
+  /**
+   * Output line, a NullAudioLine if no audio device is available.
+   */
+  private SourceDataLine line;
+  /**
+   * Changes to apply on the mixing thread before the next block.
+   */
+  private final LinkedBlockingQueue<Runnable> commands;
+  /**
+   * Voices currently playing. Only used from the mixing thread.
+   */
+  private final List<Voice> voices;
+  /**
+   * Mixing accumulator.
+   */
+  private final float[] mix;
+  /**
+   * Output block.
+   */
+  private final byte[] output;
+  /**
+   * Samples read from a streamed voice for the current block.
+   */
+  private final short[] streamed;
+
+  /**
+   * Sound playing in the mixer. Methods can be called from any thread, changes are applied at the
+   * start of the next block.
+   */
+  public final class Voice {
+
+    /**
+     * Interleaved stereo samples at SAMPLE_RATE, null for a streamed voice.
+     */
+    private final short[] data;
+    /**
+     * Stream feeding the voice, null for a decoded sound.
+     */
+    private final MusicStream stream;
+    /**
+     * If the voice starts over when it reaches the end.
+     */
+    private final boolean loop;
+    /**
+     * Next frame to play.
+     */
+    private int position;
+    /**
+     * Current linear gain.
+     */
+    private float gain;
+    /**
+     * Gain added every frame while fading.
+     */
+    private float gainStep;
+    /**
+     * Frames left in the current fade.
+     */
+    private int fadeFrames;
+    /**
+     * Gain reached at the end of the fade.
+     */
+    private float targetGain;
+    /**
+     * If the voice stops when the fade ends.
+     */
+    private boolean stopAfterFade;
+    /**
+     * If the voice has finished playing.
+     */
+    private volatile boolean finished;
+
+    /**
+     * Constructor.
+     *
+     * @param data   Interleaved stereo samples, or null.
+     * @param stream Stream feeding the voice, or null.
+     * @param loop   If the voice starts over when it reaches the end.
+     * @param gain   Initial linear gain.
+     */
+    private Voice(final short[] data, final MusicStream stream, final boolean loop,
+        final float gain) {
+      this.data = data;
+      this.stream = stream;
+      this.loop = loop;
+      this.gain = gain;
+    }
+
+    /**
+     * Changes the gain linearly, sample by sample.
+     *
+     * @param gain   Linear gain to reach.
+     * @param millis Duration of the fade.
+     * @param stop   If the voice stops once the fade ends.
+     */
+    public void fadeTo(final float gain, final int millis, final boolean stop) {
+      commands.add(() -> {
+        int frames = Math.max(1, (int) (millis * SAMPLE_RATE / 1000));
+        this.targetGain = gain;
+        this.gainStep = (gain - this.gain) / frames;
+        this.fadeFrames = frames;
+        this.stopAfterFade = stop;
+      });
+    }
+
+    /**
+     * Sets the gain immediately.
+     *
+     * @param gain Linear gain.
+     */
+    public void setGain(final float gain) {
+      commands.add(() -> {
+        this.gain = gain;
+        this.fadeFrames = 0;
+      });
+    }
+
+    /**
+     * Stops the voice.
+     */
+    public void stop() {
+      commands.add(() -> this.finished = true);
+    }
+
+    /**
+     * Checks if the voice is still playing.
+     *
+     * @return True until the voice ends or is stopped.
+     */
+    public boolean isPlaying() {
+      return !this.finished;
+    }
+
+    /**
+     * Adds this voice to the mix.
+     *
+     * @param frames Frames to mix.
+     */
+    private void mixInto(final float[] mix, final int frames) {
+      if (this.finished) {
+        return;
+      }
+      if (this.stream != null) {
+        // Frames the decoder has not delivered yet are left silent.
+        int count = this.stream.read(streamed, frames);
+        mixFrom(streamed, 0, mix, 0, count);
+        if (this.stream.isFinished()) {
+          this.finished = true;
+        }
+        return;
+      }
+
+      int length = this.data.length / CHANNELS;
+      int mixed = 0;
+      while (mixed < frames && !this.finished) {
+        if (this.position >= length) {
+          if (!this.loop || length == 0) {
+            this.finished = true;
+            break;
+          }
+          this.position = 0;
+        }
+        int count = Math.min(frames - mixed, length - this.position);
+        count = mixFrom(this.data, this.position, mix, mixed, count);
+        this.position += count;
+        mixed += count;
+      }
+    }
+
+    /**
+     * Adds samples to the mix at the current gain, advancing any fade.
+     *
+     * @param samples     Interleaved stereo samples.
+     * @param sampleFrame First frame to read.
+     * @param mix         Mixing accumulator.
+     * @param mixFrame    First frame to write.
+     * @param frames      Frames to mix.
+     * @return Frames mixed, fewer if a fade stopped the voice.
+     */
+    private int mixFrom(final short[] samples, final int sampleFrame, final float[] mix,
+        final int mixFrame, final int frames) {
+      for (int frame = 0; frame < frames; frame++) {
+        int sample = (sampleFrame + frame) * CHANNELS;
+        int out = (mixFrame + frame) * CHANNELS;
+        mix[out] += samples[sample] * this.gain;
+        mix[out + 1] += samples[sample + 1] * this.gain;
+
+        if (this.fadeFrames > 0) {
+          this.gain += this.gainStep;
+          if (--this.fadeFrames == 0) {
+            this.gain = this.targetGain;
+            if (this.stopAfterFade) {
+              this.finished = true;
+              return frame + 1;
+            }
+          }
+        }
+      }
+      return frames;
+    }
+  }
+
+  /**
+   * Private constructor, opens the audio line and starts the mixing thread.
+   */
+  private AudioMixer() {
+    this.logger = Core.getLogger();
+    this.commands = new LinkedBlockingQueue<Runnable>();
+    this.voices = new ArrayList<Voice>();
+    this.mix = new float[BLOCK_FRAMES * CHANNELS];
+    this.output = new byte[BLOCK_FRAMES * FRAME_SIZE];
+    this.streamed = new short[BLOCK_FRAMES * CHANNELS];
+
+    AudioFormat format = new AudioFormat(SAMPLE_RATE, 16, CHANNELS, true, false);
+    try {
+      this.line = AudioSystem.getSourceDataLine(format);
+      this.line.open(format, BLOCK_FRAMES * FRAME_SIZE * LINE_BLOCKS);
+    } catch (LineUnavailableException | IllegalArgumentException e) {
+      logger.warning("No audio line available, sound muted.");
+      NullAudioLine nullLine = new NullAudioLine();
+      nullLine.open(format, BLOCK_FRAMES * FRAME_SIZE * LINE_BLOCKS);
+      this.line = nullLine;
+    }
+    this.line.start();
+
+    Thread thread = new Thread(this::mixLoop, "audio-mixer");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MAX_PRIORITY);
+    thread.start();
+  }
+
+  /**
+   * Returns shared instance of AudioMixer.
+   *
+   * @return Shared instance of AudioMixer.
+   */
+  protected static synchronized AudioMixer getInstance() {
+    if (instance == null) {
+      instance = new AudioMixer();
+    }
+    return instance;
+  }
+
+  /**
+   * Starts playing a sound.
+   *
+   * @param data Interleaved stereo samples at SAMPLE_RATE, see toMixFormat().
+   * @param loop If the sound starts over when it reaches the end.
+   * @param gain Initial linear gain.
+   * @return Playing voice.
+   */
+  public Voice play(final short[] data, final boolean loop, final float gain) {
+    Voice voice = new Voice(data, null, loop, gain);
+    this.commands.add(() -> this.voices.add(voice));
+    return voice;
+  }
+
+  /**
+   * Starts playing a stream. The stream is closed when the voice ends or is stopped.
+   *
+   * @param stream Stream to play, not yet started.
+   * @param gain   Initial linear gain.
+   * @return Playing voice.
+   */
+  Voice play(final MusicStream stream, final float gain) {
+    stream.start();
+    Voice voice = new Voice(null, stream, false, gain);
+    this.commands.add(() -> this.voices.add(voice));
+    return voice;
+  }
+
+  /**
+   * Mixing thread: applies pending changes, mixes a block and writes it to the line, which blocks
+   * until there is room. Waits without spinning when nothing is playing.
+   */
+  private void mixLoop() {
+    try {
+      while (true) {
+        Runnable command;
+        if (this.voices.isEmpty()) {
+          this.line.drain();
+          this.commands.take().run();
+        }
+        while ((command = this.commands.poll()) != null) {
+          command.run();
+        }
+        mixBlock();
+      }
+    } catch (InterruptedException e) {
+      this.line.close();
+    }
+  }
+
+  /**
+   * Mixes the playing voices into the output block and writes it.
+   */
+  private void mixBlock() {
+    Arrays.fill(this.mix, 0);
+    for (int i = this.voices.size() - 1; i >= 0; i--) {
+      Voice voice = this.voices.get(i);
+      voice.mixInto(this.mix, BLOCK_FRAMES);
+      if (voice.finished) {
+        this.voices.remove(i);
+        if (voice.stream != null) {
+          voice.stream.close();
+        }
+      }
+    }
+
+    for (int i = 0; i < this.mix.length; i++) {
+      int sample = (int) this.mix[i];
+      if (sample > Short.MAX_VALUE) {
+        sample = Short.MAX_VALUE;
+      } else if (sample < Short.MIN_VALUE) {
+        sample = Short.MIN_VALUE;
+      }
+      this.output[i * 2] = (byte) sample;
+      this.output[i * 2 + 1] = (byte) (sample >> 8);
+    }
+    this.line.write(this.output, 0, this.output.length);
+  }
+
+  /**
+   * Converts 16 bit signed little endian PCM to the mixer format: stereo at SAMPLE_RATE, resampled
+   * with linear interpolation.
+   *
+   * @param format Format of the data, 16 bit signed little endian.
+   * @param data   PCM data.
+   * @return Interleaved stereo samples.
+   */
+  public static short[] toMixFormat(final AudioFormat format, final byte[] data) {
+    int channels = format.getChannels();
+    int sourceFrames = data.length / (channels * 2);
+    double ratio = format.getSampleRate() / SAMPLE_RATE;
+    int frames = (int) (sourceFrames / ratio);
+    short[] samples = new short[frames * CHANNELS];
+
+    for (int frame = 0; frame < frames; frame++) {
+      double sourcePosition = frame * ratio;
+      int first = (int) sourcePosition;
+      int second = Math.min(first + 1, sourceFrames - 1);
+      double weight = sourcePosition - first;
+      for (int channel = 0; channel < CHANNELS; channel++) {
+        int sourceChannel = Math.min(channel, channels - 1);
+        int a = sampleAt(data, (first * channels + sourceChannel) * 2);
+        int b = sampleAt(data, (second * channels + sourceChannel) * 2);
+        samples[frame * CHANNELS + channel] = (short) (a + (b - a) * weight);
+      }
+    }
+    return samples;
+  }
+
+  /**
+   * Reads a 16 bit signed little endian sample.
+   *
+   * @param data   PCM data.
+   * @param offset Position of the sample.
+   * @return Sample value.
+   */
+  private static int sampleAt(final byte[] data, final int offset) {
+    return (data[offset] & 0xFF) | (data[offset + 1] << 8);
+  }
+}
@@ -0,0 +1,231 @@
+package engine;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.logging.Level;
+
+/**
+ * Plays many headless games at once, played by the Bot on a fixed pool of threads, one per core by
+ * default. Every game gets its own seed and its own game context, so games share nothing mutable
+ * and the throughput grows with the cores. Used for balance tuning and computer player experiments.
+ *
+ * <p>Usage: {@code java -cp Invaders.jar engine.BatchRunner [games [seed [threads]]]}, or
+ * {@code java -jar Invaders.jar --batch [games [seed [threads]]]}. Game n is played with
+ * seed + n - 1, the same seeds give the same results whatever the number of threads.
+ */
+public final class BatchRunner {
+
+  /**
+   * Games played by default.
+   */
+  private static final int DEFAULT_GAMES = 64;
+  /**
+   * Nanoseconds per second.
+   */
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  /**
+   * Threads the games are played on.
+   */
+  private final int threads;
+
+  /**
+   * Statistics of a finished game.
+   */
+  public static final class Result {
+    /**
+     * Seed of the game.
+     */
+    private final long seed;
+    /**
+     * Final score.
+     */
+    private final int score;
+    /**
+     * Last level played.
+     */
+    private final int level;
+    /**
+     * Bullets shot by the player.
+     */
+    private final int bulletsShot;
+    /**
+     * Ships destroyed by the player.
+     */
+    private final int shipsDestroyed;
+    /**
+     * Ticks simulated.
+     */
+    private final long ticks;
+
+    /**
+     * Constructor.
+     *
+     * @param gameState Final state of the game.
+     * @param gameTicks Ticks simulated.
+     */
+    private Result(final GameState gameState, final long gameTicks) {
+      this.seed = gameState.getSeed();
+      this.score = gameState.getScore();
+      // The final state is already on the level after the last one played.
+      this.level = gameState.getLevel() - 1;
+      this.bulletsShot = gameState.getBulletsShot();
+      this.shipsDestroyed = gameState.getShipsDestroyed();
+      this.ticks = gameTicks;
+    }
+
+    /**
+     * @return the seed
+     */
+    public long getSeed() {
+      return this.seed;
+    }
+
+    /**
+     * @return the score
+     */
+    public int getScore() {
+      return this.score;
+    }
+
+    /**
+     * @return the last level played
+     */
+    public int getLevel() {
+      return this.level;
+    }
+
+    /**
+     * @return the bulletsShot
+     */
+    public int getBulletsShot() {
+      return this.bulletsShot;
+    }
+
+    /**
+     * @return the shipsDestroyed
+     */
+    public int getShipsDestroyed() {
+      return this.shipsDestroyed;
+    }
+
+    /**
+     * @return the ticks
+     */
+    public long getTicks() {
+      return this.ticks;
+    }
+
+    /**
+     * Returns the share of the bullets shot that destroyed a ship.
+     *
+     * @return Accuracy, 0 if no bullet was shot.
+     */
+    public double getAccuracy() {
+      return this.bulletsShot == 0 ? 0 : (double) this.shipsDestroyed / this.bulletsShot;
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param threadCount Threads the games are played on.
+   */
+  public BatchRunner(final int threadCount) {
+    this.threads = threadCount;
+  }
+
+  /**
+   * Plays the given number of games and reports their statistics and the simulation speed.
+   *
+   * @param args Number of games, seed of the first game and number of threads, all optional.
+   */
+  public static void main(final String[] args) {
+    int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+    long seed = args.length > 1 ? Long.parseLong(args[1]) : GameRandom.newSeed();
+    int threads = args.length > 2 ? Integer.parseInt(args[2])
+        : Runtime.getRuntime().availableProcessors();
+    // Per enemy logging would dominate the run time.
+    Core.getLogger().setLevel(Level.WARNING);
+
+    long start = System.nanoTime();
+    List<Result> results = new BatchRunner(threads).play(seed, games);
+    double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+
+    long ticks = 0;
+    long score = 0;
+    long level = 0;
+    double accuracy = 0;
+    System.out.println(String.format("%-20s %8s %6s %9s %9s", "Seed", "Score", "Level",
+        "Accuracy", "Ticks"));
+    for (Result result : results) {
+      System.out.println(String.format("%-20d %8d %6d %8.1f%% %9d", result.getSeed(),
+          result.getScore(), result.getLevel(), result.getAccuracy() * 100, result.getTicks()));
+      ticks += result.getTicks();
+      score += result.getScore();
+      level += result.getLevel();
+      accuracy += result.getAccuracy();
+    }
+    System.out.println(String.format("Average score %.0f, level %.2f, accuracy %.1f%%.",
+        (double) score / games, (double) level / games, accuracy / games * 100));
+    System.out.println(String.format(
+        "%d games, %d ticks in %.2f s on %d threads: %.0f ticks/s, %.1fx real time.", games,
+        ticks, seconds, threads, ticks / seconds, ticks / seconds / Core.FPS));
+  }
+
+  /**
+   * Plays games in parallel, game n with seed + n, and waits for all of them.
+   *
+   * @param seed  Seed of the first game.
+   * @param games Number of games.
+   * @return Statistics of the games, in the order of their seeds.
+   */
+  public List<Result> play(final long seed, final int games) {
+    ExecutorService executor = Executors.newFixedThreadPool(this.threads);
+    try {
+      List<Future<Result>> futures = new ArrayList<Future<Result>>(games);
+      for (int game = 0; game < games; game++) {
+        futures.add(executor.submit(playGame(seed + game)));
+      }
+      List<Result> results = new ArrayList<Result>(games);
+      for (Future<Result> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while playing games.", e);
+    } catch (ExecutionException e) {
+      throw new IllegalStateException("A game failed.", e.getCause());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Returns a task playing a whole game in a context of its own.
+   *
+   * @param seed Seed of the game.
+   * @return Task returning the statistics of the game.
+   */
+  private static Callable<Result> playGame(final long seed) {
+    return () -> {
+      GameContext context = new GameContext(new ManualClock(1000 / Core.FPS));
+      context.install();
+      try {
+        HeadlessRunner runner = HeadlessRunner.install();
+        runner.setBot(new Bot());
+        long ticks = runner.getTicks();
+        GameState gameState = runner.playGame(seed);
+        return new Result(gameState, runner.getTicks() - ticks);
+      } finally {
+        GameContext.uninstall();
+      }
+    };
+  }
+}
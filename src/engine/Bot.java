@@ -0,0 +1,224 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+import java.util.List;
+
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.Ship;
+import screen.BuffScreen;
+import screen.GameScreen;
+import screen.Screen;
+
+/**
+ * Computer player replacing the keyboard, to drive benchmarks, soak runs and balance tests. Every
+ * tick it reads the world of the screen it watches and holds the keys a player would.
+ *
+ * <p>In a level it predicts where each enemy bullet crosses the ship's row, and picks among
+ * moving left, staying and moving right the one hit by the fewest bullets, preferring to move
+ * under the nearest shooter. It fires while under an enemy. On menus it waits for the screen to
+ * read input and confirms, picking a different buff each time. A tick takes a few microseconds,
+ * linear in the bullets on screen, and allocates nothing but the bullet iterators.
+ */
+public final class Bot implements InputSource {
+
+  /**
+   * Ticks ahead bullets are taken into account.
+   */
+  private static final int HORIZON = 45;
+  /**
+   * Extra distance kept from bullets, in pixels.
+   */
+  private static final int MARGIN = 4;
+  /**
+   * Number of buffs offered by BuffScreen.
+   */
+  private static final int BUFFS = 3;
+
+  /**
+   * Screen played.
+   */
+  private Screen screen;
+  /**
+   * Presses of the down key left before confirming on a menu.
+   */
+  private int downs;
+  /**
+   * Buff screens seen so far.
+   */
+  private int buffScreens;
+  /**
+   * Danger of moving left, staying and moving right, for the tick being decided.
+   */
+  private final int[] danger;
+
+  /**
+   * Constructor.
+   */
+  public Bot() {
+    this.danger = new int[3];
+  }
+
+  /**
+   * Plays the given screen from the next tick. Called whenever the screen changes.
+   *
+   * @param watched Screen to play.
+   */
+  public void watch(final Screen watched) {
+    this.screen = watched;
+    this.downs = 0;
+    if (watched instanceof BuffScreen) {
+      // Rotates through the buffs, each one is a down key press further.
+      this.downs = this.buffScreens++ % BUFFS;
+    }
+  }
+
+  @Override
+  public void nextTick(final InputManager inputManager) {
+    if (this.screen instanceof GameScreen) {
+      playLevel(inputManager, (GameScreen) this.screen);
+    } else if (this.screen != null) {
+      navigateMenu(inputManager);
+    }
+  }
+
+  /**
+   * Waits until the menu reads input, presses down as many times as needed, then confirms.
+   *
+   * @param inputManager Input to act on.
+   */
+  private void navigateMenu(final InputManager inputManager) {
+    setKey(inputManager, KeyEvent.VK_LEFT, false);
+    setKey(inputManager, KeyEvent.VK_RIGHT, false);
+    if (!this.screen.isInputReady()) {
+      // Keys held from the last screen would be taken as a choice.
+      setKey(inputManager, KeyEvent.VK_SPACE, false);
+      setKey(inputManager, KeyEvent.VK_DOWN, false);
+      return;
+    }
+    if (inputManager.isKeyHeld(KeyEvent.VK_DOWN)) {
+      setKey(inputManager, KeyEvent.VK_DOWN, false);
+    } else if (this.downs > 0) {
+      setKey(inputManager, KeyEvent.VK_DOWN, true);
+      this.downs--;
+    } else {
+      setKey(inputManager, KeyEvent.VK_SPACE, true);
+    }
+  }
+
+  /**
+   * Dodges the enemy bullets, moves under the nearest shooter and fires while under an enemy.
+   *
+   * @param inputManager Input to act on.
+   * @param gameScreen   Level played.
+   */
+  private void playLevel(final InputManager inputManager, final GameScreen gameScreen) {
+    Ship ship = gameScreen.getShip();
+    int shipX = ship.getPositionX();
+    int center = shipX + ship.getWidth() / 2;
+
+    // Nearest enemy able to shoot, and if one is right above.
+    int target = center;
+    int targetDistance = Integer.MAX_VALUE;
+    boolean aligned = false;
+    List<EnemyShip> shooters = gameScreen.getEnemyShipFormation().getShooters();
+    for (int i = 0; i < shooters.size(); i++) {
+      EnemyShip shooter = shooters.get(i);
+      if (shooter.isDestroyed()) {
+        continue;
+      }
+      int left = shooter.getPositionX();
+      int right = left + shooter.getWidth();
+      int distance = center < left ? left - center : center > right ? center - right : 0;
+      if (distance < targetDistance) {
+        targetDistance = distance;
+        target = Math.max(left + ship.getWidth() / 2, Math.min(right - ship.getWidth() / 2,
+            center));
+      }
+      aligned |= distance == 0;
+    }
+
+    this.danger[0] = 0;
+    this.danger[1] = 0;
+    this.danger[2] = 0;
+    for (Bullet bullet : gameScreen.getBullets()) {
+      if (bullet.getSpeedY() > 0) {
+        assess(gameScreen, ship, bullet, 0);
+      }
+    }
+    for (Bullet bullet : gameScreen.getTurningBullets()) {
+      int speedX = bullet.getIsTurning() == 1 ? bullet.getSpeedX()
+          : bullet.getIsTurning() == 2 ? -bullet.getSpeedX() : 0;
+      assess(gameScreen, ship, bullet, speedX);
+    }
+
+    // Moves towards the target unless it is more dangerous than another option.
+    int preferred = target > center + ship.getSpeed() / 2 ? 2
+        : target < center - ship.getSpeed() / 2 ? 0 : 1;
+    int move = preferred;
+    if (this.danger[1] < this.danger[move]) {
+      move = 1;
+    }
+    for (int option = 0; option < 3; option++) {
+      if (this.danger[option] < this.danger[move]) {
+        move = option;
+      }
+    }
+
+    setKey(inputManager, KeyEvent.VK_LEFT, move == 0);
+    setKey(inputManager, KeyEvent.VK_RIGHT, move == 2);
+    setKey(inputManager, KeyEvent.VK_SPACE, aligned);
+  }
+
+  /**
+   * Adds the danger of a bullet to each move, if the ship would be under it while it crosses the
+   * ship's row. Closer bullets weigh more.
+   *
+   * @param gameScreen Level played.
+   * @param ship       Player's ship.
+   * @param bullet     Enemy bullet.
+   * @param speedX     Horizontal speed of the bullet.
+   */
+  private void assess(final GameScreen gameScreen, final Ship ship, final Bullet bullet,
+      final int speedX) {
+    int speedY = bullet.getSpeedY();
+    int shipBottom = ship.getPositionY() + ship.getHeight();
+    if (speedY <= 0 || bullet.getPositionY() > shipBottom) {
+      return;
+    }
+    // Ticks until the bullet reaches the ship's row, and until it has crossed it. The ship moves
+    // before the bullets do, so it always gets one move in.
+    int enter = Math.max(1, (ship.getPositionY() - bullet.getPositionY() - bullet.getHeight()
+        + speedY - 1) / speedY);
+    int exit = Math.max(enter, (shipBottom - bullet.getPositionY() + speedY - 1) / speedY);
+    if (enter > HORIZON) {
+      return;
+    }
+    int left = bullet.getPositionX() + Math.min(speedX * enter, speedX * exit) - MARGIN;
+    int right = bullet.getPositionX() + bullet.getWidth()
+        + Math.max(speedX * enter, speedX * exit) + MARGIN;
+    int maxX = gameScreen.getWidth() - ship.getWidth() - 1;
+    for (int option = 0; option < 3; option++) {
+      int direction = (option - 1) * ship.getSpeed();
+      int from = Math.max(1, Math.min(maxX, ship.getPositionX() + direction * enter));
+      int to = Math.max(1, Math.min(maxX, ship.getPositionX() + direction * exit));
+      if (Math.min(from, to) < right && Math.max(from, to) + ship.getWidth() > left) {
+        this.danger[option] += HORIZON + 1 - enter;
+      }
+    }
+  }
+
+  /**
+   * Presses or releases a key if it is not already in that state.
+   *
+   * @param inputManager Input to act on.
+   * @param keyCode      Key number.
+   * @param down         True to hold the key down.
+   */
+  private static void setKey(final InputManager inputManager, final int keyCode,
+      final boolean down) {
+    if (inputManager.isKeyHeld(keyCode) != down) {
+      inputManager.applyEvent(keyCode, down, System.nanoTime());
+    }
+  }
+}
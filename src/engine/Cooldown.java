@@ -1,5 +1,7 @@
 package engine;
 
+import java.nio.ByteBuffer;
+
 /**
  * Imposes a cooldown period between two actions.
  *
@@ -7,6 +9,14 @@ package engine;
  */
 public class Cooldown {
 
+  /**
+   * Clock the cooldown is measured with.
+   */
+  private final GameClock clock;
+  /**
+   * Generator of the duration variance, null without variance.
+   */
+  private final GameRandom random;
   /**
    * Cooldown duration.
    */
@@ -23,13 +33,20 @@ public class Cooldown {
    * Beginning time.
    */
   private long time;
+  /**
+   * If the cooldown has been started at least once.
+   */
+  private boolean started;
 
   /**
    * Constructor, established the time until the action can be performed again.
    *
+   * @param clock        Clock the cooldown is measured with.
    * @param milliseconds Time until cooldown period is finished.
    */
-  protected Cooldown(final int milliseconds) {
+  protected Cooldown(final GameClock clock, final int milliseconds) {
+    this.clock = clock;
+    this.random = null;
     this.milliseconds = milliseconds;
     this.variance = 0;
     this.duration = milliseconds;
@@ -40,10 +57,15 @@ public class Cooldown {
    * Constructor, established the time until the action can be performed again, with a variation of
    * +/- variance.
    *
+   * @param clock        Clock the cooldown is measured with.
    * @param milliseconds Time until cooldown period is finished.
    * @param variance     Variance in the cooldown period.
+   * @param random       Generator of the variance.
    */
-  protected Cooldown(final int milliseconds, final int variance) {
+  protected Cooldown(final GameClock clock, final int milliseconds,
+      final int variance, final GameRandom random) {
+    this.clock = clock;
+    this.random = random;
     this.milliseconds = milliseconds;
     this.variance = variance;
     this.time = 0;
@@ -55,8 +77,8 @@ public class Cooldown {
    * @return Cooldown state.
    */
   public final boolean checkFinished() {
-    if ((this.time == 0)
-        || this.time + this.duration < System.currentTimeMillis()) {
+    if (!this.started
+        || this.time + this.duration < this.clock.millis()) {
       return true;
     }
     return false;
@@ -66,10 +88,11 @@ public class Cooldown {
    * Restarts the cooldown.
    */
   public final void reset() {
-    this.time = System.currentTimeMillis();
+    this.time = this.clock.millis();
+    this.started = true;
     if (this.variance != 0) {
       this.duration = (this.milliseconds - this.variance)
-          + (int) (Math.random()
+          + (int) (this.random.nextDouble()
           * (this.milliseconds + this.variance));
     }
   }
@@ -81,10 +104,35 @@ public class Cooldown {
    * @return Cooldown state.
    */
   public final boolean checkMoreThan(int checkTime) {
-    if (this.time + checkTime / 2 < System.currentTimeMillis()) {
+    if (!this.started || this.time + checkTime / 2 < this.clock.millis()) {
       return true;
     }
     return false;
   }
 
+  /**
+   * Writes the state of the cooldown, its time measured from now.
+   *
+   * @param buffer Buffer to write to.
+   */
+  public final void save(final ByteBuffer buffer) {
+    buffer.putInt(this.milliseconds);
+    buffer.putInt(this.variance);
+    buffer.putInt(this.duration);
+    buffer.put((byte) (this.started ? 1 : 0));
+    buffer.putLong(this.started ? this.clock.millis() - this.time : 0);
+  }
+
+  /**
+   * Restores a state written by save(), relative to the current time.
+   *
+   * @param buffer Buffer to read from.
+   */
+  public final void load(final ByteBuffer buffer) {
+    this.milliseconds = buffer.getInt();
+    this.variance = buffer.getInt();
+    this.duration = buffer.getInt();
+    this.started = buffer.get() != 0;
+    this.time = this.clock.millis() - buffer.getLong();
+  }
 }
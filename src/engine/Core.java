@@ -1,6 +1,10 @@
 package engine;
 
+import java.io.IOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.ConsoleHandler;
 import java.util.logging.FileHandler;
@@ -8,6 +12,8 @@ import java.util.logging.Handler;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import entity.BulletPool;
+import entity.World;
 import io.sentry.Sentry;
 import screen.BuffScreen;
 import screen.GameScreen;
@@ -26,28 +32,34 @@ public final class Core {
   /**
    * Width of current screen.
    */
-  private static final int WIDTH = 1280;
+  static final int WIDTH = 1280;
   /**
    * Height of current screen.
    */
-  private static final int HEIGHT = 720;
+  static final int HEIGHT = 720;
   /**
    * Max fps of current screen.
    */
-  private static final int FPS = 60;
+  static final int FPS = 60;
+  /**
+   * Milliseconds per tick of recorded games. Replays need a whole number of milliseconds per tick,
+   * so this is 1000 / FPS rounded down, and screens pace their frames to it, see Screen.run():
+   * recorded games run at 62.5 fps but keep real time.
+   */
+  static final int REPLAY_STEP = 1000 / FPS;
 
   /**
    * Max lives.
    */
-  private static final int MAX_LIVES = 3;
+  static final int MAX_LIVES = 3;
   /**
    * Levels between extra life.
    */
-  private static final int EXTRA_LIFE_FRECUENCY = 3;
+  static final int EXTRA_LIFE_FRECUENCY = 3;
   /**
    * Total number of levels.
    */
-  private static final int NUM_LEVELS = 7;
+  static final int NUM_LEVELS = 7;
 
   /**
    * Difficulty settings for level 1.
@@ -129,9 +141,9 @@ public final class Core {
    */
   private static Screen currentScreen;
   /**
-   * Difficulty settings list.
+   * Difficulty settings list, levels first and then their boss levels.
    */
-  private static List<GameSettings> gameSettings;
+  private static final List<GameSettings> GAME_SETTINGS = createGameSettings();
   /**
    * Application logger.
    */
@@ -145,14 +157,49 @@ public final class Core {
    * Logger handler for printing to console.
    */
   private static ConsoleHandler consoleHandler;
+  /**
+   * History of every finished run, null if it couldn't be opened.
+   */
+  private static ScoreHistory scoreHistory;
+  /**
+   * If the game runs without window, rendering, sound nor frame pacing.
+   */
+  private static boolean headless;
+  /**
+   * Save of the game in progress, null if unavailable.
+   */
+  private static GameSnapshot autosave;
 
 
   /**
    * Test implementation.
    *
-   * @param args Program args, ignored.
+   * @param args Program args, --latency measures input latency, --record file [--keyframes ticks]
+   *             records the games played, --replay file [--fast] [--seek tick] plays them back,
+   *             see ReplayPlayer, --headless [games [seed]] simulates games without window or
+   *             sound, see HeadlessRunner, --batch [games [seed [threads]]] plays them in
+   *             parallel, see BatchRunner, --soak [minutes [csv [seconds]]] plays games headless
+   *             for a long time tracking resources, see SoakRunner, --continue resumes the saved
+   *             game.
    */
   public static void main(final String[] args) {
+    if (args.length > 0 && args[0].equals("--headless")) {
+      HeadlessRunner.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--batch")) {
+      BatchRunner.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--soak")) {
+      SoakRunner.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--replay")) {
+      ReplayPlayer.main(Arrays.copyOfRange(args, 1, args.length));
+      return;
+    }
+
     Sentry.init(options -> {
       options.setDsn(
           "https://b101825c7dcdabe5917cca8effa1b27c@o4506326154608640.ingest.sentry.io/4506326215098368");
@@ -181,33 +228,60 @@ public final class Core {
       e.printStackTrace();
     }
 
+    if (Arrays.asList(args).contains("--latency")) {
+      getLatencyProbe().setEnabled(true);
+      LOGGER.info("Measuring input latency.");
+    }
+    int record = Arrays.asList(args).indexOf("--record");
+    if (record >= 0 && record + 1 < args.length) {
+      int keyframes = Arrays.asList(args).indexOf("--keyframes");
+      int keyframeInterval = ReplayRecorder.DEFAULT_KEYFRAME_INTERVAL;
+      if (keyframes >= 0 && keyframes + 1 < args.length) {
+        try {
+          keyframeInterval = Integer.parseInt(args[keyframes + 1]);
+        } catch (NumberFormatException e) {
+          keyframeInterval = -1;
+        }
+        if (keyframeInterval < 0) {
+          LOGGER.warning("Invalid keyframe interval " + args[keyframes + 1]
+              + ", using " + ReplayRecorder.DEFAULT_KEYFRAME_INTERVAL + " ticks.");
+          keyframeInterval = ReplayRecorder.DEFAULT_KEYFRAME_INTERVAL;
+        }
+      }
+      try {
+        setReplayRecorder(ReplayRecorder.create(Paths.get(args[record + 1]),
+            REPLAY_STEP, keyframeInterval));
+        // Replays are only reproducible with a fixed step per tick.
+        setClock(new ManualClock(REPLAY_STEP));
+        LOGGER.info("Recording replay to " + args[record + 1] + ".");
+      } catch (IOException e) {
+        LOGGER.warning("Couldn't create replay!");
+      }
+    }
+
+    // Loads the high scores once, screens read them from memory.
+    getHighScoreRepository();
+    openSaves();
+    GameSnapshot resume = null;
+    if (autosave != null && Arrays.asList(args).contains("--continue")) {
+      try {
+        if (autosave.load()) {
+          resume = autosave;
+        } else {
+          LOGGER.info("No saved game to continue.");
+        }
+      } catch (IOException e) {
+        LOGGER.warning("Couldn't load saved game!");
+      }
+    }
+
     frame = new Frame(WIDTH, HEIGHT);
-    DrawManager.getInstance().setFrame(frame);
+    getDrawManager().setFrame(frame);
     int width = frame.getWidth();
     int height = frame.getHeight();
 
-    gameSettings = new ArrayList<GameSettings>();
-    gameSettings.add(SETTINGS_LEVEL_1);
-    gameSettings.add(SETTINGS_LEVEL_2);
-    gameSettings.add(SETTINGS_LEVEL_3);
-    gameSettings.add(SETTINGS_LEVEL_4);
-    gameSettings.add(SETTINGS_LEVEL_5);
-    gameSettings.add(SETTINGS_LEVEL_6);
-    gameSettings.add(SETTINGS_LEVEL_7);
-    gameSettings.add(BOSS_SETTINGS_LEVEL_1);
-    gameSettings.add(BOSS_SETTINGS_LEVEL_2);
-    gameSettings.add(BOSS_SETTINGS_LEVEL_3);
-    gameSettings.add(BOSS_SETTINGS_LEVEL_4);
-    gameSettings.add(BOSS_SETTINGS_LEVEL_5);
-    gameSettings.add(BOSS_SETTINGS_LEVEL_6);
-    gameSettings.add(BOSS_SETTINGS_LEVEL_7);
-
-    GameState gameState;
-
-    int returnCode = 1;
+    int returnCode = resume != null ? 2 : 1;
     do {
-      gameState = new GameState(1, 0, MAX_LIVES, 0, 0);
-
       switch (returnCode) {
         case 1:
           // Main menu.
@@ -219,60 +293,8 @@ public final class Core {
           break;
         case 2:
           // Game & score.
-          do {
-            // One extra live every few levels.
-            boolean bonusLife = gameState.getLevel()
-                % EXTRA_LIFE_FRECUENCY == 0
-                && gameState.getLivesRemaining() < MAX_LIVES;
-
-            GameScreen newGameScreen = new GameScreen(gameState,
-                gameSettings.get(gameState.getLevel() - 1),
-                bonusLife, width, height, FPS);
-            if (gameState.getLevel() != 1) {
-              currentScreen = new BuffScreen(width, height, FPS, newGameScreen);
-              LOGGER.info("Select the buff you want.");
-              frame.setScreen(currentScreen);
-            }
-            currentScreen = newGameScreen;
-            LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
-                + " game screen at " + FPS + " fps.");
-            frame.setScreen(currentScreen);
-            LOGGER.info("Closing game screen.");
-
-            gameState = ((GameScreen) currentScreen).getGameState();
-            gameState = new GameState(gameState.getLevel(),
-                gameState.getScore(),
-                gameState.getLivesRemaining(),
-                gameState.getBulletsShot(),
-                gameState.getShipsDestroyed());
-
-            currentScreen = new GameScreen(gameState,
-                gameSettings.get(gameState.getLevel() + NUM_LEVELS - 1),
-                bonusLife, width, height, FPS);
-            LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
-                + " game screen at " + FPS + " fps.");
-            frame.setScreen(currentScreen);
-            LOGGER.info("Closing game screen.");
-
-            gameState = ((GameScreen) currentScreen).getGameState();
-            gameState = new GameState(gameState.getLevel() + 1,
-                gameState.getScore(),
-                gameState.getLivesRemaining(),
-                gameState.getBulletsShot(),
-                gameState.getShipsDestroyed());
-
-          } while (gameState.getLivesRemaining() > 0
-              && gameState.getLevel() <= NUM_LEVELS);
-
-          LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
-              + " score screen at " + FPS + " fps, with a score of "
-              + gameState.getScore() + ", "
-              + gameState.getLivesRemaining() + " lives remaining, "
-              + gameState.getBulletsShot() + " bullets shot and "
-              + gameState.getShipsDestroyed() + " ships destroyed.");
-          currentScreen = new ScoreScreen(width, height, FPS, gameState);
-          returnCode = frame.setScreen(currentScreen);
-          LOGGER.info("Closing score screen.");
+          returnCode = playGame(frame, resume);
+          resume = null;
           break;
         case 3:
           // High scores.
@@ -288,11 +310,202 @@ public final class Core {
 
     } while (returnCode != 0);
 
+    getLatencyProbe().report();
+    getHighScoreRepository().close();
+    if (getReplayRecorder() != null) {
+      try {
+        getReplayRecorder().close();
+      } catch (IOException e) {
+        LOGGER.warning("Couldn't close replay!");
+      }
+    }
+    closeSaves();
     fileHandler.flush();
     fileHandler.close();
     System.exit(0);
   }
 
+  /**
+   * Plays a game from the first level, or from a saved one, to the score screen. The game is saved
+   * between levels and when suspended, and the save is deleted once the game is over.
+   *
+   * @param host   Shows the screens.
+   * @param resume Saved game to continue, null for a new game.
+   * @return Return code of the score screen, or 1 back to the title if the game was suspended.
+   */
+  static int playGame(final ScreenHost host, final GameSnapshot resume) {
+    int width = host.getWidth();
+    int height = host.getHeight();
+    GameState gameState = new GameState(1, 0, MAX_LIVES, 0, 0);
+    GameScreen resumed = null;
+    boolean bonusLife = false;
+    if (resume != null) {
+      gameState = resume.getGameState();
+      bonusLife = resume.isBonusLife();
+      if (resume.hasWorld() || resume.getBossStage() > 0) {
+        resumed = resume.restore(width, height, FPS);
+      }
+      LOGGER.info("Continuing level " + gameState.getLevel() + ".");
+    }
+    do {
+      if (resumed == null || resumed.getBossStage() == 0) {
+        GameScreen newGameScreen = resumed;
+        if (newGameScreen == null) {
+          // One extra live every few levels.
+          bonusLife = gameState.getLevel()
+              % EXTRA_LIFE_FRECUENCY == 0
+              && gameState.getLivesRemaining() < MAX_LIVES;
+
+          newGameScreen = new GameScreen(gameState,
+              GAME_SETTINGS.get(gameState.getLevel() - 1),
+              bonusLife, width, height, FPS);
+          if (gameState.getLevel() != 1) {
+            currentScreen = new BuffScreen(width, height, FPS, newGameScreen);
+            LOGGER.info("Select the buff you want.");
+            host.setScreen(currentScreen);
+          }
+          currentScreen = newGameScreen;
+          LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
+              + " game screen at " + FPS + " fps.");
+          host.setScreen(currentScreen);
+        } else {
+          currentScreen = newGameScreen;
+          host.resumeScreen(currentScreen);
+        }
+        resumed = null;
+        LOGGER.info("Closing game screen.");
+        if (newGameScreen.isSuspended()) {
+          suspend(newGameScreen);
+          return 1;
+        }
+
+        gameState = newGameScreen.getGameState();
+        if (gameState.getLivesRemaining() > 0) {
+          autosave(gameState, GAME_SETTINGS.get(gameState.getLevel()
+              + NUM_LEVELS - 1).getBossStage(), bonusLife, newGameScreen);
+        }
+      }
+
+      GameScreen bossScreen = resumed;
+      if (bossScreen == null) {
+        bossScreen = new GameScreen(gameState,
+            GAME_SETTINGS.get(gameState.getLevel() + NUM_LEVELS - 1),
+            bonusLife, width, height, FPS);
+        currentScreen = bossScreen;
+        LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
+            + " game screen at " + FPS + " fps.");
+        host.setScreen(currentScreen);
+      } else {
+        currentScreen = bossScreen;
+        host.resumeScreen(currentScreen);
+      }
+      resumed = null;
+      LOGGER.info("Closing game screen.");
+      if (bossScreen.isSuspended()) {
+        suspend(bossScreen);
+        return 1;
+      }
+
+      gameState = bossScreen.getGameState().nextLevel();
+      if (gameState.getLivesRemaining() > 0
+          && gameState.getLevel() <= NUM_LEVELS) {
+        autosave(gameState, 0, false, bossScreen);
+      }
+
+    } while (gameState.getLivesRemaining() > 0
+        && gameState.getLevel() <= NUM_LEVELS);
+
+    if (autosave != null) {
+      try {
+        // The game is over, nothing left to continue.
+        autosave.delete();
+      } catch (IOException e) {
+        LOGGER.warning("Couldn't delete save!");
+      }
+    }
+
+    LOGGER.info("Starting " + WIDTH + "x" + HEIGHT
+        + " score screen at " + FPS + " fps, with a score of "
+        + gameState.getScore() + ", "
+        + gameState.getLivesRemaining() + " lives remaining, "
+        + gameState.getBulletsShot() + " bullets shot and "
+        + gameState.getShipsDestroyed() + " ships destroyed.");
+    currentScreen = new ScoreScreen(width, height, FPS, gameState);
+    int returnCode = host.setScreen(currentScreen);
+    LOGGER.info("Closing score screen.");
+    return returnCode;
+  }
+
+  /**
+   * Opens the score history and the save of the game in progress in the data directory.
+   */
+  static void openSaves() {
+    try {
+      scoreHistory = ScoreHistory.open(getFileManager().getDataDirectory());
+    } catch (IOException e) {
+      LOGGER.warning("Couldn't open score history!");
+    }
+
+    try {
+      autosave = new GameSnapshot(getFileManager().getDataDirectory().toPath()
+          .resolve(GameSnapshot.SAVE_FILE));
+    } catch (IOException e) {
+      LOGGER.warning("Couldn't open save directory!");
+    }
+  }
+
+  /**
+   * Closes the score history opened by openSaves().
+   */
+  static void closeSaves() {
+    if (scoreHistory != null) {
+      try {
+        scoreHistory.close();
+      } catch (IOException e) {
+        LOGGER.warning("Couldn't close score history!");
+      }
+      scoreHistory = null;
+    }
+  }
+
+  /**
+   * Saves the state between two levels, so the game can be continued from there.
+   *
+   * @param next      State at the start of the next level.
+   * @param bossStage Boss stage of the next level, 0 for a regular level.
+   * @param bonusLife If the next level grants an extra life.
+   * @param screen    Screen of the finished level, holding the ship upgrades.
+   */
+  private static void autosave(final GameState next, final int bossStage,
+      final boolean bonusLife, final GameScreen screen) {
+    if (autosave == null) {
+      return;
+    }
+    try {
+      autosave.save(next, bossStage, bonusLife, screen.getShip().getSpeed(),
+          screen.getShip().getBulletSpeed());
+    } catch (IOException e) {
+      LOGGER.warning("Couldn't save game!");
+    }
+  }
+
+  /**
+   * Saves a level left halfway, to be continued with --continue.
+   *
+   * @param screen Suspended screen.
+   */
+  private static void suspend(final GameScreen screen) {
+    if (autosave == null) {
+      return;
+    }
+    try {
+      autosave.save(screen);
+      LOGGER.info("Game saved, continue with --continue.");
+    } catch (IOException e) {
+      LOGGER.warning("Couldn't save game!");
+    }
+  }
+
   /**
    * Constructor, not called.
    */
@@ -312,19 +525,46 @@ public final class Core {
   /**
    * Controls access to the drawing manager.
    *
-   * @return Application draw manager.
+   * @return Draw manager of the current game context.
    */
   public static DrawManager getDrawManager() {
-    return DrawManager.getInstance();
+    return GameContext.current().getDrawManager();
   }
 
   /**
    * Controls access to the input manager.
    *
-   * @return Application input manager.
+   * @return Input manager of the current game context.
    */
   public static InputManager getInputManager() {
-    return InputManager.getInstance();
+    return GameContext.current().getInputManager();
+  }
+
+  /**
+   * Controls access to the bullet pool.
+   *
+   * @return Bullet pool of the current game context.
+   */
+  public static BulletPool getBulletPool() {
+    return GameContext.current().getBulletPool();
+  }
+
+  /**
+   * Controls access to the world storing the entities in play.
+   *
+   * @return World of the current game context.
+   */
+  public static World getWorld() {
+    return GameContext.current().getWorld();
+  }
+
+  /**
+   * Controls access to the input latency probe.
+   *
+   * @return Application latency probe.
+   */
+  public static LatencyProbe getLatencyProbe() {
+    return LatencyProbe.getInstance();
   }
 
   /**
@@ -336,6 +576,24 @@ public final class Core {
     return FileManager.getInstance();
   }
 
+  /**
+   * Controls access to the high score repository.
+   *
+   * @return Application high score repository.
+   */
+  public static HighScoreRepository getHighScoreRepository() {
+    return HighScoreRepository.getInstance();
+  }
+
+  /**
+   * Controls access to the score history.
+   *
+   * @return History of finished runs, null if it isn't available.
+   */
+  public static ScoreHistory getScoreHistory() {
+    return scoreHistory;
+  }
+
   /**
    * Controls creation of new cooldowns.
    *
@@ -343,18 +601,137 @@ public final class Core {
    * @return A new cooldown.
    */
   public static Cooldown getCooldown(final int milliseconds) {
-    return new Cooldown(milliseconds);
+    return new Cooldown(getClock(), milliseconds);
   }
 
   /**
-   * Controls creation of new cooldowns with variance.
+   * Controls creation of new cooldowns with variance drawn from the game's generator, so the
+   * durations are reproduced with the game's seed.
    *
    * @param milliseconds Duration of the cooldown.
    * @param variance     Variation in the cooldown duration.
+   * @param random       Generator of the game.
    * @return A new cooldown with variance.
    */
   public static Cooldown getVariableCooldown(final int milliseconds,
-      final int variance) {
-    return new Cooldown(milliseconds, variance);
+      final int variance, final GameRandom random) {
+    return new Cooldown(getClock(), milliseconds, variance, random);
+  }
+
+  /**
+   * Controls access to the game clock.
+   *
+   * @return Clock of the current game context, ticked by the running screen.
+   */
+  public static GameClock getClock() {
+    return GameContext.current().getClock();
+  }
+
+  /**
+   * Replaces the game clock, e.g. with a ManualClock for deterministic runs. Cooldowns created
+   * before keep the previous clock.
+   *
+   * @param gameClock New game clock.
+   */
+  public static void setClock(final GameClock gameClock) {
+    GameContext.current().setClock(gameClock);
+  }
+
+  /**
+   * Checks if the game runs headless.
+   *
+   * @return True without window, rendering, sound nor frame pacing.
+   */
+  public static boolean isHeadless() {
+    return headless;
+  }
+
+  /**
+   * Switches headless mode, screens then skip rendering and run as fast as possible.
+   *
+   * @param isHeadless If the game runs headless.
+   */
+  public static void setHeadless(final boolean isHeadless) {
+    headless = isHeadless;
+    SoundManager.setEnabled(!isHeadless);
+  }
+
+  /**
+   * Controls access to the difficulty settings.
+   *
+   * @return Settings of every level, then of every boss level.
+   */
+  public static List<GameSettings> getGameSettings() {
+    return GAME_SETTINGS;
+  }
+
+  /**
+   * Returns the difficulty settings of a screen.
+   *
+   * @param level     Level number.
+   * @param bossStage Boss stage of the screen, 0 for the level itself.
+   * @return Settings of the level or its boss.
+   */
+  static GameSettings getGameSettings(final int level, final int bossStage) {
+    return GAME_SETTINGS.get(level - 1 + (bossStage > 0 ? NUM_LEVELS : 0));
+  }
+
+  /**
+   * Builds the difficulty settings list.
+   *
+   * @return Settings of every level, then of every boss level.
+   */
+  private static List<GameSettings> createGameSettings() {
+    List<GameSettings> settings = new ArrayList<GameSettings>();
+    settings.add(SETTINGS_LEVEL_1);
+    settings.add(SETTINGS_LEVEL_2);
+    settings.add(SETTINGS_LEVEL_3);
+    settings.add(SETTINGS_LEVEL_4);
+    settings.add(SETTINGS_LEVEL_5);
+    settings.add(SETTINGS_LEVEL_6);
+    settings.add(SETTINGS_LEVEL_7);
+    settings.add(BOSS_SETTINGS_LEVEL_1);
+    settings.add(BOSS_SETTINGS_LEVEL_2);
+    settings.add(BOSS_SETTINGS_LEVEL_3);
+    settings.add(BOSS_SETTINGS_LEVEL_4);
+    settings.add(BOSS_SETTINGS_LEVEL_5);
+    settings.add(BOSS_SETTINGS_LEVEL_6);
+    settings.add(BOSS_SETTINGS_LEVEL_7);
+    return Collections.unmodifiableList(settings);
+  }
+
+  /**
+   * Controls access to the timer wheel.
+   *
+   * @return Timer wheel of the current game context, advanced by the running screen.
+   */
+  public static TimerWheel getTimerWheel() {
+    return GameContext.current().getTimerWheel();
+  }
+
+  /**
+   * Gives the current game context an empty timer wheel, when a level starts.
+   */
+  public static void resetTimerWheel() {
+    GameContext.current().resetTimerWheel();
+  }
+
+  /**
+   * Controls access to the replay recorder.
+   *
+   * @return Recorder of the games played, null if not recording.
+   */
+  public static ReplayRecorder getReplayRecorder() {
+    return GameContext.current().getReplayRecorder();
+  }
+
+  /**
+   * Records the games played from now on, or stops recording. The game clock must have a fixed
+   * step for the replay to be reproducible.
+   *
+   * @param recorder Recorder to use, null to stop recording.
+   */
+  public static void setReplayRecorder(final ReplayRecorder recorder) {
+    GameContext.current().setReplayRecorder(recorder);
   }
-}
\ No newline at end of file
+}
@@ -14,7 +14,6 @@ import java.util.logging.Logger;
 
 import screen.Screen;
 import entity.Entity;
-import entity.Ship;
 
 /**
  * Manages screen drawing.
@@ -23,14 +22,10 @@ import entity.Ship;
  */
 public final class DrawManager {
 
-  /**
-   * Singleton instance of the class.
-   */
-  private static DrawManager instance;
   /**
    * Current frame.
    */
-  private static Frame frame;
+  private Frame frame;
   /**
    * FileManager instance.
    */
@@ -42,15 +37,15 @@ public final class DrawManager {
   /**
    * Graphics context.
    */
-  private static Graphics graphics;
+  private Graphics graphics;
   /**
    * Buffer Graphics.
    */
-  private static Graphics backBufferGraphics;
+  private Graphics backBufferGraphics;
   /**
    * Buffer image.
    */
-  private static BufferedImage backBuffer;
+  private BufferedImage backBuffer;
   /**
    * Normal sized font.
    */
@@ -58,7 +53,7 @@ public final class DrawManager {
   /**
    * Normal sized font properties.
    */
-  private static FontMetrics fontRegularMetrics;
+  private FontMetrics fontRegularMetrics;
   /**
    * Big sized font.
    */
@@ -66,10 +61,10 @@ public final class DrawManager {
   /**
    * Big sized font properties.
    */
-  private static FontMetrics fontBigMetrics;
+  private FontMetrics fontBigMetrics;
 
   /**
-   * Sprite types mapped to their images.
+   * Sprite types mapped to their images, loaded once and shared by every draw manager.
    */
   private static Map<SpriteType, boolean[][]> spriteMap;
 
@@ -140,9 +135,19 @@ public final class DrawManager {
   ;
 
   /**
-   * Private constructor.
+   * Constructor, one per game context.
    */
-  private DrawManager() {
+  DrawManager() {
+    loadResources();
+  }
+
+  /**
+   * Loads the sprites and fonts, the first time a draw manager is created.
+   */
+  private static synchronized void loadResources() {
+    if (spriteMap != null) {
+      return;
+    }
     fileManager = Core.getFileManager();
     logger = Core.getLogger();
     logger.info("Started loading resources.");
@@ -183,18 +188,6 @@ public final class DrawManager {
     }
   }
 
-  /**
-   * Returns shared instance of DrawManager.
-   *
-   * @return Shared instance of DrawManager.
-   */
-  protected static DrawManager getInstance() {
-    if (instance == null) {
-      instance = new DrawManager();
-    }
-    return instance;
-  }
-
   /**
    * Sets the frame to draw the image on.
    *
@@ -240,6 +233,7 @@ public final class DrawManager {
       graphics.drawImage(backBuffer, frame.getInsets().left,
           frame.getInsets().top, frame);
     }
+    LatencyProbe.getInstance().presented();
   }
 
   /**
@@ -251,9 +245,22 @@ public final class DrawManager {
    */
   public void drawEntity(final Entity entity, final int positionX,
       final int positionY) {
-    boolean[][] image = spriteMap.get(entity.getSpriteType());
+    drawSprite(entity.getSpriteType(), entity.getColor(), positionX, positionY);
+  }
+
+  /**
+   * Draws a sprite that no entity stands for, e.g. the lives left.
+   *
+   * @param spriteType Sprite to draw.
+   * @param color      Color of the sprite.
+   * @param positionX  Coordinates for the left side of the image.
+   * @param positionY  Coordinates for the upper side of the image.
+   */
+  public void drawSprite(final SpriteType spriteType, final Color color,
+      final int positionX, final int positionY) {
+    boolean[][] image = spriteMap.get(spriteType);
 
-    backBufferGraphics.setColor(entity.getColor());
+    backBufferGraphics.setColor(color);
     for (int i = 0; i < image.length; i++) {
       for (int j = 0; j < image[i].length; j++) {
         if (image[i][j]) {
@@ -319,9 +326,8 @@ public final class DrawManager {
     backBufferGraphics.setFont(fontRegular);
     backBufferGraphics.setColor(Color.WHITE);
     backBufferGraphics.drawString(Integer.toString(lives), 20, 25);
-    Ship dummyShip = new Ship(0, 0);
     for (int i = 0; i < lives; i++) {
-      drawEntity(dummyShip, 40 + 35 * i, 10);
+      drawSprite(SpriteType.Ship, Color.GREEN, 40 + 35 * i, 10);
     }
   }
 
@@ -15,6 +15,9 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.net.URLDecoder;
 import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -41,7 +44,11 @@ public final class FileManager {
   /**
    * Max number of high scores.
    */
-  private static final int MAX_SCORES = 7;
+  static final int MAX_SCORES = 7;
+  /**
+   * Directory user data is saved to, next to the jar. Resolved on first use.
+   */
+  private File dataDirectory;
 
   /**
    * private constructor.
@@ -149,6 +156,44 @@ public final class FileManager {
     return font;
   }
 
+  /**
+   * Returns the directory user data is saved to, next to the jar. The jar location is only resolved
+   * once.
+   *
+   * @return User data directory.
+   * @throws IOException In case the jar path can't be decoded.
+   */
+  public File getDataDirectory() throws IOException {
+    if (this.dataDirectory == null) {
+      String jarPath = FileManager.class.getProtectionDomain()
+          .getCodeSource().getLocation().getPath();
+      jarPath = URLDecoder.decode(jarPath, "UTF-8");
+
+      this.dataDirectory = new File(jarPath).getParentFile();
+    }
+    return this.dataDirectory;
+  }
+
+  /**
+   * Saves user data to another directory instead, e.g. to keep test or soak runs away from the
+   * player's scores. Must be called before anything is loaded.
+   *
+   * @param directory User data directory.
+   */
+  public void setDataDirectory(final File directory) {
+    this.dataDirectory = directory;
+  }
+
+  /**
+   * Returns the user high scores file.
+   *
+   * @return User high scores file.
+   * @throws IOException In case the jar path can't be decoded.
+   */
+  private File getScoresFile() throws IOException {
+    return new File(getDataDirectory(), "scores");
+  }
+
   /**
    * Returns the application default scores if there is no user high scores file.
    *
@@ -197,16 +242,7 @@ public final class FileManager {
     BufferedReader bufferedReader = null;
 
     try {
-      String jarPath = FileManager.class.getProtectionDomain()
-          .getCodeSource().getLocation().getPath();
-      jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-      String scoresPath = new File(jarPath).getParent();
-      scoresPath += File.separator;
-      scoresPath += "scores";
-
-      File scoresFile = new File(scoresPath);
-      inputStream = new FileInputStream(scoresFile);
+      inputStream = new FileInputStream(getScoresFile());
       bufferedReader = new BufferedReader(new InputStreamReader(
           inputStream, Charset.forName("UTF-8")));
 
@@ -238,32 +274,21 @@ public final class FileManager {
   }
 
   /**
-   * Saves user high scores to disk.
+   * Saves user high scores to disk. Scores are written to a temporary file which then replaces the
+   * previous one, so a crash mid-write never leaves a truncated scores file.
    *
    * @param highScores High scores to save.
    * @throws IOException In case of loading problems.
    */
   public void saveHighScores(final List<Score> highScores)
       throws IOException {
+    File scoresFile = getScoresFile();
+    File tempFile = new File(scoresFile.getPath() + ".tmp");
     OutputStream outputStream = null;
     BufferedWriter bufferedWriter = null;
 
     try {
-      String jarPath = FileManager.class.getProtectionDomain()
-          .getCodeSource().getLocation().getPath();
-      jarPath = URLDecoder.decode(jarPath, "UTF-8");
-
-      String scoresPath = new File(jarPath).getParent();
-      scoresPath += File.separator;
-      scoresPath += "scores";
-
-      File scoresFile = new File(scoresPath);
-
-      if (!scoresFile.exists()) {
-        scoresFile.createNewFile();
-      }
-
-      outputStream = new FileOutputStream(scoresFile);
+      outputStream = new FileOutputStream(tempFile);
       bufferedWriter = new BufferedWriter(new OutputStreamWriter(
           outputStream, Charset.forName("UTF-8")));
 
@@ -285,7 +310,17 @@ public final class FileManager {
     } finally {
       if (bufferedWriter != null) {
         bufferedWriter.close();
+      } else if (outputStream != null) {
+        outputStream.close();
       }
     }
+
+    try {
+      Files.move(tempFile.toPath(), scoresFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tempFile.toPath(), scoresFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
   }
 }
@@ -12,7 +12,7 @@ import screen.Screen;
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  */
 @SuppressWarnings("serial")
-public class Frame extends JFrame {
+public class Frame extends JFrame implements ScreenHost {
 
   /**
    * Frame width.
@@ -61,6 +61,17 @@ public class Frame extends JFrame {
     return currentScreen.run();
   }
 
+  /**
+   * Runs a screen that is already initialized, e.g. one restored from a save.
+   *
+   * @param screen Screen to show.
+   * @return Return code of the finished screen.
+   */
+  public final int resumeScreen(final Screen screen) {
+    currentScreen = screen;
+    return currentScreen.run();
+  }
+
   /**
    * Getter for frame width.
    *
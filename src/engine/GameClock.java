@@ -0,0 +1,20 @@
+package engine;
+
+/**
+ * Monotonic game time, sampled once per tick so every cooldown checked during a tick sees the same
+ * time.
+ */
+public interface GameClock {
+
+  /**
+   * Advances the clock to the next tick. Called at the start of every tick.
+   */
+  void tick();
+
+  /**
+   * Returns the time of the current tick.
+   *
+   * @return Milliseconds since the clock started.
+   */
+  long millis();
+}
@@ -0,0 +1,186 @@
+package engine;
+
+import entity.BulletPool;
+import entity.World;
+
+/**
+ * Mutable state of one game: clock, timers, input, drawing, bullets in play and recycled, and
+ * replay recorder.
+ * Core hands out the context of the calling thread, the default one unless the thread installed
+ * its own, so several games can run at once on different threads without sharing any of it.
+ *
+ * <p>The window, the event thread and the game loop of the application all use the default
+ * context. Runners playing games in parallel install a new context on each worker thread.
+ */
+public final class GameContext {
+
+  /**
+   * Context of the threads that didn't install one.
+   */
+  private static final GameContext DEFAULT = new GameContext(new RealTimeClock());
+  /**
+   * Context installed by each thread, null for the default one.
+   */
+  private static final ThreadLocal<GameContext> CURRENT = new ThreadLocal<GameContext>();
+
+  /**
+   * Clock all cooldowns are measured with.
+   */
+  private GameClock clock;
+  /**
+   * Timers of the entities of the level in play, advanced with the game clock.
+   */
+  private TimerWheel timerWheel;
+  /**
+   * Keyboard or bot input of the game.
+   */
+  private final InputManager inputManager;
+  /**
+   * Components of the entities in play.
+   */
+  private final World world;
+  /**
+   * Bullets recycled between levels.
+   */
+  private final BulletPool bulletPool;
+  /**
+   * Draws the screens, created the first time it is needed.
+   */
+  private DrawManager drawManager;
+  /**
+   * Recorder of the games played, null if not recording.
+   */
+  private ReplayRecorder replayRecorder;
+
+  /**
+   * Constructor.
+   *
+   * @param gameClock Clock of the game.
+   */
+  public GameContext(final GameClock gameClock) {
+    this.clock = gameClock;
+    this.timerWheel = new TimerWheel(gameClock.millis());
+    this.inputManager = new InputManager();
+    this.world = new World();
+    this.bulletPool = new BulletPool();
+  }
+
+  /**
+   * Returns the context of the calling thread.
+   *
+   * @return Context installed by the thread, or the default one.
+   */
+  public static GameContext current() {
+    GameContext context = CURRENT.get();
+    return context != null ? context : DEFAULT;
+  }
+
+  /**
+   * Makes this the context of the calling thread, until uninstall() is called.
+   */
+  public void install() {
+    CURRENT.set(this);
+  }
+
+  /**
+   * Gives the calling thread the default context back. The thread's entry is kept, so switching
+   * contexts every tick doesn't allocate.
+   */
+  public static void uninstall() {
+    CURRENT.set(null);
+  }
+
+  /**
+   * Returns the game clock.
+   *
+   * @return Clock ticked by the running screen.
+   */
+  public GameClock getClock() {
+    return this.clock;
+  }
+
+  /**
+   * Replaces the game clock. Cooldowns created before keep the previous clock.
+   *
+   * @param gameClock New game clock.
+   */
+  public void setClock(final GameClock gameClock) {
+    this.clock = gameClock;
+    this.timerWheel.rebase(gameClock.millis());
+  }
+
+  /**
+   * Returns the timer wheel.
+   *
+   * @return Timer wheel advanced by the running screen.
+   */
+  public TimerWheel getTimerWheel() {
+    return this.timerWheel;
+  }
+
+  /**
+   * Replaces the timer wheel with an empty one when a level starts. The timers of the previous
+   * level's entities, e.g. the animation of enemies left alive, are dropped with the old wheel
+   * instead of running forever.
+   */
+  public void resetTimerWheel() {
+    this.timerWheel = new TimerWheel(this.clock.millis());
+  }
+
+  /**
+   * Returns the input manager.
+   *
+   * @return Input of the game.
+   */
+  public InputManager getInputManager() {
+    return this.inputManager;
+  }
+
+  /**
+   * Returns the world.
+   *
+   * @return Components of the entities in play.
+   */
+  public World getWorld() {
+    return this.world;
+  }
+
+  /**
+   * Returns the bullet pool.
+   *
+   * @return Bullets recycled by the game.
+   */
+  public BulletPool getBulletPool() {
+    return this.bulletPool;
+  }
+
+  /**
+   * Returns the draw manager, loading the shared sprites and fonts the first time.
+   *
+   * @return Draw manager of the game.
+   */
+  public DrawManager getDrawManager() {
+    if (this.drawManager == null) {
+      this.drawManager = new DrawManager();
+    }
+    return this.drawManager;
+  }
+
+  /**
+   * Returns the replay recorder.
+   *
+   * @return Recorder of the games played, null if not recording.
+   */
+  public ReplayRecorder getReplayRecorder() {
+    return this.replayRecorder;
+  }
+
+  /**
+   * Records the games played from now on, or stops recording.
+   *
+   * @param recorder Recorder to use, null to stop recording.
+   */
+  public void setReplayRecorder(final ReplayRecorder recorder) {
+    this.replayRecorder = recorder;
+  }
+}
@@ -0,0 +1,119 @@
+package engine;
+
+/**
+ * Random number generator for gameplay, SplitMix64. Each game owns its own instance seeded from
+ * GameState, so a run can be reproduced from its seed and parallel simulations never contend on a
+ * shared seed. Unlike SplittableRandom, its state can be read and restored for snapshots.
+ */
+public final class GameRandom {
+
+  /**
+   * Increment of the state per number, the 64 bit golden ratio.
+   */
+  private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+  /**
+   * Current state.
+   */
+  private long state;
+
+  /**
+   * Constructor, with an arbitrary seed.
+   */
+  public GameRandom() {
+    this(newSeed());
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param seed Seed, the same seed gives the same numbers.
+   */
+  public GameRandom(final long seed) {
+    this.state = seed;
+  }
+
+  /**
+   * Creates an independent generator for a part of the game, e.g. a level, so each part can be
+   * reproduced on its own.
+   *
+   * @param seed   Seed of the game.
+   * @param stream Number of the part.
+   * @return Generator for the part.
+   */
+  public static GameRandom forStream(final long seed, final long stream) {
+    return new GameRandom(mix(seed + mix(stream * GOLDEN_GAMMA)));
+  }
+
+  /**
+   * Returns an arbitrary seed for a new game.
+   *
+   * @return Seed.
+   */
+  public static long newSeed() {
+    return mix(System.nanoTime() ^ Thread.currentThread().getId() * GOLDEN_GAMMA);
+  }
+
+  /**
+   * Returns the next pseudorandom number.
+   *
+   * @return Uniformly distributed long.
+   */
+  public long nextLong() {
+    this.state += GOLDEN_GAMMA;
+    return mix(this.state);
+  }
+
+  /**
+   * Returns a pseudorandom number in a range.
+   *
+   * @param bound Upper bound, exclusive, positive.
+   * @return Number between 0 and bound - 1.
+   */
+  public int nextInt(final int bound) {
+    if (bound <= 0) {
+      throw new IllegalArgumentException("bound must be positive: " + bound);
+    }
+    return (int) (((nextLong() >>> 32) * bound) >>> 32);
+  }
+
+  /**
+   * Returns a pseudorandom number between 0 and 1.
+   *
+   * @return Number in [0, 1).
+   */
+  public double nextDouble() {
+    return (nextLong() >>> 11) * 0x1.0p-53;
+  }
+
+  /**
+   * Returns the state, to restore the sequence later.
+   *
+   * @return Current state.
+   */
+  public long getState() {
+    return this.state;
+  }
+
+  /**
+   * Restores a state returned by getState().
+   *
+   * @param state State to continue from.
+   */
+  public void setState(final long state) {
+    this.state = state;
+  }
+
+  /**
+   * SplitMix64 finalizer.
+   *
+   * @param value Value to mix.
+   * @return Mixed value.
+   */
+  private static long mix(final long value) {
+    long z = value;
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
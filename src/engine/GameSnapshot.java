@@ -0,0 +1,294 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import screen.GameScreen;
+
+/**
+ * Saves a game in progress to a compact binary file and restores it. A save holds the game state
+ * of the screen to play next, and optionally the whole world of a level in play, written with
+ * GameScreen.saveState().
+ *
+ * <p>Saves are encoded in a buffer reused between calls and written with a single channel write,
+ * well under a millisecond, so they can be taken on the game thread. The file is replaced
+ * atomically, a crash while saving leaves the previous save.
+ */
+public final class GameSnapshot {
+
+  /**
+   * Name of the save file.
+   */
+  public static final String SAVE_FILE = "save.bin";
+
+  /**
+   * File header, "IVSV".
+   */
+  private static final int MAGIC = 0x49565356;
+  /**
+   * Version of the file format.
+   */
+  private static final int VERSION = 3;
+  /**
+   * Largest save.
+   */
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  /**
+   * Save file.
+   */
+  private final Path file;
+  /**
+   * File written first, then moved over the save.
+   */
+  private final Path tempFile;
+  /**
+   * Buffer the saves are encoded in and read from, reused.
+   */
+  private final ByteBuffer buffer;
+
+  /**
+   * Game state of the save loaded.
+   */
+  private GameState gameState;
+  /**
+   * Boss stage of the screen saved, 0 for a regular level.
+   */
+  private int bossStage;
+  /**
+   * If the screen saved grants an extra life.
+   */
+  private boolean bonusLife;
+  /**
+   * Speed of the ship.
+   */
+  private int shipSpeed;
+  /**
+   * Speed of the ship's bullets.
+   */
+  private int bulletSpeed;
+  /**
+   * If the save holds the world of a level in play.
+   */
+  private boolean world;
+
+  /**
+   * Constructor.
+   *
+   * @param file Save file.
+   */
+  public GameSnapshot(final Path file) {
+    this.file = file;
+    this.tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  }
+
+  /**
+   * Saves a level in play, with its whole world.
+   *
+   * @param screen Screen of the level, initialized.
+   * @throws IOException In case of saving problems.
+   */
+  public void save(final GameScreen screen) throws IOException {
+    this.buffer.clear();
+    try {
+      putHeader(screen.getGameState(), screen.getBossStage(),
+          screen.isBonusLife(), screen.getShip().getSpeed(),
+          screen.getShip().getBulletSpeed(), true);
+      screen.saveState(this.buffer);
+    } catch (BufferOverflowException e) {
+      throw new IOException("Game too large to save.", e);
+    }
+    write();
+  }
+
+  /**
+   * Saves the game between two screens, to be continued from the start of the next one.
+   *
+   * @param next        Game state for the next screen.
+   * @param bossStage   Boss stage of the next screen, 0 for a regular level.
+   * @param bonusLife   If the next screen grants an extra life.
+   * @param shipSpeed   Speed of the ship.
+   * @param bulletSpeed Speed of the ship's bullets.
+   * @throws IOException In case of saving problems.
+   */
+  public void save(final GameState next, final int bossStage,
+      final boolean bonusLife, final int shipSpeed, final int bulletSpeed)
+      throws IOException {
+    this.buffer.clear();
+    putHeader(next, bossStage, bonusLife, shipSpeed, bulletSpeed, false);
+    write();
+  }
+
+  /**
+   * Reads the save file.
+   *
+   * @return False if there is no save.
+   * @throws IOException In case of loading problems, or if it is not a save.
+   */
+  public boolean load() throws IOException {
+    if (!Files.exists(this.file)) {
+      return false;
+    }
+    this.buffer.clear();
+    try (FileChannel channel = FileChannel.open(this.file,
+        StandardOpenOption.READ)) {
+      if (channel.size() > BUFFER_SIZE) {
+        throw new IOException("Save too large.");
+      }
+      while (channel.read(this.buffer) > 0) {
+        continue;
+      }
+    }
+    this.buffer.flip();
+    if (this.buffer.remaining() < 8 || this.buffer.getInt() != MAGIC
+        || this.buffer.getInt() != VERSION) {
+      throw new IOException("Not a save, or from another version.");
+    }
+
+    int level = this.buffer.getInt();
+    this.bossStage = this.buffer.getInt();
+    long seed = this.buffer.getLong();
+    int score = this.buffer.getInt();
+    int lives = this.buffer.getInt();
+    int bulletsShot = this.buffer.getInt();
+    int shipsDestroyed = this.buffer.getInt();
+    int hpBuffs = this.buffer.getInt();
+    int shipSpeedBuffs = this.buffer.getInt();
+    int bulletSpeedBuffs = this.buffer.getInt();
+    this.gameState = new GameState(level, score, lives, bulletsShot,
+        shipsDestroyed, seed, hpBuffs, shipSpeedBuffs, bulletSpeedBuffs);
+    this.bonusLife = this.buffer.get() != 0;
+    this.shipSpeed = this.buffer.getInt();
+    this.bulletSpeed = this.buffer.getInt();
+    this.world = this.buffer.get() != 0;
+    return true;
+  }
+
+  /**
+   * Creates the screen of a loaded save, initialized and with its world restored. Run it without
+   * initializing it again.
+   *
+   * @param width  Screen width.
+   * @param height Screen height.
+   * @param fps    Frames per second.
+   * @return Screen to continue.
+   */
+  public GameScreen restore(final int width, final int height, final int fps) {
+    GameScreen screen = new GameScreen(this.gameState,
+        Core.getGameSettings(this.gameState.getLevel(), this.bossStage),
+        this.bonusLife, width, height, fps);
+    screen.initialize();
+    screen.getShip().setSpeed(this.shipSpeed);
+    screen.getShip().setBulletSpeed(this.bulletSpeed);
+    if (this.world) {
+      screen.loadState(this.buffer);
+    }
+    return screen;
+  }
+
+  /**
+   * Deletes the save, e.g. once the game is over.
+   *
+   * @throws IOException In case of saving problems.
+   */
+  public void delete() throws IOException {
+    Files.deleteIfExists(this.file);
+  }
+
+  /**
+   * Returns the game state of the loaded save.
+   *
+   * @return Game state of the screen saved.
+   */
+  public GameState getGameState() {
+    return this.gameState;
+  }
+
+  /**
+   * Returns the boss stage of the loaded save.
+   *
+   * @return Boss stage, 0 for a regular level.
+   */
+  public int getBossStage() {
+    return this.bossStage;
+  }
+
+  /**
+   * Checks if the screen of the loaded save grants an extra life.
+   *
+   * @return True with a bonus life.
+   */
+  public boolean isBonusLife() {
+    return this.bonusLife;
+  }
+
+  /**
+   * Checks if the loaded save holds the world of a level in play.
+   *
+   * @return True for a level in play, false for the start of a screen.
+   */
+  public boolean hasWorld() {
+    return this.world;
+  }
+
+  /**
+   * Writes the save header.
+   *
+   * @param state     Game state.
+   * @param stage     Boss stage.
+   * @param bonus     If the screen grants an extra life.
+   * @param speed     Speed of the ship.
+   * @param shotSpeed Speed of the ship's bullets.
+   * @param withWorld If the world follows.
+   */
+  private void putHeader(final GameState state, final int stage,
+      final boolean bonus, final int speed, final int shotSpeed,
+      final boolean withWorld) {
+    this.buffer.putInt(MAGIC);
+    this.buffer.putInt(VERSION);
+    this.buffer.putInt(state.getLevel());
+    this.buffer.putInt(stage);
+    this.buffer.putLong(state.getSeed());
+    this.buffer.putInt(state.getScore());
+    this.buffer.putInt(state.getLivesRemaining());
+    this.buffer.putInt(state.getBulletsShot());
+    this.buffer.putInt(state.getShipsDestroyed());
+    this.buffer.putInt(state.getHpBuffs());
+    this.buffer.putInt(state.getShipSpeedBuffs());
+    this.buffer.putInt(state.getBulletSpeedBuffs());
+    this.buffer.put((byte) (bonus ? 1 : 0));
+    this.buffer.putInt(speed);
+    this.buffer.putInt(shotSpeed);
+    this.buffer.put((byte) (withWorld ? 1 : 0));
+  }
+
+  /**
+   * Writes the buffer to the save file.
+   *
+   * @throws IOException In case of saving problems.
+   */
+  private void write() throws IOException {
+    this.buffer.flip();
+    try (FileChannel channel = FileChannel.open(this.tempFile,
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      while (this.buffer.hasRemaining()) {
+        channel.write(this.buffer);
+      }
+    }
+    try {
+      Files.move(this.tempFile, this.file,
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(this.tempFile, this.file, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+}
@@ -27,6 +27,22 @@ public class GameState {
    * Ships destroyed until now.
    */
   private int shipsDestroyed;
+  /**
+   * Seed of the game's random numbers.
+   */
+  private long seed;
+  /**
+   * Extra life buffs picked until now.
+   */
+  private int hpBuffs;
+  /**
+   * Ship speed buffs picked until now.
+   */
+  private int shipSpeedBuffs;
+  /**
+   * Bullet speed buffs picked until now.
+   */
+  private int bulletSpeedBuffs;
 
   /**
    * Constructor.
@@ -40,11 +56,63 @@ public class GameState {
   public GameState(final int level, final int score,
       final int livesRemaining, final int bulletsShot,
       final int shipsDestroyed) {
+    this(level, score, livesRemaining, bulletsShot, shipsDestroyed,
+        GameRandom.newSeed());
+  }
+
+  /**
+   * Constructor, for a game with a known seed.
+   *
+   * @param level          Current game level.
+   * @param score          Current score.
+   * @param livesRemaining Lives currently remaining.
+   * @param bulletsShot    Bullets shot until now.
+   * @param shipsDestroyed Ships destroyed until now.
+   * @param seed           Seed of the game's random numbers.
+   */
+  public GameState(final int level, final int score,
+      final int livesRemaining, final int bulletsShot,
+      final int shipsDestroyed, final long seed) {
+    this(level, score, livesRemaining, bulletsShot, shipsDestroyed, seed, 0, 0, 0);
+  }
+
+  /**
+   * Constructor, for a game with a known seed and buffs already picked.
+   *
+   * @param level            Current game level.
+   * @param score            Current score.
+   * @param livesRemaining   Lives currently remaining.
+   * @param bulletsShot      Bullets shot until now.
+   * @param shipsDestroyed   Ships destroyed until now.
+   * @param seed             Seed of the game's random numbers.
+   * @param hpBuffs          Extra life buffs picked until now.
+   * @param shipSpeedBuffs   Ship speed buffs picked until now.
+   * @param bulletSpeedBuffs Bullet speed buffs picked until now.
+   */
+  public GameState(final int level, final int score,
+      final int livesRemaining, final int bulletsShot,
+      final int shipsDestroyed, final long seed, final int hpBuffs,
+      final int shipSpeedBuffs, final int bulletSpeedBuffs) {
     this.level = level;
     this.score = score;
     this.livesRemaining = livesRemaining;
     this.bulletsShot = bulletsShot;
     this.shipsDestroyed = shipsDestroyed;
+    this.seed = seed;
+    this.hpBuffs = hpBuffs;
+    this.shipSpeedBuffs = shipSpeedBuffs;
+    this.bulletSpeedBuffs = bulletSpeedBuffs;
+  }
+
+  /**
+   * Returns the state at the start of the next level.
+   *
+   * @return Same game, one level further.
+   */
+  public final GameState nextLevel() {
+    return new GameState(this.level + 1, this.score, this.livesRemaining,
+        this.bulletsShot, this.shipsDestroyed, this.seed, this.hpBuffs,
+        this.shipSpeedBuffs, this.bulletSpeedBuffs);
   }
 
   /**
@@ -82,4 +150,32 @@ public class GameState {
     return shipsDestroyed;
   }
 
-}
+
+  /**
+   * @return the seed
+   */
+  public final long getSeed() {
+    return seed;
+  }
+
+  /**
+   * @return the hpBuffs
+   */
+  public final int getHpBuffs() {
+    return hpBuffs;
+  }
+
+  /**
+   * @return the shipSpeedBuffs
+   */
+  public final int getShipSpeedBuffs() {
+    return shipSpeedBuffs;
+  }
+
+  /**
+   * @return the bulletSpeedBuffs
+   */
+  public final int getBulletSpeedBuffs() {
+    return bulletSpeedBuffs;
+  }
+}
\ No newline at end of file
@@ -0,0 +1,159 @@
+package engine;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import screen.GameScreen;
+
+/**
+ * Runs whole games without window, rendering, sound nor frame pacing, on a manual clock, as fast as
+ * the CPU allows, played by the Bot from the command line. Used for balance testing and soak runs.
+ *
+ * <p>Usage: {@code java -cp Invaders.jar engine.HeadlessRunner [games [seed]]}, or
+ * {@code java -jar Invaders.jar --headless [games [seed]]}.
+ */
+public final class HeadlessRunner {
+
+  /**
+   * Games played by default.
+   */
+  private static final int DEFAULT_GAMES = 1;
+  /**
+   * Nanoseconds per second.
+   */
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  /**
+   * Clock the games run on.
+   */
+  private final ManualClock clock;
+  /**
+   * Computer player, null to leave the input alone.
+   */
+  private Bot bot;
+
+  /**
+   * Constructor, plays on the manual clock of the current game context, see install().
+   *
+   * @throws IllegalStateException If the game is not headless on a manual clock.
+   */
+  public HeadlessRunner() {
+    if (!Core.isHeadless() || !(Core.getClock() instanceof ManualClock)) {
+      throw new IllegalStateException(
+          "Not headless on a manual clock, see HeadlessRunner.install().");
+    }
+    this.clock = (ManualClock) Core.getClock();
+  }
+
+  /**
+   * Switches the game to headless mode, on a new manual clock in the current game context.
+   *
+   * @return Runner playing on that clock.
+   */
+  public static HeadlessRunner install() {
+    Core.setHeadless(true);
+    Core.setClock(new ManualClock(1000 / Core.FPS));
+    return new HeadlessRunner();
+  }
+
+  /**
+   * Plays the given number of games and reports the simulation speed.
+   *
+   * @param args Number of games and seed of the first game, both optional. Game n is played with
+   *             seed + n - 1.
+   */
+  public static void main(final String[] args) {
+    int games = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_GAMES;
+    long seed = args.length > 1 ? Long.parseLong(args[1]) : GameRandom.newSeed();
+    Logger logger = Core.getLogger();
+    // Per enemy logging would dominate the run time.
+    logger.setLevel(Level.WARNING);
+
+    HeadlessRunner runner = HeadlessRunner.install();
+    runner.setBot(new Bot());
+    long start = System.nanoTime();
+    long startTicks = runner.getTicks();
+    for (int game = 1; game <= games; game++) {
+      long gameTicks = runner.getTicks();
+      GameState gameState = runner.playGame(seed + game - 1);
+      System.out.println("Game " + game + " (seed " + gameState.getSeed() + "): score "
+          + gameState.getScore() + ", ended on level " + (gameState.getLevel() - 1) + ", "
+          + gameState.getShipsDestroyed() + " ships destroyed, "
+          + (runner.getTicks() - gameTicks) + " ticks.");
+    }
+
+    long ticks = runner.getTicks() - startTicks;
+    double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+    System.out.println(String.format(
+        "%d ticks in %.2f s: %.0f ticks/s, %.1fx real time.", ticks, seconds,
+        ticks / seconds, ticks / seconds / Core.FPS));
+  }
+
+  /**
+   * Plays a game from the first level until the ship is out of lives or every level is cleared.
+   *
+   * @param seed Seed of the game, the same seed plays the same game.
+   * @return Final game state.
+   */
+  public GameState playGame(final long seed) {
+    List<GameSettings> settings = Core.getGameSettings();
+    GameState gameState = new GameState(1, 0, Core.MAX_LIVES, 0, 0, seed);
+    do {
+      // One extra live every few levels.
+      boolean bonusLife = gameState.getLevel()
+          % Core.EXTRA_LIFE_FRECUENCY == 0
+          && gameState.getLivesRemaining() < Core.MAX_LIVES;
+
+      gameState = playLevel(gameState,
+          settings.get(gameState.getLevel() - 1), bonusLife);
+      if (gameState.getLivesRemaining() > 0) {
+        gameState = playLevel(gameState,
+            settings.get(gameState.getLevel() + Core.NUM_LEVELS - 1), bonusLife);
+      }
+      gameState = gameState.nextLevel();
+
+    } while (gameState.getLivesRemaining() > 0
+        && gameState.getLevel() <= Core.NUM_LEVELS);
+    return gameState;
+  }
+
+  /**
+   * Plays a level to its end.
+   *
+   * @param gameState    State at the start of the level.
+   * @param gameSettings Difficulty of the level.
+   * @param bonusLife    If the level grants an extra life.
+   * @return State at the end of the level.
+   */
+  public GameState playLevel(final GameState gameState,
+      final GameSettings gameSettings, final boolean bonusLife) {
+    GameScreen screen = new GameScreen(gameState, gameSettings, bonusLife,
+        Core.WIDTH, Core.HEIGHT, Core.FPS);
+    screen.initialize();
+    if (this.bot != null) {
+      this.bot.watch(screen);
+    }
+    screen.run();
+    return screen.getGameState();
+  }
+
+  /**
+   * Lets a computer player play the levels.
+   *
+   * @param player Computer player, null to give the input back to the keyboard.
+   */
+  public void setBot(final Bot player) {
+    this.bot = player;
+    Core.getInputManager().setInputSource(player);
+  }
+
+  /**
+   * Returns the ticks simulated so far.
+   *
+   * @return Ticks of the manual clock.
+   */
+  public long getTicks() {
+    return this.clock.millis() / this.clock.getStep();
+  }
+}
@@ -0,0 +1,159 @@
+package engine;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Logger;
+
+/**
+ * Keeps the high scores in memory. They are loaded from disk once, reads never touch the disk and
+ * changes are persisted in the background.
+ */
+public final class HighScoreRepository {
+
+  /**
+   * Time to wait for pending writes when closing, in seconds.
+   */
+  private static final int CLOSE_TIMEOUT = 5;
+
+  /**
+   * Singleton instance of the class.
+   */
+  private static HighScoreRepository instance;
+  /**
+   * Application logger.
+   */
+  private Logger logger;
+  /**
+   * Top scores, sorted descending and never longer than FileManager.MAX_SCORES. Replaced as a whole
+   * on every change, so readers can use it without locking.
+   */
+  private volatile List<Score> highScores;
+  /**
+   * Latest scores waiting to be written, null if there is nothing to write.
+   */
+  private final AtomicReference<List<Score>> pendingWrite;
+  /**
+   * Background thread writing the scores to disk.
+   */
+  private final ExecutorService writer;
+
+  /**
+   * Private constructor, loads the scores from disk.
+   */
+  private HighScoreRepository() {
+    this.logger = Core.getLogger();
+    this.pendingWrite = new AtomicReference<List<Score>>();
+    this.writer = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "high-score-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    List<Score> loaded;
+    try {
+      loaded = Core.getFileManager().loadHighScores();
+    } catch (NumberFormatException | IOException e) {
+      logger.warning("Couldn't load high scores!");
+      loaded = new ArrayList<Score>();
+    }
+    this.highScores = top(loaded);
+  }
+
+  /**
+   * Returns shared instance of HighScoreRepository.
+   *
+   * @return Shared instance of HighScoreRepository.
+   */
+  protected static synchronized HighScoreRepository getInstance() {
+    if (instance == null) {
+      instance = new HighScoreRepository();
+    }
+    return instance;
+  }
+
+  /**
+   * Getter for the current high scores.
+   *
+   * @return Unmodifiable list of high scores, sorted descending.
+   */
+  public List<Score> getHighScores() {
+    return this.highScores;
+  }
+
+  /**
+   * Checks if a score would make it into the high scores.
+   *
+   * @param score Score to check.
+   * @return True if the score is a new record.
+   */
+  public boolean isNewRecord(final int score) {
+    List<Score> current = this.highScores;
+    return current.size() < FileManager.MAX_SCORES
+        || current.get(current.size() - 1).getScore() < score;
+  }
+
+  /**
+   * Adds a score, keeping only the best ones, and schedules them to be saved.
+   *
+   * @param score Score to add.
+   */
+  public synchronized void addScore(final Score score) {
+    List<Score> updated = new ArrayList<Score>(this.highScores);
+    updated.add(score);
+    this.highScores = top(updated);
+
+    if (this.pendingWrite.getAndSet(this.highScores) == null) {
+      this.writer.execute(this::writePending);
+    }
+  }
+
+  /**
+   * Writes the latest pending scores. Several changes made while a write is queued are saved only
+   * once.
+   */
+  private void writePending() {
+    List<Score> toWrite = this.pendingWrite.getAndSet(null);
+    if (toWrite == null) {
+      return;
+    }
+    try {
+      Core.getFileManager().saveHighScores(toWrite);
+    } catch (IOException e) {
+      logger.warning("Couldn't save high scores!");
+    }
+  }
+
+  /**
+   * Waits for pending writes to be finished, to be called before exiting.
+   */
+  public void close() {
+    this.writer.shutdown();
+    try {
+      if (!this.writer.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS)) {
+        logger.warning("High scores still being saved on exit.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Sorts the scores and keeps the best ones.
+   *
+   * @param scores Scores to sort.
+   * @return Unmodifiable list of the top scores.
+   */
+  private static List<Score> top(final List<Score> scores) {
+    Collections.sort(scores);
+    if (scores.size() > FileManager.MAX_SCORES) {
+      scores.subList(FileManager.MAX_SCORES, scores.size()).clear();
+    }
+    return Collections.unmodifiableList(scores);
+  }
+}
@@ -2,10 +2,15 @@ package engine;
 
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
+import java.util.Arrays;
 
 /**
  * Manages keyboard input for the provided screen.
  *
+ * <p>Key events are stamped and queued by the event thread in a single-producer single-consumer
+ * ring buffer, and applied by the game thread at the start of each tick with beginTick(), so a key
+ * pressed and released between two ticks is still seen.
+ *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  */
 public final class InputManager implements KeyListener {
@@ -13,67 +18,273 @@ public final class InputManager implements KeyListener {
   /**
    * Number of recognised keys.
    */
-  private static final int NUM_KEYS = 256;
+  public static final int NUM_KEYS = 256;
+  /**
+   * Capacity of the event queue. Power of two.
+   */
+  private static final int QUEUE_SIZE = 1024;
+  /**
+   * Flag set in a queued event for a key press.
+   */
+  private static final int PRESSED = 1 << 16;
+
+  /**
+   * Queued events, key code and PRESSED flag.
+   */
+  private final int[] eventKeys;
+  /**
+   * Time of the queued events, in nanoseconds.
+   */
+  private final long[] eventTimes;
+  /**
+   * Events queued so far. Written by the event thread only.
+   */
+  private volatile long head;
+  /**
+   * Events applied so far. Written by the game thread only.
+   */
+  private volatile long tail;
+  /**
+   * Events lost because the queue was full.
+   */
+  private volatile long dropped;
+
+  /**
+   * Keys held down as of the current tick.
+   */
+  private final boolean[] held;
+  /**
+   * Keys pressed during the current tick.
+   */
+  private final boolean[] pressed;
+  /**
+   * Keys released during the current tick.
+   */
+  private final boolean[] released;
+  /**
+   * Time of the last press of each key, in nanoseconds.
+   */
+  private final long[] pressTimes;
+  /**
+   * Events applied during the current tick, key code and PRESSED flag.
+   */
+  private final int[] tickEvents;
   /**
-   * Array with the jeys marked as pressed or not.
+   * Number of events applied during the current tick.
    */
-  private static boolean[] keys;
+  private int tickEventCount;
+  /**
+   * Source of the events replacing the keyboard, null to use the keyboard.
+   */
+  private InputSource source;
+
   /**
-   * Singleton instance of the class.
+   * Constructor, one per game context.
    */
-  private static InputManager instance;
+  InputManager() {
+    this.eventKeys = new int[QUEUE_SIZE];
+    this.eventTimes = new long[QUEUE_SIZE];
+    this.held = new boolean[NUM_KEYS];
+    this.pressed = new boolean[NUM_KEYS];
+    this.released = new boolean[NUM_KEYS];
+    this.pressTimes = new long[NUM_KEYS];
+    this.tickEvents = new int[QUEUE_SIZE];
+  }
 
   /**
-   * Private constructor.
+   * Applies the events queued since the last tick. Called by the game thread at the start of every
+   * tick.
    */
-  private InputManager() {
-    keys = new boolean[NUM_KEYS];
+  public void beginTick() {
+    Arrays.fill(this.pressed, false);
+    Arrays.fill(this.released, false);
+    this.tickEventCount = 0;
+
+    long last = this.head;
+    if (this.source != null) {
+      // The keyboard is ignored while another source plays.
+      this.tail = last;
+      this.source.nextTick(this);
+      return;
+    }
+    for (long event = this.tail; event < last; event++) {
+      int index = (int) (event & (QUEUE_SIZE - 1));
+      applyEvent(this.eventKeys[index] & (NUM_KEYS - 1),
+          (this.eventKeys[index] & PRESSED) != 0, this.eventTimes[index]);
+    }
+    this.tail = last;
   }
 
   /**
-   * Returns shared instance of InputManager.
+   * Applies a key event to the state of the current tick. Called by beginTick() for keyboard
+   * events and by input sources for theirs.
    *
-   * @return Shared instance of InputManager.
+   * @param keyCode Key number.
+   * @param down    True for a press, false for a release.
+   * @param time    Time of the event in System.nanoTime() units.
    */
-  protected static InputManager getInstance() {
-    if (instance == null) {
-      instance = new InputManager();
+  public void applyEvent(final int keyCode, final boolean down, final long time) {
+    if (keyCode < 0 || keyCode >= NUM_KEYS) {
+      return;
+    }
+    if (this.tickEventCount < this.tickEvents.length) {
+      this.tickEvents[this.tickEventCount++] = keyCode | (down ? PRESSED : 0);
+    }
+    if (down) {
+      if (!this.held[keyCode]) {
+        this.pressed[keyCode] = true;
+        this.pressTimes[keyCode] = time;
+      }
+      this.held[keyCode] = true;
+    } else {
+      this.released[keyCode] = true;
+      this.held[keyCode] = false;
     }
-    return instance;
   }
 
   /**
-   * Returns true if the provided key is currently pressed.
+   * Replaces the keyboard with another source of events, or restores it. Keys are released when
+   * switching.
+   *
+   * @param inputSource Source of the events, null for the keyboard.
+   */
+  public void setInputSource(final InputSource inputSource) {
+    this.source = inputSource;
+    Arrays.fill(this.held, false);
+    Arrays.fill(this.pressed, false);
+    Arrays.fill(this.released, false);
+    this.tickEventCount = 0;
+  }
+
+  /**
+   * Returns the number of events applied during the current tick.
+   *
+   * @return Events of the tick.
+   */
+  public int getTickEventCount() {
+    return this.tickEventCount;
+  }
+
+  /**
+   * Returns the key of an event applied during the current tick.
+   *
+   * @param index Number of the event in the tick.
+   * @return Key number.
+   */
+  public int getTickEventKey(final int index) {
+    return this.tickEvents[index] & (NUM_KEYS - 1);
+  }
+
+  /**
+   * Checks if an event applied during the current tick is a press.
+   *
+   * @param index Number of the event in the tick.
+   * @return True for a press, false for a release.
+   */
+  public boolean isTickEventPress(final int index) {
+    return (this.tickEvents[index] & PRESSED) != 0;
+  }
+
+  /**
+   * Returns true if the provided key is held down as of the current tick, ignoring a press and
+   * release within the tick.
+   *
+   * @param keyCode Key number to check.
+   * @return Key state.
+   */
+  public boolean isKeyHeld(final int keyCode) {
+    return this.held[keyCode];
+  }
+
+  /**
+   * Returns true if the provided key is held down, or was pressed during the current tick.
    *
    * @param keyCode Key number to check.
    * @return Key state.
    */
   public boolean isKeyDown(final int keyCode) {
-    return keys[keyCode];
+    return this.held[keyCode] || this.pressed[keyCode];
+  }
+
+  /**
+   * Returns true if the provided key was pressed during the current tick.
+   *
+   * @param keyCode Key number to check.
+   * @return True on the tick the key goes down.
+   */
+  public boolean isKeyPressed(final int keyCode) {
+    return this.pressed[keyCode];
   }
 
   /**
-   * Changes the state of the key to pressed.
+   * Returns true if the provided key was released during the current tick.
+   *
+   * @param keyCode Key number to check.
+   * @return True on the tick the key goes up.
+   */
+  public boolean isKeyReleased(final int keyCode) {
+    return this.released[keyCode];
+  }
+
+  /**
+   * Returns the time the provided key was last pressed.
+   *
+   * @param keyCode Key number to check.
+   * @return Time of the press in System.nanoTime() units, 0 if never pressed.
+   */
+  public long getPressTime(final int keyCode) {
+    return this.pressTimes[keyCode];
+  }
+
+  /**
+   * Returns the number of events lost because the game thread fell behind.
+   *
+   * @return Dropped events.
+   */
+  public long getDroppedEvents() {
+    return this.dropped;
+  }
+
+  /**
+   * Queues a key event. Called by a single producer thread.
+   *
+   * @param keyCode Key number.
+   * @param down    True for a press, false for a release.
+   * @param time    Time of the event in System.nanoTime() units.
+   */
+  void post(final int keyCode, final boolean down, final long time) {
+    if (keyCode < 0 || keyCode >= NUM_KEYS) {
+      return;
+    }
+    long next = this.head;
+    if (next - this.tail == QUEUE_SIZE) {
+      this.dropped++;
+      return;
+    }
+    int index = (int) (next & (QUEUE_SIZE - 1));
+    this.eventKeys[index] = keyCode | (down ? PRESSED : 0);
+    this.eventTimes[index] = time;
+    this.head = next + 1;
+  }
+
+  /**
+   * Queues the key press.
    *
    * @param key Key pressed.
    */
   @Override
   public void keyPressed(final KeyEvent key) {
-    if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS) {
-      keys[key.getKeyCode()] = true;
-    }
+    post(key.getKeyCode(), true, System.nanoTime());
   }
 
   /**
-   * Changes the state of the key to not pressed.
+   * Queues the key release.
    *
    * @param key Key released.
    */
   @Override
   public void keyReleased(final KeyEvent key) {
-    if (key.getKeyCode() >= 0 && key.getKeyCode() < NUM_KEYS) {
-      keys[key.getKeyCode()] = false;
-    }
+    post(key.getKeyCode(), false, System.nanoTime());
   }
 
   /**
@@ -85,4 +296,4 @@ public final class InputManager implements KeyListener {
   public void keyTyped(final KeyEvent key) {
 
   }
-}
\ No newline at end of file
+}
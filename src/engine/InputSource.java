@@ -0,0 +1,15 @@
+package engine;
+
+/**
+ * Supplies key events in place of the keyboard, e.g. a replay or a scripted player.
+ */
+public interface InputSource {
+
+  /**
+   * Applies the key events of the next tick, through InputManager.applyEvent(). Called by
+   * InputManager.beginTick() on the game thread.
+   *
+   * @param inputManager Input manager to apply the events to.
+   */
+  void nextTick(InputManager inputManager);
+}
@@ -0,0 +1,216 @@
+package engine;
+
+import java.util.Arrays;
+import java.util.logging.Logger;
+
+/**
+ * Measures input latency: from the moment a key event enters the InputManager, to the tick that
+ * reacts to it, to the completeDrawing() call that presents the result. Disabled unless the game is
+ * started with --latency.
+ */
+public final class LatencyProbe {
+
+  /**
+   * Most recent samples kept for the percentiles.
+   */
+  private static final int MAX_SAMPLES = 8192;
+  /**
+   * Nanoseconds per millisecond.
+   */
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  /**
+   * Singleton instance of the class.
+   */
+  private static LatencyProbe instance;
+
+  /**
+   * Application logger.
+   */
+  private Logger logger;
+  /**
+   * If measurements are recorded.
+   */
+  private volatile boolean enabled;
+  /**
+   * Time of the input whose reaction waits to be presented, 0 if none.
+   */
+  private long pendingInput;
+  /**
+   * Time of the tick that reacted to the pending input.
+   */
+  private long pendingReaction;
+  /**
+   * Input to reaction latencies, in nanoseconds.
+   */
+  private final long[] reactionLatencies;
+  /**
+   * Input to presentation latencies, in nanoseconds.
+   */
+  private final long[] presentLatencies;
+  /**
+   * Samples recorded so far.
+   */
+  private long samples;
+
+  /**
+   * Private constructor.
+   */
+  private LatencyProbe() {
+    this.logger = Core.getLogger();
+    this.reactionLatencies = new long[MAX_SAMPLES];
+    this.presentLatencies = new long[MAX_SAMPLES];
+  }
+
+  /**
+   * Returns shared instance of LatencyProbe.
+   *
+   * @return Shared instance of LatencyProbe.
+   */
+  protected static synchronized LatencyProbe getInstance() {
+    if (instance == null) {
+      instance = new LatencyProbe();
+    }
+    return instance;
+  }
+
+  /**
+   * Turns measuring on or off.
+   *
+   * @param enabled If measurements are recorded.
+   */
+  public void setEnabled(final boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Checks if measuring is on.
+   *
+   * @return True if measurements are recorded.
+   */
+  public boolean isEnabled() {
+    return this.enabled;
+  }
+
+  /**
+   * Records that the current tick reacted to an input, e.g. moved or shot.
+   *
+   * @param inputTime Time the input was queued, see InputManager.getPressTime().
+   */
+  public void react(final long inputTime) {
+    if (this.enabled) {
+      react(inputTime, System.nanoTime());
+    }
+  }
+
+  /**
+   * Records that the result of the current tick is being presented. Called by completeDrawing().
+   */
+  public void presented() {
+    if (this.enabled) {
+      presented(System.nanoTime());
+    }
+  }
+
+  /**
+   * Records a reaction at the given time. Only the first reaction to an input counts.
+   *
+   * @param inputTime    Time the input was queued.
+   * @param reactionTime Time of the reacting tick.
+   */
+  synchronized void react(final long inputTime, final long reactionTime) {
+    if (this.pendingInput == 0 && inputTime != 0) {
+      this.pendingInput = inputTime;
+      this.pendingReaction = reactionTime;
+    }
+  }
+
+  /**
+   * Completes the pending measurement, if any, at the given time.
+   *
+   * @param presentTime Time of the presentation.
+   */
+  synchronized void presented(final long presentTime) {
+    if (this.pendingInput == 0) {
+      return;
+    }
+    int index = (int) (this.samples % MAX_SAMPLES);
+    this.reactionLatencies[index] = this.pendingReaction - this.pendingInput;
+    this.presentLatencies[index] = presentTime - this.pendingInput;
+    this.samples++;
+    this.pendingInput = 0;
+  }
+
+  /**
+   * Returns the number of measurements recorded.
+   *
+   * @return Samples recorded.
+   */
+  public synchronized long getSamples() {
+    return this.samples;
+  }
+
+  /**
+   * Returns a percentile of the input to presentation latency.
+   *
+   * @param percentile Percentile, between 0 and 100.
+   * @return Latency in nanoseconds, 0 without samples.
+   */
+  public synchronized long getPresentPercentile(final double percentile) {
+    return percentile(this.presentLatencies, percentile);
+  }
+
+  /**
+   * Returns a percentile of the input to reaction latency.
+   *
+   * @param percentile Percentile, between 0 and 100.
+   * @return Latency in nanoseconds, 0 without samples.
+   */
+  public synchronized long getReactionPercentile(final double percentile) {
+    return percentile(this.reactionLatencies, percentile);
+  }
+
+  /**
+   * Logs the latency percentiles, if anything was measured.
+   */
+  public synchronized void report() {
+    if (this.samples == 0) {
+      return;
+    }
+    logger.info("Input latency over " + Math.min(this.samples, MAX_SAMPLES)
+        + " samples (ms), input to tick: " + describe(this.reactionLatencies)
+        + ", input to present: " + describe(this.presentLatencies) + ".");
+  }
+
+  /**
+   * Formats the usual percentiles of some latencies.
+   *
+   * @param latencies Latencies in nanoseconds.
+   * @return Percentiles in milliseconds.
+   */
+  private String describe(final long[] latencies) {
+    return String.format("p50 %.2f, p90 %.2f, p99 %.2f, max %.2f",
+        percentile(latencies, 50) / NANOS_PER_MILLI,
+        percentile(latencies, 90) / NANOS_PER_MILLI,
+        percentile(latencies, 99) / NANOS_PER_MILLI,
+        percentile(latencies, 100) / NANOS_PER_MILLI);
+  }
+
+  /**
+   * Computes a percentile, nearest rank, of the recorded latencies.
+   *
+   * @param latencies  Latencies in nanoseconds.
+   * @param percentile Percentile, between 0 and 100.
+   * @return Latency in nanoseconds, 0 without samples.
+   */
+  private long percentile(final long[] latencies, final double percentile) {
+    int count = (int) Math.min(this.samples, MAX_SAMPLES);
+    if (count == 0) {
+      return 0;
+    }
+    long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    int rank = (int) Math.ceil(percentile / 100 * count);
+    return sorted[Math.max(0, Math.min(count, rank) - 1)];
+  }
+}
@@ -0,0 +1,63 @@
+package engine;
+
+/**
+ * Game clock advancing a fixed step per tick, independently of real time. Used by tests and
+ * headless simulation to run deterministically, as fast as the CPU allows.
+ */
+public final class ManualClock implements GameClock {
+
+  /**
+   * Milliseconds added by every tick.
+   */
+  private final long step;
+  /**
+   * Current time.
+   */
+  private long millis;
+
+  /**
+   * Constructor, starts the clock at 0.
+   *
+   * @param step Milliseconds added by every tick, e.g. 1000 / fps.
+   */
+  public ManualClock(final long step) {
+    this.step = step;
+    this.millis = 0;
+  }
+
+  /**
+   * Advances the clock by one step.
+   */
+  @Override
+  public void tick() {
+    this.millis += this.step;
+  }
+
+  /**
+   * Advances the clock by an arbitrary amount.
+   *
+   * @param milliseconds Time to add.
+   */
+  public void advance(final long milliseconds) {
+    this.millis += milliseconds;
+  }
+
+  /**
+   * Returns the current time.
+   *
+   * @return Milliseconds since the clock started.
+   */
+  @Override
+  public long millis() {
+    return this.millis;
+  }
+
+  /**
+   * Returns the time added by every tick.
+   *
+   * @return Step in milliseconds.
+   */
+  public long getStep() {
+    return this.step;
+  }
+}
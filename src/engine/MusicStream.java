@@ -0,0 +1,269 @@
+package engine;
+
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Logger;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Decodes a music track in small chunks into a fixed-size ring buffer read by the mixer, so memory
+ * use does not depend on the length of the track. Looping tracks are reopened by the decoder ahead
+ * of playback, without a gap.
+ */
+final class MusicStream {
+
+  /**
+   * Frames held by the ring buffer, about 0.75 seconds. Power of two.
+   */
+  private static final int RING_FRAMES = 1 << 15;
+  /**
+   * Source frames decoded at once.
+   */
+  private static final int CHUNK_FRAMES = 2048;
+  /**
+   * Output channels.
+   */
+  private static final int CHANNELS = AudioMixer.CHANNELS;
+
+  /**
+   * Application logger.
+   */
+  private Logger logger;
+  /**
+   * Location of the track.
+   */
+  private final URL url;
+  /**
+   * If the track starts over when it ends.
+   */
+  private final boolean loop;
+  /**
+   * Interleaved stereo samples at the mixer sample rate.
+   */
+  private final short[] ring;
+  /**
+   * Frames written by the decoder so far.
+   */
+  private volatile long written;
+  /**
+   * Frames read by the mixer so far.
+   */
+  private volatile long read;
+  /**
+   * If the decoder reached the end of a non looping track.
+   */
+  private volatile boolean ended;
+  /**
+   * If the stream has been closed.
+   */
+  private volatile boolean closed;
+  /**
+   * Decoder thread.
+   */
+  private Thread decoder;
+
+  /**
+   * Decoded PCM format of the track.
+   */
+  private AudioFormat format;
+  /**
+   * Source frames per output frame.
+   */
+  private double ratio;
+  /**
+   * Position in the source, relative to the carried frame, of the next output frame.
+   */
+  private double position;
+  /**
+   * Source frames being resampled: the last frame of the previous chunk and the current chunk.
+   */
+  private short[] source;
+
+  /**
+   * Constructor, checks the track can be decoded.
+   *
+   * @param url  Location of the track.
+   * @param loop If the track starts over when it ends.
+   * @throws IOException                   In case of loading problems.
+   * @throws UnsupportedAudioFileException In case of an unknown format.
+   */
+  MusicStream(final URL url, final boolean loop)
+      throws IOException, UnsupportedAudioFileException {
+    this.logger = Core.getLogger();
+    this.url = url;
+    this.loop = loop;
+    this.ring = new short[RING_FRAMES * CHANNELS];
+    openSource().close();
+    this.ratio = this.format.getSampleRate() / AudioMixer.SAMPLE_RATE;
+    this.source = new short[(CHUNK_FRAMES + 1) * CHANNELS];
+  }
+
+  /**
+   * Starts decoding.
+   */
+  void start() {
+    this.decoder = new Thread(this::decode, "music-stream");
+    this.decoder.setDaemon(true);
+    this.decoder.start();
+  }
+
+  /**
+   * Stops decoding and releases the track.
+   */
+  void close() {
+    this.closed = true;
+    if (this.decoder != null) {
+      LockSupport.unpark(this.decoder);
+    }
+  }
+
+  /**
+   * Reads decoded frames. Called from the mixing thread.
+   *
+   * @param out    Buffer for interleaved stereo samples.
+   * @param frames Frames wanted.
+   * @return Frames read, fewer if the decoder is behind or the track ended.
+   */
+  int read(final short[] out, final int frames) {
+    long readFrames = this.read;
+    int count = (int) Math.min(frames, this.written - readFrames);
+    int start = (int) (readFrames & (RING_FRAMES - 1));
+    int first = Math.min(count, RING_FRAMES - start);
+    System.arraycopy(this.ring, start * CHANNELS, out, 0, first * CHANNELS);
+    System.arraycopy(this.ring, 0, out, first * CHANNELS, (count - first) * CHANNELS);
+    this.read = readFrames + count;
+    LockSupport.unpark(this.decoder);
+    return count;
+  }
+
+  /**
+   * Checks if every frame of a non looping track has been read.
+   *
+   * @return True when the track is over.
+   */
+  boolean isFinished() {
+    return this.ended && this.read == this.written;
+  }
+
+  /**
+   * Opens the track, decoding to 16 bit signed little endian PCM.
+   *
+   * @return PCM stream.
+   * @throws IOException                   In case of loading problems.
+   * @throws UnsupportedAudioFileException In case of an unknown format.
+   */
+  private AudioInputStream openSource()
+      throws IOException, UnsupportedAudioFileException {
+    AudioInputStream encoded = AudioSystem.getAudioInputStream(this.url);
+    AudioFormat sourceFormat = encoded.getFormat();
+    this.format = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED,
+        sourceFormat.getSampleRate(), 16, sourceFormat.getChannels(),
+        sourceFormat.getChannels() * 2, sourceFormat.getSampleRate(), false);
+    return AudioSystem.getAudioInputStream(this.format, encoded);
+  }
+
+  /**
+   * Decoder thread: reads chunks of the track, resamples them and writes them to the ring buffer,
+   * waiting while it is full.
+   */
+  private void decode() {
+    int channels = this.format.getChannels();
+    byte[] bytes = new byte[CHUNK_FRAMES * channels * 2];
+    short[] resampled = new short[((int) (CHUNK_FRAMES / this.ratio) + 2) * CHANNELS];
+    int carried = 0;
+    AudioInputStream pcm = null;
+
+    try {
+      while (!this.closed) {
+        if (pcm == null) {
+          pcm = openSource();
+        }
+        int count = pcm.read(bytes);
+        if (count < 0) {
+          pcm.close();
+          pcm = null;
+          if (!this.loop) {
+            this.ended = true;
+            return;
+          }
+          continue;
+        }
+
+        // Appends the chunk after the carried frame, as stereo.
+        int frames = count / (channels * 2);
+        for (int frame = 0; frame < frames; frame++) {
+          for (int channel = 0; channel < CHANNELS; channel++) {
+            int offset = (frame * channels + Math.min(channel, channels - 1)) * 2;
+            this.source[(carried + frame) * CHANNELS + channel] =
+                (short) ((bytes[offset] & 0xFF) | (bytes[offset + 1] << 8));
+          }
+        }
+        int available = carried + frames;
+
+        // Linear interpolation between consecutive source frames.
+        int output = 0;
+        while (this.position + 1 < available) {
+          int first = (int) this.position;
+          double weight = this.position - first;
+          for (int channel = 0; channel < CHANNELS; channel++) {
+            int a = this.source[first * CHANNELS + channel];
+            int b = this.source[(first + 1) * CHANNELS + channel];
+            resampled[output * CHANNELS + channel] = (short) (a + (b - a) * weight);
+          }
+          output++;
+          this.position += this.ratio;
+        }
+        if (available > 0) {
+          this.position -= available - 1;
+          System.arraycopy(this.source, (available - 1) * CHANNELS, this.source, 0,
+              CHANNELS);
+          carried = 1;
+        }
+
+        write(resampled, output);
+      }
+    } catch (IOException | UnsupportedAudioFileException e) {
+      logger.warning("Music stream failed: " + e);
+      this.ended = true;
+    } finally {
+      if (pcm != null) {
+        try {
+          pcm.close();
+        } catch (IOException e) {
+          logger.warning("Couldn't close music stream.");
+        }
+      }
+    }
+  }
+
+  /**
+   * Writes frames to the ring buffer, waiting for the mixer to make room.
+   *
+   * @param samples Interleaved stereo samples.
+   * @param frames  Frames to write.
+   */
+  private void write(final short[] samples, final int frames) {
+    int done = 0;
+    while (done < frames && !this.closed) {
+      long writtenFrames = this.written;
+      int room = (int) (RING_FRAMES - (writtenFrames - this.read));
+      if (room == 0) {
+        LockSupport.park(this);
+        continue;
+      }
+      int count = Math.min(room, frames - done);
+      int start = (int) (writtenFrames & (RING_FRAMES - 1));
+      int first = Math.min(count, RING_FRAMES - start);
+      System.arraycopy(samples, done * CHANNELS, this.ring, start * CHANNELS,
+          first * CHANNELS);
+      System.arraycopy(samples, (done + first) * CHANNELS, this.ring, 0,
+          (count - first) * CHANNELS);
+      this.written = writtenFrames + count;
+      done += count;
+    }
+  }
+}
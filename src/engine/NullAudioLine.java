@@ -0,0 +1,173 @@
+package engine;
+
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Control;
+import javax.sound.sampled.DataLine;
+import javax.sound.sampled.LineListener;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Output line that discards what is written to it, at the pace a real line would play it. The
+ * mixer writes to it when no audio device is available, so sounds are still decoded, registered
+ * and mixed on the same threads, only not heard.
+ */
+final class NullAudioLine implements SourceDataLine {
+
+  /**
+   * Format the line was opened with.
+   */
+  private AudioFormat format;
+  /**
+   * Size of the buffer of the line, in bytes.
+   */
+  private int bufferSize;
+  /**
+   * Frames written since the line was opened.
+   */
+  private long framePosition;
+  /**
+   * If the line is open.
+   */
+  private boolean open;
+  /**
+   * If the line was started.
+   */
+  private boolean running;
+
+  @Override
+  public void open(final AudioFormat audioFormat, final int bufferBytes) {
+    this.format = audioFormat;
+    this.bufferSize = bufferBytes;
+    this.framePosition = 0;
+    this.open = true;
+  }
+
+  @Override
+  public void open(final AudioFormat audioFormat) {
+    open(audioFormat, (int) audioFormat.getSampleRate() / 2 * audioFormat.getFrameSize());
+  }
+
+  @Override
+  public void open() {
+    open(new AudioFormat(AudioMixer.SAMPLE_RATE, 16, AudioMixer.CHANNELS, true, false));
+  }
+
+  /**
+   * Discards the data, after waiting as long as playing it would take.
+   */
+  @Override
+  public int write(final byte[] data, final int offset, final int length) {
+    int frames = length / this.format.getFrameSize();
+    this.framePosition += frames;
+    long nanos = (long) (frames * 1e9 / this.format.getFrameRate());
+    try {
+      Thread.sleep(nanos / 1000000, (int) (nanos % 1000000));
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    return length;
+  }
+
+  @Override
+  public void drain() {
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public void start() {
+    this.running = true;
+  }
+
+  @Override
+  public void stop() {
+    this.running = false;
+  }
+
+  @Override
+  public boolean isRunning() {
+    return this.running;
+  }
+
+  @Override
+  public boolean isActive() {
+    return this.running;
+  }
+
+  @Override
+  public AudioFormat getFormat() {
+    return this.format;
+  }
+
+  @Override
+  public int getBufferSize() {
+    return this.bufferSize;
+  }
+
+  @Override
+  public int available() {
+    return this.bufferSize;
+  }
+
+  @Override
+  public int getFramePosition() {
+    return (int) this.framePosition;
+  }
+
+  @Override
+  public long getLongFramePosition() {
+    return this.framePosition;
+  }
+
+  @Override
+  public long getMicrosecondPosition() {
+    return (long) (this.framePosition * 1e6 / this.format.getFrameRate());
+  }
+
+  @Override
+  public float getLevel() {
+    return AudioSystem.NOT_SPECIFIED;
+  }
+
+  @Override
+  public DataLine.Info getLineInfo() {
+    return new DataLine.Info(SourceDataLine.class, this.format);
+  }
+
+  @Override
+  public void close() {
+    this.open = false;
+    this.running = false;
+  }
+
+  @Override
+  public boolean isOpen() {
+    return this.open;
+  }
+
+  @Override
+  public Control[] getControls() {
+    return new Control[0];
+  }
+
+  @Override
+  public boolean isControlSupported(final Control.Type control) {
+    return false;
+  }
+
+  @Override
+  public Control getControl(final Control.Type control) {
+    throw new IllegalArgumentException("Unsupported control type: " + control);
+  }
+
+  @Override
+  public void addLineListener(final LineListener listener) {
+  }
+
+  @Override
+  public void removeLineListener(final LineListener listener) {
+  }
+}
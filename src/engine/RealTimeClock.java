@@ -0,0 +1,47 @@
+package engine;
+
+/**
+ * Game clock following real time, from System.nanoTime() so it never jumps with the wall clock.
+ */
+public final class RealTimeClock implements GameClock {
+
+  /**
+   * Nanoseconds per millisecond.
+   */
+  private static final long NANOS_PER_MILLI = 1_000_000L;
+
+  /**
+   * Time the clock started, in nanoseconds.
+   */
+  private final long origin;
+  /**
+   * Time of the current tick.
+   */
+  private volatile long millis;
+
+  /**
+   * Constructor, starts the clock at 0.
+   */
+  public RealTimeClock() {
+    this.origin = System.nanoTime();
+    this.millis = 0;
+  }
+
+  /**
+   * Samples real time.
+   */
+  @Override
+  public void tick() {
+    this.millis = (System.nanoTime() - this.origin) / NANOS_PER_MILLI;
+  }
+
+  /**
+   * Returns the time sampled by the last tick.
+   *
+   * @return Milliseconds since the clock started.
+   */
+  @Override
+  public long millis() {
+    return this.millis;
+  }
+}
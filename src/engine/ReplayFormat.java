@@ -0,0 +1,113 @@
+package engine;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of replay files and the variable length integers they are made of.
+ *
+ * <p>A file starts with MAGIC, VERSION and the clock step, followed by one segment per game
+ * screen. A segment is an OP_SEGMENT header, tick records and an OP_END footer. Ticks without
+ * input are run-length encoded with OP_TICKS; ticks with input hold their key events with
+ * OP_EVENTS. OP_KEYFRAME records hold the whole state of the screen every few ticks, so playback
+ * can start from any of them instead of the first tick.
+ */
+final class ReplayFormat {
+
+  /**
+   * File header, "IVRP".
+   */
+  static final int MAGIC = 0x49565250;
+  /**
+   * Version of the file format.
+   */
+  static final int VERSION = 3;
+
+  /**
+   * Start of a game screen: level, boss stage, seed, score, lives, bullets shot, ships destroyed,
+   * ship speed, bullet speed and the keys held.
+   */
+  static final int OP_SEGMENT = 1;
+  /**
+   * Run of ticks without input: number of ticks.
+   */
+  static final int OP_TICKS = 2;
+  /**
+   * Tick with input: number of events, then key code and press flag of each.
+   */
+  static final int OP_EVENTS = 3;
+  /**
+   * End of a game screen: score, lives, bullets shot and ships destroyed.
+   */
+  static final int OP_END = 4;
+  /**
+   * State after a number of ticks: tick, size, keys held and GameScreen.saveState().
+   */
+  static final int OP_KEYFRAME = 5;
+
+  /**
+   * Maximum size of a varint.
+   */
+  static final int MAX_VARINT_SIZE = 10;
+
+  /**
+   * Constructor, not called.
+   */
+  private ReplayFormat() {
+
+  }
+
+  /**
+   * Writes an unsigned number, seven bits per byte.
+   *
+   * @param buffer Buffer to write to.
+   * @param value  Non negative number.
+   */
+  static void putVarint(final ByteBuffer buffer, final long value) {
+    long rest = value;
+    while ((rest & ~0x7FL) != 0) {
+      buffer.put((byte) ((rest & 0x7F) | 0x80));
+      rest >>>= 7;
+    }
+    buffer.put((byte) rest);
+  }
+
+  /**
+   * Writes a signed number, zigzag encoded so small negative numbers stay short.
+   *
+   * @param buffer Buffer to write to.
+   * @param value  Number.
+   */
+  static void putSigned(final ByteBuffer buffer, final long value) {
+    putVarint(buffer, (value << 1) ^ (value >> 63));
+  }
+
+  /**
+   * Reads a number written with putVarint().
+   *
+   * @param buffer Buffer to read from.
+   * @return Number.
+   */
+  static long getVarint(final ByteBuffer buffer) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new BufferUnderflowException();
+  }
+
+  /**
+   * Reads a number written with putSigned().
+   *
+   * @param buffer Buffer to read from.
+   * @return Number.
+   */
+  static long getSigned(final ByteBuffer buffer) {
+    long value = getVarint(buffer);
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,515 @@
+package engine;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import screen.GameScreen;
+
+/**
+ * Plays a replay written by ReplayRecorder, feeding its key events to the InputManager tick by
+ * tick on a clock with the recorded step. Screens are played at normal speed in a window, or
+ * headless as fast as possible.
+ *
+ * <p>Seeking skips whole screens using the state at their start, then restores the last keyframe
+ * before the target tick and simulates only the ticks left.
+ *
+ * <p>Usage: {@code java -jar Invaders.jar --replay file [--fast] [--seek tick]}.
+ */
+public final class ReplayPlayer implements InputSource {
+
+  /**
+   * Position of a keyframe in the replay.
+   */
+  private static final class Keyframe {
+
+    /**
+     * Ticks played before the keyframe.
+     */
+    private final long tick;
+    /**
+     * Start of the keyframe's state.
+     */
+    private final int position;
+    /**
+     * Start of the next record.
+     */
+    private final int end;
+
+    /**
+     * Constructor.
+     *
+     * @param tick     Ticks played before the keyframe.
+     * @param position Start of the keyframe's state.
+     * @param end      Start of the next record.
+     */
+    private Keyframe(final long tick, final int position, final int end) {
+      this.tick = tick;
+      this.position = position;
+      this.end = end;
+    }
+  }
+
+  /**
+   * Application logger.
+   */
+  private final Logger logger;
+  /**
+   * Whole replay.
+   */
+  private final ByteBuffer data;
+  /**
+   * Milliseconds per tick of the recorded clock.
+   */
+  private final long step;
+
+  /**
+   * State at the start of the current segment.
+   */
+  private GameState startState;
+  /**
+   * Boss stage of the current segment.
+   */
+  private int bossStage;
+  /**
+   * Ship speed of the current segment.
+   */
+  private int shipSpeed;
+  /**
+   * Bullet speed of the current segment.
+   */
+  private int bulletSpeed;
+  /**
+   * Keys held at the start of the current segment.
+   */
+  private int[] heldKeys;
+  /**
+   * Recorded state at the end of the current segment, null until read.
+   */
+  private GameState endState;
+  /**
+   * Ticks without input left in the current run.
+   */
+  private long quietTicks;
+  /**
+   * Ticks played in the current segment.
+   */
+  private long tick;
+  /**
+   * Ticks recorded in the current segment.
+   */
+  private long segmentTicks;
+  /**
+   * Keyframes of the current segment, by tick.
+   */
+  private final List<Keyframe> keyframes;
+
+  /**
+   * Constructor.
+   *
+   * @param data Contents of the replay.
+   * @throws IOException If it is not a replay.
+   */
+  private ReplayPlayer(final ByteBuffer data) throws IOException {
+    this.logger = Core.getLogger();
+    this.data = data;
+    this.keyframes = new ArrayList<Keyframe>();
+    try {
+      if (data.getInt() != ReplayFormat.MAGIC
+          || ReplayFormat.getVarint(data) != ReplayFormat.VERSION) {
+        throw new IOException("Not a replay, or from another version.");
+      }
+      this.step = ReplayFormat.getVarint(data);
+    } catch (BufferUnderflowException e) {
+      throw new IOException("Replay too short.", e);
+    }
+  }
+
+  /**
+   * Reads a replay file.
+   *
+   * @param file Path of the replay.
+   * @return Player positioned before the first segment.
+   * @throws IOException In case of loading problems.
+   */
+  public static ReplayPlayer open(final Path file) throws IOException {
+    return new ReplayPlayer(ByteBuffer.wrap(Files.readAllBytes(file)));
+  }
+
+  /**
+   * Plays a replay.
+   *
+   * @param args Path of the replay, --fast to play headless as fast as possible and --seek tick to
+   *             start after the given number of ticks.
+   */
+  public static void main(final String[] args) {
+    if (args.length == 0) {
+      System.err.println("Usage: --replay file [--fast] [--seek tick]");
+      return;
+    }
+    List<String> options = Arrays.asList(args);
+    boolean fast = options.contains("--fast");
+    int seekOption = options.indexOf("--seek");
+    long seek = seekOption >= 0 && seekOption + 1 < args.length
+        ? Long.parseLong(args[seekOption + 1]) : 0;
+    ReplayPlayer player;
+    try {
+      player = open(Paths.get(args[0]));
+    } catch (IOException e) {
+      System.err.println("Couldn't open replay " + args[0] + ": " + e.getMessage());
+      return;
+    }
+
+    int width = Core.WIDTH;
+    int height = Core.HEIGHT;
+    if (fast) {
+      Core.setHeadless(true);
+      Core.getLogger().setLevel(Level.WARNING);
+    } else {
+      Frame frame = new Frame(Core.WIDTH, Core.HEIGHT);
+      Core.getDrawManager().setFrame(frame);
+      width = frame.getWidth();
+      height = frame.getHeight();
+    }
+    Core.setClock(new ManualClock(player.getStep()));
+
+    while (player.nextSegment()) {
+      if (seek >= player.getSegmentTicks()) {
+        // The next segment starts from its own header, no need to play this one.
+        seek -= player.getSegmentTicks();
+        continue;
+      }
+      GameScreen screen = player.openSegment(width, height, Core.FPS);
+      if (seek > 0) {
+        long start = System.nanoTime();
+        player.seek(screen, seek);
+        System.out.println("Sought to tick " + seek + " of level "
+            + player.getStartState().getLevel() + " in "
+            + (System.nanoTime() - start) / 1_000_000 + " ms.");
+        seek = 0;
+      }
+      screen.run();
+      GameState gameState = player.closeSegment(screen);
+      System.out.println("Level " + gameState.getLevel()
+          + (player.getBossStage() > 0 ? " boss" : "") + ": score "
+          + gameState.getScore() + ", " + gameState.getLivesRemaining()
+          + " lives remaining.");
+    }
+    if (!fast) {
+      System.exit(0);
+    }
+  }
+
+  /**
+   * Moves to the next segment, skipping what is left of the current one.
+   *
+   * @return False at the end of the replay.
+   */
+  public boolean nextSegment() {
+    skipToEnd();
+    if (!this.data.hasRemaining()) {
+      return false;
+    }
+    if (ReplayFormat.getVarint(this.data) != ReplayFormat.OP_SEGMENT) {
+      throw new IllegalStateException("Corrupt replay.");
+    }
+    int level = (int) ReplayFormat.getVarint(this.data);
+    this.bossStage = (int) ReplayFormat.getVarint(this.data);
+    long seed = this.data.getLong();
+    int score = (int) ReplayFormat.getSigned(this.data);
+    int lives = (int) ReplayFormat.getVarint(this.data);
+    int bulletsShot = (int) ReplayFormat.getVarint(this.data);
+    int shipsDestroyed = (int) ReplayFormat.getVarint(this.data);
+    this.startState = new GameState(level, score, lives, bulletsShot,
+        shipsDestroyed, seed);
+    this.shipSpeed = (int) ReplayFormat.getSigned(this.data);
+    this.bulletSpeed = (int) ReplayFormat.getSigned(this.data);
+    this.heldKeys = new int[(int) ReplayFormat.getVarint(this.data)];
+    for (int i = 0; i < this.heldKeys.length; i++) {
+      this.heldKeys[i] = (int) ReplayFormat.getVarint(this.data);
+    }
+    this.endState = null;
+    this.quietTicks = 0;
+    this.tick = 0;
+    indexSegment();
+    return true;
+  }
+
+  /**
+   * Plays the current segment on a new game screen, using the current game clock.
+   *
+   * @param width  Screen width.
+   * @param height Screen height.
+   * @param fps    Frames per second.
+   * @return State at the end of the screen.
+   */
+  public GameState playSegment(final int width, final int height,
+      final int fps) {
+    GameScreen screen = openSegment(width, height, fps);
+    screen.run();
+    return closeSegment(screen);
+  }
+
+  /**
+   * Creates the game screen of the current segment, initialized and taking its input from the
+   * replay. Play it with run() or step(), then call closeSegment().
+   *
+   * @param width  Screen width.
+   * @param height Screen height.
+   * @param fps    Frames per second.
+   * @return Screen at the first tick of the segment.
+   */
+  public GameScreen openSegment(final int width, final int height,
+      final int fps) {
+    // Lives already include the bonus of the level.
+    GameScreen screen = new GameScreen(this.startState,
+        Core.getGameSettings(this.startState.getLevel(), this.bossStage),
+        false, width, height, fps);
+
+    InputManager inputManager = Core.getInputManager();
+    inputManager.setInputSource(this);
+    for (int key : this.heldKeys) {
+      inputManager.applyEvent(key, true, System.nanoTime());
+    }
+    screen.initialize();
+    screen.getShip().setSpeed(this.shipSpeed);
+    screen.getShip().setBulletSpeed(this.bulletSpeed);
+    return screen;
+  }
+
+  /**
+   * Moves a screen opened with openSegment() to the given tick of the segment, from the last
+   * keyframe before it, or from where it is if that is closer.
+   *
+   * @param screen Screen of the current segment.
+   * @param target Ticks from the start of the segment.
+   * @return Tick reached, earlier than the target if the screen ended.
+   */
+  public long seek(final GameScreen screen, final long target) {
+    Keyframe best = null;
+    for (Keyframe keyframe : this.keyframes) {
+      if (keyframe.tick <= target) {
+        best = keyframe;
+      }
+    }
+    if (best != null && (target < this.tick || best.tick > this.tick)) {
+      this.data.position(best.position);
+      InputManager inputManager = Core.getInputManager();
+      inputManager.setInputSource(this);
+      int held = (int) ReplayFormat.getVarint(this.data);
+      for (int i = 0; i < held; i++) {
+        inputManager.applyEvent((int) ReplayFormat.getVarint(this.data), true,
+            System.nanoTime());
+      }
+      screen.loadState(this.data);
+      this.data.position(best.end);
+      this.tick = best.tick;
+      this.quietTicks = 0;
+      this.endState = null;
+    }
+    while (this.tick < target && screen.step()) {
+      continue;
+    }
+    return this.tick;
+  }
+
+  /**
+   * Ends the playback of a screen opened with openSegment(), restoring the keyboard.
+   *
+   * @param screen Screen of the current segment, finished.
+   * @return State at the end of the screen.
+   */
+  public GameState closeSegment(final GameScreen screen) {
+    Core.getInputManager().setInputSource(null);
+    skipToEnd();
+    GameState gameState = screen.getGameState();
+    if (this.endState != null && (gameState.getScore() != this.endState.getScore()
+        || gameState.getLivesRemaining() != this.endState.getLivesRemaining()
+        || gameState.getShipsDestroyed() != this.endState.getShipsDestroyed())) {
+      this.logger.warning("Replay of level " + gameState.getLevel()
+          + " diverged: score " + gameState.getScore() + " instead of "
+          + this.endState.getScore() + ".");
+    }
+    return gameState;
+  }
+
+  /**
+   * Applies the recorded events of the next tick.
+   *
+   * @param inputManager Input manager to apply the events to.
+   */
+  @Override
+  public void nextTick(final InputManager inputManager) {
+    this.tick++;
+    if (this.quietTicks > 0) {
+      this.quietTicks--;
+      return;
+    }
+    while (this.endState == null && this.data.hasRemaining()) {
+      int start = this.data.position();
+      int op = (int) ReplayFormat.getVarint(this.data);
+      switch (op) {
+        case ReplayFormat.OP_TICKS:
+          this.quietTicks = ReplayFormat.getVarint(this.data) - 1;
+          return;
+        case ReplayFormat.OP_EVENTS:
+          int events = (int) ReplayFormat.getVarint(this.data);
+          long time = System.nanoTime();
+          for (int i = 0; i < events; i++) {
+            int event = (int) ReplayFormat.getVarint(this.data);
+            inputManager.applyEvent(event >>> 1, (event & 1) != 0, time);
+          }
+          return;
+        case ReplayFormat.OP_KEYFRAME:
+          skipRecord(op);
+          break;
+        case ReplayFormat.OP_END:
+          // Played past the end of the recording.
+          readEnd();
+          return;
+        default:
+          // Next segment of a replay cut short, left for nextSegment().
+          this.data.position(start);
+          return;
+      }
+    }
+  }
+
+  /**
+   * Returns the milliseconds per tick of the recorded clock.
+   *
+   * @return Clock step.
+   */
+  public long getStep() {
+    return this.step;
+  }
+
+  /**
+   * Returns the state at the start of the current segment.
+   *
+   * @return Starting state, lives including any bonus.
+   */
+  public GameState getStartState() {
+    return this.startState;
+  }
+
+  /**
+   * Returns the ticks played in the current segment.
+   *
+   * @return Ticks since the start of the segment.
+   */
+  public long getTick() {
+    return this.tick;
+  }
+
+  /**
+   * Returns the ticks recorded in the current segment.
+   *
+   * @return Length of the segment.
+   */
+  public long getSegmentTicks() {
+    return this.segmentTicks;
+  }
+
+  /**
+   * Returns the boss stage of the current segment.
+   *
+   * @return Boss stage, 0 for a regular level.
+   */
+  public int getBossStage() {
+    return this.bossStage;
+  }
+
+  /**
+   * Reads the records left in the current segment, up to its end.
+   */
+  private void skipToEnd() {
+    while (this.endState == null && this.startState != null
+        && this.data.hasRemaining()) {
+      int start = this.data.position();
+      int op = (int) ReplayFormat.getVarint(this.data);
+      if (op == ReplayFormat.OP_END) {
+        readEnd();
+      } else if (!skipRecord(op)) {
+        this.data.position(start);
+        return;
+      }
+    }
+  }
+
+  /**
+   * Counts the ticks of the current segment and finds its keyframes, then goes back to its first
+   * record.
+   */
+  private void indexSegment() {
+    int start = this.data.position();
+    this.keyframes.clear();
+    this.segmentTicks = 0;
+    while (this.data.hasRemaining()) {
+      int op = (int) ReplayFormat.getVarint(this.data);
+      if (op == ReplayFormat.OP_TICKS) {
+        this.segmentTicks += ReplayFormat.getVarint(this.data);
+      } else if (op == ReplayFormat.OP_KEYFRAME) {
+        long keyframeTick = ReplayFormat.getVarint(this.data);
+        int size = (int) ReplayFormat.getVarint(this.data);
+        int position = this.data.position();
+        this.data.position(position + size);
+        this.keyframes.add(new Keyframe(keyframeTick, position,
+            this.data.position()));
+      } else if (op == ReplayFormat.OP_EVENTS) {
+        skipRecord(op);
+        this.segmentTicks++;
+      } else {
+        break;
+      }
+    }
+    this.data.position(start);
+  }
+
+  /**
+   * Skips the body of a tick or keyframe record.
+   *
+   * @param op Operation of the record, already read.
+   * @return False if the record does not belong to a segment's body.
+   */
+  private boolean skipRecord(final int op) {
+    switch (op) {
+      case ReplayFormat.OP_TICKS:
+        ReplayFormat.getVarint(this.data);
+        return true;
+      case ReplayFormat.OP_EVENTS:
+        long events = ReplayFormat.getVarint(this.data);
+        for (long i = 0; i < events; i++) {
+          ReplayFormat.getVarint(this.data);
+        }
+        return true;
+      case ReplayFormat.OP_KEYFRAME:
+        ReplayFormat.getVarint(this.data);
+        int size = (int) ReplayFormat.getVarint(this.data);
+        this.data.position(this.data.position() + size);
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Reads the footer of the current segment.
+   */
+  private void readEnd() {
+    int score = (int) ReplayFormat.getSigned(this.data);
+    int lives = (int) ReplayFormat.getVarint(this.data);
+    int bulletsShot = (int) ReplayFormat.getVarint(this.data);
+    int shipsDestroyed = (int) ReplayFormat.getVarint(this.data);
+    this.endState = new GameState(this.startState.getLevel(), score, lives,
+        bulletsShot, shipsDestroyed, this.startState.getSeed());
+  }
+}
@@ -0,0 +1,353 @@
+package engine;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import screen.GameScreen;
+
+/**
+ * Records the input of game screens to a replay file, see ReplayFormat. Together with the seed and
+ * the state at the start of each screen, the key events are enough to play the game again on a
+ * fixed step clock.
+ *
+ * <p>Records are encoded on the game thread into a buffer that is handed to a background thread
+ * once full, or at the end of a screen, so the game never waits for the disk. A keyframe with the
+ * whole state of the screen is written at its start and then every few ticks, trading file size
+ * for seeking speed.
+ */
+public final class ReplayRecorder implements Closeable {
+
+  /**
+   * Size of each write buffer.
+   */
+  private static final int BUFFER_SIZE = 64 * 1024;
+  /**
+   * Largest keyframe.
+   */
+  private static final int KEYFRAME_SIZE = 32 * 1024;
+  /**
+   * Ticks between keyframes by default, 10 seconds at 60 fps.
+   */
+  public static final int DEFAULT_KEYFRAME_INTERVAL = 600;
+  /**
+   * Buffers in use, one filled by the game while another is written.
+   */
+  private static final int BUFFER_COUNT = 3;
+  /**
+   * Seconds to wait for the pending writes on close.
+   */
+  private static final int CLOSE_TIMEOUT = 5;
+
+  /**
+   * Application logger.
+   */
+  private final Logger logger;
+  /**
+   * Replay file.
+   */
+  private final FileChannel channel;
+  /**
+   * Background thread writing the buffers.
+   */
+  private final ExecutorService writer;
+  /**
+   * Buffers ready to be filled.
+   */
+  private final BlockingQueue<ByteBuffer> freeBuffers;
+  /**
+   * Buffer being filled.
+   */
+  private ByteBuffer buffer;
+  /**
+   * Buffer the keyframes are encoded in, reused.
+   */
+  private final ByteBuffer keyframe;
+  /**
+   * Ticks between keyframes, 0 for a keyframe at the start of each screen only.
+   */
+  private final int keyframeInterval;
+  /**
+   * Ticks recorded in the current segment.
+   */
+  private long ticks;
+  /**
+   * Ticks without input not written yet.
+   */
+  private long quietTicks;
+  /**
+   * If a segment is open.
+   */
+  private boolean recording;
+
+  /**
+   * Constructor.
+   *
+   * @param channel          Replay file, empty.
+   * @param step             Milliseconds per tick of the clock the game runs on.
+   * @param keyframeInterval Ticks between keyframes.
+   */
+  private ReplayRecorder(final FileChannel channel, final long step,
+      final int keyframeInterval) {
+    this.logger = Core.getLogger();
+    this.channel = channel;
+    this.keyframeInterval = keyframeInterval;
+    this.keyframe = ByteBuffer.allocate(KEYFRAME_SIZE);
+    this.writer = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "replay-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.freeBuffers = new ArrayBlockingQueue<ByteBuffer>(BUFFER_COUNT);
+    for (int i = 1; i < BUFFER_COUNT; i++) {
+      this.freeBuffers.add(ByteBuffer.allocate(BUFFER_SIZE));
+    }
+    this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    this.buffer.putInt(ReplayFormat.MAGIC);
+    ReplayFormat.putVarint(this.buffer, ReplayFormat.VERSION);
+    ReplayFormat.putVarint(this.buffer, step);
+  }
+
+  /**
+   * Creates a replay file, replacing any previous one.
+   *
+   * @param file Path of the replay.
+   * @param step Milliseconds per tick of the clock the game runs on.
+   * @return New recorder.
+   * @throws IOException In case of loading problems.
+   */
+  public static ReplayRecorder create(final Path file, final long step)
+      throws IOException {
+    return create(file, step, DEFAULT_KEYFRAME_INTERVAL);
+  }
+
+  /**
+   * Creates a replay file, replacing any previous one.
+   *
+   * @param file             Path of the replay.
+   * @param step             Milliseconds per tick of the clock the game runs on.
+   * @param keyframeInterval Ticks between keyframes, fewer make a larger file that seeks faster. 0
+   *                         for a keyframe at the start of each screen only.
+   * @return New recorder.
+   * @throws IOException In case of loading problems.
+   */
+  public static ReplayRecorder create(final Path file, final long step,
+      final int keyframeInterval) throws IOException {
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+        StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    return new ReplayRecorder(channel, step, keyframeInterval);
+  }
+
+  /**
+   * Starts recording a game screen, once it is initialized.
+   *
+   * @param gameState   State at the start of the screen, lives including any bonus.
+   * @param bossStage   Boss stage of the screen, 0 for a regular level.
+   * @param shipSpeed   Speed of the ship.
+   * @param bulletSpeed Speed of the ship's bullets.
+   */
+  public void beginSegment(final GameState gameState, final int bossStage,
+      final int shipSpeed, final int bulletSpeed) {
+    InputManager inputManager = Core.getInputManager();
+    int heldCount = 0;
+    for (int key = 0; key < InputManager.NUM_KEYS; key++) {
+      if (inputManager.isKeyHeld(key)) {
+        heldCount++;
+      }
+    }
+    ensure(ReplayFormat.MAX_VARINT_SIZE * (11 + heldCount));
+
+    ReplayFormat.putVarint(this.buffer, ReplayFormat.OP_SEGMENT);
+    ReplayFormat.putVarint(this.buffer, gameState.getLevel());
+    ReplayFormat.putVarint(this.buffer, bossStage);
+    this.buffer.putLong(gameState.getSeed());
+    ReplayFormat.putSigned(this.buffer, gameState.getScore());
+    ReplayFormat.putVarint(this.buffer, gameState.getLivesRemaining());
+    ReplayFormat.putVarint(this.buffer, gameState.getBulletsShot());
+    ReplayFormat.putVarint(this.buffer, gameState.getShipsDestroyed());
+    ReplayFormat.putSigned(this.buffer, shipSpeed);
+    ReplayFormat.putSigned(this.buffer, bulletSpeed);
+    // Keys still held from the previous screen.
+    ReplayFormat.putVarint(this.buffer, heldCount);
+    for (int key = 0; key < InputManager.NUM_KEYS; key++) {
+      if (inputManager.isKeyHeld(key)) {
+        ReplayFormat.putVarint(this.buffer, key);
+      }
+    }
+    this.quietTicks = 0;
+    this.ticks = 0;
+    this.recording = true;
+  }
+
+  /**
+   * Records the input of the current tick, after InputManager.beginTick().
+   *
+   * @param inputManager Input of the game.
+   */
+  public void recordTick(final InputManager inputManager) {
+    if (!this.recording) {
+      return;
+    }
+    this.ticks++;
+    int events = inputManager.getTickEventCount();
+    if (events == 0) {
+      this.quietTicks++;
+      return;
+    }
+    writeQuietTicks();
+    ensure(ReplayFormat.MAX_VARINT_SIZE * (2 + events));
+    ReplayFormat.putVarint(this.buffer, ReplayFormat.OP_EVENTS);
+    ReplayFormat.putVarint(this.buffer, events);
+    for (int i = 0; i < events; i++) {
+      ReplayFormat.putVarint(this.buffer, inputManager.getTickEventKey(i) << 1
+          | (inputManager.isTickEventPress(i) ? 1 : 0));
+    }
+  }
+
+  /**
+   * Records the state of the screen if a keyframe is due, at the end of each tick and once the
+   * segment begins.
+   *
+   * @param screen Screen being recorded.
+   */
+  public void recordKeyframe(final GameScreen screen) {
+    if (!this.recording || this.ticks != 0 && (this.keyframeInterval <= 0
+        || this.ticks % this.keyframeInterval != 0)) {
+      return;
+    }
+    InputManager inputManager = Core.getInputManager();
+    this.keyframe.clear();
+    try {
+      int heldCount = 0;
+      for (int key = 0; key < InputManager.NUM_KEYS; key++) {
+        if (inputManager.isKeyHeld(key)) {
+          heldCount++;
+        }
+      }
+      ReplayFormat.putVarint(this.keyframe, heldCount);
+      for (int key = 0; key < InputManager.NUM_KEYS; key++) {
+        if (inputManager.isKeyHeld(key)) {
+          ReplayFormat.putVarint(this.keyframe, key);
+        }
+      }
+      screen.saveState(this.keyframe);
+    } catch (BufferOverflowException e) {
+      this.logger.warning("Keyframe too large, skipped.");
+      return;
+    }
+    this.keyframe.flip();
+
+    writeQuietTicks();
+    ensure(ReplayFormat.MAX_VARINT_SIZE * 3 + this.keyframe.remaining());
+    ReplayFormat.putVarint(this.buffer, ReplayFormat.OP_KEYFRAME);
+    ReplayFormat.putVarint(this.buffer, this.ticks);
+    ReplayFormat.putVarint(this.buffer, this.keyframe.remaining());
+    this.buffer.put(this.keyframe);
+  }
+
+  /**
+   * Ends the game screen being recorded and hands it to the disk.
+   *
+   * @param gameState State at the end of the screen, to check playbacks against.
+   */
+  public void endSegment(final GameState gameState) {
+    if (!this.recording) {
+      return;
+    }
+    writeQuietTicks();
+    ensure(ReplayFormat.MAX_VARINT_SIZE * 5);
+    ReplayFormat.putVarint(this.buffer, ReplayFormat.OP_END);
+    ReplayFormat.putSigned(this.buffer, gameState.getScore());
+    ReplayFormat.putVarint(this.buffer, gameState.getLivesRemaining());
+    ReplayFormat.putVarint(this.buffer, gameState.getBulletsShot());
+    ReplayFormat.putVarint(this.buffer, gameState.getShipsDestroyed());
+    this.recording = false;
+    flush();
+  }
+
+  /**
+   * Writes the pending data and closes the file.
+   *
+   * @throws IOException In case of saving problems.
+   */
+  @Override
+  public void close() throws IOException {
+    if (this.recording) {
+      writeQuietTicks();
+      this.recording = false;
+    }
+    flush();
+    this.writer.shutdown();
+    try {
+      if (!this.writer.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS)) {
+        this.logger.warning("Replay still being saved on exit.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    this.channel.close();
+  }
+
+  /**
+   * Writes the pending run of ticks without input.
+   */
+  private void writeQuietTicks() {
+    if (this.quietTicks == 0) {
+      return;
+    }
+    ensure(ReplayFormat.MAX_VARINT_SIZE * 2);
+    ReplayFormat.putVarint(this.buffer, ReplayFormat.OP_TICKS);
+    ReplayFormat.putVarint(this.buffer, this.quietTicks);
+    this.quietTicks = 0;
+  }
+
+  /**
+   * Makes room in the buffer for a record. Records are smaller than a buffer, a tick holds at
+   * most the 1024 events the input queue fits and keyframes are at most KEYFRAME_SIZE.
+   *
+   * @param bytes Maximum size of the record.
+   */
+  private void ensure(final int bytes) {
+    if (this.buffer.remaining() < bytes) {
+      flush();
+    }
+  }
+
+  /**
+   * Hands the filled part of the buffer to the writer thread and takes a free buffer.
+   */
+  private void flush() {
+    if (this.buffer.position() == 0) {
+      return;
+    }
+    ByteBuffer full = this.buffer;
+    full.flip();
+    this.writer.execute(() -> {
+      try {
+        while (full.hasRemaining()) {
+          this.channel.write(full);
+        }
+      } catch (IOException e) {
+        this.logger.warning("Couldn't save replay!");
+      }
+      full.clear();
+      this.freeBuffers.offer(full);
+    });
+    try {
+      this.buffer = this.freeBuffers.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      this.buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    }
+  }
+}
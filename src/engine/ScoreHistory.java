@@ -0,0 +1,576 @@
+package engine;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps every finished run in an append-only log of fixed-size records, with a memory-mapped index
+ * of the best runs. Opening only reads the records appended since the index was last updated, and
+ * the leaderboard is read from the index without touching the log. Runs finished in game are
+ * appended in the background, see appendLater().
+ */
+public final class ScoreHistory implements Closeable {
+
+  /**
+   * Name of the log file.
+   */
+  public static final String LOG_FILE = "history.log";
+  /**
+   * Name of the index file.
+   */
+  public static final String INDEX_FILE = "history.idx";
+  /**
+   * Number of runs kept in the leaderboard index.
+   */
+  public static final int TOP_K = 100;
+
+  /**
+   * Log file header, "IVSH".
+   */
+  private static final int LOG_MAGIC = 0x49565348;
+  /**
+   * Index file header, "IVSI".
+   */
+  private static final int INDEX_MAGIC = 0x49565349;
+  /**
+   * Version of both file formats.
+   */
+  private static final int VERSION = 1;
+  /**
+   * Log header: magic and version.
+   */
+  private static final int LOG_HEADER_SIZE = 8;
+  /**
+   * Bytes reserved for the player's name.
+   */
+  private static final int NAME_SIZE = 8;
+  /**
+   * Record: timestamp, name, score, level, accuracy, bullets shot, ships destroyed and CRC32.
+   */
+  static final int RECORD_SIZE = 8 + NAME_SIZE + 4 * 6;
+  /**
+   * Index header: magic, version, TOP_K, entry count and number of log records indexed.
+   */
+  private static final int INDEX_HEADER_SIZE = 4 * 4 + 8;
+  /**
+   * Offset of the entry count in the index header.
+   */
+  private static final int INDEX_SIZE_OFFSET = 12;
+  /**
+   * Offset of the number of indexed records in the index header.
+   */
+  private static final int INDEX_COVERED_OFFSET = 16;
+  /**
+   * Index entry: record number, score and name.
+   */
+  private static final int ENTRY_SIZE = 8 + 4 + NAME_SIZE;
+  /**
+   * Records read at once when catching up the index.
+   */
+  private static final int SCAN_BATCH = 1024;
+  /**
+   * Time to wait for pending appends when closing, in seconds.
+   */
+  private static final int CLOSE_TIMEOUT = 5;
+
+  /**
+   * Application logger.
+   */
+  private Logger logger;
+  /**
+   * Log file.
+   */
+  private File logFile;
+  /**
+   * Log file channel.
+   */
+  private FileChannel log;
+  /**
+   * Index file channel.
+   */
+  private FileChannel indexChannel;
+  /**
+   * Index, mapped in memory.
+   */
+  private MappedByteBuffer index;
+  /**
+   * Buffer reused for single record reads and writes.
+   */
+  private ByteBuffer recordBuffer;
+  /**
+   * Checksum used for records.
+   */
+  private CRC32 crc;
+  /**
+   * Number of records in the log.
+   */
+  private long recordCount;
+  /**
+   * Number of entries in the index.
+   */
+  private int size;
+  /**
+   * Background thread appending the runs given to appendLater().
+   */
+  private final ExecutorService writer;
+
+  /**
+   * Constructor, opens the files. Use open().
+   *
+   * @param directory Directory holding the history files.
+   * @throws IOException In case of loading problems.
+   */
+  private ScoreHistory(final File directory) throws IOException {
+    this.logger = Core.getLogger();
+    this.logFile = new File(directory, LOG_FILE);
+    this.recordBuffer = ByteBuffer.allocate(RECORD_SIZE);
+    this.crc = new CRC32();
+    this.writer = Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "score-history-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+
+    openLog();
+    this.indexChannel = FileChannel.open(new File(directory, INDEX_FILE).toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    this.index = this.indexChannel.map(FileChannel.MapMode.READ_WRITE, 0,
+        INDEX_HEADER_SIZE + (long) TOP_K * ENTRY_SIZE);
+
+    long covered = 0;
+    if (this.index.getInt(0) == INDEX_MAGIC && this.index.getInt(4) == VERSION
+        && this.index.getInt(8) == TOP_K) {
+      this.size = this.index.getInt(INDEX_SIZE_OFFSET);
+      covered = this.index.getLong(INDEX_COVERED_OFFSET);
+    }
+    if (covered > this.recordCount || this.size < 0 || this.size > TOP_K) {
+      // Index does not match this log, rebuilt from scratch.
+      covered = 0;
+    }
+    if (covered == 0) {
+      resetIndex();
+    }
+    catchUp(covered);
+  }
+
+  /**
+   * Opens the history kept in a directory, creating it if needed.
+   *
+   * @param directory Directory holding the history files.
+   * @return Opened history.
+   * @throws IOException In case of loading problems.
+   */
+  public static ScoreHistory open(final File directory) throws IOException {
+    return new ScoreHistory(directory);
+  }
+
+  /**
+   * Opens the log file, writing its header or dropping a partially written last record.
+   *
+   * @throws IOException In case of loading problems.
+   */
+  private void openLog() throws IOException {
+    this.log = FileChannel.open(this.logFile.toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+
+    if (this.log.size() < LOG_HEADER_SIZE) {
+      ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+      header.putInt(LOG_MAGIC).putInt(VERSION).flip();
+      this.log.truncate(0);
+      this.log.write(header, 0);
+    } else {
+      ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+      this.log.read(header, 0);
+      if (header.getInt(0) != LOG_MAGIC || header.getInt(4) != VERSION) {
+        this.log.close();
+        throw new IOException("Not a score history log: " + this.logFile);
+      }
+    }
+
+    long dataSize = this.log.size() - LOG_HEADER_SIZE;
+    this.recordCount = dataSize / RECORD_SIZE;
+    if (dataSize % RECORD_SIZE != 0) {
+      logger.warning("Dropping partially written score history record.");
+      this.log.truncate(LOG_HEADER_SIZE + this.recordCount * RECORD_SIZE);
+    }
+  }
+
+  /**
+   * Empties the index.
+   */
+  private void resetIndex() {
+    this.index.putInt(0, INDEX_MAGIC);
+    this.index.putInt(4, VERSION);
+    this.index.putInt(8, TOP_K);
+    this.size = 0;
+    this.index.putInt(INDEX_SIZE_OFFSET, 0);
+    this.index.putLong(INDEX_COVERED_OFFSET, 0);
+  }
+
+  /**
+   * Adds the records not yet indexed to the index.
+   *
+   * @param from First record not indexed.
+   * @throws IOException In case of loading problems.
+   */
+  private void catchUp(final long from) throws IOException {
+    if (from < this.recordCount) {
+      logger.info("Indexing " + (this.recordCount - from)
+          + " score history records.");
+    }
+    ByteBuffer batch = ByteBuffer.allocate(SCAN_BATCH * RECORD_SIZE);
+    long recordNumber = from;
+    while (recordNumber < this.recordCount) {
+      batch.clear();
+      long records = Math.min(SCAN_BATCH, this.recordCount - recordNumber);
+      batch.limit((int) records * RECORD_SIZE);
+      long position = LOG_HEADER_SIZE + recordNumber * RECORD_SIZE;
+      while (batch.hasRemaining()) {
+        if (this.log.read(batch, position + batch.position()) < 0) {
+          throw new IOException("Unexpected end of score history log.");
+        }
+      }
+      for (int i = 0; i < records; i++) {
+        int offset = i * RECORD_SIZE;
+        if (isValid(batch, offset)) {
+          offer(recordNumber + i, batch.getInt(offset + 8 + NAME_SIZE),
+              batch, offset + 8);
+        }
+      }
+      recordNumber += records;
+    }
+    this.index.putLong(INDEX_COVERED_OFFSET, this.recordCount);
+  }
+
+  /**
+   * Appends a finished run.
+   *
+   * @param record Run to append.
+   * @throws IOException In case of saving problems.
+   */
+  public synchronized void append(final ScoreRecord record) throws IOException {
+    ByteBuffer buffer = this.recordBuffer;
+    buffer.clear();
+    buffer.putLong(record.getTimestamp());
+    putName(buffer, record.getName());
+    buffer.putInt(record.getScore());
+    buffer.putInt(record.getLevel());
+    buffer.putFloat(record.getAccuracy());
+    buffer.putInt(record.getBulletsShot());
+    buffer.putInt(record.getShipsDestroyed());
+    this.crc.reset();
+    this.crc.update(buffer.array(), 0, RECORD_SIZE - 4);
+    buffer.putInt((int) this.crc.getValue());
+    buffer.flip();
+
+    long position = LOG_HEADER_SIZE + this.recordCount * RECORD_SIZE;
+    while (buffer.hasRemaining()) {
+      this.log.write(buffer, position + buffer.position());
+    }
+
+    offer(this.recordCount, record.getScore(), buffer, 8);
+    this.recordCount++;
+    this.index.putLong(INDEX_COVERED_OFFSET, this.recordCount);
+  }
+
+  /**
+   * Appends a finished run in the background, so the game thread doesn't wait for the disk. Runs
+   * are appended in the order given.
+   *
+   * @param record Run to append.
+   */
+  public void appendLater(final ScoreRecord record) {
+    this.writer.execute(() -> {
+      try {
+        append(record);
+      } catch (IOException e) {
+        logger.warning("Couldn't save score history!");
+      }
+    });
+  }
+
+  /**
+   * Reads a run from the log.
+   *
+   * @param recordNumber Number of the record, in order of appending.
+   * @return The run, or null if the record is damaged.
+   * @throws IOException In case of loading problems.
+   */
+  public synchronized ScoreRecord getRecord(final long recordNumber)
+      throws IOException {
+    if (recordNumber < 0 || recordNumber >= this.recordCount) {
+      throw new IndexOutOfBoundsException("Record " + recordNumber);
+    }
+    ByteBuffer buffer = this.recordBuffer;
+    buffer.clear();
+    long position = LOG_HEADER_SIZE + recordNumber * RECORD_SIZE;
+    while (buffer.hasRemaining()) {
+      if (this.log.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of score history log.");
+      }
+    }
+    if (!isValid(buffer, 0)) {
+      return null;
+    }
+    return new ScoreRecord(buffer.getLong(0), getName(buffer, 8),
+        buffer.getInt(8 + NAME_SIZE), buffer.getInt(12 + NAME_SIZE),
+        buffer.getFloat(16 + NAME_SIZE), buffer.getInt(20 + NAME_SIZE),
+        buffer.getInt(24 + NAME_SIZE));
+  }
+
+  /**
+   * Returns the best runs, read from the index only.
+   *
+   * @param count Maximum number of runs, at most TOP_K.
+   * @return Best scores, sorted descending.
+   */
+  public synchronized List<Score> getTopScores(final int count) {
+    int entries = Math.min(count, this.size);
+    List<Score> topScores = new ArrayList<Score>(entries);
+    for (int i = 0; i < entries; i++) {
+      int offset = entryOffset(i);
+      topScores.add(new Score(getName(this.index, offset + 12),
+          this.index.getInt(offset + 8)));
+    }
+    return topScores;
+  }
+
+  /**
+   * Returns the record number of a leaderboard entry, to read the full run with getRecord().
+   *
+   * @param rank Position in the leaderboard, starting at 0.
+   * @return Record number of the run.
+   */
+  public synchronized long getTopRecordNumber(final int rank) {
+    if (rank < 0 || rank >= this.size) {
+      throw new IndexOutOfBoundsException("Rank " + rank);
+    }
+    return this.index.getLong(entryOffset(rank));
+  }
+
+  /**
+   * Getter for the number of runs in the log.
+   *
+   * @return Number of records.
+   */
+  public synchronized long getRecordCount() {
+    return this.recordCount;
+  }
+
+  /**
+   * Rewrites the log keeping only the most recent runs and the ones in the leaderboard, then
+   * rebuilds the index. Damaged records are dropped too.
+   *
+   * @param keepRecent Number of most recent runs to keep.
+   * @return Number of records removed.
+   * @throws IOException In case of saving problems.
+   */
+  public synchronized long compact(final long keepRecent) throws IOException {
+    Set<Long> leaderboard = new HashSet<Long>();
+    for (int i = 0; i < this.size; i++) {
+      leaderboard.add(this.index.getLong(entryOffset(i)));
+    }
+
+    File tempFile = new File(this.logFile.getPath() + ".tmp");
+    long kept = 0;
+    try (FileChannel out = FileChannel.open(tempFile.toPath(),
+        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING)) {
+      ByteBuffer buffer = ByteBuffer.allocate(SCAN_BATCH * RECORD_SIZE);
+      buffer.putInt(LOG_MAGIC).putInt(VERSION).flip();
+      out.write(buffer);
+
+      ByteBuffer record = ByteBuffer.allocate(RECORD_SIZE);
+      buffer.clear();
+      long firstRecent = this.recordCount - keepRecent;
+      for (long n = 0; n < this.recordCount; n++) {
+        if (n < firstRecent && !leaderboard.contains(n)) {
+          continue;
+        }
+        record.clear();
+        long position = LOG_HEADER_SIZE + n * RECORD_SIZE;
+        while (record.hasRemaining()) {
+          if (this.log.read(record, position + record.position()) < 0) {
+            throw new IOException("Unexpected end of score history log.");
+          }
+        }
+        if (!isValid(record, 0)) {
+          continue;
+        }
+        record.flip();
+        if (buffer.remaining() < RECORD_SIZE) {
+          buffer.flip();
+          while (buffer.hasRemaining()) {
+            out.write(buffer);
+          }
+          buffer.clear();
+        }
+        buffer.put(record);
+        kept++;
+      }
+      buffer.flip();
+      while (buffer.hasRemaining()) {
+        out.write(buffer);
+      }
+      out.force(true);
+    }
+
+    long removed = this.recordCount - kept;
+    this.log.close();
+    try {
+      Files.move(tempFile.toPath(), this.logFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (AtomicMoveNotSupportedException e) {
+      Files.move(tempFile.toPath(), this.logFile.toPath(),
+          StandardCopyOption.REPLACE_EXISTING);
+    }
+    openLog();
+    resetIndex();
+    catchUp(0);
+    logger.info("Compacted score history, " + removed + " records removed.");
+    return removed;
+  }
+
+  /**
+   * Waits for pending appends, then saves the index and closes the files.
+   *
+   * @throws IOException In case of saving problems.
+   */
+  @Override
+  public void close() throws IOException {
+    this.writer.shutdown();
+    try {
+      if (!this.writer.awaitTermination(CLOSE_TIMEOUT, TimeUnit.SECONDS)) {
+        logger.warning("Score history still being saved on exit.");
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    synchronized (this) {
+      this.index.force();
+      this.indexChannel.close();
+      this.log.close();
+    }
+  }
+
+  /**
+   * Adds a run to the index if it is among the best ones. Runs with the same score keep their
+   * appending order.
+   *
+   * @param recordNumber Number of the record.
+   * @param score        Score of the run.
+   * @param name         Buffer holding the name.
+   * @param nameOffset   Position of the name in the buffer.
+   */
+  private void offer(final long recordNumber, final int score,
+      final ByteBuffer name, final int nameOffset) {
+    if (this.size == TOP_K
+        && this.index.getInt(entryOffset(TOP_K - 1) + 8) >= score) {
+      return;
+    }
+
+    // First entry with a lower score.
+    int low = 0;
+    int high = this.size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (this.index.getInt(entryOffset(middle) + 8) >= score) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+
+    int last = Math.min(this.size, TOP_K - 1);
+    for (int i = last; i > low; i--) {
+      int to = entryOffset(i);
+      int from = entryOffset(i - 1);
+      this.index.putLong(to, this.index.getLong(from));
+      this.index.putInt(to + 8, this.index.getInt(from + 8));
+      this.index.putLong(to + 12, this.index.getLong(from + 12));
+    }
+    int offset = entryOffset(low);
+    this.index.putLong(offset, recordNumber);
+    this.index.putInt(offset + 8, score);
+    this.index.putLong(offset + 12, name.getLong(nameOffset));
+
+    if (this.size < TOP_K) {
+      this.size++;
+      this.index.putInt(INDEX_SIZE_OFFSET, this.size);
+    }
+  }
+
+  /**
+   * Checks the checksum of a record.
+   *
+   * @param buffer Buffer holding the record.
+   * @param offset Position of the record in the buffer.
+   * @return True if the record is undamaged.
+   */
+  private boolean isValid(final ByteBuffer buffer, final int offset) {
+    this.crc.reset();
+    this.crc.update(buffer.array(), buffer.arrayOffset() + offset,
+        RECORD_SIZE - 4);
+    return (int) this.crc.getValue() == buffer.getInt(offset + RECORD_SIZE - 4);
+  }
+
+  /**
+   * Position of an index entry.
+   *
+   * @param rank Position in the leaderboard.
+   * @return Offset in the index.
+   */
+  private static int entryOffset(final int rank) {
+    return INDEX_HEADER_SIZE + rank * ENTRY_SIZE;
+  }
+
+  /**
+   * Writes a name as NAME_SIZE ASCII bytes, padded with zeros.
+   *
+   * @param buffer Buffer to write on.
+   * @param name   Name to write.
+   */
+  private static void putName(final ByteBuffer buffer, final String name) {
+    byte[] bytes = name.getBytes(StandardCharsets.US_ASCII);
+    for (int i = 0; i < NAME_SIZE; i++) {
+      buffer.put(i < bytes.length ? bytes[i] : 0);
+    }
+  }
+
+  /**
+   * Reads a name written by putName().
+   *
+   * @param buffer Buffer to read from.
+   * @param offset Position of the name.
+   * @return Name.
+   */
+  private static String getName(final ByteBuffer buffer, final int offset) {
+    byte[] bytes = new byte[NAME_SIZE];
+    int length = 0;
+    while (length < NAME_SIZE && buffer.get(offset + length) != 0) {
+      bytes[length] = buffer.get(offset + length);
+      length++;
+    }
+    return new String(bytes, 0, length, StandardCharsets.US_ASCII);
+  }
+}
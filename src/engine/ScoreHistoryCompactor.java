@@ -0,0 +1,47 @@
+package engine;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Command line tool compacting the score history log.
+ *
+ * <p>Usage: {@code java -cp Invaders.jar engine.ScoreHistoryCompactor <directory> [keepRecent]}
+ */
+public final class ScoreHistoryCompactor {
+
+  /**
+   * Most recent runs kept by default.
+   */
+  private static final long DEFAULT_KEEP_RECENT = 100000;
+
+  /**
+   * Constructor, not called.
+   */
+  private ScoreHistoryCompactor() {
+
+  }
+
+  /**
+   * Compacts the history in the given directory.
+   *
+   * @param args Directory holding the history files, and optionally the number of most recent
+   *             runs to keep.
+   * @throws IOException In case of loading or saving problems.
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: ScoreHistoryCompactor <directory> [keepRecent]");
+      System.exit(1);
+    }
+    long keepRecent = args.length > 1 ? Long.parseLong(args[1])
+        : DEFAULT_KEEP_RECENT;
+
+    try (ScoreHistory history = ScoreHistory.open(new File(args[0]))) {
+      long before = history.getRecordCount();
+      long removed = history.compact(keepRecent);
+      System.out.println("Records: " + before + " -> " + (before - removed)
+          + " (" + removed + " removed, leaderboard kept).");
+    }
+  }
+}
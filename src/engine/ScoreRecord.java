@@ -0,0 +1,123 @@
+package engine;
+
+/**
+ * Implements a finished run, as kept in the score history.
+ */
+public class ScoreRecord {
+
+  /**
+   * Moment the run was finished, in milliseconds since the epoch.
+   */
+  private long timestamp;
+  /**
+   * Player's name.
+   */
+  private String name;
+  /**
+   * Final score.
+   */
+  private int score;
+  /**
+   * Level reached.
+   */
+  private int level;
+  /**
+   * Ships destroyed per bullet shot.
+   */
+  private float accuracy;
+  /**
+   * Bullets shot during the run.
+   */
+  private int bulletsShot;
+  /**
+   * Ships destroyed during the run.
+   */
+  private int shipsDestroyed;
+
+  /**
+   * Constructor.
+   *
+   * @param timestamp      Moment the run was finished.
+   * @param name           Player's name, empty if the run didn't make the high scores.
+   * @param score          Final score.
+   * @param level          Level reached.
+   * @param accuracy       Ships destroyed per bullet shot.
+   * @param bulletsShot    Bullets shot during the run.
+   * @param shipsDestroyed Ships destroyed during the run.
+   */
+  public ScoreRecord(final long timestamp, final String name, final int score,
+      final int level, final float accuracy, final int bulletsShot,
+      final int shipsDestroyed) {
+    this.timestamp = timestamp;
+    this.name = name;
+    this.score = score;
+    this.level = level;
+    this.accuracy = accuracy;
+    this.bulletsShot = bulletsShot;
+    this.shipsDestroyed = shipsDestroyed;
+  }
+
+  /**
+   * Creates the record of a finished game.
+   *
+   * @param name      Player's name, empty if the run didn't make the high scores.
+   * @param gameState State of the game when it finished.
+   * @return New record, timestamped now.
+   */
+  public static ScoreRecord of(final String name, final GameState gameState) {
+    float accuracy = gameState.getBulletsShot() == 0 ? 0
+        : (float) gameState.getShipsDestroyed() / gameState.getBulletsShot();
+    return new ScoreRecord(System.currentTimeMillis(), name,
+        gameState.getScore(), gameState.getLevel(), accuracy,
+        gameState.getBulletsShot(), gameState.getShipsDestroyed());
+  }
+
+  /**
+   * @return the timestamp
+   */
+  public final long getTimestamp() {
+    return timestamp;
+  }
+
+  /**
+   * @return the name
+   */
+  public final String getName() {
+    return name;
+  }
+
+  /**
+   * @return the score
+   */
+  public final int getScore() {
+    return score;
+  }
+
+  /**
+   * @return the level
+   */
+  public final int getLevel() {
+    return level;
+  }
+
+  /**
+   * @return the accuracy
+   */
+  public final float getAccuracy() {
+    return accuracy;
+  }
+
+  /**
+   * @return the bulletsShot
+   */
+  public final int getBulletsShot() {
+    return bulletsShot;
+  }
+
+  /**
+   * @return the shipsDestroyed
+   */
+  public final int getShipsDestroyed() {
+    return shipsDestroyed;
+  }
+}
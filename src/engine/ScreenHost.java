@@ -0,0 +1,40 @@
+package engine;
+
+import screen.Screen;
+
+/**
+ * Shows the screens of the game flow, see Core.playGame(). The frame shows them in its window,
+ * SoakRunner runs them headless for the bot.
+ */
+interface ScreenHost {
+
+  /**
+   * Initializes a screen and runs it until it finishes.
+   *
+   * @param screen Screen to show.
+   * @return Return code of the finished screen.
+   */
+  int setScreen(Screen screen);
+
+  /**
+   * Runs a screen that is already initialized, e.g. one restored from a save.
+   *
+   * @param screen Screen to show.
+   * @return Return code of the finished screen.
+   */
+  int resumeScreen(Screen screen);
+
+  /**
+   * Getter for the width screens are drawn with.
+   *
+   * @return Screen width.
+   */
+  int getWidth();
+
+  /**
+   * Getter for the height screens are drawn with.
+   *
+   * @return Screen height.
+   */
+  int getHeight();
+}
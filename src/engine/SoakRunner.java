@@ -0,0 +1,276 @@
+package engine;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+import entity.Ship;
+import screen.GameScreen;
+import screen.Screen;
+import screen.TitleScreen;
+
+/**
+ * Lets the Bot play the whole game flow of Core headless over and over, title, buffs, levels, boss
+ * stages, saves and score, with sound on, for a given time, sampling heap, garbage collection,
+ * threads, bullet pool and ship speeds at intervals. Samples are written as CSV, followed by a
+ * summary of what grew over the run, so slow leaks show up as trends.
+ *
+ * <p>Usage: {@code java -jar Invaders.jar --soak [minutes [csv file [seconds between samples]]]}.
+ * Scores and saves are written to a temporary directory, not with the player's.
+ */
+public final class SoakRunner implements ScreenHost {
+
+  /**
+   * Minutes played by default.
+   */
+  private static final int DEFAULT_MINUTES = 60;
+  /**
+   * Seconds between samples by default.
+   */
+  private static final int DEFAULT_INTERVAL = 10;
+  /**
+   * CSV file written by default.
+   */
+  private static final String DEFAULT_CSV = "soak.csv";
+  /**
+   * Header of the CSV file.
+   */
+  private static final String CSV_HEADER = "seconds,games,ticks,heap_used,heap_after_gc,"
+      + "gc_count,gc_millis,threads,bullet_pool,ship_speed,bullet_speed";
+  /**
+   * Growth between the first and last quarter of the run reported as a trend.
+   */
+  private static final double TREND_GROWTH = 0.1;
+  /**
+   * Nanoseconds per second.
+   */
+  private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+  /**
+   * Clock the games run on.
+   */
+  private final ManualClock clock;
+  /**
+   * Samples taken so far, columns as in CSV_HEADER.
+   */
+  private final List<long[]> samples;
+  /**
+   * Time the run started.
+   */
+  private final long start;
+  /**
+   * Games finished.
+   */
+  private int games;
+  /**
+   * Ship of the last level played, to read the ship speeds.
+   */
+  private Ship ship;
+  /**
+   * Computer player.
+   */
+  private final Bot bot;
+
+  /**
+   * Constructor, switches the game to headless mode on a manual clock, keeping the sound on.
+   */
+  private SoakRunner() {
+    Core.setHeadless(true);
+    // Sounds are mixed and decoded as in a real game, on a null line without audio device, so
+    // leaking audio threads show in the samples.
+    SoundManager.setEnabled(true);
+    this.clock = new ManualClock(1000 / Core.FPS);
+    Core.setClock(this.clock);
+    this.samples = new ArrayList<long[]>();
+    this.start = System.nanoTime();
+    this.bot = new Bot();
+  }
+
+  /**
+   * Plays games until the time is up, then writes the samples and the summary.
+   *
+   * @param args Minutes to play, CSV file and seconds between samples, all optional.
+   */
+  public static void main(final String[] args) {
+    long minutes = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_MINUTES;
+    Path csv = Paths.get(args.length > 1 ? args[1] : DEFAULT_CSV);
+    long interval = args.length > 2 ? Long.parseLong(args[2]) : DEFAULT_INTERVAL;
+    // Per enemy logging would dominate the run time.
+    Core.getLogger().setLevel(Level.WARNING);
+    try {
+      Core.getFileManager().setDataDirectory(
+          Files.createTempDirectory("invaders-soak").toFile());
+    } catch (IOException e) {
+      System.err.println("Couldn't create data directory: " + e.getMessage());
+      return;
+    }
+
+    SoakRunner runner = new SoakRunner();
+    Core.openSaves();
+    Core.getInputManager().setInputSource(runner.bot);
+    long end = runner.start + minutes * 60 * NANOS_PER_SECOND;
+    long nextSample = runner.start + interval * NANOS_PER_SECOND;
+    while (System.nanoTime() < end) {
+      if (System.nanoTime() >= nextSample) {
+        runner.sample();
+        nextSample += interval * NANOS_PER_SECOND;
+      }
+      runner.playGame();
+    }
+    runner.sample();
+    Core.getInputManager().setInputSource(null);
+    Core.getHighScoreRepository().close();
+    Core.closeSaves();
+
+    String summary = runner.summary();
+    System.out.print(summary);
+    try {
+      runner.write(csv, summary);
+      System.out.println("Samples written to " + csv + ".");
+    } catch (IOException e) {
+      System.err.println("Couldn't write " + csv + ": " + e.getMessage());
+    }
+  }
+
+  /**
+   * Writes the samples as CSV, and the summary next to it.
+   *
+   * @param csv     CSV file.
+   * @param summary Summary of the run.
+   * @throws IOException In case of writing problems.
+   */
+  private void write(final Path csv, final String summary) throws IOException {
+    try (PrintWriter writer = new PrintWriter(
+        Files.newBufferedWriter(csv, StandardCharsets.UTF_8))) {
+      writer.println(CSV_HEADER);
+      for (long[] sample : this.samples) {
+        StringBuilder line = new StringBuilder();
+        for (long value : sample) {
+          line.append(line.length() > 0 ? "," : "").append(value);
+        }
+        writer.println(line);
+      }
+    }
+    Files.write(Paths.get(csv + ".summary.txt"), summary.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Plays a game through Core's own flow, from the title screen to the score screen, saves
+   * included.
+   */
+  private void playGame() {
+    setScreen(new TitleScreen(Core.WIDTH, Core.HEIGHT, Core.FPS));
+    Core.playGame(this, null);
+    this.games++;
+  }
+
+  @Override
+  public int setScreen(final Screen screen) {
+    screen.initialize();
+    return resumeScreen(screen);
+  }
+
+  /**
+   * Runs a screen played by the bot.
+   *
+   * @param screen Screen to run, already initialized.
+   * @return Return code of the finished screen.
+   */
+  @Override
+  public int resumeScreen(final Screen screen) {
+    this.bot.watch(screen);
+    int returnCode = screen.run();
+    if (screen instanceof GameScreen) {
+      this.ship = ((GameScreen) screen).getShip();
+    }
+    return returnCode;
+  }
+
+  @Override
+  public int getWidth() {
+    return Core.WIDTH;
+  }
+
+  @Override
+  public int getHeight() {
+    return Core.HEIGHT;
+  }
+
+  /**
+   * Takes a sample of the JVM and game state.
+   */
+  private void sample() {
+    long heapAfterGc = 0;
+    for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+      MemoryUsage usage = pool.getCollectionUsage();
+      if (pool.getType() == MemoryType.HEAP && usage != null) {
+        heapAfterGc += usage.getUsed();
+      }
+    }
+    long collections = 0;
+    long collectionMillis = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      collections += Math.max(0, collector.getCollectionCount());
+      collectionMillis += Math.max(0, collector.getCollectionTime());
+    }
+    this.samples.add(new long[] {
+        (System.nanoTime() - this.start) / NANOS_PER_SECOND,
+        this.games,
+        this.clock.millis() / this.clock.getStep(),
+        ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed(),
+        heapAfterGc,
+        collections,
+        collectionMillis,
+        ManagementFactory.getThreadMXBean().getThreadCount(),
+        Core.getBulletPool().size(),
+        this.ship != null ? this.ship.getSpeed() : 0,
+        this.ship != null ? this.ship.getBulletSpeed() : 0});
+  }
+
+  /**
+   * Summarizes the run, comparing the first and last quarter of the samples for every column that
+   * should stay flat.
+   *
+   * @return Summary text.
+   */
+  private String summary() {
+    long[] last = this.samples.get(this.samples.size() - 1);
+    StringBuilder summary = new StringBuilder();
+    summary.append(String.format("%d games, %d ticks in %d s, %d GCs taking %d ms.%n",
+        last[1], last[2], last[0], last[5], last[6]));
+
+    String[] columns = CSV_HEADER.split(",");
+    int[] flat = {4, 7, 8, 9, 10};
+    int quarter = Math.max(1, this.samples.size() / 4);
+    for (int column : flat) {
+      double first = 0;
+      double end = 0;
+      long max = Long.MIN_VALUE;
+      for (int i = 0; i < this.samples.size(); i++) {
+        long value = this.samples.get(i)[column];
+        max = Math.max(max, value);
+        if (i < quarter) {
+          first += (double) value / quarter;
+        }
+        if (i >= this.samples.size() - quarter) {
+          end += (double) value / quarter;
+        }
+      }
+      boolean growing = Math.abs(end) > Math.abs(first) * (1 + TREND_GROWTH);
+      summary.append(String.format("%-14s first %14.0f  last %14.0f  max %14d%s%n",
+          columns[column], first, end, max, growing ? "  GROWING" : ""));
+    }
+    return summary.toString();
+  }
+}
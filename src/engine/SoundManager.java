@@ -1,116 +1,323 @@
 package engine;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
 import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import javax.sound.sampled.AudioFormat;
 import javax.sound.sampled.AudioInputStream;
 import javax.sound.sampled.AudioSystem;
-import javax.sound.sampled.Clip;
-import javax.sound.sampled.FloatControl;
-import javax.sound.sampled.FloatControl.Type;
+import javax.sound.sampled.UnsupportedAudioFileException;
 
+/**
+ * Plays sound effects and music through the software mixer. Each sound effect is decoded once, off
+ * the game thread, music is streamed, and fades are computed sample by sample in the mix.
+ */
 public class SoundManager {
 
-  public static HashMap<String, Clip> clips = new HashMap<>();
+  /**
+   * Maximum sound requests waiting to be decoded or started, newer ones are dropped beyond this.
+   * Stops are always queued, see submitStop().
+   */
+  private static final int MAX_PENDING_TASKS = 32;
+  /**
+   * Milliseconds per fade step of the original fade speed unit.
+   */
+  private static final int FADE_INTERVAL = 50;
+  /**
+   * Gain, in decibels, considered silent when fading.
+   */
+  private static final float FADE_MIN_GAIN = -40;
+  /**
+   * Default crossfade between music tracks, in milliseconds.
+   */
+  public static final int MUSIC_CROSSFADE = 1500;
+
+  /**
+   * Application logger.
+   */
+  private static final Logger LOGGER = Core.getLogger();
+  /**
+   * Single thread decoding and starting sounds.
+   */
+  private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+  /**
+   * Decoded sounds in mixer format, by file path. Only used from the audio thread.
+   */
+  private static final Map<String, short[]> SOUNDS = new HashMap<>();
+  /**
+   * Playing voices, by clip name. Only used from the audio thread.
+   */
+  private static final Map<String, AudioMixer.Voice> VOICES = new HashMap<>();
+  /**
+   * If sounds are played, off when running headless.
+   */
+  private static volatile boolean enabled = true;
+  /**
+   * Clip name of the music track playing, null if none. Only used from the audio thread.
+   */
+  private static String music;
 
   public static void playSound(String soundFilePath, String clipName, boolean isLoop, boolean b,
       float v) {
-    new Thread(new Runnable() {
-      public void run() {
-        try {
-          URL url = getClass().getResource(soundFilePath);
-          AudioInputStream audioIn = AudioSystem.getAudioInputStream(url);
-          Clip clip = AudioSystem.getClip();
-          clip.open(audioIn);
-          if (isLoop) {
-            clip.loop(-1);
-          } else {
-            clip.start();
-          }
-          clips.put(clipName, clip); // Clip 객체를 배열에 저장
-        } catch (Exception e) {
-          e.printStackTrace();
-        }
-      }
-    }).start();
+    submit(() -> start(soundFilePath, clipName, isLoop, 1, 0));
   }
 
   public static void playSound(String soundFilePath, String clipName, boolean isLoop,
       float fadeInSpeed) {
-    new Thread(new Runnable() {
-      public void run() {
-        try {
-          File soundFile = new File(soundFilePath);
-          AudioInputStream audioIn = AudioSystem.getAudioInputStream(soundFile);
-          Clip clip = AudioSystem.getClip();
-          clip.open(audioIn);
-          FloatControl floatControl = (FloatControl) clip.getControl(Type.MASTER_GAIN);
-          floatControl.setValue(-40);
-          if (isLoop) {
-            clip.loop(-1);
-          } else {
-            clip.start();
-          }
-          clips.put(clipName, clip);
-          fadeIn(clipName, fadeInSpeed);// Clip 객체를 배열에 저장
-        } catch (Exception e) {
-          e.printStackTrace();
-        }
-      }
-    }).start();
+    submit(() -> start(soundFilePath, clipName, isLoop, toLinear(FADE_MIN_GAIN),
+        fadeDuration(fadeInSpeed)));
+  }
+
+  /**
+   * Streams a looping music track, crossfading from the track currently playing. The track is
+   * decoded in small chunks while it plays, so long tracks use no more memory than short ones.
+   *
+   * @param musicFilePath   Resource or file path of the track.
+   * @param clipName        Name to refer to the track, e.g. to stop it.
+   * @param crossfadeMillis Duration of the crossfade.
+   */
+  public static void playMusic(final String musicFilePath, final String clipName,
+      final int crossfadeMillis) {
+    submit(() -> startMusic(musicFilePath, clipName, crossfadeMillis));
+  }
+
+  /**
+   * Turns sound on or off. Requests made while off are ignored.
+   *
+   * @param isEnabled If sounds are played.
+   */
+  public static void setEnabled(final boolean isEnabled) {
+    enabled = isEnabled;
   }
 
   public static void stopSound(String clipName) {
-    Clip clip = clips.get(clipName);
-    if (clip != null && clip.isActive()) {
-      clip.stop();
-    }
+    submitStop(() -> {
+      AudioMixer.Voice voice = VOICES.remove(clipName);
+      if (voice != null && voice.isPlaying()) {
+        voice.stop();
+      }
+    });
   }
 
   public static void stopSound(String clipName, float fadeoutSpeed) {
-    Clip clip = clips.get(clipName);
-    if (clip != null && clip.isActive()) {
-      new Thread(new Runnable() {
-        public void run() {
-          float volume = ((FloatControl) clip.getControl(Type.MASTER_GAIN)).getValue();
-          FloatControl floatControl = (FloatControl) clips.get(clipName)
-              .getControl(Type.MASTER_GAIN);
-          while (volume > -40) {
-            floatControl.setValue(volume);
-            volume -= (0.4 * fadeoutSpeed);
-            try {
-              Thread.sleep(50);
-            } catch (InterruptedException e) {
-              throw new RuntimeException(e);
-            }
-          }
-          clip.stop();
-        }
-      }).start();
+    submitStop(() -> {
+      // Unregistered right away, so the clip can be played again while this one fades out.
+      AudioMixer.Voice voice = VOICES.remove(clipName);
+      if (voice != null && voice.isPlaying()) {
+        voice.fadeTo(0, fadeDuration(fadeoutSpeed), true);
+      }
+    });
+  }
+
+  /**
+   * Starts playing a sound. Runs on the audio thread.
+   *
+   * @param soundFilePath Resource or file path of the sound.
+   * @param clipName      Name to refer to the playing sound.
+   * @param isLoop        If the sound loops until stopped.
+   * @param gain          Initial linear gain.
+   * @param fadeInMillis  Duration of the fade to full gain, 0 for none.
+   */
+  private static void start(final String soundFilePath, final String clipName,
+      final boolean isLoop, final float gain, final int fadeInMillis) {
+    try {
+      AudioMixer.Voice playing = VOICES.get(clipName);
+      if (isLoop && playing != null && playing.isPlaying()) {
+        // Already looping, e.g. requested again for every boss ship.
+        return;
+      }
+      short[] sound = SOUNDS.get(soundFilePath);
+      if (sound == null) {
+        sound = decode(soundFilePath);
+        SOUNDS.put(soundFilePath, sound);
+      }
+      AudioMixer.Voice voice = AudioMixer.getInstance().play(sound, isLoop, gain);
+      if (fadeInMillis > 0) {
+        voice.fadeTo(1, fadeInMillis, false);
+      }
+      register(clipName, voice);
+    } catch (Exception e) {
+      LOGGER.warning("Couldn't play sound " + soundFilePath + ": " + e);
     }
   }
 
-  private static void fadeIn(String clipName, float fadeInSpeed) {
-    new Thread(new Runnable() {
-      Clip clip = clips.get(clipName);
-
-      public void run() {
-        float volume = ((FloatControl) clip.getControl(Type.MASTER_GAIN)).getValue();
-        FloatControl floatControl = (FloatControl) clips.get(clipName).getControl(Type.MASTER_GAIN);
-        floatControl.setValue(-80);
-        while (volume < 0) {
-          floatControl.setValue(volume);
-          volume += (0.4 * fadeInSpeed);
-          if (volume > 0) {
-            volume = 0;
-          }
-          try {
-            Thread.sleep(50);
-          } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-          }
+  /**
+   * Starts streaming a music track and fades out the previous one. Runs on the audio thread.
+   *
+   * @param musicFilePath   Resource or file path of the track.
+   * @param clipName        Name to refer to the track.
+   * @param crossfadeMillis Duration of the crossfade.
+   */
+  private static void startMusic(final String musicFilePath, final String clipName,
+      final int crossfadeMillis) {
+    try {
+      AudioMixer.Voice playing = VOICES.get(clipName);
+      if (playing != null && playing.isPlaying()) {
+        return;
+      }
+      AudioMixer.Voice voice = AudioMixer.getInstance()
+          .play(new MusicStream(locate(musicFilePath), true), 0);
+      voice.fadeTo(1, crossfadeMillis, false);
+
+      AudioMixer.Voice previous = music == null ? null : VOICES.get(music);
+      if (previous != null && previous.isPlaying()) {
+        previous.fadeTo(0, crossfadeMillis, true);
+      }
+      register(clipName, voice);
+      music = clipName;
+    } catch (Exception e) {
+      LOGGER.warning("Couldn't play music " + musicFilePath + ": " + e);
+    }
+  }
+
+  /**
+   * Registers a playing voice under its clip name, dropping voices that have ended so the registry
+   * only holds what is playing. Runs on the audio thread.
+   *
+   * @param clipName Name to refer to the voice.
+   * @param voice    Playing voice.
+   */
+  private static void register(final String clipName, final AudioMixer.Voice voice) {
+    VOICES.values().removeIf(playing -> !playing.isPlaying());
+    VOICES.put(clipName, voice);
+  }
+
+  /**
+   * Finds a sound, as a classpath resource first and as a file otherwise.
+   *
+   * @param soundFilePath Resource or file path of the sound.
+   * @return Location of the sound.
+   * @throws IOException If the path is not a valid file path.
+   */
+  private static URL locate(final String soundFilePath) throws IOException {
+    URL url = SoundManager.class.getResource(soundFilePath);
+    if (url == null) {
+      url = new File(soundFilePath).toURI().toURL();
+    }
+    return url;
+  }
+
+  /**
+   * Decodes a sound to the mixer format. Runs on the audio thread.
+   *
+   * @param soundFilePath Resource or file path of the sound.
+   * @return Decoded samples.
+   * @throws IOException                   In case of loading problems.
+   * @throws UnsupportedAudioFileException In case of an unknown format.
+   */
+  private static short[] decode(final String soundFilePath)
+      throws IOException, UnsupportedAudioFileException {
+    try (AudioInputStream source = AudioSystem.getAudioInputStream(locate(soundFilePath))) {
+      AudioFormat sourceFormat = source.getFormat();
+      AudioFormat format = new AudioFormat(AudioFormat.Encoding.PCM_SIGNED,
+          sourceFormat.getSampleRate(), 16, sourceFormat.getChannels(),
+          sourceFormat.getChannels() * 2, sourceFormat.getSampleRate(), false);
+      try (InputStream pcm = AudioSystem.getAudioInputStream(format, source)) {
+        ByteArrayOutputStream data = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = pcm.read(buffer)) > 0) {
+          data.write(buffer, 0, read);
         }
+        LOGGER.fine("Decoded sound " + soundFilePath + ".");
+        return AudioMixer.toMixFormat(format, data.toByteArray());
       }
-    }).start();
+    }
+  }
+
+  /**
+   * Duration of a fade between silence and full gain, for the original fade speeds of 0.4 decibels
+   * per 50 ms step.
+   *
+   * @param speed Fade speed.
+   * @return Fade duration in milliseconds.
+   */
+  private static int fadeDuration(final float speed) {
+    return (int) (-FADE_MIN_GAIN / (0.4f * speed) * FADE_INTERVAL);
+  }
+
+  /**
+   * Converts decibels to linear gain.
+   *
+   * @param decibels Gain in decibels.
+   * @return Linear gain.
+   */
+  private static float toLinear(final float decibels) {
+    return (float) Math.pow(10, decibels / 20);
+  }
+
+  /**
+   * Queues audio work, dropping it if the audio thread is falling behind.
+   *
+   * @param task Work to run on the audio thread.
+   */
+  private static void submit(final Runnable task) {
+    if (!enabled) {
+      return;
+    }
+    if (EXECUTOR.getQueue().size() >= MAX_PENDING_TASKS) {
+      LOGGER.warning("Audio thread busy, sound request dropped.");
+      return;
+    }
+    EXECUTOR.execute(task);
+  }
+
+  /**
+   * Queues a stop behind the requests already made, so a sound requested just before is started
+   * first and then stopped. Stops are never dropped, or they would leave a looping sound playing,
+   * and never wait: the queue only bounds the other requests, see submit().
+   *
+   * @param task Stop to run on the audio thread.
+   */
+  private static void submitStop(final Runnable task) {
+    if (!enabled) {
+      return;
+    }
+    EXECUTOR.execute(task);
+  }
+
+  /**
+   * Checks if a clip is playing once the requests already made have been run, e.g. for tests.
+   *
+   * @param clipName Name the sound was played with.
+   * @return True if a voice is registered under that name and still playing.
+   * @throws InterruptedException If interrupted while waiting for the audio thread.
+   * @throws ExecutionException   If the check failed on the audio thread.
+   */
+  static boolean isPlaying(final String clipName)
+      throws InterruptedException, ExecutionException {
+    FutureTask<Boolean> check = new FutureTask<Boolean>(() -> {
+      AudioMixer.Voice voice = VOICES.get(clipName);
+      return voice != null && voice.isPlaying();
+    });
+    EXECUTOR.execute(check);
+    return check.get();
+  }
+
+  /**
+   * Creates the audio thread, started right away so no request waits for it.
+   *
+   * @return Single thread executor. Its queue is unbounded, submit() bounds the requests.
+   */
+  private static ThreadPoolExecutor createExecutor() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+        new LinkedBlockingQueue<Runnable>(),
+        runnable -> {
+          Thread thread = new Thread(runnable, "audio");
+          thread.setDaemon(true);
+          return thread;
+        });
+    executor.prestartCoreThread();
+    return executor;
   }
 }
@@ -0,0 +1,276 @@
+package engine;
+
+/**
+ * Hierarchical timing wheel driven by the game clock. Timers are kept in slots by expiration time,
+ * so advancing the wheel costs in proportion to the timers that expire instead of the number of
+ * entities that own one.
+ *
+ * <p>Four levels of 64 slots cover 1 ms, 64 ms, 4 s and 4.5 min per slot, about 74 hours in
+ * total. Timers in higher levels are moved down as their slot comes up. Timers are reusable, so
+ * rescheduling one does not allocate.
+ */
+public final class TimerWheel {
+
+  /**
+   * Bits of slot index per level.
+   */
+  private static final int LEVEL_BITS = 6;
+  /**
+   * Slots per level.
+   */
+  private static final int LEVEL_SIZE = 1 << LEVEL_BITS;
+  /**
+   * Number of levels.
+   */
+  private static final int LEVELS = 4;
+
+  /**
+   * First timer of every slot, level by level.
+   */
+  private final Timer[] slots;
+  /**
+   * Current wheel time, in milliseconds.
+   */
+  private long now;
+  /**
+   * Clock time of the last advance.
+   */
+  private long clockMillis;
+  /**
+   * Timers scheduled.
+   */
+  private int size;
+
+  /**
+   * Action run once at a given time. Can be scheduled again once expired or cancelled.
+   */
+  public final class Timer {
+
+    /**
+     * Action run on expiration.
+     */
+    private final Runnable callback;
+    /**
+     * Wheel time of the expiration.
+     */
+    private long deadline;
+    /**
+     * Slot holding the timer, -1 if not scheduled.
+     */
+    private int slot;
+    /**
+     * Previous timer in the slot.
+     */
+    private Timer previous;
+    /**
+     * Next timer in the slot.
+     */
+    private Timer next;
+
+    /**
+     * Constructor.
+     *
+     * @param callback Action run on expiration.
+     */
+    private Timer(final Runnable callback) {
+      this.callback = callback;
+      this.slot = -1;
+    }
+
+    /**
+     * Schedules the timer, replacing any pending expiration.
+     *
+     * @param delayMillis Milliseconds until the timer expires, at least 1.
+     */
+    public void schedule(final long delayMillis) {
+      if (this.slot >= 0) {
+        unlink(this);
+      }
+      this.deadline = now + Math.max(1, delayMillis);
+      link(this);
+    }
+
+    /**
+     * Cancels the pending expiration, if any.
+     */
+    public void cancel() {
+      if (this.slot >= 0) {
+        unlink(this);
+      }
+    }
+
+    /**
+     * Checks if the timer is scheduled and has not expired yet.
+     *
+     * @return True while pending.
+     */
+    public boolean isPending() {
+      return this.slot >= 0;
+    }
+
+    /**
+     * Returns the time left until the timer expires.
+     *
+     * @return Milliseconds left, 0 if not pending.
+     */
+    public long getRemaining() {
+      return this.slot >= 0 ? this.deadline - now : 0;
+    }
+
+    /**
+     * Schedules the timer with the time left returned by getRemaining(), or cancels it.
+     *
+     * @param remaining Milliseconds left, 0 to cancel.
+     */
+    public void restore(final long remaining) {
+      if (remaining > 0) {
+        schedule(remaining);
+      } else {
+        cancel();
+      }
+    }
+  }
+
+  /**
+   * Constructor.
+   *
+   * @param clockMillis Current clock time.
+   */
+  public TimerWheel(final long clockMillis) {
+    this.slots = new Timer[LEVELS * LEVEL_SIZE];
+    this.clockMillis = clockMillis;
+  }
+
+  /**
+   * Creates a timer, not scheduled.
+   *
+   * @param callback Action run on expiration, on the thread advancing the wheel.
+   * @return New timer.
+   */
+  public Timer newTimer(final Runnable callback) {
+    return new Timer(callback);
+  }
+
+  /**
+   * Advances the wheel to the given clock time, running every timer that expires on the way in
+   * order. Called once per tick.
+   *
+   * @param millis Current clock time.
+   */
+  public void advanceTo(final long millis) {
+    long elapsed = millis - this.clockMillis;
+    this.clockMillis = millis;
+    for (long step = 0; step < elapsed; step++) {
+      if (this.size == 0) {
+        this.now += elapsed - step;
+        return;
+      }
+      this.now++;
+      cascade();
+      expire((int) (this.now & (LEVEL_SIZE - 1)));
+    }
+  }
+
+  /**
+   * Follows a new clock without advancing, e.g. when the game clock is replaced. Pending timers
+   * keep their remaining time.
+   *
+   * @param millis Current time of the new clock.
+   */
+  public void rebase(final long millis) {
+    this.clockMillis = millis;
+  }
+
+  /**
+   * Returns the number of timers scheduled.
+   *
+   * @return Pending timers.
+   */
+  public int size() {
+    return this.size;
+  }
+
+  /**
+   * Moves the timers of the higher level slots starting now down to lower levels.
+   */
+  private void cascade() {
+    for (int level = 1; level < LEVELS; level++) {
+      if ((this.now & ((1L << (LEVEL_BITS * level)) - 1)) != 0) {
+        return;
+      }
+      int slot = level * LEVEL_SIZE
+          + (int) ((this.now >>> (LEVEL_BITS * level)) & (LEVEL_SIZE - 1));
+      Timer timer = this.slots[slot];
+      this.slots[slot] = null;
+      while (timer != null) {
+        Timer next = timer.next;
+        this.size--;
+        link(timer);
+        timer = next;
+      }
+    }
+  }
+
+  /**
+   * Runs the timers of a first level slot, all due now.
+   *
+   * @param slot Slot index.
+   */
+  private void expire(final int slot) {
+    Timer timer;
+    while ((timer = this.slots[slot]) != null) {
+      unlink(timer);
+      timer.callback.run();
+    }
+  }
+
+  /**
+   * Adds a timer to the slot matching its deadline.
+   *
+   * @param timer Timer to add.
+   */
+  private void link(final Timer timer) {
+    long delta = Math.max(0, timer.deadline - this.now);
+    int level = 0;
+    while (level < LEVELS - 1 && delta >= 1L << (LEVEL_BITS * (level + 1))) {
+      level++;
+    }
+    long deadline = Math.max(timer.deadline, this.now);
+    if (level == LEVELS - 1) {
+      // Beyond the range of the wheel, parked in the last slot to come up.
+      deadline = Math.min(deadline, this.now
+          + (1L << (LEVEL_BITS * LEVELS)) - (1L << (LEVEL_BITS * level)));
+    }
+    int slot = level * LEVEL_SIZE
+        + (int) ((deadline >>> (LEVEL_BITS * level)) & (LEVEL_SIZE - 1));
+
+    timer.slot = slot;
+    timer.previous = null;
+    timer.next = this.slots[slot];
+    if (timer.next != null) {
+      timer.next.previous = timer;
+    }
+    this.slots[slot] = timer;
+    this.size++;
+  }
+
+  /**
+   * Removes a timer from its slot.
+   *
+   * @param timer Timer to remove.
+   */
+  private void unlink(final Timer timer) {
+    if (timer.previous != null) {
+      timer.previous.next = timer.next;
+    } else {
+      this.slots[timer.slot] = timer.next;
+    }
+    if (timer.next != null) {
+      timer.next.previous = timer.previous;
+    }
+    timer.slot = -1;
+    timer.previous = null;
+    timer.next = null;
+    this.size--;
+  }
+}
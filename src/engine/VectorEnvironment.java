@@ -0,0 +1,478 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+import java.nio.FloatBuffer;
+import java.util.List;
+import java.util.logging.Level;
+
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.Ship;
+import screen.GameScreen;
+
+/**
+ * Steps several levels in lockstep without rendering, for reinforcement learning, in the manner
+ * of a vectorized Gym environment. Each level runs in a game context of its own on a manual clock,
+ * all on the calling thread.
+ *
+ * <p>reset() starts every level, step() applies one action per level and plays one tick of each.
+ * Observations, rewards and episode ends are written in place into buffers allocated once, so a
+ * step allocates nothing beyond what the levels themselves do, but the bullet iterators. An action
+ * is a move, 0 to stay, 1 for left and 2 for right, plus 3 to fire. The reward is the score gained
+ * during the tick. A level that is cleared or lost is done, and restarted right away with the next
+ * seed: the observation written for it is already the one of the new episode.
+ *
+ * <p>Each observation is OBSERVATION_SIZE floats: the ship's horizontal position, if it is
+ * destroyed and the lives left, then the nearest enemy bullets as horizontal and vertical distance
+ * to the ship, speeds and a presence flag, then the nearest shooters as horizontal and vertical
+ * distance and a presence flag. Distances are in screen sizes, empty slots are zero.
+ *
+ * <p>Usage: {@code java -cp Invaders.jar engine.VectorEnvironment [levels [steps [seed]]]}
+ * measures the steps per second with random actions.
+ */
+public final class VectorEnvironment {
+
+  /**
+   * Number of actions, moves times firing or not.
+   */
+  public static final int ACTIONS = 6;
+  /**
+   * Floats describing the ship.
+   */
+  private static final int SHIP_FEATURES = 3;
+  /**
+   * Enemy bullets observed, nearest first.
+   */
+  private static final int BULLETS = 8;
+  /**
+   * Floats describing a bullet.
+   */
+  private static final int BULLET_FEATURES = 5;
+  /**
+   * Shooters observed, nearest first.
+   */
+  private static final int SHOOTERS = 4;
+  /**
+   * Floats describing a shooter.
+   */
+  private static final int SHOOTER_FEATURES = 3;
+  /**
+   * Floats of the observation of one level.
+   */
+  public static final int OBSERVATION_SIZE = SHIP_FEATURES + BULLETS * BULLET_FEATURES
+      + SHOOTERS * SHOOTER_FEATURES;
+  /**
+   * Bullet speed observed as 1.
+   */
+  private static final float SPEED_SCALE = 10f;
+  /**
+   * Levels stepped by default from the command line.
+   */
+  private static final int DEFAULT_LEVELS = 16;
+  /**
+   * Steps played by default from the command line.
+   */
+  private static final int DEFAULT_STEPS = 20_000;
+  /**
+   * Nanoseconds per second.
+   */
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  /**
+   * Number of levels stepped together.
+   */
+  private final int count;
+  /**
+   * Level number played.
+   */
+  private final int level;
+  /**
+   * Difficulty of the level played.
+   */
+  private final GameSettings gameSettings;
+  /**
+   * Seed of the first episode of the first level.
+   */
+  private final long seed;
+  /**
+   * Game context of each level.
+   */
+  private final GameContext[] contexts;
+  /**
+   * Input of each level.
+   */
+  private final ActionInput[] inputs;
+  /**
+   * Screen of each level.
+   */
+  private final GameScreen[] screens;
+  /**
+   * Episodes started by each level.
+   */
+  private final long[] episodes;
+  /**
+   * Score of each level after the last step.
+   */
+  private final int[] scores;
+  /**
+   * Observations, OBSERVATION_SIZE floats per level.
+   */
+  private final FloatBuffer observations;
+  /**
+   * Reward of each level in the last step.
+   */
+  private final float[] rewards;
+  /**
+   * If each level ended in the last step.
+   */
+  private final boolean[] dones;
+  /**
+   * Distances of the nearest objects found while observing, ascending.
+   */
+  private final int[] nearestDistances;
+  /**
+   * Features of the nearest objects found while observing, in the same order.
+   */
+  private final float[] nearestFeatures;
+
+  /**
+   * Input holding the keys of the action chosen for the next tick.
+   */
+  private static final class ActionInput implements InputSource {
+    /**
+     * Action of the next tick.
+     */
+    private int action;
+
+    @Override
+    public void nextTick(final InputManager inputManager) {
+      int move = this.action % 3;
+      setKey(inputManager, KeyEvent.VK_LEFT, move == 1);
+      setKey(inputManager, KeyEvent.VK_RIGHT, move == 2);
+      setKey(inputManager, KeyEvent.VK_SPACE, this.action >= 3);
+    }
+
+    /**
+     * Presses or releases a key if it is not already in that state.
+     *
+     * @param inputManager Input to act on.
+     * @param keyCode      Key number.
+     * @param down         True to hold the key down.
+     */
+    private static void setKey(final InputManager inputManager, final int keyCode,
+        final boolean down) {
+      if (inputManager.isKeyHeld(keyCode) != down) {
+        inputManager.applyEvent(keyCode, down, System.nanoTime());
+      }
+    }
+  }
+
+  /**
+   * Constructor, with observations in a new heap buffer.
+   *
+   * @param levels    Number of levels stepped together.
+   * @param level     Level number played, from 1.
+   * @param bossStage Boss stage of the level, 0 for the level itself.
+   * @param firstSeed Seed of the first episode, each episode of each level gets the next one.
+   */
+  public VectorEnvironment(final int levels, final int level, final int bossStage,
+      final long firstSeed) {
+    this(levels, level, bossStage, firstSeed,
+        FloatBuffer.wrap(new float[levels * OBSERVATION_SIZE]));
+  }
+
+  /**
+   * Constructor, with observations written to the given buffer, e.g. a direct buffer shared with
+   * native code.
+   *
+   * @param levels       Number of levels stepped together.
+   * @param level        Level number played, from 1.
+   * @param bossStage    Boss stage of the level, 0 for the level itself.
+   * @param firstSeed    Seed of the first episode, each episode of each level gets the next one.
+   * @param observations Buffer of at least levels * OBSERVATION_SIZE floats, from index 0.
+   */
+  public VectorEnvironment(final int levels, final int level, final int bossStage,
+      final long firstSeed, final FloatBuffer observations) {
+    if (observations.capacity() < levels * OBSERVATION_SIZE) {
+      throw new IllegalArgumentException("Observation buffer holds "
+          + observations.capacity() + " floats, " + levels * OBSERVATION_SIZE + " needed.");
+    }
+    Core.setHeadless(true);
+    this.count = levels;
+    this.level = level;
+    this.gameSettings = Core.getGameSettings(level, bossStage);
+    this.seed = firstSeed;
+    this.contexts = new GameContext[levels];
+    this.inputs = new ActionInput[levels];
+    this.screens = new GameScreen[levels];
+    this.episodes = new long[levels];
+    this.scores = new int[levels];
+    this.observations = observations;
+    this.rewards = new float[levels];
+    this.dones = new boolean[levels];
+    this.nearestDistances = new int[Math.max(BULLETS, SHOOTERS)];
+    this.nearestFeatures = new float[Math.max(BULLETS * BULLET_FEATURES,
+        SHOOTERS * SHOOTER_FEATURES)];
+    for (int i = 0; i < levels; i++) {
+      this.contexts[i] = new GameContext(new ManualClock(1000 / Core.FPS));
+      this.inputs[i] = new ActionInput();
+      this.contexts[i].getInputManager().setInputSource(this.inputs[i]);
+    }
+  }
+
+  /**
+   * Measures the steps per second with random actions.
+   *
+   * @param args Number of levels, steps and seed, all optional.
+   */
+  public static void main(final String[] args) {
+    int levels = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_LEVELS;
+    int steps = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_STEPS;
+    long seed = args.length > 2 ? Long.parseLong(args[2]) : GameRandom.newSeed();
+    // Per enemy logging would dominate the run time.
+    Core.getLogger().setLevel(Level.WARNING);
+
+    VectorEnvironment environment = new VectorEnvironment(levels, 1, 0, seed);
+    GameRandom random = new GameRandom(seed);
+    int[] actions = new int[levels];
+    environment.reset();
+    long start = System.nanoTime();
+    long episodes = 0;
+    for (int step = 0; step < steps; step++) {
+      for (int i = 0; i < levels; i++) {
+        actions[i] = random.nextInt(ACTIONS);
+      }
+      environment.step(actions);
+      for (boolean done : environment.getDones()) {
+        episodes += done ? 1 : 0;
+      }
+    }
+    double seconds = (System.nanoTime() - start) / NANOS_PER_SECOND;
+    System.out.println(String.format(
+        "%d steps of %d levels in %.2f s: %.0f level steps/s, %d episodes ended.", steps,
+        levels, seconds, (double) steps * levels / seconds, episodes));
+  }
+
+  /**
+   * Starts a new episode in every level and writes their observations.
+   */
+  public void reset() {
+    for (int i = 0; i < this.count; i++) {
+      this.contexts[i].install();
+      start(i);
+      observe(i);
+      this.rewards[i] = 0;
+      this.dones[i] = false;
+    }
+    GameContext.uninstall();
+  }
+
+  /**
+   * Plays one tick of every level with the given actions, and writes the observations, rewards and
+   * episode ends. Levels done are restarted.
+   *
+   * @param actions Action of each level, from 0 to ACTIONS - 1.
+   */
+  public void step(final int[] actions) {
+    if (actions.length != this.count) {
+      throw new IllegalArgumentException(actions.length + " actions for "
+          + this.count + " levels.");
+    }
+    for (int i = 0; i < this.count; i++) {
+      this.contexts[i].install();
+      this.inputs[i].action = actions[i];
+      GameScreen screen = this.screens[i];
+      screen.step();
+      this.rewards[i] = screen.getScore() - this.scores[i];
+      this.scores[i] = screen.getScore();
+      this.dones[i] = screen.isLevelFinished();
+      if (this.dones[i]) {
+        start(i);
+      }
+      observe(i);
+    }
+    GameContext.uninstall();
+  }
+
+  /**
+   * Starts a new episode of a level, and plays the countdown of the level, during which actions
+   * are ignored. Its context must be installed.
+   *
+   * @param index Level to start.
+   */
+  private void start(final int index) {
+    long episodeSeed = this.seed + index + this.episodes[index] * this.count;
+    this.episodes[index]++;
+    this.inputs[index].action = 0;
+    GameScreen screen = new GameScreen(
+        new GameState(this.level, 0, Core.MAX_LIVES, 0, 0, episodeSeed),
+        this.gameSettings, false, Core.WIDTH, Core.HEIGHT, Core.FPS);
+    screen.initialize();
+    while (!screen.isInputReady()) {
+      screen.step();
+    }
+    this.screens[index] = screen;
+    this.scores[index] = screen.getScore();
+  }
+
+  /**
+   * Writes the observation of a level.
+   *
+   * @param index Level to observe.
+   */
+  private void observe(final int index) {
+    GameScreen screen = this.screens[index];
+    Ship ship = screen.getShip();
+    float width = screen.getWidth();
+    float height = screen.getHeight();
+    int center = ship.getPositionX() + ship.getWidth() / 2;
+    int base = index * OBSERVATION_SIZE;
+
+    this.observations.put(base, center / width);
+    this.observations.put(base + 1, ship.isDestroyed() ? 1 : 0);
+    this.observations.put(base + 2, (float) screen.getLives() / Core.MAX_LIVES);
+    base += SHIP_FEATURES;
+
+    // Enemy bullets still above the bottom of the ship, nearest first.
+    int found = 0;
+    for (Bullet bullet : screen.getBullets()) {
+      found = addBullet(found, ship, bullet, 0, width, height);
+    }
+    for (Bullet bullet : screen.getTurningBullets()) {
+      int speedX = bullet.getIsTurning() == 1 ? bullet.getSpeedX()
+          : bullet.getIsTurning() == 2 ? -bullet.getSpeedX() : 0;
+      found = addBullet(found, ship, bullet, speedX, width, height);
+    }
+    copyNearest(base, found, BULLETS * BULLET_FEATURES, BULLET_FEATURES);
+    base += BULLETS * BULLET_FEATURES;
+
+    // Shooters, horizontally nearest first.
+    found = 0;
+    List<EnemyShip> shooters = screen.getEnemyShipFormation().getShooters();
+    for (int i = 0; i < shooters.size(); i++) {
+      EnemyShip shooter = shooters.get(i);
+      if (shooter.isDestroyed()) {
+        continue;
+      }
+      int dx = shooter.getPositionX() + shooter.getWidth() / 2 - center;
+      int slot = insert(found, SHOOTERS, Math.abs(dx), SHOOTER_FEATURES);
+      if (slot >= 0) {
+        this.nearestFeatures[slot] = dx / width;
+        this.nearestFeatures[slot + 1] = (ship.getPositionY() - shooter.getPositionY()) / height;
+        this.nearestFeatures[slot + 2] = 1;
+        found = Math.min(found + 1, SHOOTERS);
+      }
+    }
+    copyNearest(base, found, SHOOTERS * SHOOTER_FEATURES, SHOOTER_FEATURES);
+  }
+
+  /**
+   * Adds an enemy bullet to the nearest ones, if it is near enough.
+   *
+   * @param found  Bullets found so far.
+   * @param ship   Player's ship.
+   * @param bullet Bullet to add.
+   * @param speedX Horizontal speed of the bullet.
+   * @param width  Screen width.
+   * @param height Screen height.
+   * @return Bullets found, this one included.
+   */
+  private int addBullet(final int found, final Ship ship, final Bullet bullet, final int speedX,
+      final float width, final float height) {
+    int dy = ship.getPositionY() - bullet.getPositionY() - bullet.getHeight();
+    if (bullet.getSpeedY() <= 0 || dy < -ship.getHeight() - bullet.getHeight()) {
+      return found;
+    }
+    int dx = bullet.getPositionX() + bullet.getWidth() / 2
+        - ship.getPositionX() - ship.getWidth() / 2;
+    int slot = insert(found, BULLETS, Math.abs(dx) + Math.max(0, dy), BULLET_FEATURES);
+    if (slot < 0) {
+      return found;
+    }
+    this.nearestFeatures[slot] = dx / width;
+    this.nearestFeatures[slot + 1] = dy / height;
+    this.nearestFeatures[slot + 2] = speedX / SPEED_SCALE;
+    this.nearestFeatures[slot + 3] = bullet.getSpeedY() / SPEED_SCALE;
+    this.nearestFeatures[slot + 4] = 1;
+    return Math.min(found + 1, BULLETS);
+  }
+
+  /**
+   * Makes room for an object among the nearest ones found, keeping them sorted by distance.
+   *
+   * @param found    Objects found so far.
+   * @param capacity Objects kept.
+   * @param distance Distance of the new object.
+   * @param features Floats per object.
+   * @return Index of the features of the new object, -1 if it is farther than every one kept.
+   */
+  private int insert(final int found, final int capacity, final int distance,
+      final int features) {
+    int position = found;
+    while (position > 0 && this.nearestDistances[position - 1] > distance) {
+      position--;
+    }
+    if (position >= capacity) {
+      return -1;
+    }
+    int last = Math.min(found, capacity - 1);
+    System.arraycopy(this.nearestDistances, position, this.nearestDistances, position + 1,
+        last - position);
+    System.arraycopy(this.nearestFeatures, position * features, this.nearestFeatures,
+        (position + 1) * features, (last - position) * features);
+    this.nearestDistances[position] = distance;
+    return position * features;
+  }
+
+  /**
+   * Copies the nearest objects found to the observations, and clears the empty slots.
+   *
+   * @param base     Index of the first float in the observations.
+   * @param found    Objects found.
+   * @param size     Floats of every slot.
+   * @param features Floats per object.
+   */
+  private void copyNearest(final int base, final int found, final int size,
+      final int features) {
+    int used = found * features;
+    for (int i = 0; i < size; i++) {
+      this.observations.put(base + i, i < used ? this.nearestFeatures[i] : 0);
+    }
+  }
+
+  /**
+   * Returns the observations, written in place by reset() and step().
+   *
+   * @return OBSERVATION_SIZE floats per level, from index 0.
+   */
+  public FloatBuffer getObservations() {
+    return this.observations;
+  }
+
+  /**
+   * Returns the rewards, written in place by step().
+   *
+   * @return Score gained by each level in the last step.
+   */
+  public float[] getRewards() {
+    return this.rewards;
+  }
+
+  /**
+   * Returns the episode ends, written in place by step().
+   *
+   * @return If each level was cleared or lost in the last step, and restarted.
+   */
+  public boolean[] getDones() {
+    return this.dones;
+  }
+
+  /**
+   * Returns the number of levels stepped together.
+   *
+   * @return Number of levels.
+   */
+  public int getCount() {
+    return this.count;
+  }
+}
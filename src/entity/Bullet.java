@@ -1,25 +1,26 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 
 import engine.DrawManager.SpriteType;
 
 /**
- * Implements a bullet that moves vertically up or down.
+ * Implements a bullet that moves vertically up or down, or curves when shot turning. The systems of
+ * the world move it, see World.
  *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  */
 public class Bullet extends Entity {
 
   /**
-   * Speed of the bullet, positive or negative depending on direction - positive is down.
+   * Width of a bullet.
    */
-  private int speedX;
-  private int speedY;
-  private int isTurning;
-
-  private boolean firstTouchX;
-  private boolean firstTouchY;
+  private static final int WIDTH = 3 * 2;
+  /**
+   * Height of a bullet.
+   */
+  private static final int HEIGHT = 5 * 2;
 
   /**
    * Constructor, establishes the bullet's properties.
@@ -30,69 +31,30 @@ public class Bullet extends Entity {
    *                  down.
    */
   public Bullet(final int positionX, final int positionY, final int speed) {
-    super(positionX, positionY, 3 * 2, 5 * 2, Color.WHITE);
+    super(positionX, positionY, WIDTH, HEIGHT, Color.WHITE);
 
-    this.speedX = speed + 2;
-    this.speedY = speed;
-    this.isTurning = 0;
-    this.firstTouchX = false;
-    this.firstTouchY = false;
+    setSpeed(speed);
     setSprite();
   }
 
   /**
-   * Sets correct sprite for the bullet, based on speed.
+   * Puts a pooled bullet back in play, standing still at the origin.
    */
-  public final void setSprite() {
-    if (speedY < 0) {
-      this.spriteType = SpriteType.Bullet;
-    } else {
-      this.spriteType = SpriteType.EnemyBullet;
-    }
+  final void spawn() {
+    this.id = this.world.spawn(this, 0, 0, WIDTH, HEIGHT);
+    this.world.setColor(this.id, Color.WHITE);
   }
 
   /**
-   * Updates the bullet's position.
+   * Sets correct sprite and faction for the bullet, based on speed.
    */
-  public final void update() {
-    this.positionY += this.speedY;
-  }
-
-  public final void turnLeft() {
-    this.positionX += this.speedX;
-    this.positionY += this.speedY;
-    if (this.speedX > -6 && !this.firstTouchX) {
-      this.speedX -= 1;
-    } else if (this.speedX == -6 && !this.firstTouchX) {
-      this.firstTouchX = true;
-    } else {
-      this.speedX += 1;
-    }
-    if (this.speedY > -6 && !this.firstTouchY) {
-      this.speedY -= 1;
-    } else if (this.speedY == -6 && !this.firstTouchY) {
-      this.firstTouchY = true;
-    } else {
-      this.speedY += 1;
-    }
-  }
-
-  public final void turnRight() {
-    this.positionX -= this.speedX;
-    this.positionY += this.speedY;
-    if (this.speedX > -6 && !this.firstTouchX) {
-      this.speedX -= 1;
-    } else if (this.speedX == -6 && !this.firstTouchX) {
-      this.firstTouchX = true;
-    } else {
-      this.speedX += 1;
-    }
-    if (this.speedY > -6 && !this.firstTouchY) {
-      this.speedY -= 1;
-    } else if (this.speedY == -6 && !this.firstTouchY) {
-      this.firstTouchY = true;
+  public final void setSprite() {
+    if (this.world.getVelocityY(this.id) < 0) {
+      this.world.setSprite(this.id, SpriteType.Bullet);
+      this.world.setFaction(this.id, World.PLAYER);
     } else {
-      this.speedY += 1;
+      this.world.setSprite(this.id, SpriteType.EnemyBullet);
+      this.world.setFaction(this.id, World.ENEMY);
     }
   }
 
@@ -102,8 +64,7 @@ public class Bullet extends Entity {
    * @param speed New speed of the bullet.
    */
   public final void setSpeed(final int speed) {
-    this.speedX = speed + 2;
-    this.speedY = speed;
+    this.world.setVelocity(this.id, speed + 2, speed);
   }
 
   /**
@@ -112,26 +73,68 @@ public class Bullet extends Entity {
    * @return Speed of the bullet.
    */
   public final int getSpeedY() {
-    return this.speedY;
-  }
-
-  public final void setFirstTouchX() {
-    this.firstTouchX = false;
+    return this.world.getVelocityY(this.id);
   }
 
-  public final void setFirstTouchY() {
-    this.firstTouchY = false;
+  /**
+   * Getter for the horizontal speed of a turning bullet.
+   *
+   * @return Horizontal speed, towards the side given by getIsTurning().
+   */
+  public final int getSpeedX() {
+    return this.world.getVelocityX(this.id);
   }
 
   public final void setIsTurningLeft() {
-    this.isTurning = 1;
+    this.world.setMotion(this.id, World.TURNING_LEFT);
   }
 
   public final void setIsTurningRight() {
-    this.isTurning = 2;
+    this.world.setMotion(this.id, World.TURNING_RIGHT);
   }
 
   public final int getIsTurning() {
-    return this.isTurning;
+    return this.world.getMotion(this.id);
+  }
+
+  /**
+   * Makes the bullet go straight again, e.g. when reused from the pool.
+   */
+  public final void resetTurning() {
+    this.world.setMotion(this.id, World.STRAIGHT);
+    this.world.setTouches(this.id, (byte) 0);
+  }
+
+  /**
+   * Writes the state of the bullet for a snapshot.
+   *
+   * @param buffer Buffer to write to.
+   */
+  public final void save(final ByteBuffer buffer) {
+    buffer.putInt(this.world.getPositionX(this.id));
+    buffer.putInt(this.world.getPositionY(this.id));
+    buffer.putInt(this.world.getVelocityX(this.id));
+    buffer.putInt(this.world.getVelocityY(this.id));
+    buffer.put((byte) this.world.getSprite(this.id).ordinal());
+    buffer.put(this.world.getMotion(this.id));
+    buffer.put(this.world.getTouches(this.id));
+  }
+
+  /**
+   * Restores a state written by save().
+   *
+   * @param buffer Buffer to read from.
+   */
+  public final void load(final ByteBuffer buffer) {
+    this.world.setPositionX(this.id, buffer.getInt());
+    this.world.setPositionY(this.id, buffer.getInt());
+    int speedX = buffer.getInt();
+    this.world.setVelocity(this.id, speedX, buffer.getInt());
+    SpriteType spriteType = SpriteType.values()[buffer.get()];
+    this.world.setSprite(this.id, spriteType);
+    this.world.setFaction(this.id,
+        spriteType == SpriteType.Bullet ? World.PLAYER : World.ENEMY);
+    this.world.setMotion(this.id, buffer.get());
+    this.world.setTouches(this.id, buffer.get());
   }
 }
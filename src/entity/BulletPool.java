@@ -4,7 +4,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 /**
- * Implements a pool of recyclable bullets.
+ * Implements a pool of recyclable bullets. Each game context has its own, see Core.getBulletPool().
  *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  */
@@ -13,13 +13,13 @@ public final class BulletPool {
   /**
    * Set of already created bullets.
    */
-  private static Set<Bullet> pool = new HashSet<Bullet>();
+  private final Set<Bullet> pool;
 
   /**
-   * Constructor, not called.
+   * Constructor.
    */
-  private BulletPool() {
-
+  public BulletPool() {
+    this.pool = new HashSet<Bullet>();
   }
 
   /**
@@ -31,12 +31,13 @@ public final class BulletPool {
    *                  positive is down.
    * @return Requested bullet.
    */
-  public static Bullet getBullet(final int positionX,
+  public Bullet getBullet(final int positionX,
       final int positionY, final int speed) {
     Bullet bullet;
-    if (!pool.isEmpty()) {
-      bullet = pool.iterator().next();
-      pool.remove(bullet);
+    if (!this.pool.isEmpty()) {
+      bullet = this.pool.iterator().next();
+      this.pool.remove(bullet);
+      bullet.spawn();
       bullet.setPositionX(positionX - bullet.getWidth() / 2);
       bullet.setPositionY(positionY);
       bullet.setSpeed(speed);
@@ -49,11 +50,24 @@ public final class BulletPool {
   }
 
   /**
-   * Adds one or more bullets to the list of available ones.
+   * Takes one or more bullets out of play and adds them to the list of available ones.
    *
    * @param bullet Bullets to recycle.
    */
-  public static void recycle(final Set<Bullet> bullet) {
-    pool.addAll(bullet);
+  public void recycle(final Set<Bullet> bullet) {
+    for (Bullet recycled : bullet) {
+      if (recycled.despawn()) {
+        this.pool.add(recycled);
+      }
+    }
+  }
+
+  /**
+   * Returns the number of bullets available for reuse.
+   *
+   * @return Pooled bullets.
+   */
+  public int size() {
+    return this.pool.size();
   }
 }
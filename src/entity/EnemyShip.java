@@ -1,10 +1,11 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 
-import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager.SpriteType;
+import engine.TimerWheel;
 
 /**
  * Implements a enemy ship, to be destroyed by the player.
@@ -35,9 +36,13 @@ public class EnemyShip extends Entity {
   private static final int BONUS_TYPE_POINTS = 100;
 
   /**
-   * Cooldown between sprite changes.
+   * Time between sprite changes.
    */
-  private Cooldown animationCooldown;
+  private static final int ANIMATION_INTERVAL = 500;
+  /**
+   * Changes the sprite and schedules the next change, null for ships that aren't animated.
+   */
+  private TimerWheel.Timer animationTimer;
   /**
    * Checks if the ship has been hit by a bullet.
    */
@@ -49,8 +54,6 @@ public class EnemyShip extends Entity {
 
   private boolean isBoss;
 
-  private int hpValue = 0;
-
   /**
    * Constructor, establishes the ship's properties.
    *
@@ -62,12 +65,14 @@ public class EnemyShip extends Entity {
       final SpriteType spriteType) {
     super(positionX, positionY, 12 * 2, 8 * 2, Color.WHITE);
 
-    this.spriteType = spriteType;
-    this.animationCooldown = Core.getCooldown(500);
+    setSpriteType(spriteType);
+    this.world.setFaction(this.id, World.ENEMY);
+    this.animationTimer = Core.getTimerWheel().newTimer(this::animate);
+    this.animationTimer.schedule(ANIMATION_INTERVAL);
     this.isDestroyed = false;
     this.isBoss = false;
 
-    switch (this.spriteType) {
+    switch (spriteType) {
       case EnemyShipA1:
       case EnemyShipA2:
         this.pointValue = A_TYPE_POINTS;
@@ -90,18 +95,18 @@ public class EnemyShip extends Entity {
       final SpriteType spriteType, final Color color) {
     super(positionX, positionY, width * 2, height * 2, color);
 
-    this.spriteType = spriteType;
-    this.animationCooldown = Core.getCooldown(500);
+    setSpriteType(spriteType);
+    this.world.setFaction(this.id, World.ENEMY);
     this.isDestroyed = false;
     this.isBoss = true;
 
-    switch (this.spriteType) {
+    switch (spriteType) {
       case BossA:
       case BossB:
       case BossC:
       case BossD:
         this.pointValue = BOSS_A_TYPE_POINTS;
-        this.hpValue = 10;
+        this.world.setHealth(this.id, 10);
         break;
     }
   }
@@ -114,12 +119,67 @@ public class EnemyShip extends Entity {
   public EnemyShip() {
     super(-32, 60, 16 * 2, 7 * 2, Color.RED);
 
-    this.spriteType = SpriteType.EnemyShipSpecial;
+    setSpriteType(SpriteType.EnemyShipSpecial);
+    this.world.setFaction(this.id, World.ENEMY);
     this.isDestroyed = false;
     this.pointValue = BONUS_TYPE_POINTS;
     this.isBoss = false;
   }
 
+  /**
+   * Constructor, restores a ship written by save().
+   *
+   * @param buffer Buffer to read from.
+   */
+  private EnemyShip(final ByteBuffer buffer) {
+    super(buffer.getInt(), buffer.getInt(), buffer.getInt(), buffer.getInt(),
+        new Color(buffer.getInt(), true));
+
+    setSpriteType(SpriteType.values()[buffer.get()]);
+    this.world.setFaction(this.id, World.ENEMY);
+    byte flags = buffer.get();
+    this.isDestroyed = (flags & 1) != 0;
+    this.isBoss = (flags & 2) != 0;
+    this.pointValue = buffer.getInt();
+    this.world.setHealth(this.id, buffer.getInt());
+    setLifetime(buffer.getInt());
+    int animationRemaining = buffer.getInt();
+    if (animationRemaining > 0) {
+      this.animationTimer = Core.getTimerWheel().newTimer(this::animate);
+      this.animationTimer.schedule(animationRemaining);
+    }
+  }
+
+  /**
+   * Restores a ship written by save().
+   *
+   * @param buffer Buffer to read from.
+   * @return Restored ship.
+   */
+  public static EnemyShip load(final ByteBuffer buffer) {
+    return new EnemyShip(buffer);
+  }
+
+  /**
+   * Writes the state of the ship for a snapshot.
+   *
+   * @param buffer Buffer to write to.
+   */
+  public final void save(final ByteBuffer buffer) {
+    buffer.putInt(getPositionX());
+    buffer.putInt(getPositionY());
+    buffer.putInt(getWidth());
+    buffer.putInt(getHeight());
+    buffer.putInt(getColor().getRGB());
+    buffer.put((byte) getSpriteType().ordinal());
+    buffer.put((byte) ((this.isDestroyed ? 1 : 0) | (this.isBoss ? 2 : 0)));
+    buffer.putInt(this.pointValue);
+    buffer.putInt(this.world.getHealth(this.id));
+    buffer.putInt(this.world.getLifetime(this.id));
+    buffer.putInt(this.animationTimer == null ? 0
+        : (int) this.animationTimer.getRemaining());
+  }
+
   /**
    * Getter for the score bonus if this ship is destroyed.
    *
@@ -136,40 +196,38 @@ public class EnemyShip extends Entity {
    * @param distanceY Distance to move in the Y axis.
    */
   public final void move(final int distanceX, final int distanceY) {
-    this.positionX += distanceX;
-    this.positionY += distanceY;
+    setPositionX(getPositionX() + distanceX);
+    setPositionY(getPositionY() + distanceY);
   }
 
   /**
-   * Updates attributes, mainly used for animation purposes.
-   */
-  public final void update() {
-    if (this.animationCooldown.checkFinished()) {
-      this.animationCooldown.reset();
-
-      switch (this.spriteType) {
-        case EnemyShipA1:
-          this.spriteType = SpriteType.EnemyShipA2;
-          break;
-        case EnemyShipA2:
-          this.spriteType = SpriteType.EnemyShipA1;
-          break;
-        case EnemyShipB1:
-          this.spriteType = SpriteType.EnemyShipB2;
-          break;
-        case EnemyShipB2:
-          this.spriteType = SpriteType.EnemyShipB1;
-          break;
-        case EnemyShipC1:
-          this.spriteType = SpriteType.EnemyShipC2;
-          break;
-        case EnemyShipC2:
-          this.spriteType = SpriteType.EnemyShipC1;
-          break;
-        default:
-          break;
-      }
+   * Switches to the other sprite of the ship and schedules the next switch. Run by the timer wheel,
+   * so ships cost nothing between switches.
+   */
+  private void animate() {
+    switch (getSpriteType()) {
+      case EnemyShipA1:
+        setSpriteType(SpriteType.EnemyShipA2);
+        break;
+      case EnemyShipA2:
+        setSpriteType(SpriteType.EnemyShipA1);
+        break;
+      case EnemyShipB1:
+        setSpriteType(SpriteType.EnemyShipB2);
+        break;
+      case EnemyShipB2:
+        setSpriteType(SpriteType.EnemyShipB1);
+        break;
+      case EnemyShipC1:
+        setSpriteType(SpriteType.EnemyShipC2);
+        break;
+      case EnemyShipC2:
+        setSpriteType(SpriteType.EnemyShipC1);
+        break;
+      default:
+        return;
     }
+    this.animationTimer.schedule(ANIMATION_INTERVAL);
   }
 
   /**
@@ -177,11 +235,27 @@ public class EnemyShip extends Entity {
    */
   public final void destroy() {
     this.isDestroyed = true;
+    if (this.animationTimer != null) {
+      this.animationTimer.cancel();
+    }
     if (this.isBoss) {
-      this.spriteType = SpriteType.BossExplosion;
+      setSpriteType(SpriteType.BossExplosion);
     } else {
-      this.spriteType = SpriteType.Explosion;
+      setSpriteType(SpriteType.Explosion);
+    }
+  }
+
+  /**
+   * Takes the ship out of play, stopping its animation.
+   *
+   * @return False if it was already out of play.
+   */
+  @Override
+  public final boolean despawn() {
+    if (this.animationTimer != null) {
+      this.animationTimer.cancel();
     }
+    return super.despawn();
   }
 
   /**
@@ -198,10 +272,10 @@ public class EnemyShip extends Entity {
   }
 
   public final int isHpValue() {
-    return this.hpValue;
+    return this.world.getHealth(this.id);
   }
 
   public final void getDamage(int damage) {
-    this.hpValue -= damage;
+    this.world.setHealth(this.id, this.world.getHealth(this.id) - damage);
   }
 }
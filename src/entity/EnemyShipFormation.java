@@ -1,6 +1,7 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -18,6 +19,7 @@ import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager;
 import engine.DrawManager.SpriteType;
+import engine.GameRandom;
 import engine.GameSettings;
 
 /**
@@ -215,6 +217,10 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
   private boolean isTurningBulletsOn;
   private int randomLazerLocation;
   private int randomTurningBulletLocation;
+  /**
+   * Random numbers of the game.
+   */
+  private GameRandom random;
 
   private @Setter boolean isTesting;
 
@@ -242,8 +248,11 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
    * Constructor, sets the initial conditions.
    *
    * @param gameSettings Current game settings.
+   * @param random       Random numbers of the game.
    */
-  public EnemyShipFormation(final GameSettings gameSettings) {
+  public EnemyShipFormation(final GameSettings gameSettings,
+      final GameRandom random) {
+    this.random = random;
     this.drawManager = Core.getDrawManager();
     this.logger = Core.getLogger();
     this.enemyShips = new ArrayList<List<EnemyShip>>();
@@ -267,8 +276,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     this.isShootingIntervalChanged = true;
     this.isLazerOn = true;
     this.isTurningBulletsOn = true;
-    this.randomLazerLocation = (int) (Math.random() * 900);
-    this.randomTurningBulletLocation = (int) (Math.random() * 900);
+    this.randomLazerLocation = this.random.nextInt(900);
+    this.randomTurningBulletLocation = this.random.nextInt(900);
 
     this.logger.info("Initializing " + nShipsWide + "x" + nShipsHigh
         + " ship formation in (" + positionX + "," + positionY + ")");
@@ -302,7 +311,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         for (int i = 0; i < this.nShipsHigh; i++) {
           switch (this.bossStage) {
             case 1:
-              SoundManager.playSound("/WelcomeToTheHell.wav", "boss", true, true, 2f);
+              SoundManager.playMusic("/WelcomeToTheHell.wav", "boss",
+                  SoundManager.MUSIC_CROSSFADE);
               spriteType = SpriteType.BossA;
               column.add(new EnemyShip((SEPARATION_DISTANCE
                   * this.enemyShips.indexOf(column))
@@ -311,7 +321,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
               this.shipCount++;
               break;
             case 2:
-              SoundManager.playSound("/WelcomeToTheHell.wav", "boss", true, true, 2f);
+              SoundManager.playMusic("/WelcomeToTheHell.wav", "boss",
+                  SoundManager.MUSIC_CROSSFADE);
               spriteType = SpriteType.BossA;
               column.add(new EnemyShip((SEPARATION_DISTANCE
                   * this.enemyShips.indexOf(column))
@@ -320,7 +331,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
               this.shipCount++;
               break;
             case 3:
-              SoundManager.playSound("/WelcomeToTheHell.wav", "boss", true, true, 2f);
+              SoundManager.playMusic("/WelcomeToTheHell.wav", "boss",
+                  SoundManager.MUSIC_CROSSFADE);
               spriteType = SpriteType.BossB;
               column.add(new EnemyShip((SEPARATION_DISTANCE
                   * this.enemyShips.indexOf(column))
@@ -329,7 +341,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
               this.shipCount++;
               break;
             case 4:
-              SoundManager.playSound("/WelcomeToTheHell.wav", "boss", true, true, 2f);
+              SoundManager.playMusic("/WelcomeToTheHell.wav", "boss",
+                  SoundManager.MUSIC_CROSSFADE);
               spriteType = SpriteType.BossB;
               column.add(new EnemyShip((SEPARATION_DISTANCE
                   * this.enemyShips.indexOf(column))
@@ -338,7 +351,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
               this.shipCount++;
               break;
             case 5:
-              SoundManager.playSound("/WelcomeToTheHell.wav", "boss", true, true, 2f);
+              SoundManager.playMusic("/WelcomeToTheHell.wav", "boss",
+                  SoundManager.MUSIC_CROSSFADE);
               spriteType = SpriteType.BossC;
               column.add(new EnemyShip((SEPARATION_DISTANCE
                   * this.enemyShips.indexOf(column))
@@ -347,7 +361,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
               this.shipCount++;
               break;
             case 6:
-              SoundManager.playSound("/WelcomeToTheHell.wav", "boss", true, true, 2f);
+              SoundManager.playMusic("/WelcomeToTheHell.wav", "boss",
+                  SoundManager.MUSIC_CROSSFADE);
               spriteType = SpriteType.BossC;
               column.add(new EnemyShip((SEPARATION_DISTANCE
                   * this.enemyShips.indexOf(column))
@@ -408,15 +423,15 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
   public final void update() {
     if (this.shootingCooldown == null) {
       this.shootingCooldown = Core.getVariableCooldown(shootingInterval,
-          shootingVariance);
+          shootingVariance, this.random);
       this.shootingCooldown.reset();
     }
     if (this.isShootingIntervalChanged) {
       this.bossShootingCooldown = Core.getVariableCooldown(shootingInterval,
-          shootingVariance);
+          shootingVariance, this.random);
       this.bossShootingCooldown.reset();
       this.finalBossShootingCooldown = Core.getVariableCooldown(shootingInterval,
-          shootingVariance);
+          shootingVariance, this.random);
       this.finalBossShootingCooldown.reset();
     }
     if (this.isLazerOn) {
@@ -509,6 +524,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         for (EnemyShip ship : column) {
           if (ship != null && ship.isDestroyed()) {
             destroyed.add(ship);
+            ship.despawn();
             this.logger.info("Removed enemy "
                 + column.indexOf(ship) + " from column "
                 + this.enemyShips.indexOf(column));
@@ -520,7 +536,6 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
       for (List<EnemyShip> column : this.enemyShips) {
         for (EnemyShip enemyShip : column) {
           enemyShip.move(movementX, movementY);
-          enemyShip.update();
         }
       }
     }
@@ -536,7 +551,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     for (List<EnemyShip> column : this.enemyShips) {
       if (!column.isEmpty()) {
         // Height of this column
-        int columnSize = column.get(column.size() - 1).positionY
+        int columnSize = column.get(column.size() - 1).getPositionY()
             - this.positionY + this.shipHeight;
         maxColumn = Math.max(maxColumn, columnSize);
         minPositionY = Math.min(minPositionY, column.get(0)
@@ -578,12 +593,12 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
   public final boolean shoot(final Set<Bullet> bullets) {
     // For now, only ships in the bottom row are able to shoot.
     setShootingInterval(ENEMYSHIP_SHOOTING_INTERVAL);
-    int index = (int) (Math.random() * this.shooters.size());
+    int index = this.random.nextInt(this.shooters.size());
     EnemyShip shooter = this.shooters.get(index);
     if (this.shootingCooldown.checkFinished() || isTesting) {
       this.shootingCooldown.reset();
-      bullets.add(BulletPool.getBullet(shooter.getPositionX()
-          + shooter.width / 2, shooter.getPositionY(), BULLET_SPEED));
+      bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+          + shooter.getWidth() / 2, shooter.getPositionY(), BULLET_SPEED));
       return true;
     }
     return false;
@@ -594,25 +609,25 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     EnemyShip shooter = this.shooters.get(0);
     int[] bulletLocation = new int[7];
     for (int i = 0; i < 7; i++) {
-      bulletLocation[i] = (int) (Math.random() * shooter.width);
+      bulletLocation[i] = this.random.nextInt(shooter.getWidth());
     }
     setShootingInterval(BOSS_SHOOTING_INTERVAL - (this.bossStage * 50));
     if (this.bossShootingCooldown.checkFinished() || isTesting) {
       this.bossShootingCooldown.reset();
-      bullets.add(BulletPool.getBullet(shooter.getPositionX()
-          + bulletLocation[0], shooter.getPositionY() + shooter.height, BULLET_SPEED));
-      bullets.add(BulletPool.getBullet(shooter.getPositionX()
-          + bulletLocation[1], shooter.getPositionY() + shooter.height, BULLET_SPEED));
-      bullets.add(BulletPool.getBullet(shooter.getPositionX()
-          + bulletLocation[2], shooter.getPositionY() + shooter.height, BULLET_SPEED));
-      bullets.add(BulletPool.getBullet(shooter.getPositionX()
-          + bulletLocation[3], shooter.getPositionY() + shooter.height, BULLET_SPEED));
-      bullets.add(BulletPool.getBullet(shooter.getPositionX()
-          + bulletLocation[4], shooter.getPositionY() + shooter.height, BULLET_SPEED));
-      bullets.add(BulletPool.getBullet(shooter.getPositionX()
-          + bulletLocation[5], shooter.getPositionY() + shooter.height, BULLET_SPEED));
-      bullets.add(BulletPool.getBullet(shooter.getPositionX()
-          + bulletLocation[6], shooter.getPositionY() + shooter.height, BULLET_SPEED));
+      bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+          + bulletLocation[0], shooter.getPositionY() + shooter.getHeight(), BULLET_SPEED));
+      bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+          + bulletLocation[1], shooter.getPositionY() + shooter.getHeight(), BULLET_SPEED));
+      bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+          + bulletLocation[2], shooter.getPositionY() + shooter.getHeight(), BULLET_SPEED));
+      bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+          + bulletLocation[3], shooter.getPositionY() + shooter.getHeight(), BULLET_SPEED));
+      bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+          + bulletLocation[4], shooter.getPositionY() + shooter.getHeight(), BULLET_SPEED));
+      bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+          + bulletLocation[5], shooter.getPositionY() + shooter.getHeight(), BULLET_SPEED));
+      bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+          + bulletLocation[6], shooter.getPositionY() + shooter.getHeight(), BULLET_SPEED));
     }
   }
 
@@ -622,7 +637,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
     if (this.shootingLazerCooldown.checkMoreThan(
         (int) (BOSS_SHOOTING_LAZER_INTERVAL * BOSS_SHOOTING_LAZER_RATE)) || isTesting) {
       if (this.shootingLazerCooldown.checkFinished()) {
-        randomLazerLocation = (int) (Math.random() * shooter.width);
+        randomLazerLocation = this.random.nextInt(shooter.getWidth());
         this.shootingLazerCooldown.reset();
       }
       setLazerInterval(INFINITE);
@@ -630,8 +645,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
       setLazerInterval(1);
       if (this.lazerCooldown.checkFinished()) {
         this.lazerCooldown.reset();
-        bullets.add(BulletPool.getBullet(shooter.getPositionX()
-                + randomLazerLocation, shooter.getPositionY() + shooter.height,
+        bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+                + randomLazerLocation, shooter.getPositionY() + shooter.getHeight(),
             BULLET_SPEED * 2));
       }
     }
@@ -644,7 +659,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         (int) (BOSS_SHOOTING_TURNING_BULLET_INTERVAL * BOSS_SHOOTING_TURNING_BULLET_RATE))
         || isTesting) {
       if (this.shootingTurningBulletsCooldown.checkFinished()) {
-        randomTurningBulletLocation = (int) (Math.random() * shooter.width);
+        randomTurningBulletLocation = this.random.nextInt(shooter.getWidth());
         this.shootingTurningBulletsCooldown.reset();
       }
       setTurningBulletsInterval(INFINITE);
@@ -652,8 +667,8 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
       setTurningBulletsInterval(100);
       if (this.turningBulletsCooldown.checkFinished()) {
         this.turningBulletsCooldown.reset();
-        Bullet bullet = BulletPool.getBullet(shooter.getPositionX()
-                + randomTurningBulletLocation, shooter.getPositionY() + shooter.height,
+        Bullet bullet = Core.getBulletPool().getBullet(shooter.getPositionX()
+                + randomTurningBulletLocation, shooter.getPositionY() + shooter.getHeight(),
             BULLET_SPEED);
         if (bullet.getPositionX() > ship.getPositionX()) {
           bullet.setIsTurningRight();
@@ -672,7 +687,7 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
         (int) (BOSS_SHOOTING_TURNING_BULLET_INTERVAL * BOSS_SHOOTING_TURNING_BULLET_RATE))
         || isTesting) {
       if (this.shootingTurningBulletsCooldown.checkFinished()) {
-        randomTurningBulletLocation = (int) (Math.random() * shooter.width);
+        randomTurningBulletLocation = this.random.nextInt(shooter.getWidth());
         this.shootingTurningBulletsCooldown.reset();
       }
       setTurningBulletsInterval(INFINITE);
@@ -680,14 +695,15 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
       setTurningBulletsInterval(300);
       if (this.turningBulletsCooldown.checkFinished()) {
         this.turningBulletsCooldown.reset();
-        bullets.add(BulletPool.getBullet(shooter.getPositionX()
-            + shooter.width, shooter.getPositionY() + shooter.height / 4, BULLET_SPEED));
-        bullets.add(BulletPool.getBullet(shooter.getPositionX()
-            + shooter.width, shooter.getPositionY() + shooter.height * 3 / 4, BULLET_SPEED));
-        bullets.add(BulletPool.getBullet(shooter.getPositionX()
-            , shooter.getPositionY() + shooter.height / 4, BULLET_SPEED));
-        bullets.add(BulletPool.getBullet(shooter.getPositionX()
-            , shooter.getPositionY() + shooter.height * 3 / 4, BULLET_SPEED));
+        bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+            + shooter.getWidth(), shooter.getPositionY() + shooter.getHeight() / 4, BULLET_SPEED));
+        bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+            + shooter.getWidth(), shooter.getPositionY() + shooter.getHeight() * 3 / 4,
+            BULLET_SPEED));
+        bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+            , shooter.getPositionY() + shooter.getHeight() / 4, BULLET_SPEED));
+        bullets.add(Core.getBulletPool().getBullet(shooter.getPositionX()
+            , shooter.getPositionY() + shooter.getHeight() * 3 / 4, BULLET_SPEED));
         for (Bullet bullet : bullets) {
           if (bullet.getPositionX() > ship.getPositionX()) {
             bullet.setIsTurningRight();
@@ -815,4 +831,152 @@ public class EnemyShipFormation implements Iterable<EnemyShip> {
       this.isTurningBulletsOn = false;
     }
   }
+
+  /**
+   * Writes the state of the formation for a snapshot: its columns of ships, movement, shooters and
+   * cooldowns.
+   *
+   * @param buffer Buffer to write to.
+   */
+  public final void save(final ByteBuffer buffer) {
+    buffer.putInt(this.enemyShips.size());
+    for (List<EnemyShip> column : this.enemyShips) {
+      buffer.putInt(column.size());
+      for (EnemyShip enemyShip : column) {
+        enemyShip.save(buffer);
+      }
+    }
+    // Shooters as their column and row.
+    buffer.putInt(this.shooters.size());
+    for (EnemyShip shooter : this.shooters) {
+      int columnIndex = -1;
+      int row = -1;
+      for (int i = 0; i < this.enemyShips.size() && row < 0; i++) {
+        row = this.enemyShips.get(i).indexOf(shooter);
+        columnIndex = i;
+      }
+      buffer.putInt(columnIndex);
+      buffer.putInt(row);
+    }
+
+    buffer.putInt(this.shootingInterval);
+    buffer.putInt(this.shootingVariance);
+    buffer.putInt(this.lazerInterval);
+    buffer.putInt(this.turningBulletsInterval);
+    buffer.putInt(this.movementSpeed);
+    buffer.put((byte) this.currentDirection.ordinal());
+    buffer.put((byte) (this.previousDirection == null ? -1
+        : this.previousDirection.ordinal()));
+    buffer.putInt(this.movementInterval);
+    buffer.putInt(this.width);
+    buffer.putInt(this.height);
+    buffer.putInt(this.positionX);
+    buffer.putInt(this.positionY);
+    buffer.putInt(this.shipCount);
+    buffer.put((byte) ((this.isShootingIntervalChanged ? 1 : 0)
+        | (this.isLazerOn ? 2 : 0) | (this.isTurningBulletsOn ? 4 : 0)));
+    buffer.putInt(this.randomLazerLocation);
+    buffer.putInt(this.randomTurningBulletLocation);
+
+    saveCooldown(buffer, this.shootingCooldown);
+    saveCooldown(buffer, this.bossShootingCooldown);
+    saveCooldown(buffer, this.finalBossShootingCooldown);
+    saveCooldown(buffer, this.shootingLazerCooldown);
+    saveCooldown(buffer, this.lazerCooldown);
+    saveCooldown(buffer, this.shootingTurningBulletsCooldown);
+    saveCooldown(buffer, this.turningBulletsCooldown);
+  }
+
+  /**
+   * Restores a state written by save(), to a formation created with the same settings.
+   *
+   * @param buffer Buffer to read from.
+   */
+  public final void load(final ByteBuffer buffer) {
+    for (List<EnemyShip> column : this.enemyShips) {
+      for (EnemyShip enemyShip : column) {
+        enemyShip.despawn();
+      }
+    }
+    this.enemyShips = new ArrayList<List<EnemyShip>>();
+    int columns = buffer.getInt();
+    for (int i = 0; i < columns; i++) {
+      int size = buffer.getInt();
+      List<EnemyShip> column = new ArrayList<EnemyShip>(size);
+      for (int j = 0; j < size; j++) {
+        column.add(EnemyShip.load(buffer));
+      }
+      this.enemyShips.add(column);
+    }
+    this.shooters = new ArrayList<EnemyShip>();
+    int shooterCount = buffer.getInt();
+    for (int i = 0; i < shooterCount; i++) {
+      int columnIndex = buffer.getInt();
+      int row = buffer.getInt();
+      if (row >= 0) {
+        this.shooters.add(this.enemyShips.get(columnIndex).get(row));
+      }
+    }
+
+    this.shootingInterval = buffer.getInt();
+    this.shootingVariance = buffer.getInt();
+    this.lazerInterval = buffer.getInt();
+    this.turningBulletsInterval = buffer.getInt();
+    this.movementSpeed = buffer.getInt();
+    this.currentDirection = Direction.values()[buffer.get()];
+    byte previous = buffer.get();
+    this.previousDirection = previous < 0 ? null : Direction.values()[previous];
+    this.movementInterval = buffer.getInt();
+    this.width = buffer.getInt();
+    this.height = buffer.getInt();
+    this.positionX = buffer.getInt();
+    this.positionY = buffer.getInt();
+    this.shipCount = buffer.getInt();
+    byte flags = buffer.get();
+    this.isShootingIntervalChanged = (flags & 1) != 0;
+    this.isLazerOn = (flags & 2) != 0;
+    this.isTurningBulletsOn = (flags & 4) != 0;
+    this.randomLazerLocation = buffer.getInt();
+    this.randomTurningBulletLocation = buffer.getInt();
+
+    this.shootingCooldown = loadCooldown(buffer, true);
+    this.bossShootingCooldown = loadCooldown(buffer, true);
+    this.finalBossShootingCooldown = loadCooldown(buffer, true);
+    this.shootingLazerCooldown = loadCooldown(buffer, false);
+    this.lazerCooldown = loadCooldown(buffer, false);
+    this.shootingTurningBulletsCooldown = loadCooldown(buffer, false);
+    this.turningBulletsCooldown = loadCooldown(buffer, false);
+  }
+
+  /**
+   * Writes a cooldown that may not have been created yet.
+   *
+   * @param buffer   Buffer to write to.
+   * @param cooldown Cooldown, or null.
+   */
+  private static void saveCooldown(final ByteBuffer buffer,
+      final Cooldown cooldown) {
+    buffer.put((byte) (cooldown == null ? 0 : 1));
+    if (cooldown != null) {
+      cooldown.save(buffer);
+    }
+  }
+
+  /**
+   * Reads a cooldown written by saveCooldown().
+   *
+   * @param buffer   Buffer to read from.
+   * @param variable If the cooldown varies between runs.
+   * @return Restored cooldown, or null.
+   */
+  private Cooldown loadCooldown(final ByteBuffer buffer,
+      final boolean variable) {
+    if (buffer.get() == 0) {
+      return null;
+    }
+    Cooldown cooldown = variable
+        ? Core.getVariableCooldown(0, 0, this.random) : Core.getCooldown(0);
+    cooldown.load(buffer);
+    return cooldown;
+  }
 }
@@ -2,39 +2,25 @@ package entity;
 
 import java.awt.Color;
 
+import engine.Core;
 import engine.DrawManager.SpriteType;
 
 /**
- * Implements a generic game entity.
+ * Implements a generic game entity. Its state is stored in the world of the game context, see
+ * World; the object only keeps the entity's id while it is in play.
  *
  * @author <a href="mailto:RobertoIA1987@gmail.com">Roberto Izquierdo Amo</a>
  */
 public class Entity {
 
   /**
-   * Position in the x-axis of the upper left corner of the entity.
+   * World storing the state of the entity.
    */
-  protected int positionX;
+  protected final World world;
   /**
-   * Position in the y-axis of the upper left corner of the entity.
+   * Id of the entity in the world, World.NO_ENTITY while out of play.
    */
-  protected int positionY;
-  /**
-   * Width of the entity.
-   */
-  protected int width;
-  /**
-   * Height of the entity.
-   */
-  protected int height;
-  /**
-   * Color of the entity.
-   */
-  private Color color;
-  /**
-   * Sprite type assigned to the entity.
-   */
-  protected SpriteType spriteType;
+  protected int id;
 
   /**
    * Constructor, establishes the entity's generic properties.
@@ -47,11 +33,38 @@ public class Entity {
    */
   public Entity(final int positionX, final int positionY, final int width,
       final int height, final Color color) {
-    this.positionX = positionX;
-    this.positionY = positionY;
-    this.width = width;
-    this.height = height;
-    this.color = color;
+    this(Core.getWorld(), positionX, positionY, width, height, color);
+  }
+
+  /**
+   * Constructor, spawns the entity in a given world.
+   *
+   * @param world     World storing the state of the entity.
+   * @param positionX Initial position of the entity in the X axis.
+   * @param positionY Initial position of the entity in the Y axis.
+   * @param width     Width of the entity.
+   * @param height    Height of the entity.
+   * @param color     Color of the entity.
+   */
+  Entity(final World world, final int positionX, final int positionY,
+      final int width, final int height, final Color color) {
+    this.world = world;
+    this.id = world.spawn(this, positionX, positionY, width, height);
+    world.setColor(this.id, color);
+  }
+
+  /**
+   * Takes the entity out of play, e.g. when it is pooled or no longer shown.
+   *
+   * @return False if it was already out of play.
+   */
+  public boolean despawn() {
+    if (this.id == World.NO_ENTITY) {
+      return false;
+    }
+    this.world.despawn(this.id);
+    this.id = World.NO_ENTITY;
+    return true;
   }
 
   /**
@@ -60,7 +73,7 @@ public class Entity {
    * @return Color of the entity, used when drawing it.
    */
   public final Color getColor() {
-    return color;
+    return this.world.getColor(this.id);
   }
 
   /**
@@ -69,7 +82,7 @@ public class Entity {
    * @return Position of the entity in the X axis.
    */
   public final int getPositionX() {
-    return this.positionX;
+    return this.world.getPositionX(this.id);
   }
 
   /**
@@ -78,7 +91,7 @@ public class Entity {
    * @return Position of the entity in the Y axis.
    */
   public final int getPositionY() {
-    return this.positionY;
+    return this.world.getPositionY(this.id);
   }
 
   /**
@@ -87,7 +100,7 @@ public class Entity {
    * @param positionX New position of the entity in the X axis.
    */
   public final void setPositionX(final int positionX) {
-    this.positionX = positionX;
+    this.world.setPositionX(this.id, positionX);
   }
 
   /**
@@ -96,7 +109,7 @@ public class Entity {
    * @param positionY New position of the entity in the Y axis.
    */
   public final void setPositionY(final int positionY) {
-    this.positionY = positionY;
+    this.world.setPositionY(this.id, positionY);
   }
 
   /**
@@ -105,7 +118,16 @@ public class Entity {
    * @return Sprite corresponding to the entity.
    */
   public final SpriteType getSpriteType() {
-    return this.spriteType;
+    return this.world.getSprite(this.id);
+  }
+
+  /**
+   * Setter for the sprite that the entity will be drawn as.
+   *
+   * @param spriteType New sprite of the entity.
+   */
+  protected final void setSpriteType(final SpriteType spriteType) {
+    this.world.setSprite(this.id, spriteType);
   }
 
   /**
@@ -114,7 +136,7 @@ public class Entity {
    * @return Width of the entity.
    */
   public final int getWidth() {
-    return this.width;
+    return this.world.getWidth(this.id);
   }
 
   /**
@@ -123,6 +145,33 @@ public class Entity {
    * @return Height of the entity.
    */
   public final int getHeight() {
-    return this.height;
+    return this.world.getHeight(this.id);
+  }
+
+  /**
+   * Getter for the side the entity fights on, e.g. the side that shot a bullet.
+   *
+   * @return World.PLAYER or World.ENEMY.
+   */
+  public final byte getFaction() {
+    return this.world.getFaction(this.id);
+  }
+
+  /**
+   * Gives the entity a limited time in play, counted down by the world as the game goes on.
+   *
+   * @param millis Milliseconds before it expires, World.FOREVER if it doesn't.
+   */
+  public final void setLifetime(final int millis) {
+    this.world.setLifetime(this.id, millis);
+  }
+
+  /**
+   * Checks if the lifetime of the entity ran out.
+   *
+   * @return True if it had a lifetime and it expired.
+   */
+  public final boolean isExpired() {
+    return this.world.getLifetime(this.id) == 0;
   }
 }
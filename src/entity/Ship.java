@@ -1,11 +1,12 @@
 package entity;
 
 import java.awt.Color;
+import java.nio.ByteBuffer;
 import java.util.Set;
 
-import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager.SpriteType;
+import engine.TimerWheel;
 
 /**
  * Implements a ship, to be controlled by the player.
@@ -19,22 +20,42 @@ public class Ship extends Entity {
    */
   private static final int SHOOTING_INTERVAL = 750;
   /**
-   * Speed of the bullets shot by the ship.
+   * Speed of the bullets shot by the ship, before any upgrade.
    */
-  private static int BULLET_SPEED = -6;
+  private static final int BULLET_SPEED = -6;
   /**
-   * Movement of the ship for each unit of time.
+   * Movement of the ship for each unit of time, before any upgrade.
    */
-  private static int SPEED = 2;
+  private static final int SPEED = 2;
 
   /**
-   * Minimum time between shots.
+   * Time spent inactive between hits.
+   */
+  private static final int DESTRUCTION_TIME = 1000;
+  /**
+   * Minimum time between shots, lets the ship shoot again when it expires.
    */
-  private Cooldown shootingCooldown;
+  private TimerWheel.Timer shootingTimer;
   /**
-   * Time spent inactive between hits.
+   * Time spent inactive between hits, repairs the ship when it expires.
    */
-  private Cooldown destructionCooldown;
+  private TimerWheel.Timer destructionTimer;
+  /**
+   * Checks if the ship can shoot, set by the shooting timer.
+   */
+  private boolean canShoot;
+  /**
+   * Checks if the ship is destroyed, reset by the destruction timer.
+   */
+  private boolean isDestroyed;
+  /**
+   * Movement of the ship for each unit of time.
+   */
+  private int speed;
+  /**
+   * Speed of the bullets shot by the ship.
+   */
+  private int bulletSpeed;
   /**
    * Ship speed increase amount.
    */
@@ -53,23 +74,26 @@ public class Ship extends Entity {
   public Ship(final int positionX, final int positionY) {
     super(positionX, positionY, 13 * 2, 8 * 2, Color.GREEN);
 
-    this.spriteType = SpriteType.Ship;
-    this.shootingCooldown = Core.getCooldown(SHOOTING_INTERVAL);
-    this.destructionCooldown = Core.getCooldown(1000);
+    setSpriteType(SpriteType.Ship);
+    this.speed = SPEED;
+    this.bulletSpeed = BULLET_SPEED;
+    this.shootingTimer = Core.getTimerWheel().newTimer(() -> this.canShoot = true);
+    this.destructionTimer = Core.getTimerWheel().newTimer(this::repair);
+    this.canShoot = true;
   }
 
   /**
    * Moves the ship speed uni ts right, or until the right screen border is reached.
    */
   public final void moveRight() {
-    this.positionX += SPEED;
+    setPositionX(getPositionX() + this.speed);
   }
 
   /**
    * Moves the ship speed units left, or until the left screen border is reached.
    */
   public final void moveLeft() {
-    this.positionX -= SPEED;
+    setPositionX(getPositionX() - this.speed);
   }
 
   /**
@@ -79,31 +103,31 @@ public class Ship extends Entity {
    * @return Checks if the bullet was shot correctly.
    */
   public final boolean shoot(final Set<Bullet> bullets) {
-    if (this.shootingCooldown.checkFinished()) {
-      this.shootingCooldown.reset();
-      bullets.add(BulletPool.getBullet(positionX + this.width / 2,
-          positionY, BULLET_SPEED));
+    if (this.canShoot) {
+      this.canShoot = false;
+      this.shootingTimer.schedule(SHOOTING_INTERVAL);
+      bullets.add(Core.getBulletPool().getBullet(getPositionX() + getWidth() / 2,
+          getPositionY(), this.bulletSpeed));
       return true;
     }
     return false;
   }
 
   /**
-   * Updates status of the ship.
+   * Switches the ship to its destroyed state, until the destruction timer repairs it.
    */
-  public final void update() {
-    if (!this.destructionCooldown.checkFinished()) {
-      this.spriteType = SpriteType.ShipDestroyed;
-    } else {
-      this.spriteType = SpriteType.Ship;
-    }
+  public final void destroy() {
+    this.isDestroyed = true;
+    setSpriteType(SpriteType.ShipDestroyed);
+    this.destructionTimer.schedule(DESTRUCTION_TIME);
   }
 
   /**
-   * Switches the ship to its destroyed state.
+   * Brings the ship back after its destruction time. Run by the timer wheel.
    */
-  public final void destroy() {
-    this.destructionCooldown.reset();
+  private void repair() {
+    this.isDestroyed = false;
+    setSpriteType(SpriteType.Ship);
   }
 
   /**
@@ -112,7 +136,7 @@ public class Ship extends Entity {
    * @return True if the ship is currently destroyed.
    */
   public final boolean isDestroyed() {
-    return !this.destructionCooldown.checkFinished();
+    return this.isDestroyed;
   }
 
   /**
@@ -121,7 +145,34 @@ public class Ship extends Entity {
    * @return Speed of the ship.
    */
   public final int getSpeed() {
-    return SPEED;
+    return this.speed;
+  }
+
+  /**
+   * Sets the ship's speed, e.g. to the one of a recorded game.
+   *
+   * @param speed Speed of the ship.
+   */
+  public final void setSpeed(final int speed) {
+    this.speed = speed;
+  }
+
+  /**
+   * Getter for the speed of the ship's bullets.
+   *
+   * @return Speed of the bullets, negative upwards.
+   */
+  public final int getBulletSpeed() {
+    return this.bulletSpeed;
+  }
+
+  /**
+   * Sets the speed of the ship's bullets, e.g. to the one of a recorded game.
+   *
+   * @param bulletSpeed Speed of the bullets, negative upwards.
+   */
+  public final void setBulletSpeed(final int bulletSpeed) {
+    this.bulletSpeed = bulletSpeed;
   }
 
   /**
@@ -130,7 +181,7 @@ public class Ship extends Entity {
    * @return Speed of the ship.
    */
   public final void increaseShipSpeed() {
-    SPEED += shipSpeedIncrease;
+    this.speed += shipSpeedIncrease;
   }
 
   /**
@@ -139,6 +190,38 @@ public class Ship extends Entity {
    * @return Speed of the ship's shooting frequency.
    */
   public final void increaseBulletSpeed() {
-    BULLET_SPEED += bulletSpeedIncrease;
+    this.bulletSpeed += bulletSpeedIncrease;
+  }
+
+  /**
+   * Writes the state of the ship for a snapshot, timers as the time they have left.
+   *
+   * @param buffer Buffer to write to.
+   */
+  public final void save(final ByteBuffer buffer) {
+    buffer.putInt(getPositionX());
+    buffer.putInt(getPositionY());
+    buffer.put((byte) getSpriteType().ordinal());
+    buffer.putInt(this.speed);
+    buffer.putInt(this.bulletSpeed);
+    buffer.putInt((int) this.shootingTimer.getRemaining());
+    buffer.putInt((int) this.destructionTimer.getRemaining());
+  }
+
+  /**
+   * Restores a state written by save().
+   *
+   * @param buffer Buffer to read from.
+   */
+  public final void load(final ByteBuffer buffer) {
+    setPositionX(buffer.getInt());
+    setPositionY(buffer.getInt());
+    setSpriteType(SpriteType.values()[buffer.get()]);
+    this.speed = buffer.getInt();
+    this.bulletSpeed = buffer.getInt();
+    this.shootingTimer.restore(buffer.getInt());
+    this.destructionTimer.restore(buffer.getInt());
+    this.canShoot = !this.shootingTimer.isPending();
+    this.isDestroyed = this.destructionTimer.isPending();
   }
 }
@@ -0,0 +1,631 @@
+package entity;
+
+import java.awt.Color;
+import java.util.Arrays;
+import java.util.Collection;
+
+import engine.DrawManager.SpriteType;
+
+/**
+ * Stores the components of the entities in play, ships, enemy ships and bullets, in dense parallel
+ * arrays, one per component: position, size, velocity, sprite, color, health, lifetime, faction
+ * and motion. The systems, move(), age() and cull(), update every entity in a single pass over
+ * those arrays instead of calling into each object, so adding a motion costs a component value,
+ * not a subclass.
+ *
+ * <p>Entities are referred to by the id spawn() returns, their objects only keep that id. The
+ * arrays stay packed: despawning an entity moves the last one into its slot, so the order of the
+ * entities in the arrays is not stable. Each game context has its own world, see Core.getWorld(),
+ * emptied when a level starts.
+ */
+public final class World {
+
+  /**
+   * Id of no entity, e.g. of an entity that was despawned.
+   */
+  public static final int NO_ENTITY = -1;
+  /**
+   * Lifetime of an entity that doesn't expire.
+   */
+  public static final int FOREVER = -1;
+  /**
+   * Faction of the player's entities.
+   */
+  public static final byte PLAYER = 0;
+  /**
+   * Faction of the enemies' entities.
+   */
+  public static final byte ENEMY = 1;
+  /**
+   * Motion of an entity moving vertically at its speed.
+   */
+  public static final byte STRAIGHT = 0;
+  /**
+   * Motion of an entity curving towards the left, see move().
+   */
+  public static final byte TURNING_LEFT = 1;
+  /**
+   * Motion of an entity curving towards the right, see move().
+   */
+  public static final byte TURNING_RIGHT = 2;
+  /**
+   * Touch flag of a turning entity whose horizontal speed reached the limit.
+   */
+  public static final byte TOUCHED_X = 1;
+  /**
+   * Touch flag of a turning entity whose vertical speed reached the limit.
+   */
+  public static final byte TOUCHED_Y = 2;
+  /**
+   * Speed a turning entity slows down to before speeding up again.
+   */
+  private static final int TURNING_LIMIT = -6;
+  /**
+   * Entities the arrays are created for.
+   */
+  private static final int INITIAL_CAPACITY = 64;
+
+  /**
+   * Number of entities in play, stored in the first slots of the arrays.
+   */
+  private int count;
+  /**
+   * Slot of each id, NO_ENTITY for free ids.
+   */
+  private int[] slots;
+  /**
+   * Ids freed by despawn(), reused before new ones.
+   */
+  private int[] freeIds;
+  /**
+   * Number of free ids.
+   */
+  private int freeCount;
+  /**
+   * Lowest id never used.
+   */
+  private int nextId;
+
+  /**
+   * Id of the entity in each slot.
+   */
+  private int[] ids;
+  /**
+   * Object of the entity in each slot.
+   */
+  private Entity[] entities;
+  /**
+   * Position in the x-axis of the upper left corner.
+   */
+  private int[] positionX;
+  /**
+   * Position in the y-axis of the upper left corner.
+   */
+  private int[] positionY;
+  /**
+   * Width.
+   */
+  private int[] width;
+  /**
+   * Height.
+   */
+  private int[] height;
+  /**
+   * Horizontal speed, used by turning motions.
+   */
+  private int[] velocityX;
+  /**
+   * Vertical speed, positive is down.
+   */
+  private int[] velocityY;
+  /**
+   * Sprite drawn.
+   */
+  private SpriteType[] sprite;
+  /**
+   * Color the sprite is drawn with.
+   */
+  private Color[] color;
+  /**
+   * Hits left before being destroyed.
+   */
+  private int[] health;
+  /**
+   * Milliseconds left before expiring, 0 once expired, FOREVER if it doesn't.
+   */
+  private int[] lifetime;
+  /**
+   * PLAYER or ENEMY.
+   */
+  private byte[] faction;
+  /**
+   * STRAIGHT, TURNING_LEFT or TURNING_RIGHT.
+   */
+  private byte[] motion;
+  /**
+   * TOUCHED_X and TOUCHED_Y flags of turning motions.
+   */
+  private byte[] touches;
+
+  /**
+   * Constructor, creates an empty world.
+   */
+  public World() {
+    this.slots = new int[INITIAL_CAPACITY];
+    this.freeIds = new int[INITIAL_CAPACITY];
+    this.ids = new int[INITIAL_CAPACITY];
+    this.entities = new Entity[INITIAL_CAPACITY];
+    this.positionX = new int[INITIAL_CAPACITY];
+    this.positionY = new int[INITIAL_CAPACITY];
+    this.width = new int[INITIAL_CAPACITY];
+    this.height = new int[INITIAL_CAPACITY];
+    this.velocityX = new int[INITIAL_CAPACITY];
+    this.velocityY = new int[INITIAL_CAPACITY];
+    this.sprite = new SpriteType[INITIAL_CAPACITY];
+    this.color = new Color[INITIAL_CAPACITY];
+    this.health = new int[INITIAL_CAPACITY];
+    this.lifetime = new int[INITIAL_CAPACITY];
+    this.faction = new byte[INITIAL_CAPACITY];
+    this.motion = new byte[INITIAL_CAPACITY];
+    this.touches = new byte[INITIAL_CAPACITY];
+  }
+
+  /**
+   * Adds a player entity standing still and going straight, with one hit and no lifetime.
+   *
+   * @param entity       Object backed by the new entity.
+   * @param x            Position in the x-axis.
+   * @param y            Position in the y-axis.
+   * @param entityWidth  Width.
+   * @param entityHeight Height.
+   * @return Id of the entity until it is despawned.
+   */
+  public int spawn(final Entity entity, final int x, final int y, final int entityWidth,
+      final int entityHeight) {
+    int id;
+    if (this.freeCount > 0) {
+      id = this.freeIds[--this.freeCount];
+    } else {
+      id = this.nextId++;
+      if (id == this.slots.length) {
+        this.slots = Arrays.copyOf(this.slots, id * 2);
+        this.freeIds = Arrays.copyOf(this.freeIds, id * 2);
+      }
+    }
+    if (this.count == this.ids.length) {
+      grow();
+    }
+    int slot = this.count++;
+    this.slots[id] = slot;
+    this.ids[slot] = id;
+    this.entities[slot] = entity;
+    this.positionX[slot] = x;
+    this.positionY[slot] = y;
+    this.width[slot] = entityWidth;
+    this.height[slot] = entityHeight;
+    this.velocityX[slot] = 0;
+    this.velocityY[slot] = 0;
+    this.sprite[slot] = null;
+    this.color[slot] = null;
+    this.health[slot] = 1;
+    this.lifetime[slot] = FOREVER;
+    this.faction[slot] = PLAYER;
+    this.motion[slot] = STRAIGHT;
+    this.touches[slot] = 0;
+    return id;
+  }
+
+  /**
+   * Removes an entity, moving the last one into its slot. Its id may be given to the next entity
+   * spawned.
+   *
+   * @param id Id of the entity.
+   */
+  public void despawn(final int id) {
+    int slot = this.slots[id];
+    int last = --this.count;
+    if (slot != last) {
+      int moved = this.ids[last];
+      this.slots[moved] = slot;
+      this.ids[slot] = moved;
+      this.entities[slot] = this.entities[last];
+      this.positionX[slot] = this.positionX[last];
+      this.positionY[slot] = this.positionY[last];
+      this.width[slot] = this.width[last];
+      this.height[slot] = this.height[last];
+      this.velocityX[slot] = this.velocityX[last];
+      this.velocityY[slot] = this.velocityY[last];
+      this.sprite[slot] = this.sprite[last];
+      this.color[slot] = this.color[last];
+      this.health[slot] = this.health[last];
+      this.lifetime[slot] = this.lifetime[last];
+      this.faction[slot] = this.faction[last];
+      this.motion[slot] = this.motion[last];
+      this.touches[slot] = this.touches[last];
+    }
+    this.entities[last] = null;
+    this.sprite[last] = null;
+    this.color[last] = null;
+    this.slots[id] = NO_ENTITY;
+    this.freeIds[this.freeCount++] = id;
+  }
+
+  /**
+   * Removes every entity, their objects are left out of play. Used when a level starts, the
+   * entities of the previous one are of no use anymore.
+   */
+  public void clear() {
+    for (int i = 0; i < this.count; i++) {
+      if (this.entities[i] != null) {
+        this.entities[i].id = NO_ENTITY;
+      }
+    }
+    Arrays.fill(this.entities, 0, this.count, null);
+    Arrays.fill(this.sprite, 0, this.count, null);
+    Arrays.fill(this.color, 0, this.count, null);
+    Arrays.fill(this.slots, 0, this.nextId, NO_ENTITY);
+    this.count = 0;
+    this.freeCount = 0;
+    this.nextId = 0;
+  }
+
+  /**
+   * Doubles the capacity of the component arrays.
+   */
+  private void grow() {
+    int capacity = this.ids.length * 2;
+    this.ids = Arrays.copyOf(this.ids, capacity);
+    this.entities = Arrays.copyOf(this.entities, capacity);
+    this.positionX = Arrays.copyOf(this.positionX, capacity);
+    this.positionY = Arrays.copyOf(this.positionY, capacity);
+    this.width = Arrays.copyOf(this.width, capacity);
+    this.height = Arrays.copyOf(this.height, capacity);
+    this.velocityX = Arrays.copyOf(this.velocityX, capacity);
+    this.velocityY = Arrays.copyOf(this.velocityY, capacity);
+    this.sprite = Arrays.copyOf(this.sprite, capacity);
+    this.color = Arrays.copyOf(this.color, capacity);
+    this.health = Arrays.copyOf(this.health, capacity);
+    this.lifetime = Arrays.copyOf(this.lifetime, capacity);
+    this.faction = Arrays.copyOf(this.faction, capacity);
+    this.motion = Arrays.copyOf(this.motion, capacity);
+    this.touches = Arrays.copyOf(this.touches, capacity);
+  }
+
+  /**
+   * Movement system: straight entities move vertically at their speed. Turning ones also move
+   * horizontally, right for TURNING_LEFT and left for TURNING_RIGHT, while both speeds slow down
+   * to TURNING_LIMIT and then speed up again, so the entity curves back down.
+   */
+  public void move() {
+    for (int i = 0; i < this.count; i++) {
+      this.positionY[i] += this.velocityY[i];
+      byte entityMotion = this.motion[i];
+      if (entityMotion == STRAIGHT) {
+        continue;
+      }
+      if (entityMotion == TURNING_LEFT) {
+        this.positionX[i] += this.velocityX[i];
+      } else {
+        this.positionX[i] -= this.velocityX[i];
+      }
+      int touched = this.touches[i];
+      if ((touched & TOUCHED_X) == 0 && this.velocityX[i] > TURNING_LIMIT) {
+        this.velocityX[i]--;
+      } else if ((touched & TOUCHED_X) == 0 && this.velocityX[i] == TURNING_LIMIT) {
+        touched |= TOUCHED_X;
+      } else {
+        this.velocityX[i]++;
+      }
+      if ((touched & TOUCHED_Y) == 0 && this.velocityY[i] > TURNING_LIMIT) {
+        this.velocityY[i]--;
+      } else if ((touched & TOUCHED_Y) == 0 && this.velocityY[i] == TURNING_LIMIT) {
+        touched |= TOUCHED_Y;
+      } else {
+        this.velocityY[i]++;
+      }
+      this.touches[i] = (byte) touched;
+    }
+  }
+
+  /**
+   * Lifetime system: counts down the lifetime of the entities that have one, down to 0 once
+   * expired.
+   *
+   * @param elapsed Milliseconds of game time since the last call.
+   */
+  public void age(final int elapsed) {
+    for (int i = 0; i < this.count; i++) {
+      if (this.lifetime[i] > 0) {
+        this.lifetime[i] = Math.max(0, this.lifetime[i] - elapsed);
+      }
+    }
+  }
+
+  /**
+   * Culling system: collects the entities of a type above or below the given lines. They are left
+   * in the world, whoever owns them despawns them.
+   *
+   * @param <E>    Type of the entities culled.
+   * @param type   Only entities of this type are collected.
+   * @param top    Entities whose top is above this line are collected.
+   * @param bottom Entities whose top is below this line are collected.
+   * @param culled Collection the culled entities are added to.
+   */
+  public <E extends Entity> void cull(final Class<E> type, final int top, final int bottom,
+      final Collection<? super E> culled) {
+    for (int i = 0; i < this.count; i++) {
+      int y = this.positionY[i];
+      if ((y < top || y > bottom) && type.isInstance(this.entities[i])) {
+        culled.add(type.cast(this.entities[i]));
+      }
+    }
+  }
+
+  /**
+   * Collects every entity of a type in play.
+   *
+   * @param <E>   Type of the entities collected.
+   * @param type  Only entities of this type are collected.
+   * @param found Collection the entities are added to.
+   */
+  public <E extends Entity> void collect(final Class<E> type,
+      final Collection<? super E> found) {
+    for (int i = 0; i < this.count; i++) {
+      if (type.isInstance(this.entities[i])) {
+        found.add(type.cast(this.entities[i]));
+      }
+    }
+  }
+
+  /**
+   * Returns the number of entities in play.
+   *
+   * @return Entities spawned and not despawned.
+   */
+  public int size() {
+    return this.count;
+  }
+
+  /**
+   * Checks if an id belongs to an entity in play.
+   *
+   * @param id Id to check.
+   * @return True if the entity was spawned and not despawned since.
+   */
+  public boolean isSpawned(final int id) {
+    return id >= 0 && id < this.nextId && this.slots[id] != NO_ENTITY;
+  }
+
+  /**
+   * Returns the position of an entity in the x-axis.
+   *
+   * @param id Id of the entity.
+   * @return Position in the x-axis.
+   */
+  public int getPositionX(final int id) {
+    return this.positionX[this.slots[id]];
+  }
+
+  /**
+   * Moves an entity in the x-axis.
+   *
+   * @param id Id of the entity.
+   * @param x  New position in the x-axis.
+   */
+  public void setPositionX(final int id, final int x) {
+    this.positionX[this.slots[id]] = x;
+  }
+
+  /**
+   * Returns the position of an entity in the y-axis.
+   *
+   * @param id Id of the entity.
+   * @return Position in the y-axis.
+   */
+  public int getPositionY(final int id) {
+    return this.positionY[this.slots[id]];
+  }
+
+  /**
+   * Moves an entity in the y-axis.
+   *
+   * @param id Id of the entity.
+   * @param y  New position in the y-axis.
+   */
+  public void setPositionY(final int id, final int y) {
+    this.positionY[this.slots[id]] = y;
+  }
+
+  /**
+   * Returns the width an entity was spawned with.
+   *
+   * @param id Id of the entity.
+   * @return Width.
+   */
+  public int getWidth(final int id) {
+    return this.width[this.slots[id]];
+  }
+
+  /**
+   * Returns the height an entity was spawned with.
+   *
+   * @param id Id of the entity.
+   * @return Height.
+   */
+  public int getHeight(final int id) {
+    return this.height[this.slots[id]];
+  }
+
+  /**
+   * Returns the horizontal speed of an entity.
+   *
+   * @param id Id of the entity.
+   * @return Horizontal speed.
+   */
+  public int getVelocityX(final int id) {
+    return this.velocityX[this.slots[id]];
+  }
+
+  /**
+   * Returns the vertical speed of an entity.
+   *
+   * @param id Id of the entity.
+   * @return Vertical speed, positive is down.
+   */
+  public int getVelocityY(final int id) {
+    return this.velocityY[this.slots[id]];
+  }
+
+  /**
+   * Sets both speeds of an entity.
+   *
+   * @param id     Id of the entity.
+   * @param speedX New horizontal speed.
+   * @param speedY New vertical speed, positive is down.
+   */
+  public void setVelocity(final int id, final int speedX, final int speedY) {
+    int slot = this.slots[id];
+    this.velocityX[slot] = speedX;
+    this.velocityY[slot] = speedY;
+  }
+
+  /**
+   * Returns the sprite an entity is drawn with.
+   *
+   * @param id Id of the entity.
+   * @return Sprite drawn.
+   */
+  public SpriteType getSprite(final int id) {
+    return this.sprite[this.slots[id]];
+  }
+
+  /**
+   * Changes the sprite an entity is drawn with.
+   *
+   * @param id         Id of the entity.
+   * @param spriteType New sprite.
+   */
+  public void setSprite(final int id, final SpriteType spriteType) {
+    this.sprite[this.slots[id]] = spriteType;
+  }
+
+  /**
+   * Returns the color an entity is drawn with.
+   *
+   * @param id Id of the entity.
+   * @return Color of the sprite.
+   */
+  public Color getColor(final int id) {
+    return this.color[this.slots[id]];
+  }
+
+  /**
+   * Changes the color an entity is drawn with.
+   *
+   * @param id          Id of the entity.
+   * @param entityColor New color of the sprite.
+   */
+  public void setColor(final int id, final Color entityColor) {
+    this.color[this.slots[id]] = entityColor;
+  }
+
+  /**
+   * Returns the hits an entity takes before being destroyed.
+   *
+   * @param id Id of the entity.
+   * @return Hits left.
+   */
+  public int getHealth(final int id) {
+    return this.health[this.slots[id]];
+  }
+
+  /**
+   * Changes the hits an entity takes before being destroyed.
+   *
+   * @param id   Id of the entity.
+   * @param hits New hits left.
+   */
+  public void setHealth(final int id, final int hits) {
+    this.health[this.slots[id]] = hits;
+  }
+
+  /**
+   * Returns the time an entity has left before expiring.
+   *
+   * @param id Id of the entity.
+   * @return Milliseconds left, 0 once expired, FOREVER if it doesn't expire.
+   */
+  public int getLifetime(final int id) {
+    return this.lifetime[this.slots[id]];
+  }
+
+  /**
+   * Changes the time an entity has left before expiring, counted down by age().
+   *
+   * @param id     Id of the entity.
+   * @param millis Milliseconds left, FOREVER if it doesn't expire.
+   */
+  public void setLifetime(final int id, final int millis) {
+    this.lifetime[this.slots[id]] = millis;
+  }
+
+  /**
+   * Returns the side an entity fights on.
+   *
+   * @param id Id of the entity.
+   * @return PLAYER or ENEMY.
+   */
+  public byte getFaction(final int id) {
+    return this.faction[this.slots[id]];
+  }
+
+  /**
+   * Changes the side an entity fights on.
+   *
+   * @param id            Id of the entity.
+   * @param entityFaction PLAYER or ENEMY.
+   */
+  public void setFaction(final int id, final byte entityFaction) {
+    this.faction[this.slots[id]] = entityFaction;
+  }
+
+  /**
+   * Returns how move() moves an entity.
+   *
+   * @param id Id of the entity.
+   * @return STRAIGHT, TURNING_LEFT or TURNING_RIGHT.
+   */
+  public byte getMotion(final int id) {
+    return this.motion[this.slots[id]];
+  }
+
+  /**
+   * Changes how move() moves an entity.
+   *
+   * @param id           Id of the entity.
+   * @param entityMotion STRAIGHT, TURNING_LEFT or TURNING_RIGHT.
+   */
+  public void setMotion(final int id, final byte entityMotion) {
+    this.motion[this.slots[id]] = entityMotion;
+  }
+
+  /**
+   * Returns which speeds of a turning entity reached the limit.
+   *
+   * @param id Id of the entity.
+   * @return TOUCHED_X and TOUCHED_Y flags.
+   */
+  public byte getTouches(final int id) {
+    return this.touches[this.slots[id]];
+  }
+
+  /**
+   * Changes which speeds of a turning entity reached the limit.
+   *
+   * @param id    Id of the entity.
+   * @param flags New TOUCHED_X and TOUCHED_Y flags.
+   */
+  public void setTouches(final int id, final byte flags) {
+    this.touches[this.slots[id]] = flags;
+  }
+}
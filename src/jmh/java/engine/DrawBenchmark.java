@@ -0,0 +1,183 @@
+package engine;
+
+import engine.DrawManager.SpriteType;
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.Ship;
+import java.awt.Color;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import screen.Screen;
+import screen.TitleScreen;
+
+/**
+ * Cost of rendering representative frames through DrawManager into its offscreen back buffer, the
+ * same calls the screens make each frame: a level with the full 8x7 formation, a boss stage with
+ * 300 bullets, and the title menu. No window is needed, the finished frame is not shown.
+ *
+ * <p>Run with the GC profiler for the allocation rate per frame:
+ * {@code gradle jmh -Pjmh.args="DrawBenchmark -prof gc"}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class DrawBenchmark {
+
+  /**
+   * Columns of the formation, as in the last levels.
+   */
+  private static final int FORMATION_WIDTH = 8;
+  /**
+   * Rows of the formation, as in the last levels.
+   */
+  private static final int FORMATION_HEIGHT = 7;
+  /**
+   * Distance between ships of the formation, as in EnemyShipFormation.
+   */
+  private static final int SEPARATION = 40;
+  /**
+   * Bullets on screen in the boss stage.
+   */
+  private static final int BOSS_BULLETS = 300;
+  /**
+   * Height of the line under the score, as in GameScreen.
+   */
+  private static final int SEPARATION_LINE_HEIGHT = 40;
+
+  /**
+   * Draw manager under test.
+   */
+  private DrawManager drawManager;
+  /**
+   * Screen drawn into, only its size is used by the game frames.
+   */
+  private Screen screen;
+  /**
+   * Player's ship.
+   */
+  private Ship ship;
+  /**
+   * Enemy ships of the level.
+   */
+  private EnemyShip[] formation;
+  /**
+   * Player bullets of the level.
+   */
+  private Bullet[] bullets;
+  /**
+   * Boss of the boss stage.
+   */
+  private EnemyShip boss;
+  /**
+   * Bullets of the boss stage, both ways.
+   */
+  private Bullet[] bossBullets;
+
+  /**
+   * Loads the sprites and fonts and places the entities.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    Core.getLogger().setLevel(java.util.logging.Level.WARNING);
+    this.drawManager = Core.getDrawManager();
+    this.screen = new TitleScreen(Core.WIDTH, Core.HEIGHT, Core.FPS);
+    this.ship = new Ship(Core.WIDTH / 2, Core.HEIGHT - 30);
+
+    SpriteType[] rows = {SpriteType.EnemyShipC1, SpriteType.EnemyShipB1,
+        SpriteType.EnemyShipB1, SpriteType.EnemyShipA1};
+    this.formation = new EnemyShip[FORMATION_WIDTH * FORMATION_HEIGHT];
+    for (int column = 0; column < FORMATION_WIDTH; column++) {
+      for (int row = 0; row < FORMATION_HEIGHT; row++) {
+        this.formation[column * FORMATION_HEIGHT + row] = new EnemyShip(
+            20 + SEPARATION * column, 100 + SEPARATION * row,
+            rows[Math.min(row, rows.length - 1)]);
+      }
+    }
+    GameRandom random = new GameRandom(1);
+    this.bullets = new Bullet[10];
+    for (int i = 0; i < this.bullets.length; i++) {
+      this.bullets[i] = new Bullet(random.nextInt(Core.WIDTH),
+          SEPARATION_LINE_HEIGHT + random.nextInt(Core.HEIGHT - SEPARATION_LINE_HEIGHT),
+          i % 2 == 0 ? -6 : 4);
+    }
+
+    this.boss = new EnemyShip(20, 100, 500, 209, SpriteType.BossA, Color.WHITE);
+    this.bossBullets = new Bullet[BOSS_BULLETS];
+    for (int i = 0; i < BOSS_BULLETS; i++) {
+      this.bossBullets[i] = new Bullet(random.nextInt(Core.WIDTH),
+          SEPARATION_LINE_HEIGHT + random.nextInt(Core.HEIGHT - SEPARATION_LINE_HEIGHT),
+          i % 10 == 0 ? -6 : 4);
+    }
+  }
+
+  /**
+   * A level frame with the full formation, as GameScreen draws it.
+   */
+  @Benchmark
+  public void levelFrame() {
+    this.drawManager.initDrawing(this.screen);
+    this.drawManager.drawEntity(this.ship, this.ship.getPositionX(),
+        this.ship.getPositionY());
+    for (EnemyShip enemyShip : this.formation) {
+      this.drawManager.drawEntity(enemyShip, enemyShip.getPositionX(),
+          enemyShip.getPositionY());
+    }
+    for (Bullet bullet : this.bullets) {
+      this.drawManager.drawEntity(bullet, bullet.getPositionX(),
+          bullet.getPositionY());
+    }
+    drawInterface();
+    this.drawManager.completeDrawing(this.screen);
+  }
+
+  /**
+   * A boss stage frame with 300 bullets, as GameScreen draws it.
+   */
+  @Benchmark
+  public void bossFrame() {
+    this.drawManager.initDrawing(this.screen);
+    this.drawManager.drawEntity(this.ship, this.ship.getPositionX(),
+        this.ship.getPositionY());
+    this.drawManager.drawEntity(this.boss, this.boss.getPositionX(),
+        this.boss.getPositionY());
+    for (Bullet bullet : this.bossBullets) {
+      this.drawManager.drawEntity(bullet, bullet.getPositionX(),
+          bullet.getPositionY());
+    }
+    drawInterface();
+    this.drawManager.completeDrawing(this.screen);
+  }
+
+  /**
+   * A title screen frame, as TitleScreen draws it. Text only.
+   */
+  @Benchmark
+  public void titleFrame() {
+    this.drawManager.initDrawing(this.screen);
+    this.drawManager.drawTitle(this.screen);
+    this.drawManager.drawMenu(this.screen, 2);
+    this.drawManager.completeDrawing(this.screen);
+  }
+
+  /**
+   * Draws the score, lives and separation line of the game screens.
+   */
+  private void drawInterface() {
+    this.drawManager.drawScore(this.screen, 12340);
+    this.drawManager.drawLives(this.screen, 3);
+    this.drawManager.drawHorizontalLine(this.screen, SEPARATION_LINE_HEIGHT - 1);
+  }
+}
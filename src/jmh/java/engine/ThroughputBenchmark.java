@@ -0,0 +1,337 @@
+package engine;
+
+import java.awt.event.KeyEvent;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Properties;
+import java.util.TreeSet;
+import java.util.logging.Level;
+
+/**
+ * Plays every level and boss stage of the game settings headless with scripted input, and measures
+ * ticks per second, bytes allocated per tick and garbage collection. Compared against a stored
+ * baseline, it fails when the total throughput drops by more than a threshold.
+ *
+ * <p>The baseline is split in two files. The shared one, kept with the sources, holds what every
+ * machine measures alike: the ticks the levels play and the bytes allocated per tick. Ticks per
+ * second only compare runs on the same machine, so they are kept in a local file, written by the
+ * first run on a machine.
+ *
+ * <p>Run with: {@code gradle throughputCheck}, or {@code gradle throughputCheck
+ * -Pthroughput.update} to store this run as the new baseline of both files.
+ */
+public final class ThroughputBenchmark {
+
+  /**
+   * Passes over every level before measuring, for the JIT.
+   */
+  private static final int WARMUP_PASSES = 2;
+  /**
+   * Measured passes, the fastest is kept.
+   */
+  private static final int PASSES = 3;
+  /**
+   * Seed of the levels, fixed so every run plays the same ticks.
+   */
+  private static final long SEED = 20240101L;
+  /**
+   * Default drop in throughput allowed against the baseline.
+   */
+  private static final double DEFAULT_THRESHOLD = 0.2;
+  /**
+   * Nanoseconds per second.
+   */
+  private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+  /**
+   * Runs the levels.
+   */
+  private final HeadlessRunner runner;
+  /**
+   * Allocation counter of the game thread.
+   */
+  private final com.sun.management.ThreadMXBean threads;
+
+  /**
+   * Results of one level in one pass.
+   */
+  private static final class Result {
+    /**
+     * Ticks played.
+     */
+    private long ticks;
+    /**
+     * Time taken, in nanoseconds.
+     */
+    private long nanos;
+    /**
+     * Bytes allocated by the game thread.
+     */
+    private long bytes;
+    /**
+     * Garbage collections during the level.
+     */
+    private long collections;
+    /**
+     * Time spent in garbage collection, in milliseconds.
+     */
+    private long collectionMillis;
+
+    /**
+     * Returns the throughput.
+     *
+     * @return Ticks per second.
+     */
+    private double ticksPerSecond() {
+      return this.ticks / (this.nanos / NANOS_PER_SECOND);
+    }
+  }
+
+  /**
+   * Input sweeping the ship from side to side while firing.
+   */
+  private static final class ScriptedInput implements InputSource {
+    /**
+     * Ticks before changing direction.
+     */
+    private static final int SWEEP_TICKS = 120;
+    /**
+     * Ticks played so far.
+     */
+    private int tick;
+
+    @Override
+    public void nextTick(final InputManager inputManager) {
+      long now = System.nanoTime();
+      if (this.tick == 0) {
+        inputManager.applyEvent(KeyEvent.VK_SPACE, true, now);
+      }
+      if (this.tick % SWEEP_TICKS == 0) {
+        boolean right = this.tick / SWEEP_TICKS % 2 == 0;
+        inputManager.applyEvent(right ? KeyEvent.VK_LEFT : KeyEvent.VK_RIGHT, false, now);
+        inputManager.applyEvent(right ? KeyEvent.VK_RIGHT : KeyEvent.VK_LEFT, true, now);
+      }
+      this.tick++;
+    }
+  }
+
+  /**
+   * Constructor, switches the game to headless mode.
+   */
+  private ThroughputBenchmark() {
+    this.runner = HeadlessRunner.install();
+    this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+  }
+
+  /**
+   * Measures the throughput and checks it against the baseline.
+   *
+   * @param args Shared baseline file and local baseline file, then optionally --update to rewrite
+   *             both and --threshold followed by the drop allowed, 0.2 for 20%.
+   * @throws IOException In case of problems with the baseline.
+   */
+  public static void main(final String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println(
+          "Usage: ThroughputBenchmark baseline local [--update] [--threshold drop]");
+      System.exit(2);
+    }
+    Path baselineFile = Paths.get(args[0]);
+    Path localFile = Paths.get(args[1]);
+    List<String> options = List.of(args).subList(2, args.length);
+    boolean update = options.contains("--update");
+    int thresholdIndex = options.indexOf("--threshold");
+    double threshold = thresholdIndex >= 0 && thresholdIndex + 1 < options.size()
+        ? Double.parseDouble(options.get(thresholdIndex + 1)) : DEFAULT_THRESHOLD;
+    // Per enemy logging would dominate the run time.
+    Core.getLogger().setLevel(Level.WARNING);
+
+    ThroughputBenchmark benchmark = new ThroughputBenchmark();
+    List<GameSettings> settings = Core.getGameSettings();
+    for (int pass = 0; pass < WARMUP_PASSES; pass++) {
+      benchmark.playAll(settings);
+    }
+    Result[] best = benchmark.playAll(settings);
+    for (int pass = 1; pass < PASSES; pass++) {
+      Result[] results = benchmark.playAll(settings);
+      for (int i = 0; i < results.length; i++) {
+        if (results[i].nanos < best[i].nanos) {
+          best[i] = results[i];
+        }
+      }
+    }
+
+    Result total = new Result();
+    System.out.println(String.format("%-8s %8s %12s %12s %6s %8s",
+        "Level", "Ticks", "Ticks/s", "Bytes/tick", "GCs", "GC ms"));
+    for (int i = 0; i < best.length; i++) {
+      Result result = best[i];
+      System.out.println(String.format("%-8s %8d %12.0f %12.0f %6d %8d", levelName(i),
+          result.ticks, result.ticksPerSecond(), (double) result.bytes / result.ticks,
+          result.collections, result.collectionMillis));
+      total.ticks += result.ticks;
+      total.nanos += result.nanos;
+      total.bytes += result.bytes;
+      total.collections += result.collections;
+      total.collectionMillis += result.collectionMillis;
+    }
+    System.out.println(String.format("%-8s %8d %12.0f %12.0f %6d %8d", "Total",
+        total.ticks, total.ticksPerSecond(), (double) total.bytes / total.ticks,
+        total.collections, total.collectionMillis));
+
+    if (update || !Files.exists(baselineFile)) {
+      Properties baseline = new Properties();
+      baseline.setProperty("ticks", Long.toString(total.ticks));
+      baseline.setProperty("bytesPerTick",
+          String.format("%.0f", (double) total.bytes / total.ticks));
+      store(baseline, baselineFile, "Throughput baseline of ThroughputBenchmark, any machine");
+    } else {
+      Properties baseline = load(baselineFile);
+      if (Long.parseLong(baseline.getProperty("ticks")) != total.ticks) {
+        System.out.println("Warning: the levels played " + total.ticks + " ticks against "
+            + baseline.getProperty("ticks") + " in the baseline, gameplay changed.");
+      }
+      System.out.println(String.format("Allocation %.0f bytes/tick against %s in the baseline.",
+          (double) total.bytes / total.ticks, baseline.getProperty("bytesPerTick")));
+    }
+
+    if (update || !Files.exists(localFile)) {
+      Properties local = new Properties();
+      local.setProperty("ticksPerSecond", String.format("%.0f", total.ticksPerSecond()));
+      store(local, localFile, "Throughput baseline of ThroughputBenchmark, this machine only");
+      return;
+    }
+    double expected = Double.parseDouble(load(localFile).getProperty("ticksPerSecond"));
+    double change = total.ticksPerSecond() / expected - 1;
+    System.out.println(String.format("Throughput %.0f ticks/s against %.0f in the baseline, "
+        + "%+.1f%%.", total.ticksPerSecond(), expected, change * 100));
+    if (change < -threshold) {
+      System.out.println(String.format("Throughput dropped more than %.0f%%.", threshold * 100));
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Reads a baseline file.
+   *
+   * @param file Baseline file.
+   * @return Properties of the baseline.
+   * @throws IOException In case of loading problems.
+   */
+  private static Properties load(final Path file) throws IOException {
+    Properties properties = new Properties();
+    try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+      properties.load(reader);
+    }
+    return properties;
+  }
+
+  /**
+   * Writes a baseline file, keys sorted and without the date Properties.store() adds, so updating
+   * the shared baseline only changes the values that changed.
+   *
+   * @param properties Properties of the baseline, plain numbers.
+   * @param file       Baseline file.
+   * @param comment    Header of the file.
+   * @throws IOException In case of saving problems.
+   */
+  private static void store(final Properties properties, final Path file, final String comment)
+      throws IOException {
+    Files.createDirectories(file.toAbsolutePath().getParent());
+    try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+      writer.write("# " + comment + "\n");
+      for (String key : new TreeSet<String>(properties.stringPropertyNames())) {
+        writer.write(key + "=" + properties.getProperty(key) + "\n");
+      }
+    }
+    System.out.println("Baseline written to " + file + ".");
+  }
+
+  /**
+   * Plays every level and boss stage once.
+   *
+   * @param settings Settings of the levels, then of the boss stages.
+   * @return Results, in the order of the settings.
+   */
+  private Result[] playAll(final List<GameSettings> settings) {
+    Result[] results = new Result[settings.size()];
+    for (int i = 0; i < settings.size(); i++) {
+      results[i] = play(i, settings.get(i));
+    }
+    return results;
+  }
+
+  /**
+   * Plays a level with the scripted input.
+   *
+   * @param index        Index of the settings.
+   * @param gameSettings Settings of the level.
+   * @return Measures of the level.
+   */
+  private Result play(final int index, final GameSettings gameSettings) {
+    GameState start = new GameState(index % Core.NUM_LEVELS + 1, 0, Core.MAX_LIVES, 0, 0,
+        SEED + index);
+    Core.getInputManager().setInputSource(new ScriptedInput());
+
+    Result result = new Result();
+    long ticks = this.runner.getTicks();
+    long collections = collections();
+    long collectionMillis = collectionMillis();
+    long bytes = this.threads.getCurrentThreadAllocatedBytes();
+    long nanos = System.nanoTime();
+    this.runner.playLevel(start, gameSettings, false);
+    result.nanos = System.nanoTime() - nanos;
+    result.bytes = this.threads.getCurrentThreadAllocatedBytes() - bytes;
+    result.collectionMillis = collectionMillis() - collectionMillis;
+    result.collections = collections() - collections;
+    result.ticks = this.runner.getTicks() - ticks;
+
+    Core.getInputManager().setInputSource(null);
+    return result;
+  }
+
+  /**
+   * Returns the name of a level by index of its settings.
+   *
+   * @param index Index of the settings.
+   * @return Level or boss stage name.
+   */
+  private static String levelName(final int index) {
+    return index < Core.NUM_LEVELS ? "Level " + (index + 1)
+        : "Boss " + (index - Core.NUM_LEVELS + 1);
+  }
+
+  /**
+   * Returns the garbage collections so far, of every collector.
+   *
+   * @return Collection count.
+   */
+  private static long collections() {
+    long count = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, collector.getCollectionCount());
+    }
+    return count;
+  }
+
+  /**
+   * Returns the time spent in garbage collection so far, of every collector.
+   *
+   * @return Collection time in milliseconds.
+   */
+  private static long collectionMillis() {
+    long millis = 0;
+    for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+      millis += Math.max(0, collector.getCollectionTime());
+    }
+    return millis;
+  }
+}
@@ -0,0 +1,144 @@
+package engine;
+
+import engine.DrawManager.SpriteType;
+import entity.EnemyShip;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one game tick of the enemy ship animation: polling a Cooldown per ship every tick, as
+ * the ships did before, against advancing the TimerWheel of real EnemyShips, whose callbacks switch
+ * the sprite and reschedule themselves, as Screen.update() does.
+ *
+ * <p>Run with: {@code gradle jmh -Pjmh.args=TimerBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TimerBenchmark {
+
+  /**
+   * Milliseconds per tick at 60 fps.
+   */
+  private static final int TICK = 16;
+  /**
+   * Interval of the enemy ship animation.
+   */
+  private static final int INTERVAL = 500;
+
+  /**
+   * Number of enemy ships.
+   */
+  @Param({"1000", "10000"})
+  private int entities;
+
+  /**
+   * Clock of the polled cooldowns.
+   */
+  private ManualClock pollingClock;
+  /**
+   * One cooldown per ship.
+   */
+  private Cooldown[] cooldowns;
+  /**
+   * Sprite of each polled ship.
+   */
+  private SpriteType[] sprites;
+
+  /**
+   * Clock of the game context of the ships.
+   */
+  private ManualClock wheelClock;
+  /**
+   * Timer wheel of the game context, holding the animation of every ship.
+   */
+  private TimerWheel wheel;
+  /**
+   * Enemy ships animated by the wheel.
+   */
+  private EnemyShip[] ships;
+
+  /**
+   * Sprites switched by polling, so the work is not optimized away.
+   */
+  private long switches;
+
+  /**
+   * Creates the ships, with animations spread over the interval as in a running game.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    this.pollingClock = new ManualClock(TICK);
+    this.cooldowns = new Cooldown[this.entities];
+    this.sprites = new SpriteType[this.entities];
+    for (int i = 0; i < this.entities; i++) {
+      this.cooldowns[i] = new Cooldown(this.pollingClock, INTERVAL);
+      this.sprites[i] = SpriteType.EnemyShipA1;
+    }
+
+    this.wheelClock = new ManualClock(TICK);
+    GameContext context = new GameContext(this.wheelClock);
+    context.install();
+    try {
+      this.wheel = Core.getTimerWheel();
+      this.ships = new EnemyShip[this.entities];
+      // Creates every ship at a different moment of the interval.
+      for (int i = 0; i < this.entities; i++) {
+        if (i % (this.entities / (INTERVAL / TICK)) == 0) {
+          this.pollingClock.tick();
+          this.wheelClock.tick();
+          this.wheel.advanceTo(this.wheelClock.millis());
+        }
+        this.cooldowns[i].reset();
+        this.ships[i] = new EnemyShip(0, 0, SpriteType.EnemyShipA1);
+      }
+    } finally {
+      GameContext.uninstall();
+    }
+  }
+
+  /**
+   * One tick of the polling model: every ship checks its cooldown.
+   *
+   * @return Sprites switched so far.
+   */
+  @Benchmark
+  public long polledCooldowns() {
+    this.pollingClock.tick();
+    for (int i = 0; i < this.cooldowns.length; i++) {
+      if (this.cooldowns[i].checkFinished()) {
+        this.cooldowns[i].reset();
+        this.sprites[i] = this.sprites[i] == SpriteType.EnemyShipA1
+            ? SpriteType.EnemyShipA2 : SpriteType.EnemyShipA1;
+        this.switches++;
+      }
+    }
+    return this.switches;
+  }
+
+  /**
+   * One tick of the game: only the ships whose animation is due run their callback.
+   *
+   * @return Sprite of the first ship.
+   */
+  @Benchmark
+  public SpriteType enemyShipTimers() {
+    this.wheelClock.tick();
+    this.wheel.advanceTo(this.wheelClock.millis());
+    return this.ships[0].getSpriteType();
+  }
+}
@@ -0,0 +1,401 @@
+package screen;
+
+import engine.DrawManager.SpriteType;
+import engine.GameRandom;
+import entity.Bullet;
+import entity.EnemyShip;
+import entity.Entity;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of one tick of bullet against enemy collision tests, as in GameScreen.manageCollisions(),
+ * for each candidate strategy: testing every pair, a uniform grid rebuilt every tick, the column
+ * and row arithmetic of the formation lattice, and every pair over primitive arrays.
+ *
+ * <p>Enemies stand on the formation lattice, a quarter of them destroyed, and bullets are spread
+ * over the formation. Every strategy counts the same colliding pairs, checked on setup.
+ *
+ * <p>Run with: {@code gradle jmh -Pjmh.args=CollisionBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+  /**
+   * Distance between enemies of the formation, as in EnemyShipFormation.
+   */
+  private static final int SEPARATION = 40;
+  /**
+   * Position of the formation.
+   */
+  private static final int ORIGIN_X = 20;
+  /**
+   * Position of the formation.
+   */
+  private static final int ORIGIN_Y = 100;
+  /**
+   * Size of an enemy ship.
+   */
+  private static final int ENEMY_WIDTH = 12 * 2;
+  /**
+   * Size of an enemy ship.
+   */
+  private static final int ENEMY_HEIGHT = 8 * 2;
+  /**
+   * Side of a grid cell, at least the size of an enemy.
+   */
+  private static final int CELL = 64;
+
+  /**
+   * Number of bullets on screen.
+   */
+  @Param({"10", "100", "1000", "10000"})
+  private int bullets;
+  /**
+   * Number of enemy ships in the formation.
+   */
+  @Param({"10", "100", "1000", "10000"})
+  private int enemies;
+
+  /**
+   * Bullets on screen.
+   */
+  private Bullet[] bulletList;
+  /**
+   * Enemy ships, column by column.
+   */
+  private EnemyShip[] enemyList;
+  /**
+   * Enemy ships by column and row, null past the last one.
+   */
+  private EnemyShip[][] lattice;
+  /**
+   * Columns of the formation.
+   */
+  private int columns;
+  /**
+   * Rows of the formation.
+   */
+  private int rows;
+
+  /**
+   * Grid columns.
+   */
+  private int gridColumns;
+  /**
+   * Grid rows.
+   */
+  private int gridRows;
+  /**
+   * First entry of every cell, plus one past the end.
+   */
+  private int[] cellStart;
+  /**
+   * Next free entry of every cell while filling the grid.
+   */
+  private int[] cellFill;
+  /**
+   * Enemies of every cell, by index in enemyList.
+   */
+  private int[] cellEntries;
+  /**
+   * Cell of every enemy, -1 if destroyed.
+   */
+  private int[] enemyCell;
+
+  /**
+   * Bullet positions and sizes, as arrays.
+   */
+  private int[] bulletX;
+  /**
+   * Bullet positions and sizes, as arrays.
+   */
+  private int[] bulletY;
+  /**
+   * Bullet positions and sizes, as arrays.
+   */
+  private int[] bulletWidth;
+  /**
+   * Bullet positions and sizes, as arrays.
+   */
+  private int[] bulletHeight;
+  /**
+   * Enemy positions and sizes, as arrays.
+   */
+  private int[] enemyX;
+  /**
+   * Enemy positions and sizes, as arrays.
+   */
+  private int[] enemyY;
+  /**
+   * Enemy positions and sizes, as arrays.
+   */
+  private int[] enemyWidth;
+  /**
+   * Enemy positions and sizes, as arrays.
+   */
+  private int[] enemyHeight;
+  /**
+   * Enemy state, as an array.
+   */
+  private boolean[] enemyAlive;
+
+  /**
+   * Creates the formation and the bullets.
+   */
+  @Setup(Level.Trial)
+  public void setUp() {
+    GameRandom random = new GameRandom(this.bullets * 31L + this.enemies);
+    this.columns = (int) Math.ceil(Math.sqrt(this.enemies));
+    this.rows = (this.enemies + this.columns - 1) / this.columns;
+    this.lattice = new EnemyShip[this.columns][this.rows];
+    this.enemyList = new EnemyShip[this.enemies];
+    for (int i = 0; i < this.enemies; i++) {
+      int column = i / this.rows;
+      int row = i % this.rows;
+      EnemyShip enemyShip = new EnemyShip(ORIGIN_X + SEPARATION * column,
+          ORIGIN_Y + SEPARATION * row, SpriteType.EnemyShipA1);
+      if (random.nextInt(4) == 0) {
+        enemyShip.destroy();
+      }
+      this.lattice[column][row] = enemyShip;
+      this.enemyList[i] = enemyShip;
+    }
+
+    int width = this.columns * SEPARATION;
+    int height = this.rows * SEPARATION;
+    this.bulletList = new Bullet[this.bullets];
+    for (int i = 0; i < this.bullets; i++) {
+      this.bulletList[i] = new Bullet(ORIGIN_X - SEPARATION + random.nextInt(width + SEPARATION),
+          ORIGIN_Y - SEPARATION + random.nextInt(height + SEPARATION), -6);
+    }
+
+    this.gridColumns = (width + SEPARATION) / CELL + 2;
+    this.gridRows = (height + SEPARATION) / CELL + 2;
+    this.cellStart = new int[this.gridColumns * this.gridRows + 1];
+    this.cellFill = new int[this.gridColumns * this.gridRows];
+    this.cellEntries = new int[this.enemies];
+    this.enemyCell = new int[this.enemies];
+
+    this.bulletX = new int[this.bullets];
+    this.bulletY = new int[this.bullets];
+    this.bulletWidth = new int[this.bullets];
+    this.bulletHeight = new int[this.bullets];
+    for (int i = 0; i < this.bullets; i++) {
+      this.bulletX[i] = this.bulletList[i].getPositionX();
+      this.bulletY[i] = this.bulletList[i].getPositionY();
+      this.bulletWidth[i] = this.bulletList[i].getWidth();
+      this.bulletHeight[i] = this.bulletList[i].getHeight();
+    }
+    this.enemyX = new int[this.enemies];
+    this.enemyY = new int[this.enemies];
+    this.enemyWidth = new int[this.enemies];
+    this.enemyHeight = new int[this.enemies];
+    this.enemyAlive = new boolean[this.enemies];
+    for (int i = 0; i < this.enemies; i++) {
+      this.enemyX[i] = this.enemyList[i].getPositionX();
+      this.enemyY[i] = this.enemyList[i].getPositionY();
+      this.enemyWidth[i] = this.enemyList[i].getWidth();
+      this.enemyHeight[i] = this.enemyList[i].getHeight();
+      this.enemyAlive[i] = !this.enemyList[i].isDestroyed();
+    }
+
+    int expected = naive();
+    if (grid() != expected || formation() != expected || arrays() != expected) {
+      throw new IllegalStateException("Strategies disagree on " + expected + " collisions.");
+    }
+  }
+
+  /**
+   * Tests every bullet against every enemy, as GameScreen does.
+   *
+   * @return Colliding pairs.
+   */
+  @Benchmark
+  public int naive() {
+    int hits = 0;
+    for (Bullet bullet : this.bulletList) {
+      for (EnemyShip enemyShip : this.enemyList) {
+        if (!enemyShip.isDestroyed() && checkCollision(bullet, enemyShip)) {
+          hits++;
+        }
+      }
+    }
+    return hits;
+  }
+
+  /**
+   * Sorts the enemies into a uniform grid by their corner, then tests every bullet against the
+   * enemies of the cells it can reach. The grid is rebuilt as the formation moves every tick.
+   *
+   * @return Colliding pairs.
+   */
+  @Benchmark
+  public int grid() {
+    int cells = this.gridColumns * this.gridRows;
+    Arrays.fill(this.cellStart, 0);
+    for (int i = 0; i < this.enemies; i++) {
+      EnemyShip enemyShip = this.enemyList[i];
+      int cell = enemyShip.isDestroyed() ? -1
+          : cellOf(enemyShip.getPositionX(), enemyShip.getPositionY());
+      this.enemyCell[i] = cell;
+      if (cell >= 0) {
+        this.cellStart[cell + 1]++;
+      }
+    }
+    for (int cell = 0; cell < cells; cell++) {
+      this.cellStart[cell + 1] += this.cellStart[cell];
+      this.cellFill[cell] = this.cellStart[cell];
+    }
+    for (int i = 0; i < this.enemies; i++) {
+      if (this.enemyCell[i] >= 0) {
+        this.cellEntries[this.cellFill[this.enemyCell[i]]++] = i;
+      }
+    }
+
+    int hits = 0;
+    for (Bullet bullet : this.bulletList) {
+      int fromX = gridX(bullet.getPositionX() - ENEMY_WIDTH - 1);
+      int toX = gridX(bullet.getPositionX() + bullet.getWidth() + 1);
+      int fromY = gridY(bullet.getPositionY() - ENEMY_HEIGHT - 1);
+      int toY = gridY(bullet.getPositionY() + bullet.getHeight() + 1);
+      for (int x = fromX; x <= toX; x++) {
+        for (int y = fromY; y <= toY; y++) {
+          int cell = y * this.gridColumns + x;
+          for (int entry = this.cellStart[cell]; entry < this.cellStart[cell + 1]; entry++) {
+            if (checkCollision(bullet, this.enemyList[this.cellEntries[entry]])) {
+              hits++;
+            }
+          }
+        }
+      }
+    }
+    return hits;
+  }
+
+  /**
+   * Finds the columns and rows of the formation a bullet can reach from its position, as every
+   * enemy stands on the lattice, and tests only those enemies.
+   *
+   * @return Colliding pairs.
+   */
+  @Benchmark
+  public int formation() {
+    int hits = 0;
+    for (Bullet bullet : this.bulletList) {
+      int fromColumn = Math.max(0, Math.floorDiv(
+          bullet.getPositionX() - ENEMY_WIDTH - 1 - ORIGIN_X, SEPARATION));
+      int toColumn = Math.min(this.columns - 1, Math.floorDiv(
+          bullet.getPositionX() + bullet.getWidth() + 1 - ORIGIN_X, SEPARATION));
+      int fromRow = Math.max(0, Math.floorDiv(
+          bullet.getPositionY() - ENEMY_HEIGHT - 1 - ORIGIN_Y, SEPARATION));
+      int toRow = Math.min(this.rows - 1, Math.floorDiv(
+          bullet.getPositionY() + bullet.getHeight() + 1 - ORIGIN_Y, SEPARATION));
+      for (int column = fromColumn; column <= toColumn; column++) {
+        for (int row = fromRow; row <= toRow; row++) {
+          EnemyShip enemyShip = this.lattice[column][row];
+          if (enemyShip != null && !enemyShip.isDestroyed()
+              && checkCollision(bullet, enemyShip)) {
+            hits++;
+          }
+        }
+      }
+    }
+    return hits;
+  }
+
+  /**
+   * Tests every bullet against every enemy as the naive strategy, reading positions from
+   * primitive arrays instead of entity objects.
+   *
+   * @return Colliding pairs.
+   */
+  @Benchmark
+  public int arrays() {
+    int hits = 0;
+    for (int b = 0; b < this.bullets; b++) {
+      int halfWidthA = this.bulletWidth[b] / 2;
+      int halfHeightA = this.bulletHeight[b] / 2;
+      int centerAX = this.bulletX[b] + halfWidthA;
+      int centerAY = this.bulletY[b] + halfHeightA;
+      for (int e = 0; e < this.enemies; e++) {
+        int halfWidthB = this.enemyWidth[e] / 2;
+        int halfHeightB = this.enemyHeight[e] / 2;
+        if (this.enemyAlive[e]
+            && Math.abs(centerAX - this.enemyX[e] - halfWidthB) < halfWidthA + halfWidthB
+            && Math.abs(centerAY - this.enemyY[e] - halfHeightB) < halfHeightA + halfHeightB) {
+          hits++;
+        }
+      }
+    }
+    return hits;
+  }
+
+  /**
+   * Returns the grid cell of a position.
+   *
+   * @param x Position in the X axis.
+   * @param y Position in the Y axis.
+   * @return Cell index.
+   */
+  private int cellOf(final int x, final int y) {
+    return gridY(y) * this.gridColumns + gridX(x);
+  }
+
+  /**
+   * Returns the grid column of a position, clamped to the grid.
+   *
+   * @param x Position in the X axis.
+   * @return Grid column.
+   */
+  private int gridX(final int x) {
+    return Math.max(0, Math.min(this.gridColumns - 1,
+        Math.floorDiv(x - ORIGIN_X + SEPARATION, CELL)));
+  }
+
+  /**
+   * Returns the grid row of a position, clamped to the grid.
+   *
+   * @param y Position in the Y axis.
+   * @return Grid row.
+   */
+  private int gridY(final int y) {
+    return Math.max(0, Math.min(this.gridRows - 1,
+        Math.floorDiv(y - ORIGIN_Y + SEPARATION, CELL)));
+  }
+
+  /**
+   * Collision test of GameScreen.checkCollision().
+   *
+   * @param a First entity, the bullet.
+   * @param b Second entity, the ship.
+   * @return Result of the collision test.
+   */
+  private static boolean checkCollision(final Entity a, final Entity b) {
+    int centerAX = a.getPositionX() + a.getWidth() / 2;
+    int centerAY = a.getPositionY() + a.getHeight() / 2;
+    int centerBX = b.getPositionX() + b.getWidth() / 2;
+    int centerBY = b.getPositionY() + b.getHeight() / 2;
+    int maxDistanceX = a.getWidth() / 2 + b.getWidth() / 2;
+    int maxDistanceY = a.getHeight() / 2 + b.getHeight() / 2;
+    return Math.abs(centerAX - centerBX) < maxDistanceX
+        && Math.abs(centerAY - centerBY) < maxDistanceY;
+  }
+}
@@ -1,7 +1,5 @@
 package screen;
 
-import engine.Cooldown;
-import engine.Core;
 import entity.Ship;
 
 import java.awt.event.KeyEvent;
@@ -10,20 +8,8 @@ import static screen.GameScreen.*;
 
 public class BuffScreen extends Screen {
 
-  /**
-   * Milliseconds between changes in user selection.
-   */
-  private static final int SELECTION_TIME = 200;
-
-  /**
-   * Time between changes in user selection.
-   */
-  private final Cooldown selectionCooldown;
   private final GameScreen gameScreen;
   private int itemCode;
-  private static int hpSelected = 0;
-  private static int shipSpeedSelected = 0;
-  private static int bulletSpeedSelected = 0;
 
 
   /**
@@ -36,8 +22,6 @@ public class BuffScreen extends Screen {
   public BuffScreen(int width, int height, int fps, GameScreen gameScreen) {
     super(width, height, fps);
     this.itemCode = 2;
-    this.selectionCooldown = Core.getCooldown(SELECTION_TIME);
-    this.selectionCooldown.reset();
     this.gameScreen = gameScreen;
   }
 
@@ -45,35 +29,33 @@ public class BuffScreen extends Screen {
   protected final void update() {
     super.update();
     draw();
-    if (this.selectionCooldown.checkFinished()
-        && this.inputDelay.checkFinished()) {
-      if (inputManager.isKeyDown(KeyEvent.VK_UP)
-          || inputManager.isKeyDown(KeyEvent.VK_W)) {
+    if (this.inputDelay.checkFinished()) {
+      if (inputManager.isKeyPressed(KeyEvent.VK_UP)
+          || inputManager.isKeyPressed(KeyEvent.VK_W)) {
         previousMenuItem();
-        this.selectionCooldown.reset();
       }
-      if (inputManager.isKeyDown(KeyEvent.VK_DOWN)
-          || inputManager.isKeyDown(KeyEvent.VK_S)) {
+      if (inputManager.isKeyPressed(KeyEvent.VK_DOWN)
+          || inputManager.isKeyPressed(KeyEvent.VK_S)) {
         nextMenuItem();
-        this.selectionCooldown.reset();
       }
       if (inputManager.isKeyDown(KeyEvent.VK_SPACE)) {
+        // Picked so far in this game, kept by the game state.
+        int hpSelected = gameScreen.getHpBuffs();
+        int shipSpeedSelected = gameScreen.getShipSpeedBuffs();
+        int bulletSpeedSelected = gameScreen.getBulletSpeedBuffs();
         if (hpSelected >= 5 || shipSpeedSelected >= 5 || bulletSpeedSelected >= 5) {
           logger.info("This item has already been selected 5 times.");
         }
         if (itemCode == 2 && hpSelected < 5) {
           gameScreen.setHpSelected(true);
-          hpSelected++;
           logger.info("HP buff selected.");
         }
         if (itemCode == 3 && shipSpeedSelected < 5) {
           gameScreen.setShipSpeedSelected(true);
-          shipSpeedSelected++;
           logger.info("Ship speed buff selected.");
         }
         if (itemCode == 4 && bulletSpeedSelected < 5) {
           gameScreen.setBulletSpeedSelected(true);
-          bulletSpeedSelected++;
           logger.info("Bullet speed buff selected.");
         }
         this.isRunning = false;
@@ -110,7 +92,8 @@ public class BuffScreen extends Screen {
   private void draw() {
     drawManager.initDrawing(this);
 
-    drawManager.drawBuff(this, this.itemCode, hpSelected, shipSpeedSelected, bulletSpeedSelected);
+    drawManager.drawBuff(this, this.itemCode, gameScreen.getHpBuffs(),
+        gameScreen.getShipSpeedBuffs(), gameScreen.getBulletSpeedBuffs());
 
     drawManager.completeDrawing(this);
   }
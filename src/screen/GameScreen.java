@@ -1,19 +1,24 @@
 package screen;
 
 import java.awt.event.KeyEvent;
+import java.nio.ByteBuffer;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 import engine.Cooldown;
 import engine.Core;
+import engine.GameRandom;
 import engine.GameSettings;
 import engine.GameState;
+import engine.LatencyProbe;
+import engine.ReplayRecorder;
 import entity.Bullet;
-import entity.BulletPool;
 import entity.EnemyShip;
 import entity.EnemyShipFormation;
 import entity.Entity;
 import entity.Ship;
+import entity.World;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -78,10 +83,6 @@ public class GameScreen extends Screen {
    * Minimum time between bonus ship appearances.
    */
   private Cooldown enemyShipSpecialCooldown;
-  /**
-   * Time until bonus ship explosion disappears.
-   */
-  private Cooldown enemyShipSpecialExplosionCooldown;
   /**
    * Time from finishing the level to screen change.
    */
@@ -93,11 +94,23 @@ public class GameScreen extends Screen {
   /**
    * Set of all turning bullets fired by on screen ships.
    */
-  private Set<Bullet> turningBullets;
+  private @Getter Set<Bullet> turningBullets;
+  /**
+   * Bullets culled off screen this tick, kept to avoid allocating a set every tick.
+   */
+  private final Set<Bullet> offScreen = new HashSet<Bullet>();
+  /**
+   * Straight bullets that hit a ship this tick, kept to avoid allocating a set every tick.
+   */
+  private final Set<Bullet> recyclable = new HashSet<Bullet>();
+  /**
+   * Turning bullets that hit the ship this tick, kept to avoid allocating a set every tick.
+   */
+  private final Set<Bullet> recyclableTurning = new HashSet<Bullet>();
   /**
    * Current score.
    */
-  private int score;
+  private @Getter int score;
   /**
    * Player lives left.
    */
@@ -114,6 +127,10 @@ public class GameScreen extends Screen {
    * Moment the game starts.
    */
   private long gameStartTime;
+  /**
+   * Moment of the last tick, the lifetimes of the entities are counted down from it.
+   */
+  private long lastTickTime;
   /**
    * Checks if the level is finished.
    */
@@ -121,9 +138,25 @@ public class GameScreen extends Screen {
   /**
    * Checks if a bonus life is received.
    */
-  private boolean bonusLife;
+  private @Getter boolean bonusLife;
 
-  private int bossStage;
+  private @Getter int bossStage;
+  /**
+   * Seed of the game's random numbers.
+   */
+  private long seed;
+  /**
+   * Random numbers of this level, derived from the seed.
+   */
+  private GameRandom random;
+  /**
+   * Checks if the player left the level to continue it later.
+   */
+  private @Getter boolean suspended;
+  /**
+   * Recorder of the input, null if not recording.
+   */
+  private ReplayRecorder replayRecorder;
 
   private @Setter boolean isTesting;
 
@@ -139,6 +172,18 @@ public class GameScreen extends Screen {
    * Checks if a bullet speed is selected.
    */
   private @Setter boolean isBulletSpeedSelected = false;
+  /**
+   * Extra life buffs picked in this game, this level's included.
+   */
+  private @Getter int hpBuffs;
+  /**
+   * Ship speed buffs picked in this game, this level's included.
+   */
+  private @Getter int shipSpeedBuffs;
+  /**
+   * Bullet speed buffs picked in this game, this level's included.
+   */
+  private @Getter int bulletSpeedBuffs;
 
   /**
    * Constructor, establishes the properties of the screen.
@@ -166,6 +211,13 @@ public class GameScreen extends Screen {
     this.bulletsShot = gameState.getBulletsShot();
     this.shipsDestroyed = gameState.getShipsDestroyed();
     this.bossStage = gameSettings.getBossStage();
+    this.seed = gameState.getSeed();
+    this.hpBuffs = gameState.getHpBuffs();
+    this.shipSpeedBuffs = gameState.getShipSpeedBuffs();
+    this.bulletSpeedBuffs = gameState.getBulletSpeedBuffs();
+    // Each level and boss stage gets its own sequence.
+    this.random = GameRandom.forStream(this.seed,
+        ((long) this.level << 8) | this.bossStage);
     this.isTesting = false;
   }
 
@@ -174,37 +226,61 @@ public class GameScreen extends Screen {
    */
   public final void initialize() {
     super.initialize();
-
-    enemyShipFormation = new EnemyShipFormation(this.gameSettings);
+    Core.resetTimerWheel();
+    // The entities of the previous level leave the world, its bullets go back to the pool.
+    World world = Core.getWorld();
+    world.collect(Bullet.class, this.offScreen);
+    Core.getBulletPool().recycle(this.offScreen);
+    this.offScreen.clear();
+    world.clear();
+
+    this.logger.info("Level " + this.level + ", boss stage " + this.bossStage
+        + ", seed " + this.seed + ".");
+    enemyShipFormation = new EnemyShipFormation(this.gameSettings, this.random);
     enemyShipFormation.attach(this);
     this.ship = new Ship(this.width / 2, this.height - 30);
     // Appears each 10-30 seconds.
     this.enemyShipSpecialCooldown = Core.getVariableCooldown(
-        BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE);
+        BONUS_SHIP_INTERVAL, BONUS_SHIP_VARIANCE, this.random);
     this.enemyShipSpecialCooldown.reset();
-    this.enemyShipSpecialExplosionCooldown = Core
-        .getCooldown(BONUS_SHIP_EXPLOSION);
     this.screenFinishedCooldown = Core.getCooldown(SCREEN_CHANGE_INTERVAL);
-    this.bullets = new HashSet<Bullet>();
-    this.turningBullets = new HashSet<Bullet>();
+    // Kept in the order shot, so snapshots and replays iterate them the same way.
+    this.bullets = new LinkedHashSet<Bullet>();
+    this.turningBullets = new LinkedHashSet<Bullet>();
 
     if (isHpSelected) {
       this.lives++;
+      this.hpBuffs++;
       isHpSelected = false;
     }
     if (isShipSpeedSelected) {
-      this.ship.increaseShipSpeed();
+      this.shipSpeedBuffs++;
       isShipSpeedSelected = false;
     }
     if (isBulletSpeedSelected) {
-      this.ship.increaseBulletSpeed();
+      this.bulletSpeedBuffs++;
       isBulletSpeedSelected = false;
     }
+    // The ship is new every level, the upgrades of the game are applied again.
+    for (int i = 0; i < this.shipSpeedBuffs; i++) {
+      this.ship.increaseShipSpeed();
+    }
+    for (int i = 0; i < this.bulletSpeedBuffs; i++) {
+      this.ship.increaseBulletSpeed();
+    }
 
     // Special input delay / countdown.
-    this.gameStartTime = System.currentTimeMillis();
+    this.gameStartTime = Core.getClock().millis();
+    this.lastTickTime = this.gameStartTime;
     this.inputDelay = Core.getCooldown(INPUT_DELAY);
     this.inputDelay.reset();
+
+    this.replayRecorder = Core.getReplayRecorder();
+    if (this.replayRecorder != null) {
+      this.replayRecorder.beginSegment(getGameState(), this.bossStage,
+          this.ship.getSpeed(), this.ship.getBulletSpeed());
+      this.replayRecorder.recordKeyframe(this);
+    }
   }
 
   /**
@@ -215,17 +291,49 @@ public class GameScreen extends Screen {
   public final int run() {
     super.run();
 
-    this.score += LIFE_SCORE * (this.lives - 1);
-    this.logger.info("Screen cleared with a score of " + this.score);
+    if (this.suspended) {
+      this.logger.info("Level suspended with a score of " + this.score);
+    } else {
+      this.score += LIFE_SCORE * (this.lives - 1);
+      this.logger.info("Screen cleared with a score of " + this.score);
+    }
+    if (this.replayRecorder != null) {
+      this.replayRecorder.endSegment(getGameState());
+    }
 
     return this.returnCode;
   }
 
+  /**
+   * Plays a single tick without frame pacing, e.g. to fast forward a replay. The screen must be
+   * initialized.
+   *
+   * @return True while the screen keeps running.
+   */
+  public final boolean step() {
+    this.isRunning = true;
+    update();
+    return this.isRunning;
+  }
+
   /**
    * Updates the elements on screen and checks for events.
    */
   protected final void update() {
     super.update();
+    if (this.replayRecorder != null) {
+      this.replayRecorder.recordTick(this.inputManager);
+    }
+    long now = Core.getClock().millis();
+    Core.getWorld().age((int) (now - this.lastTickTime));
+    this.lastTickTime = now;
+
+    if (inputManager.isKeyPressed(KeyEvent.VK_ESCAPE) && !this.levelFinished) {
+      // Leaves the level as it is, to be saved by the caller.
+      this.suspended = true;
+      this.isRunning = false;
+      return;
+    }
 
     if (this.inputDelay.checkFinished() && !this.levelFinished || isTesting) {
 
@@ -243,20 +351,26 @@ public class GameScreen extends Screen {
 
 				if (moveRight && !isRightBorder) {
 					this.ship.moveRight();
+					reacted(KeyEvent.VK_RIGHT, KeyEvent.VK_D);
 				}
 				if (moveLeft && !isLeftBorder) {
 					this.ship.moveLeft();
+					reacted(KeyEvent.VK_LEFT, KeyEvent.VK_A);
 				}
 				if (inputManager.isKeyDown(KeyEvent.VK_SPACE))
-					if (this.ship.shoot(this.bullets))
+					if (this.ship.shoot(this.bullets)) {
 						this.bulletsShot++;
+						reacted(KeyEvent.VK_SPACE, KeyEvent.VK_SPACE);
+					}
 			}
 
 			if (this.enemyShipSpecial != null) {
 				if (!this.enemyShipSpecial.isDestroyed())
 					this.enemyShipSpecial.move(2, 0);
-				else if (this.enemyShipSpecialExplosionCooldown.checkFinished())
+				else if (this.enemyShipSpecial.isExpired()) {
+					this.enemyShipSpecial.despawn();
 					this.enemyShipSpecial = null;
+				}
 
 
 			}
@@ -268,11 +382,11 @@ public class GameScreen extends Screen {
 			}
 			if (this.enemyShipSpecial != null
 					&& this.enemyShipSpecial.getPositionX() > this.width) {
+				this.enemyShipSpecial.despawn();
 				this.enemyShipSpecial = null;
 				this.logger.info("The special ship has escaped");
 			}
 
-      this.ship.update();
       this.enemyShipFormation.update();
 
 			if (this.bossStage == 0) {
@@ -306,8 +420,9 @@ public class GameScreen extends Screen {
 
     manageCollisions();
     cleanBullets();
-    cleanTurningBullets();
-    draw();
+    if (!Core.isHeadless()) {
+      draw();
+    }
 
     if ((this.enemyShipFormation.isEmpty() || this.lives == 0)
         && !this.levelFinished) {
@@ -318,9 +433,30 @@ public class GameScreen extends Screen {
     if (this.levelFinished && this.screenFinishedCooldown.checkFinished()) {
       this.isRunning = false;
     }
+    if (this.replayRecorder != null) {
+      this.replayRecorder.recordKeyframe(this);
+    }
 
   }
 
+  /**
+   * Reports to the latency probe that the ship reacted to a key pressed this tick.
+   *
+   * @param keyCode          Key that caused the reaction.
+   * @param alternateKeyCode Other key bound to the same action.
+   */
+  private void reacted(final int keyCode, final int alternateKeyCode) {
+    LatencyProbe probe = Core.getLatencyProbe();
+    if (!probe.isEnabled()) {
+      return;
+    }
+    if (inputManager.isKeyPressed(keyCode)) {
+      probe.react(inputManager.getPressTime(keyCode));
+    } else if (inputManager.isKeyPressed(alternateKeyCode)) {
+      probe.react(inputManager.getPressTime(alternateKeyCode));
+    }
+  }
+
   /**
    * Draws the elements associated with the screen.
    */
@@ -356,7 +492,7 @@ public class GameScreen extends Screen {
     // Countdown to game start.
     if (!this.inputDelay.checkFinished()) {
       int countdown = (int) ((INPUT_DELAY
-          - (System.currentTimeMillis()
+          - (Core.getClock().millis()
           - this.gameStartTime)) / 1000);
       if (bossStage == 0) {
         drawManager.drawCountDown(this, this.level, countdown,
@@ -374,54 +510,28 @@ public class GameScreen extends Screen {
   }
 
   /**
-   * Cleans bullets that go off screen.
+   * Moves the bullets in play, straight and turning, and recycles the ones that went off screen.
    */
   private void cleanBullets() {
-    Set<Bullet> recyclable = new HashSet<Bullet>();
-    for (Bullet bullet : this.bullets) {
-      bullet.update();
-
-			if (bullet.getPositionY() < SEPARATION_LINE_HEIGHT
-					|| bullet.getPositionY() > this.height)
-				recyclable.add(bullet);
-		}
-		this.bullets.removeAll(recyclable);
-		BulletPool.recycle(recyclable);
-	}
-
-  private void cleanTurningBullets() {
-    Set<Bullet> recyclableTurning = new HashSet<Bullet>();
-    for (Bullet bullet : this.turningBullets) {
-			if (bullet.getIsTurning() == 1) {
-				bullet.turnLeft();
-			} else {
-				bullet.turnRight();
-			}
-      if (bullet.getPositionY() < SEPARATION_LINE_HEIGHT
-          || bullet.getPositionY() > this.height) {
-        bullet.setSpeed(4);
-        bullet.setFirstTouchX();
-        bullet.setFirstTouchY();
-        recyclableTurning.add(bullet);
-
-      }
+    World world = Core.getWorld();
+    world.move();
+    world.cull(Bullet.class, SEPARATION_LINE_HEIGHT, this.height, this.offScreen);
+    if (!this.offScreen.isEmpty()) {
+      this.bullets.removeAll(this.offScreen);
+      this.turningBullets.removeAll(this.offScreen);
+      Core.getBulletPool().recycle(this.offScreen);
+      this.offScreen.clear();
     }
-
-    this.turningBullets.removeAll(recyclableTurning);
-    BulletPool.recycle(recyclableTurning);
   }
 
   /**
    * Manages collisions between bullets and ships.
    */
   private void manageCollisions() {
-    Set<Bullet> recyclable = new HashSet<Bullet>();
-
-    Set<Bullet> recyclableTurning = new HashSet<Bullet>();
 		for (Bullet bullet : this.bullets) {
-			if (bullet.getSpeedY() > 0) {
+			if (bullet.getFaction() == World.ENEMY) {
 				if (checkCollision(bullet, this.ship) && !this.levelFinished) {
-					recyclable.add(bullet);
+					this.recyclable.add(bullet);
 					if (!this.ship.isDestroyed()) {
 						this.ship.destroy();
 						this.lives--;
@@ -437,16 +547,16 @@ public class GameScreen extends Screen {
 							this.score += enemyShip.getPointValue();
 							this.shipsDestroyed++;
 							this.enemyShipFormation.destroy(enemyShip);
-							recyclable.add(bullet);
+							this.recyclable.add(bullet);
 						} else {
 							if (enemyShip.isHpValue() > 1) {
 								enemyShip.getDamage(1);
-								recyclable.add(bullet);
+								this.recyclable.add(bullet);
 							} else {
 								this.score += enemyShip.getPointValue();
 								this.shipsDestroyed++;
 								this.enemyShipFormation.destroy(enemyShip);
-								recyclable.add(bullet);
+								this.recyclable.add(bullet);
 							}
 						}
 					}
@@ -457,14 +567,14 @@ public class GameScreen extends Screen {
 					this.score += this.enemyShipSpecial.getPointValue();
 					this.shipsDestroyed++;
 					this.enemyShipSpecial.destroy();
-					this.enemyShipSpecialExplosionCooldown.reset();
-					recyclable.add(bullet);
+					this.enemyShipSpecial.setLifetime(BONUS_SHIP_EXPLOSION);
+					this.recyclable.add(bullet);
 				}
 			}
 		}
     for (Bullet bullet : this.turningBullets) {
       if (checkCollision(bullet, this.ship) && !this.levelFinished) {
-        recyclableTurning.add(bullet);
+        this.recyclableTurning.add(bullet);
         if (!this.ship.isDestroyed()) {
           this.ship.destroy();
           this.lives--;
@@ -474,10 +584,16 @@ public class GameScreen extends Screen {
         }
       }
     }
-    this.bullets.removeAll(recyclable);
-    this.turningBullets.removeAll(recyclableTurning);
-    BulletPool.recycle(recyclable);
-    BulletPool.recycle(recyclableTurning);
+    if (!this.recyclable.isEmpty()) {
+      this.bullets.removeAll(this.recyclable);
+      Core.getBulletPool().recycle(this.recyclable);
+      this.recyclable.clear();
+    }
+    if (!this.recyclableTurning.isEmpty()) {
+      this.turningBullets.removeAll(this.recyclableTurning);
+      Core.getBulletPool().recycle(this.recyclableTurning);
+      this.recyclableTurning.clear();
+    }
   }
 
   /**
@@ -510,6 +626,90 @@ public class GameScreen extends Screen {
    */
   public final GameState getGameState() {
     return new GameState(this.level, this.score, this.lives,
-        this.bulletsShot, this.shipsDestroyed);
+        this.bulletsShot, this.shipsDestroyed, this.seed, this.hpBuffs,
+        this.shipSpeedBuffs, this.bulletSpeedBuffs);
+  }
+
+  /**
+   * Writes the state of the level in play: ship, formation, bonus ship, bullets, cooldowns and
+   * counters. Times are written as the time left, so the state can be restored on another clock.
+   *
+   * @param buffer Buffer to write to, reused between calls.
+   */
+  public final void saveState(final ByteBuffer buffer) {
+    buffer.putLong(this.random.getState());
+    buffer.putInt(this.score);
+    buffer.putInt(this.lives);
+    buffer.putInt(this.bulletsShot);
+    buffer.putInt(this.shipsDestroyed);
+    buffer.put((byte) (this.levelFinished ? 1 : 0));
+    buffer.putLong(Core.getClock().millis() - this.gameStartTime);
+
+    this.ship.save(buffer);
+    this.enemyShipFormation.save(buffer);
+    buffer.put((byte) (this.enemyShipSpecial == null ? 0 : 1));
+    if (this.enemyShipSpecial != null) {
+      this.enemyShipSpecial.save(buffer);
+    }
+    this.enemyShipSpecialCooldown.save(buffer);
+    this.screenFinishedCooldown.save(buffer);
+    this.inputDelay.save(buffer);
+
+    buffer.putInt(this.bullets.size());
+    for (Bullet bullet : this.bullets) {
+      bullet.save(buffer);
+    }
+    buffer.putInt(this.turningBullets.size());
+    for (Bullet bullet : this.turningBullets) {
+      bullet.save(buffer);
+    }
+  }
+
+  /**
+   * Restores a state written by saveState(), on a screen initialized with the same game state and
+   * settings.
+   *
+   * @param buffer Buffer to read from.
+   */
+  public final void loadState(final ByteBuffer buffer) {
+    this.random.setState(buffer.getLong());
+    this.score = buffer.getInt();
+    this.lives = buffer.getInt();
+    this.bulletsShot = buffer.getInt();
+    this.shipsDestroyed = buffer.getInt();
+    this.levelFinished = buffer.get() != 0;
+    this.gameStartTime = Core.getClock().millis() - buffer.getLong();
+    this.lastTickTime = Core.getClock().millis();
+
+    this.ship.load(buffer);
+    this.enemyShipFormation.load(buffer);
+    if (this.enemyShipSpecial != null) {
+      this.enemyShipSpecial.despawn();
+    }
+    this.enemyShipSpecial = buffer.get() == 0 ? null : EnemyShip.load(buffer);
+    this.enemyShipSpecialCooldown.load(buffer);
+    this.screenFinishedCooldown.load(buffer);
+    this.inputDelay.load(buffer);
+
+    loadBullets(buffer, this.bullets);
+    loadBullets(buffer, this.turningBullets);
+  }
+
+  /**
+   * Replaces a set of bullets with bullets written by saveState().
+   *
+   * @param buffer  Buffer to read from.
+   * @param bullets Set to fill, its bullets are recycled.
+   */
+  private static void loadBullets(final ByteBuffer buffer,
+      final Set<Bullet> bullets) {
+    Core.getBulletPool().recycle(bullets);
+    bullets.clear();
+    int count = buffer.getInt();
+    for (int i = 0; i < count; i++) {
+      Bullet bullet = Core.getBulletPool().getBullet(0, 0, 0);
+      bullet.load(buffer);
+      bullets.add(bullet);
+    }
   }
-}
\ No newline at end of file
+}
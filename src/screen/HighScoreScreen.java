@@ -1,7 +1,6 @@
 package screen;
 
 import java.awt.event.KeyEvent;
-import java.io.IOException;
 import java.util.List;
 
 import engine.Core;
@@ -30,12 +29,7 @@ public class HighScoreScreen extends Screen {
     super(width, height, fps);
 
     this.returnCode = 1;
-
-    try {
-      this.highScores = Core.getFileManager().loadHighScores();
-    } catch (NumberFormatException | IOException e) {
-      logger.warning("Couldn't load high scores!");
-    }
+    this.highScores = Core.getHighScoreRepository().getHighScores();
   }
 
   /**
@@ -1,14 +1,12 @@
 package screen;
 
 import java.awt.event.KeyEvent;
-import java.io.IOException;
-import java.util.Collections;
-import java.util.List;
 
-import engine.Cooldown;
 import engine.Core;
 import engine.GameState;
 import engine.Score;
+import engine.ScoreHistory;
+import engine.ScoreRecord;
 
 /**
  * Implements the score screen.
@@ -17,14 +15,6 @@ import engine.Score;
  */
 public class ScoreScreen extends Screen {
 
-  /**
-   * Milliseconds between changes in user selection.
-   */
-  private static final int SELECTION_TIME = 200;
-  /**
-   * Maximum number of high scores.
-   */
-  private static final int MAX_HIGH_SCORE_NUM = 7;
   /**
    * Code of first mayus character.
    */
@@ -34,6 +24,10 @@ public class ScoreScreen extends Screen {
    */
   private static final int LAST_CHAR = 90;
 
+  /**
+   * State of the finished game.
+   */
+  private GameState gameState;
   /**
    * Current score.
    */
@@ -50,10 +44,6 @@ public class ScoreScreen extends Screen {
    * Total ships destroyed by the player.
    */
   private int shipsDestroyed;
-  /**
-   * List of past high scores.
-   */
-  private List<Score> highScores;
   /**
    * Checks if current score is a new high score.
    */
@@ -66,10 +56,6 @@ public class ScoreScreen extends Screen {
    * Character of players name selected for change.
    */
   private int nameCharSelected;
-  /**
-   * Time between changes in user selection.
-   */
-  private Cooldown selectionCooldown;
 
   /**
    * Constructor, establishes the properties of the screen.
@@ -83,6 +69,7 @@ public class ScoreScreen extends Screen {
       final GameState gameState) {
     super(width, height, fps);
 
+    this.gameState = gameState;
     this.score = gameState.getScore();
     this.livesRemaining = gameState.getLivesRemaining();
     this.bulletsShot = gameState.getBulletsShot();
@@ -90,20 +77,7 @@ public class ScoreScreen extends Screen {
     this.isNewRecord = false;
     this.name = "AAA".toCharArray();
     this.nameCharSelected = 0;
-    this.selectionCooldown = Core.getCooldown(SELECTION_TIME);
-    this.selectionCooldown.reset();
-
-    try {
-      this.highScores = Core.getFileManager().loadHighScores();
-      if (highScores.size() < MAX_HIGH_SCORE_NUM
-          || highScores.get(highScores.size() - 1).getScore()
-          < this.score) {
-        this.isNewRecord = true;
-      }
-
-    } catch (IOException e) {
-      logger.warning("Couldn't load high scores!");
-    }
+    this.isNewRecord = Core.getHighScoreRepository().isNewRecord(this.score);
   }
 
   /**
@@ -129,6 +103,7 @@ public class ScoreScreen extends Screen {
         // Return to main menu.
         this.returnCode = 1;
         this.isRunning = false;
+        saveHistory();
         if (this.isNewRecord) {
           saveScore();
         }
@@ -136,35 +111,32 @@ public class ScoreScreen extends Screen {
         // Play again.
         this.returnCode = 2;
         this.isRunning = false;
+        saveHistory();
         if (this.isNewRecord) {
           saveScore();
         }
       }
 
-      if (this.isNewRecord && this.selectionCooldown.checkFinished()) {
-        if (inputManager.isKeyDown(KeyEvent.VK_RIGHT)) {
+      if (this.isNewRecord) {
+        if (inputManager.isKeyPressed(KeyEvent.VK_RIGHT)) {
           this.nameCharSelected = this.nameCharSelected == 2 ? 0
               : this.nameCharSelected + 1;
-          this.selectionCooldown.reset();
         }
-        if (inputManager.isKeyDown(KeyEvent.VK_LEFT)) {
+        if (inputManager.isKeyPressed(KeyEvent.VK_LEFT)) {
           this.nameCharSelected = this.nameCharSelected == 0 ? 2
               : this.nameCharSelected - 1;
-          this.selectionCooldown.reset();
         }
-        if (inputManager.isKeyDown(KeyEvent.VK_UP)) {
+        if (inputManager.isKeyPressed(KeyEvent.VK_UP)) {
           this.name[this.nameCharSelected] =
               (char) (this.name[this.nameCharSelected]
                   == LAST_CHAR ? FIRST_CHAR
                   : this.name[this.nameCharSelected] + 1);
-          this.selectionCooldown.reset();
         }
-        if (inputManager.isKeyDown(KeyEvent.VK_DOWN)) {
+        if (inputManager.isKeyPressed(KeyEvent.VK_DOWN)) {
           this.name[this.nameCharSelected] =
               (char) (this.name[this.nameCharSelected]
                   == FIRST_CHAR ? LAST_CHAR
                   : this.name[this.nameCharSelected] - 1);
-          this.selectionCooldown.reset();
         }
       }
     }
@@ -175,17 +147,21 @@ public class ScoreScreen extends Screen {
    * Saves the score as a high score.
    */
   private void saveScore() {
-    highScores.add(new Score(new String(this.name), score));
-    Collections.sort(highScores);
-    if (highScores.size() > MAX_HIGH_SCORE_NUM) {
-      highScores.remove(highScores.size() - 1);
-    }
+    Core.getHighScoreRepository().addScore(
+        new Score(new String(this.name), score));
+  }
 
-    try {
-      Core.getFileManager().saveHighScores(highScores);
-    } catch (IOException e) {
-      logger.warning("Couldn't load high scores!");
+  /**
+   * Adds the finished run to the score history, in the background. Runs that didn't make the high
+   * scores have no name entered, they are kept with an empty one.
+   */
+  private void saveHistory() {
+    ScoreHistory history = Core.getScoreHistory();
+    if (history == null) {
+      return;
     }
+    String runName = this.isNewRecord ? new String(this.name) : "";
+    history.appendLater(ScoreRecord.of(runName, this.gameState));
   }
 
   /**
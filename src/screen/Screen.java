@@ -8,6 +8,7 @@ import engine.Cooldown;
 import engine.Core;
 import engine.DrawManager;
 import engine.InputManager;
+import engine.ManualClock;
 
 /**
  * Implements a generic screen.
@@ -20,6 +21,10 @@ public class Screen {
    * Milliseconds until the screen accepts user input.
    */
   private static final int INPUT_DELAY = 1000;
+  /**
+   * Frames a screen on a manual clock catches up at most when it falls behind real time.
+   */
+  private static final int MAX_LAG = 5;
 
   /**
    * Draw Manager instance.
@@ -98,16 +103,30 @@ public class Screen {
    */
   public int run() {
     this.isRunning = true;
+    // A manual clock gains a fixed step per frame, e.g. while recording a replay. Frames then last
+    // exactly that step, measured from a running deadline, so the game keeps real time.
+    long manualStep = Core.getClock() instanceof ManualClock
+        ? TimeUnit.MILLISECONDS.toNanos(((ManualClock) Core.getClock()).getStep()) : 0;
+    long deadline = System.nanoTime();
 
     while (this.isRunning) {
-      long time = System.currentTimeMillis();
+      long time = System.nanoTime();
 
       update();
+      if (Core.isHeadless()) {
+        continue;
+      }
 
-      time = (1000 / this.fps) - (System.currentTimeMillis() - time);
+      if (manualStep > 0) {
+        deadline = Math.max(deadline + manualStep, System.nanoTime() - MAX_LAG * manualStep);
+        time = deadline - System.nanoTime();
+      } else {
+        time = TimeUnit.MILLISECONDS.toNanos(1000 / this.fps - (System.nanoTime() - time)
+            / 1_000_000);
+      }
       if (time > 0) {
         try {
-          TimeUnit.MILLISECONDS.sleep(time);
+          TimeUnit.NANOSECONDS.sleep(time);
         } catch (InterruptedException e) {
           return 0;
         }
@@ -118,9 +137,22 @@ public class Screen {
   }
 
   /**
-   * Updates the elements on screen and checks for events.
+   * Updates the elements on screen and checks for events. Subclasses call it first, so the game
+   * clock, the timers and the input queued since the last tick are up to date before they are read.
    */
   protected void update() {
+    Core.getClock().tick();
+    Core.getTimerWheel().advanceTo(Core.getClock().millis());
+    this.inputManager.beginTick();
+  }
+
+  /**
+   * Checks if the screen reads input, once its initial delay is over.
+   *
+   * @return True while input is read.
+   */
+  public final boolean isInputReady() {
+    return this.inputDelay.checkFinished();
   }
 
   /**
@@ -2,9 +2,6 @@ package screen;
 
 import java.awt.event.KeyEvent;
 
-import engine.Cooldown;
-import engine.Core;
-
 /**
  * Implements the title screen.
  *
@@ -12,16 +9,6 @@ import engine.Core;
  */
 public class TitleScreen extends Screen {
 
-  /**
-   * Milliseconds between changes in user selection.
-   */
-  private static final int SELECTION_TIME = 200;
-
-  /**
-   * Time between changes in user selection.
-   */
-  private Cooldown selectionCooldown;
-
   /**
    * Constructor, establishes the properties of the screen.
    *
@@ -34,8 +21,6 @@ public class TitleScreen extends Screen {
 
     // Defaults to play.
     this.returnCode = 2;
-    this.selectionCooldown = Core.getCooldown(SELECTION_TIME);
-    this.selectionCooldown.reset();
   }
 
   /**
@@ -56,17 +41,14 @@ public class TitleScreen extends Screen {
     super.update();
 
     draw();
-    if (this.selectionCooldown.checkFinished()
-        && this.inputDelay.checkFinished()) {
-      if (inputManager.isKeyDown(KeyEvent.VK_UP)
-          || inputManager.isKeyDown(KeyEvent.VK_W)) {
+    if (this.inputDelay.checkFinished()) {
+      if (inputManager.isKeyPressed(KeyEvent.VK_UP)
+          || inputManager.isKeyPressed(KeyEvent.VK_W)) {
         previousMenuItem();
-        this.selectionCooldown.reset();
       }
-      if (inputManager.isKeyDown(KeyEvent.VK_DOWN)
-          || inputManager.isKeyDown(KeyEvent.VK_S)) {
+      if (inputManager.isKeyPressed(KeyEvent.VK_DOWN)
+          || inputManager.isKeyPressed(KeyEvent.VK_S)) {
         nextMenuItem();
-        this.selectionCooldown.reset();
       }
       if (inputManager.isKeyDown(KeyEvent.VK_SPACE)) {
         this.isRunning = false;
@@ -0,0 +1,64 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * 테스트 유틸리티: 코드 블록이 현재 스레드에서 할당하는 바이트 수를 측정하고 예산을 검사
+ *
+ * <p>JIT 최적화 전에도 통과하도록, 예산은 워밍업 후 호출당 평균 할당량의 상한으로 정함
+ */
+public final class AllocationBudget {
+
+  /**
+   * 스레드별 할당량을 제공하는 MXBean
+   */
+  private static final com.sun.management.ThreadMXBean THREADS =
+      (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+  private AllocationBudget() {
+
+  }
+
+  /**
+   * 블록을 한 번 실행하는 동안 현재 스레드가 할당한 바이트 수
+   *
+   * @param block 측정할 코드
+   * @return 할당된 바이트 수
+   */
+  public static long measure(final Runnable block) {
+    long threadId = Thread.currentThread().getId();
+    long before = THREADS.getThreadAllocatedBytes(threadId);
+    block.run();
+    return THREADS.getThreadAllocatedBytes(threadId) - before;
+  }
+
+  /**
+   * 블록을 워밍업 후 여러 번 실행하여 호출당 평균 할당량이 예산 이하인지 검사
+   *
+   * @param name         실패 메시지에 쓸 이름
+   * @param bytesPerCall 호출당 허용 바이트 수
+   * @param warmup       측정 전 실행 횟수
+   * @param calls        측정할 실행 횟수
+   * @param block        측정할 코드
+   * @return 호출당 평균 할당 바이트 수
+   */
+  public static long assertWithin(final String name, final long bytesPerCall,
+      final int warmup, final int calls, final Runnable block) {
+    assertTrue(THREADS.isThreadAllocatedMemorySupported(), "할당량 측정을 지원하지 않는 JVM");
+    THREADS.setThreadAllocatedMemoryEnabled(true);
+    for (int i = 0; i < warmup; i++) {
+      block.run();
+    }
+    long bytes = measure(() -> {
+      for (int i = 0; i < calls; i++) {
+        block.run();
+      }
+    });
+    long average = bytes / calls;
+    assertTrue(average <= bytesPerCall, name + ": 호출당 " + average
+        + " 바이트 할당, 예산 " + bytesPerCall + " 바이트");
+    return average;
+  }
+}
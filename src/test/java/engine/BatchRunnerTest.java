@@ -0,0 +1,44 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * 테스트 클래스: BatchRunnerTest
+ */
+@ExtendWith(HeadlessExtension.class)
+class BatchRunnerTest {
+
+  @Test
+  void testContextIsPerThread() {
+    // 설치한 컨텍스트는 해당 스레드에서만 쓰이고, 해제하면 기본 컨텍스트로 돌아가야 함
+    InputManager defaultInput = Core.getInputManager();
+    GameContext context = new GameContext(new ManualClock(10));
+    context.install();
+    assertSame(context.getInputManager(), Core.getInputManager());
+    assertSame(context.getBulletPool(), Core.getBulletPool());
+    assertNotSame(defaultInput, Core.getInputManager());
+
+    GameContext.uninstall();
+    assertSame(defaultInput, Core.getInputManager());
+  }
+
+  @Test
+  void testParallelGamesMatchSequentialGames() {
+    // 게임끼리 상태를 공유하지 않으므로 스레드 수와 관계없이 결과가 같아야 함
+    List<BatchRunner.Result> parallel = new BatchRunner(2).play(7, 2);
+    List<BatchRunner.Result> sequential = new BatchRunner(1).play(7, 2);
+
+    assertEquals(2, parallel.size());
+    for (int i = 0; i < parallel.size(); i++) {
+      assertEquals(7 + i, parallel.get(i).getSeed());
+      assertEquals(sequential.get(i).getScore(), parallel.get(i).getScore());
+      assertEquals(sequential.get(i).getShipsDestroyed(), parallel.get(i).getShipsDestroyed());
+      assertEquals(sequential.get(i).getTicks(), parallel.get(i).getTicks());
+      assertTrue(parallel.get(i).getLevel() >= 1);
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import screen.BuffScreen;
+import screen.GameScreen;
+import screen.TitleScreen;
+
+/**
+ * 테스트 클래스: BotTest
+ */
+@ExtendWith(HeadlessExtension.class)
+class BotTest {
+
+  @Test
+  void testBotOutplaysIdlePlayer(final HeadlessRunner runner) {
+    // 봇은 가만히 있는 플레이어보다 더 많은 적을 격추해야 함
+    GameState start = new GameState(1, 0, Core.MAX_LIVES, 0, 0, 2024);
+    GameState idle = runner.playLevel(start, Core.getGameSettings().get(0), false);
+
+    runner.setBot(new Bot());
+    GameState played = runner.playLevel(start, Core.getGameSettings().get(0), false);
+    assertTrue(played.getShipsDestroyed() > idle.getShipsDestroyed(),
+        played.getShipsDestroyed() + " ships against " + idle.getShipsDestroyed());
+    assertTrue(played.getBulletsShot() > 0);
+  }
+
+  @Test
+  void testBotTickTakesMicroseconds() {
+    // 총알이 많은 보스 스테이지에서도 틱당 판단 시간이 수 마이크로초 수준이어야 함
+    Bot bot = new Bot();
+    long[] spent = new long[2];
+    Core.getInputManager().setInputSource(inputManager -> {
+      long start = System.nanoTime();
+      bot.nextTick(inputManager);
+      spent[0] += System.nanoTime() - start;
+      spent[1]++;
+    });
+    GameScreen screen = new GameScreen(new GameState(7, 0, Core.MAX_LIVES, 0, 0, 5),
+        Core.getGameSettings().get(Core.NUM_LEVELS + 6), false,
+        Core.WIDTH, Core.HEIGHT, Core.FPS);
+    screen.initialize();
+    bot.watch(screen);
+    screen.run();
+
+    long average = spent[0] / spent[1];
+    assertTrue(average < 50_000, "bot tick took " + average + " ns");
+  }
+
+  @Test
+  void testBotLeavesMenus() {
+    // 메뉴에서는 입력을 받을 수 있을 때 선택을 확정해야 함
+    Bot bot = new Bot();
+    Core.getInputManager().setInputSource(bot);
+
+    TitleScreen title = new TitleScreen(Core.WIDTH, Core.HEIGHT, Core.FPS);
+    bot.watch(title);
+    assertEquals(2, title.run());
+
+    GameScreen level = new GameScreen(new GameState(2, 0, Core.MAX_LIVES, 0, 0, 3),
+        Core.getGameSettings().get(1), false, Core.WIDTH, Core.HEIGHT, Core.FPS);
+    for (int i = 0; i < 3; i++) {
+      BuffScreen buffs = new BuffScreen(Core.WIDTH, Core.HEIGHT, Core.FPS, level);
+      bot.watch(buffs);
+      long ticks = Core.getClock().millis();
+      buffs.run();
+      // 입력 지연 후 곧바로 끝나야 함
+      assertTrue(Core.getClock().millis() - ticks < 2000);
+    }
+  }
+}
@@ -0,0 +1,54 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 테스트 클래스: CooldownTest
+ */
+class CooldownTest {
+
+  @Test
+  void testFinishedBeforeFirstReset() {
+    // 한 번도 시작하지 않은 쿨다운은 시각이 0이어도 끝난 상태
+    ManualClock clock = new ManualClock(16);
+    Cooldown cooldown = new Cooldown(clock, 100);
+    assertTrue(cooldown.checkFinished());
+
+    cooldown.reset();
+    assertFalse(cooldown.checkFinished());
+  }
+
+  @Test
+  void testFollowsManualClock() {
+    // 쿨다운은 게임 시계가 틱할 때만 진행됨
+    ManualClock clock = new ManualClock(10);
+    Cooldown cooldown = new Cooldown(clock, 100);
+    cooldown.reset();
+
+    for (int i = 0; i < 10; i++) {
+      assertFalse(cooldown.checkFinished());
+      clock.tick();
+    }
+    assertFalse(cooldown.checkFinished());
+    clock.tick();
+    assertTrue(cooldown.checkFinished());
+  }
+
+  @Test
+  void testVarianceStaysInRange() {
+    // 분산이 있는 쿨다운의 길이는 실행마다 달라지지만 범위 안에 있어야 함
+    ManualClock clock = new ManualClock(1);
+    Cooldown cooldown = new Cooldown(clock, 100, 50, new GameRandom(7));
+    for (int run = 0; run < 20; run++) {
+      cooldown.reset();
+      long start = clock.millis();
+      while (!cooldown.checkFinished()) {
+        clock.tick();
+      }
+      long duration = clock.millis() - start;
+      assertTrue(duration > 50 && duration <= 201, "duration " + duration);
+    }
+  }
+}
@@ -0,0 +1,48 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 테스트 클래스: GameRandomTest
+ */
+class GameRandomTest {
+
+  @Test
+  void testSameSeedSameSequence() {
+    // 같은 시드는 같은 난수열을 만들어야 함
+    GameRandom first = new GameRandom(1234);
+    GameRandom second = new GameRandom(1234);
+    for (int i = 0; i < 1000; i++) {
+      assertEquals(first.nextLong(), second.nextLong());
+    }
+    assertNotEquals(GameRandom.forStream(1234, 1).nextLong(),
+        GameRandom.forStream(1234, 2).nextLong());
+  }
+
+  @Test
+  void testStateRestore() {
+    // 저장한 상태에서 다시 시작하면 같은 난수가 나와야 함
+    GameRandom random = new GameRandom(99);
+    random.nextLong();
+    long state = random.getState();
+    int expected = random.nextInt(1000);
+    random.nextLong();
+    random.setState(state);
+    assertEquals(expected, random.nextInt(1000));
+  }
+
+  @Test
+  void testBounds() {
+    // 범위를 벗어나는 값이 나오지 않아야 함
+    GameRandom random = new GameRandom(5);
+    for (int i = 0; i < 10000; i++) {
+      int value = random.nextInt(7);
+      assertTrue(value >= 0 && value < 7);
+      double fraction = random.nextDouble();
+      assertTrue(fraction >= 0 && fraction < 1);
+    }
+    assertThrows(IllegalArgumentException.class, () -> random.nextInt(0));
+  }
+}
@@ -0,0 +1,111 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import screen.GameScreen;
+
+/**
+ * 테스트 클래스: GameSnapshotTest
+ */
+@ExtendWith(HeadlessExtension.class)
+class GameSnapshotTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testMissingSave() throws Exception {
+    // 저장 파일이 없으면 불러오지 않아야 함
+    GameSnapshot snapshot = new GameSnapshot(this.tempDir.resolve("none.bin"));
+    assertFalse(snapshot.load());
+  }
+
+  @Test
+  void testLevelInPlayRoundTrip() throws Exception {
+    // 진행 중인 레벨을 저장하고 불러오면 같은 상태가 되어야 함
+    GameScreen screen = new GameScreen(
+        new GameState(3, 1200, 2, 40, 25, 5678),
+        Core.getGameSettings().get(2), true, Core.WIDTH, Core.HEIGHT, Core.FPS);
+    screen.initialize();
+    for (int tick = 0; tick < 300 && screen.step(); tick++) {
+      continue;
+    }
+    byte[] expected = snapshot(screen);
+
+    Path file = this.tempDir.resolve(GameSnapshot.SAVE_FILE);
+    new GameSnapshot(file).save(screen);
+    assertTrue(Files.exists(file));
+
+    GameSnapshot loaded = new GameSnapshot(file);
+    assertTrue(loaded.load());
+    assertTrue(loaded.hasWorld());
+    assertEquals(0, loaded.getBossStage());
+    assertTrue(loaded.isBonusLife());
+    assertEquals(5678, loaded.getGameState().getSeed());
+    assertEquals(3, loaded.getGameState().getLevel());
+
+    GameScreen restored = loaded.restore(Core.WIDTH, Core.HEIGHT, Core.FPS);
+    assertArrayEquals(expected, snapshot(restored));
+
+    loaded.delete();
+    assertFalse(Files.exists(file));
+  }
+
+  @Test
+  void testTransitionRoundTrip() throws Exception {
+    // 레벨 사이에서 저장하면 월드 없이 다음 화면부터 시작해야 함
+    Path file = this.tempDir.resolve(GameSnapshot.SAVE_FILE);
+    new GameSnapshot(file).save(new GameState(2, 300, 3, 10, 8, 42, 0, 1, 0), 2,
+        false, 3, -7);
+
+    GameSnapshot loaded = new GameSnapshot(file);
+    assertTrue(loaded.load());
+    assertFalse(loaded.hasWorld());
+    assertEquals(2, loaded.getBossStage());
+    assertEquals(300, loaded.getGameState().getScore());
+    // 고른 버프도 다음 레벨로 이어져야 함
+    assertEquals(1, loaded.getGameState().getShipSpeedBuffs());
+
+    GameScreen restored = loaded.restore(Core.WIDTH, Core.HEIGHT, Core.FPS);
+    assertEquals(2, restored.getBossStage());
+    assertEquals(3, restored.getShip().getSpeed());
+    assertEquals(-7, restored.getShip().getBulletSpeed());
+  }
+
+  @Test
+  void testWorldSavedUnderOneMillisecond() {
+    // 월드 전체 직렬화가 1ms 이내여야 함
+    GameScreen screen = new GameScreen(new GameState(7, 0, 3, 0, 0, 11),
+        Core.getGameSettings().get(6), false, Core.WIDTH, Core.HEIGHT, Core.FPS);
+    screen.initialize();
+    for (int tick = 0; tick < 120 && screen.step(); tick++) {
+      continue;
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    long best = Long.MAX_VALUE;
+    for (int run = 0; run < 20; run++) {
+      buffer.clear();
+      long start = System.nanoTime();
+      screen.saveState(buffer);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    assertTrue(best < 1_000_000, "save took " + best + " ns");
+  }
+
+  private static byte[] snapshot(final GameScreen screen) {
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    screen.saveState(buffer);
+    buffer.flip();
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+}
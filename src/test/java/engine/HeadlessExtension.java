@@ -0,0 +1,48 @@
+package engine;
+
+import org.junit.jupiter.api.extension.AfterEachCallback;
+import org.junit.jupiter.api.extension.BeforeEachCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+
+/**
+ * 테스트 확장: 각 테스트를 소리 없는 헤드리스 모드와 수동 시계에서 실행하고, 끝나면 전역 상태를 복구
+ *
+ * <p>{@code @ExtendWith(HeadlessExtension.class)}로 사용. 테스트 메소드는 {@link ManualClock} 또는
+ * {@link HeadlessRunner} 인자로 설치된 시계와 그 시계로 진행하는 러너를 받을 수 있음
+ */
+public final class HeadlessExtension
+    implements BeforeEachCallback, AfterEachCallback, ParameterResolver {
+
+  @Override
+  public void beforeEach(final ExtensionContext context) {
+    HeadlessRunner.install();
+  }
+
+  @Override
+  public void afterEach(final ExtensionContext context) {
+    // 테스트가 설치한 컨텍스트, 입력, 녹화를 해제한 뒤 기본 컨텍스트를 실시간으로 되돌림
+    GameContext.uninstall();
+    Core.getInputManager().setInputSource(null);
+    Core.setReplayRecorder(null);
+    Core.setHeadless(false);
+    Core.setClock(new RealTimeClock());
+  }
+
+  @Override
+  public boolean supportsParameter(final ParameterContext parameterContext,
+      final ExtensionContext extensionContext) {
+    Class<?> type = parameterContext.getParameter().getType();
+    return type == ManualClock.class || type == HeadlessRunner.class;
+  }
+
+  @Override
+  public Object resolveParameter(final ParameterContext parameterContext,
+      final ExtensionContext extensionContext) {
+    if (parameterContext.getParameter().getType() == ManualClock.class) {
+      return Core.getClock();
+    }
+    return new HeadlessRunner();
+  }
+}
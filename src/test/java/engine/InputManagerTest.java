@@ -0,0 +1,103 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.event.KeyEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 테스트 클래스: InputManagerTest
+ */
+class InputManagerTest {
+
+  private InputManager inputManager;
+
+  @BeforeEach
+  void setUp() {
+    inputManager = Core.getInputManager();
+    releaseAll();
+  }
+
+  @AfterEach
+  void tearDown() {
+    // 다른 테스트에 눌린 키가 남지 않도록 정리
+    releaseAll();
+  }
+
+  /**
+   * 남은 이벤트와 눌린 키를 정리
+   */
+  private void releaseAll() {
+    for (int keyCode = 0; keyCode < 256; keyCode++) {
+      inputManager.post(keyCode, false, 0);
+      inputManager.beginTick();
+    }
+    inputManager.beginTick();
+  }
+
+  @Test
+  void testTapBetweenTicksIsSeen() {
+    // 두 틱 사이에 눌렀다 뗀 키도 다음 틱에서 감지되어야 함
+    inputManager.post(KeyEvent.VK_SPACE, true, 100);
+    inputManager.post(KeyEvent.VK_SPACE, false, 200);
+    inputManager.beginTick();
+
+    assertTrue(inputManager.isKeyPressed(KeyEvent.VK_SPACE));
+    assertTrue(inputManager.isKeyReleased(KeyEvent.VK_SPACE));
+    assertTrue(inputManager.isKeyDown(KeyEvent.VK_SPACE));
+    assertEquals(100, inputManager.getPressTime(KeyEvent.VK_SPACE));
+
+    inputManager.beginTick();
+    assertFalse(inputManager.isKeyDown(KeyEvent.VK_SPACE));
+  }
+
+  @Test
+  void testPressedOnlyOnFirstTick() {
+    // 누르고 있는 동안 눌림 이벤트는 첫 틱에만 발생
+    inputManager.post(KeyEvent.VK_UP, true, 1);
+    inputManager.beginTick();
+    assertTrue(inputManager.isKeyPressed(KeyEvent.VK_UP));
+
+    inputManager.post(KeyEvent.VK_UP, true, 2);
+    inputManager.beginTick();
+    assertFalse(inputManager.isKeyPressed(KeyEvent.VK_UP));
+    assertTrue(inputManager.isKeyDown(KeyEvent.VK_UP));
+
+    inputManager.post(KeyEvent.VK_UP, false, 3);
+    inputManager.beginTick();
+    assertTrue(inputManager.isKeyReleased(KeyEvent.VK_UP));
+    assertFalse(inputManager.isKeyDown(KeyEvent.VK_UP));
+  }
+
+  @Test
+  void testEventsFromAnotherThread() throws InterruptedException {
+    // 다른 스레드에서 넣은 이벤트가 모두 게임 스레드에 전달되어야 함
+    Thread producer = new Thread(() -> {
+      for (int keyCode = 1; keyCode < 200; keyCode++) {
+        inputManager.post(keyCode, true, keyCode);
+      }
+    });
+    producer.start();
+    producer.join();
+    inputManager.beginTick();
+
+    for (int keyCode = 1; keyCode < 200; keyCode++) {
+      assertTrue(inputManager.isKeyPressed(keyCode));
+    }
+  }
+
+  @Test
+  void testFullQueueDropsEvents() {
+    // 큐가 가득 차면 새 이벤트는 버려지고 개수가 기록되어야 함
+    long dropped = inputManager.getDroppedEvents();
+    for (int i = 0; i < 1024 + 10; i++) {
+      inputManager.post(KeyEvent.VK_DOWN, i % 2 == 0, i);
+    }
+    inputManager.beginTick();
+
+    assertEquals(dropped + 10, inputManager.getDroppedEvents());
+    assertTrue(inputManager.isKeyPressed(KeyEvent.VK_DOWN));
+  }
+}
@@ -0,0 +1,42 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * 테스트 클래스: LatencyProbeTest
+ */
+class LatencyProbeTest {
+
+  @Test
+  void testPercentiles() {
+    LatencyProbe probe = LatencyProbe.getInstance();
+    long before = probe.getSamples();
+    // 입력 후 i ms 에 반응하고 i + 1 ms 에 화면에 표시
+    for (int i = 1; i <= 100; i++) {
+      long input = i * 1_000_000_000L;
+      probe.react(input, input + i * 1_000_000L);
+      probe.presented(input + (i + 1) * 1_000_000L);
+    }
+
+    assertEquals(before + 100, probe.getSamples());
+    assertEquals(50_000_000L, probe.getReactionPercentile(50));
+    assertEquals(100_000_000L, probe.getReactionPercentile(100));
+    assertEquals(100_000_000L, probe.getPresentPercentile(99));
+  }
+
+  @Test
+  void testOnlyFirstReactionCounts() {
+    LatencyProbe probe = LatencyProbe.getInstance();
+    long before = probe.getSamples();
+    // 표시 전에 여러 번 반응해도 하나의 측정값만 기록
+    probe.react(10, 20);
+    probe.react(15, 30);
+    probe.presented(40);
+    // 반응 없이 표시된 프레임은 기록하지 않음
+    probe.presented(50);
+
+    assertEquals(before + 1, probe.getSamples());
+  }
+}
@@ -0,0 +1,143 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.awt.event.KeyEvent;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+
+import screen.GameScreen;
+
+/**
+ * 테스트 클래스: ReplayTest
+ */
+@ExtendWith(HeadlessExtension.class)
+class ReplayTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void testVarintRoundTrip() {
+    // 가변 길이 정수는 부호와 관계없이 그대로 복원되어야 함
+    ByteBuffer buffer = ByteBuffer.allocate(64);
+    ReplayFormat.putVarint(buffer, 0);
+    ReplayFormat.putVarint(buffer, 300);
+    ReplayFormat.putSigned(buffer, -6);
+    ReplayFormat.putSigned(buffer, Long.MIN_VALUE);
+    assertEquals(1 + 2 + 1 + 10, buffer.position());
+
+    buffer.flip();
+    assertEquals(0, ReplayFormat.getVarint(buffer));
+    assertEquals(300, ReplayFormat.getVarint(buffer));
+    assertEquals(-6, ReplayFormat.getSigned(buffer));
+    assertEquals(Long.MIN_VALUE, ReplayFormat.getSigned(buffer));
+  }
+
+  @Test
+  void testRecordedLevelReplaysIdentically(final HeadlessRunner runner) throws Exception {
+    // 녹화한 레벨을 다시 재생하면 같은 결과가 나와야 함
+    Path file = this.tempDir.resolve("level.replay");
+    // 시작 키프레임만 기록
+    ReplayRecorder recorder = ReplayRecorder.create(file, 1000 / Core.FPS, 0);
+    Core.setReplayRecorder(recorder);
+    Core.getInputManager().setInputSource(new RandomPlayer(42));
+
+    GameState start = new GameState(1, 0, Core.MAX_LIVES, 0, 0, 1234);
+    GameState recorded = runner.playLevel(start,
+        Core.getGameSettings().get(0), false);
+    recorder.close();
+    Core.setReplayRecorder(null);
+    Core.getInputManager().setInputSource(null);
+    assertTrue(recorded.getBulletsShot() > 0);
+    // 몇 KB 이내로 저장되어야 함
+    assertTrue(Files.size(file) < 8 * 1024, "replay size " + Files.size(file));
+
+    Core.setClock(new ManualClock(1000 / Core.FPS));
+    ReplayPlayer player = ReplayPlayer.open(file);
+    assertTrue(player.nextSegment());
+    assertEquals(1234, player.getStartState().getSeed());
+    GameState replayed = player.playSegment(Core.WIDTH, Core.HEIGHT, Core.FPS);
+    assertFalse(player.nextSegment());
+
+    assertEquals(recorded.getScore(), replayed.getScore());
+    assertEquals(recorded.getLivesRemaining(), replayed.getLivesRemaining());
+    assertEquals(recorded.getBulletsShot(), replayed.getBulletsShot());
+    assertEquals(recorded.getShipsDestroyed(), replayed.getShipsDestroyed());
+  }
+
+  @Test
+  void testSeekMatchesPlayback(final HeadlessRunner runner) throws Exception {
+    // 키프레임으로 건너뛴 상태가 처음부터 재생한 상태와 같아야 함
+    Path file = this.tempDir.resolve("seek.replay");
+    ReplayRecorder recorder = ReplayRecorder.create(file, 1000 / Core.FPS, 120);
+    Core.setReplayRecorder(recorder);
+    Core.getInputManager().setInputSource(new RandomPlayer(7));
+    GameState recorded = runner.playLevel(
+        new GameState(1, 0, Core.MAX_LIVES, 0, 0, 99),
+        Core.getGameSettings().get(0), false);
+    recorder.close();
+    Core.setReplayRecorder(null);
+    Core.getInputManager().setInputSource(null);
+
+    ReplayPlayer player = ReplayPlayer.open(file);
+    assertTrue(player.nextSegment());
+    long target = player.getSegmentTicks() * 2 / 3 + 5;
+    GameScreen played = player.openSegment(Core.WIDTH, Core.HEIGHT, Core.FPS);
+    while (player.getTick() < target && played.step()) {
+      continue;
+    }
+    byte[] expected = snapshot(played);
+    player.closeSegment(played);
+
+    player = ReplayPlayer.open(file);
+    assertTrue(player.nextSegment());
+    GameScreen sought = player.openSegment(Core.WIDTH, Core.HEIGHT, Core.FPS);
+    assertEquals(target, player.seek(sought, target));
+    assertArrayEquals(expected, snapshot(sought));
+
+    // 건너뛴 뒤 끝까지 재생해도 결과가 같아야 함
+    sought.run();
+    GameState replayed = player.closeSegment(sought);
+    assertEquals(recorded.getScore(), replayed.getScore());
+    assertEquals(recorded.getLivesRemaining(), replayed.getLivesRemaining());
+    assertEquals(recorded.getShipsDestroyed(), replayed.getShipsDestroyed());
+  }
+
+  private static byte[] snapshot(final GameScreen screen) {
+    ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+    screen.saveState(buffer);
+    buffer.flip();
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * 무작위로 이동하고 발사하는 입력
+   */
+  private static final class RandomPlayer implements InputSource {
+
+    private final GameRandom random;
+
+    RandomPlayer(final long seed) {
+      this.random = new GameRandom(seed);
+    }
+
+    @Override
+    public void nextTick(final InputManager inputManager) {
+      // 대부분의 틱은 입력 없이 지나감
+      if (this.random.nextInt(20) != 0) {
+        return;
+      }
+      int[] keys = {KeyEvent.VK_LEFT, KeyEvent.VK_RIGHT, KeyEvent.VK_SPACE};
+      int key = keys[this.random.nextInt(keys.length)];
+      inputManager.applyEvent(key, !inputManager.isKeyHeld(key), System.nanoTime());
+    }
+  }
+}
@@ -0,0 +1,142 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 테스트 클래스: ScoreHistoryTest
+ */
+class ScoreHistoryTest {
+
+  /**
+   * 테스트용 임시 디렉토리
+   */
+  @TempDir
+  File directory;
+
+  /**
+   * 테스트용 기록 생성
+   */
+  private static ScoreRecord record(final String name, final int score) {
+    return new ScoreRecord(score, name, score, 3, 0.5f, 10, 5);
+  }
+
+  @Test
+  void testAppendAndRead() throws IOException {
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      history.append(new ScoreRecord(42L, "ABC", 1200, 4, 0.25f, 40, 10));
+      assertEquals(1, history.getRecordCount());
+
+      ScoreRecord read = history.getRecord(0);
+      assertEquals(42L, read.getTimestamp());
+      assertEquals("ABC", read.getName());
+      assertEquals(1200, read.getScore());
+      assertEquals(4, read.getLevel());
+      assertEquals(0.25f, read.getAccuracy());
+      assertEquals(40, read.getBulletsShot());
+      assertEquals(10, read.getShipsDestroyed());
+    }
+  }
+
+  @Test
+  void testAppendLaterSavedOnClose() throws IOException {
+    // 백그라운드로 추가한 기록은 닫을 때까지 순서대로 저장되어야 하고, 이름 없는 기록은 빈 이름이어야 함
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      history.appendLater(record("", 10));
+      history.appendLater(record("AAA", 20));
+    }
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      assertEquals(2, history.getRecordCount());
+      assertEquals("", history.getRecord(0).getName());
+      assertEquals("AAA", history.getRecord(1).getName());
+    }
+  }
+
+  @Test
+  void testTopScoresSortedAndBounded() throws IOException {
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      for (int i = 0; i < ScoreHistory.TOP_K * 3; i++) {
+        // 점수가 섞인 순서로 추가
+        history.append(record("P" + i, (i * 7919) % 1000));
+      }
+      List<Score> top = history.getTopScores(ScoreHistory.TOP_K + 10);
+      assertEquals(ScoreHistory.TOP_K, top.size());
+      for (int i = 1; i < top.size(); i++) {
+        assertTrue(top.get(i - 1).getScore() >= top.get(i).getScore());
+      }
+      ScoreRecord best = history.getRecord(history.getTopRecordNumber(0));
+      assertEquals(top.get(0).getScore(), best.getScore());
+    }
+  }
+
+  @Test
+  void testIndexCatchesUpOnReopen() throws IOException {
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      history.append(record("AAA", 10));
+    }
+    // 인덱스 없이 추가된 기록도 다시 열 때 반영되어야 함
+    new File(directory, ScoreHistory.INDEX_FILE).delete();
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      history.append(record("BBB", 30));
+    }
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      List<Score> top = history.getTopScores(10);
+      assertEquals(2, top.size());
+      assertEquals("BBB", top.get(0).getName());
+      assertEquals("AAA", top.get(1).getName());
+    }
+  }
+
+  @Test
+  void testPartialRecordIsDropped() throws IOException {
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      history.append(record("AAA", 10));
+    }
+    try (RandomAccessFile file = new RandomAccessFile(
+        new File(directory, ScoreHistory.LOG_FILE), "rw")) {
+      file.setLength(file.length() + ScoreHistory.RECORD_SIZE / 2);
+    }
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      assertEquals(1, history.getRecordCount());
+    }
+  }
+
+  @Test
+  void testCompactKeepsRecentAndLeaderboard() throws IOException {
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      history.append(record("TOP", 100000));
+      for (int i = 0; i < ScoreHistory.TOP_K * 2; i++) {
+        history.append(record("LOW", i));
+      }
+      long removed = history.compact(10);
+
+      assertEquals(ScoreHistory.TOP_K * 2 + 1 - removed, history.getRecordCount());
+      assertEquals("TOP", history.getTopScores(1).get(0).getName());
+      assertEquals(ScoreHistory.TOP_K * 2 - 1,
+          history.getRecord(history.getRecordCount() - 1).getScore());
+    }
+  }
+
+  @Test
+  void testCompactTruncatedLogFails() throws IOException {
+    // 열려 있는 동안 로그가 잘려도 압축이 멈추지 않고 예외를 던져야 함
+    try (ScoreHistory history = ScoreHistory.open(directory)) {
+      for (int i = 0; i < 5; i++) {
+        history.append(record("AAA", i));
+      }
+      try (RandomAccessFile file = new RandomAccessFile(
+          new File(directory, ScoreHistory.LOG_FILE), "rw")) {
+        file.setLength(file.length() - ScoreHistory.RECORD_SIZE * 2);
+      }
+      assertTimeoutPreemptively(Duration.ofSeconds(5),
+          () -> assertThrows(IOException.class, () -> history.compact(5)));
+    }
+  }
+}
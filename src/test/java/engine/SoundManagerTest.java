@@ -2,46 +2,133 @@ package engine;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import javax.sound.sampled.AudioFileFormat;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 class SoundManagerTest {
 
-  private static final String TEST_SOUND_FILE_PATH = "res/WelcomeToTheHell.wav";
   private static final String TEST_CLIP_NAME = "testClip";
 
+  /**
+   * 테스트용 임시 디렉토리
+   */
+  @TempDir
+  static File directory;
+
+  /**
+   * 테스트용 사운드 파일 경로
+   */
+  private static String soundFilePath;
+
+  /**
+   * 0.1초 길이의 무음 사운드 파일 생성
+   */
+  @BeforeAll
+  static void createSound() throws IOException {
+    AudioFormat format = new AudioFormat(44100, 16, 1, true, false);
+    byte[] data = new byte[4410 * format.getFrameSize()];
+    File file = new File(directory, "test.wav");
+    AudioSystem.write(new AudioInputStream(new ByteArrayInputStream(data), format, 4410),
+        AudioFileFormat.Type.WAVE, file);
+    soundFilePath = file.getPath();
+  }
 
   @Test
   void testPlaySound() {
     // 페이드 없이 사운드를 재생하는 경우를 테스트
     assertDoesNotThrow(
-        () -> SoundManager.playSound(TEST_SOUND_FILE_PATH, TEST_CLIP_NAME, false, false, 1.0f));
+        () -> SoundManager.playSound(soundFilePath, TEST_CLIP_NAME, false, false, 1.0f));
   }
 
   @Test
   public void testPlaySoundWithFadeIn() {
     // 페이드 인을 사용하여 사운드를 재생하는 경우를 테스트
     assertDoesNotThrow(
-        () -> SoundManager.playSound(TEST_SOUND_FILE_PATH, TEST_CLIP_NAME, false, 1.0f));
+        () -> SoundManager.playSound(soundFilePath, TEST_CLIP_NAME, false, 1.0f));
   }
 
   @Test
   void testStopSound() {
     // 페이드 없이 사운드를 정지하는 경우를 테스트
-    SoundManager.playSound(TEST_SOUND_FILE_PATH, TEST_CLIP_NAME, false, false, 1.0f); // 사운드를 먼저 재생
+    SoundManager.playSound(soundFilePath, TEST_CLIP_NAME, false, false, 1.0f); // 사운드를 먼저 재생
     assertDoesNotThrow(() -> SoundManager.stopSound(TEST_CLIP_NAME));
   }
 
   @Test
   public void testStopSoundWithoutFade() {
     // 페이드 없이 사운드를 정지하는 경우를 테스트
-    SoundManager.playSound(TEST_SOUND_FILE_PATH, TEST_CLIP_NAME, false, false, 1.0f); // 사운드를 먼저 재생
+    SoundManager.playSound(soundFilePath, TEST_CLIP_NAME, false, false, 1.0f); // 사운드를 먼저 재생
     assertDoesNotThrow(() -> SoundManager.stopSound(TEST_CLIP_NAME));
   }
 
   @Test
   public void testStopSoundWithFadeOut() {
     // 페이드 아웃을 사용하여 사운드를 정지하는 경우를 테스트
-    SoundManager.playSound(TEST_SOUND_FILE_PATH, TEST_CLIP_NAME, false, 1.0f); // 사운드를 먼저 재생
+    SoundManager.playSound(soundFilePath, TEST_CLIP_NAME, false, 1.0f); // 사운드를 먼저 재생
     assertDoesNotThrow(() -> SoundManager.stopSound(TEST_CLIP_NAME, 1.0f));
   }
-}
\ No newline at end of file
+
+  @Test
+  void testStopQueuedAfterPlay() throws Exception {
+    // 재생 직후 요청한 정지는 재생이 시작된 뒤에 처리되어 반복 사운드를 멈춰야 함
+    SoundManager.playSound(soundFilePath, TEST_CLIP_NAME, true, 1.0f);
+    assertTrue(SoundManager.isPlaying(TEST_CLIP_NAME));
+
+    SoundManager.playSound(soundFilePath, TEST_CLIP_NAME + "Next", true, 1.0f);
+    SoundManager.stopSound(TEST_CLIP_NAME + "Next");
+    SoundManager.stopSound(TEST_CLIP_NAME, 1.0f);
+    assertFalse(SoundManager.isPlaying(TEST_CLIP_NAME + "Next"));
+    assertFalse(SoundManager.isPlaying(TEST_CLIP_NAME));
+  }
+
+  @Test
+  void testConcurrentPlayAndStop() throws Exception {
+    // 여러 스레드에서 동시에 재생과 정지를 요청해도, 모두 처리된 뒤에는 등록된 사운드가 없어야 함
+    Thread[] threads = new Thread[4];
+    for (int i = 0; i < threads.length; i++) {
+      String clipName = TEST_CLIP_NAME + i;
+      threads[i] = new Thread(() -> {
+        for (int j = 0; j < 100; j++) {
+          SoundManager.playSound(soundFilePath, clipName, true, 1.0f);
+          SoundManager.stopSound(clipName, 1.0f);
+          SoundManager.stopSound(TEST_CLIP_NAME);
+        }
+      });
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    for (int i = 0; i < threads.length; i++) {
+      assertFalse(SoundManager.isPlaying(TEST_CLIP_NAME + i));
+    }
+    assertFalse(SoundManager.isPlaying(TEST_CLIP_NAME));
+  }
+
+  @Test
+  void testDisabledIgnoresRequests() throws Exception {
+    // 소리가 꺼져 있는 동안의 재생과 정지 요청은 쌓이지 않고 무시되어야 함
+    SoundManager.playSound(soundFilePath, TEST_CLIP_NAME + "Off", true, 1.0f);
+    SoundManager.setEnabled(false);
+    try {
+      SoundManager.stopSound(TEST_CLIP_NAME + "Off");
+      SoundManager.playSound(soundFilePath, TEST_CLIP_NAME + "Muted", true, 1.0f);
+    } finally {
+      SoundManager.setEnabled(true);
+    }
+    assertTrue(SoundManager.isPlaying(TEST_CLIP_NAME + "Off"));
+    assertFalse(SoundManager.isPlaying(TEST_CLIP_NAME + "Muted"));
+    SoundManager.stopSound(TEST_CLIP_NAME + "Off");
+    assertFalse(SoundManager.isPlaying(TEST_CLIP_NAME + "Off"));
+  }
+}
@@ -0,0 +1,78 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 테스트 클래스: TimerWheelTest
+ */
+class TimerWheelTest {
+
+  @Test
+  void testTimersExpireOnTime() {
+    // 모든 레벨에 걸친 타이머가 정확한 시각에 만료되어야 함
+    TimerWheel wheel = new TimerWheel(0);
+    Random random = new Random(42);
+    List<long[]> results = new ArrayList<>();
+    long[] now = {0};
+    for (int i = 0; i < 2000; i++) {
+      long delay = 1 + random.nextInt(i % 2 == 0 ? 100 : 300000);
+      long[] result = {delay, -1};
+      results.add(result);
+      wheel.newTimer(() -> result[1] = now[0]).schedule(delay);
+    }
+
+    // 틱마다 16ms씩 진행하지만 만료 시각은 ms 단위로 정확해야 함
+    while (wheel.size() > 0) {
+      long next = now[0] + 16;
+      while (now[0] < next) {
+        now[0]++;
+        wheel.advanceTo(now[0]);
+      }
+    }
+    for (long[] result : results) {
+      assertEquals(result[0], result[1]);
+    }
+  }
+
+  @Test
+  void testRescheduleAndCancel() {
+    // 다시 예약하면 이전 만료는 취소되고, 취소한 타이머는 실행되지 않아야 함
+    TimerWheel wheel = new TimerWheel(1000);
+    int[] fired = {0};
+    TimerWheel.Timer timer = wheel.newTimer(() -> fired[0]++);
+    timer.schedule(100);
+    wheel.advanceTo(1050);
+    timer.schedule(100);
+    wheel.advanceTo(1120);
+    assertEquals(0, fired[0]);
+    assertTrue(timer.isPending());
+    wheel.advanceTo(1150);
+    assertEquals(1, fired[0]);
+    assertFalse(timer.isPending());
+
+    timer.schedule(10);
+    timer.cancel();
+    wheel.advanceTo(2000);
+    assertEquals(1, fired[0]);
+    assertEquals(0, wheel.size());
+  }
+
+  @Test
+  void testRebaseKeepsRemainingTime() {
+    // 시계를 바꿔도 남은 시간은 유지되어야 함
+    TimerWheel wheel = new TimerWheel(5000);
+    TimerWheel.Timer timer = wheel.newTimer(() -> { });
+    timer.schedule(100);
+    wheel.advanceTo(5060);
+    wheel.rebase(0);
+    wheel.advanceTo(39);
+    assertTrue(timer.isPending());
+    wheel.advanceTo(40);
+    assertFalse(timer.isPending());
+  }
+}
@@ -0,0 +1,113 @@
+package engine;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * 테스트 클래스: VectorEnvironmentTest
+ */
+@ExtendWith(HeadlessExtension.class)
+class VectorEnvironmentTest {
+
+  /**
+   * 함께 진행할 레벨 수
+   */
+  private static final int LEVELS = 4;
+
+  @Test
+  void testResetObservesShipInTheMiddle() {
+    // 리셋 후 함선은 화면 가운데에 목숨이 모두 남아 있어야 함
+    VectorEnvironment environment = new VectorEnvironment(LEVELS, 1, 0, 11);
+    environment.reset();
+
+    FloatBuffer observations = environment.getObservations();
+    for (int i = 0; i < LEVELS; i++) {
+      int base = i * VectorEnvironment.OBSERVATION_SIZE;
+      assertEquals(0.5f, observations.get(base), 0.02f);
+      assertEquals(0f, observations.get(base + 1));
+      assertEquals(1f, observations.get(base + 2));
+    }
+  }
+
+  @Test
+  void testActionsMoveEachLevelIndependently() {
+    // 레벨마다 다른 행동을 주면 각자 그 방향으로 움직여야 함
+    VectorEnvironment environment = new VectorEnvironment(2, 1, 0, 11);
+    environment.reset();
+    int[] actions = {1, 2};
+    for (int step = 0; step < 60; step++) {
+      environment.step(actions);
+    }
+
+    FloatBuffer observations = environment.getObservations();
+    assertTrue(observations.get(0) < 0.45f, "left " + observations.get(0));
+    assertTrue(observations.get(VectorEnvironment.OBSERVATION_SIZE) > 0.55f,
+        "right " + observations.get(VectorEnvironment.OBSERVATION_SIZE));
+  }
+
+  @Test
+  void testSameSeedSameEpisodes() {
+    // 같은 시드와 행동이면 직접 버퍼를 쓰더라도 관측과 보상이 같아야 함
+    VectorEnvironment heap = new VectorEnvironment(LEVELS, 2, 0, 5);
+    FloatBuffer direct = ByteBuffer.allocateDirect(
+        LEVELS * VectorEnvironment.OBSERVATION_SIZE * Float.BYTES)
+        .order(ByteOrder.nativeOrder()).asFloatBuffer();
+    VectorEnvironment shared = new VectorEnvironment(LEVELS, 2, 0, 5, direct);
+    heap.reset();
+    shared.reset();
+
+    GameRandom random = new GameRandom(3);
+    int[] actions = new int[LEVELS];
+    float rewards = 0;
+    for (int step = 0; step < 2000; step++) {
+      for (int i = 0; i < LEVELS; i++) {
+        actions[i] = random.nextInt(VectorEnvironment.ACTIONS);
+      }
+      heap.step(actions);
+      shared.step(actions);
+      for (int i = 0; i < LEVELS; i++) {
+        assertEquals(heap.getRewards()[i], shared.getRewards()[i]);
+        assertEquals(heap.getDones()[i], shared.getDones()[i]);
+        rewards += heap.getRewards()[i];
+      }
+    }
+    assertEquals(0, heap.getObservations().compareTo(direct));
+    assertTrue(rewards > 0);
+  }
+
+  @Test
+  void testEpisodesEndAndRestart() {
+    // 가만히 있는 함선은 결국 죽고, 그 레벨은 바로 다시 시작되어야 함
+    VectorEnvironment environment = new VectorEnvironment(1, 1, 0, 9);
+    environment.reset();
+    int[] actions = {0};
+    boolean done = false;
+    for (int step = 0; step < 100_000 && !done; step++) {
+      environment.step(actions);
+      done = environment.getDones()[0];
+    }
+    assertTrue(done);
+    assertEquals(1f, environment.getObservations().get(2));
+  }
+
+  @Test
+  void testStepAllocationWithinLevelBudget() {
+    // 관측을 제자리에 쓰므로 스텝의 할당량은 전체 크기 레벨이 사격하며 한 틱 진행하는 양
+    // (처리량 기준선 약 2.6KB) 정도여야 함
+    VectorEnvironment environment = new VectorEnvironment(LEVELS, 1, 0, 21);
+    environment.reset();
+    int[] actions = new int[LEVELS];
+    GameRandom random = new GameRandom(4);
+    AllocationBudget.assertWithin("VectorEnvironment.step", LEVELS * 4096, 1000, 1000, () -> {
+      for (int i = 0; i < LEVELS; i++) {
+        actions[i] = random.nextInt(VectorEnvironment.ACTIONS);
+      }
+      environment.step(actions);
+    });
+  }
+}
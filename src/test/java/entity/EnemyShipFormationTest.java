@@ -2,15 +2,23 @@ package entity;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import engine.AllocationBudget;
+import engine.Core;
+import engine.GameRandom;
 import engine.GameSettings;
+import engine.HeadlessExtension;
+import engine.ManualClock;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import screen.TitleScreen;
 import java.util.HashSet;
 import java.util.Set;
 
 /**
  * 테스트 클래스: BossAttackMechanismTest
  */
+@ExtendWith(HeadlessExtension.class)
 class BossAttackMechanismTest {
 
   /**
@@ -22,6 +30,23 @@ class BossAttackMechanismTest {
    */
   private static final GameSettings SETTINGS_BASE_LEVEL =
       new GameSettings(5, 4, 60, 2000);
+  /**
+   * 보스 레벨 설정.
+   */
+  private static final GameSettings SETTINGS_BOSS_LEVEL =
+      new GameSettings(1, 1, 60, 2000, 1);
+  /**
+   * 적 함대의 난수 시드.
+   */
+  private static final long SEED = 42;
+  /**
+   * 할당량 측정 전 워밍업 틱 수.
+   */
+  private static final int WARMUP_TICKS = 2000;
+  /**
+   * 할당량을 측정할 틱 수.
+   */
+  private static final int MEASURED_TICKS = 2000;
 
   /**
    * 테스트할 EnemyShipFormation 및 Bullet 객체.
@@ -41,7 +66,7 @@ class BossAttackMechanismTest {
    */
   @BeforeEach
   void initialize() {
-    enemyShipFormation = new EnemyShipFormation(SETTINGS_BASE_LEVEL);
+    enemyShipFormation = new EnemyShipFormation(SETTINGS_BASE_LEVEL, new GameRandom(SEED));
     enemyShipFormation.update();
     ship = new Ship(0, 0);
     bullets = new HashSet<>();
@@ -116,5 +141,76 @@ class BossAttackMechanismTest {
     // 터닝 총알 인터벌이 300인지 확인
     assertEquals(enemyShipFormation.getTurningBulletsInterval(), 300);
   }
-}
 
+  /**
+   * EnemyShipFormation update 정상 상태 할당량 테스트
+   */
+  @Test
+  void testFormationUpdateAllocation(final ManualClock clock) {
+    EnemyShipFormation formation =
+        new EnemyShipFormation(SETTINGS_BASE_LEVEL, new GameRandom(SEED));
+    formation.attach(new TitleScreen(448, 520, 60));
+    Set<Bullet> fired = new HashSet<>();
+
+    // 이동과 발사를 반복해도 틱당 할당량이 예산 이내여야 함
+    AllocationBudget.assertWithin("EnemyShipFormation.update", 640,
+        WARMUP_TICKS, MEASURED_TICKS, () -> {
+          clock.tick();
+          formation.update();
+          formation.shoot(fired);
+          recycle(fired);
+        });
+  }
+
+  /**
+   * 보스 공격 메커니즘 정상 상태 할당량 테스트
+   */
+  @Test
+  void testBossAttackMechanismAllocation(final ManualClock clock) {
+    EnemyShipFormation formation =
+        new EnemyShipFormation(SETTINGS_BOSS_LEVEL, new GameRandom(SEED));
+    formation.update();
+    Ship target = new Ship(0, 0);
+    Set<Bullet> fired = new HashSet<>();
+
+    // 총알 7개를 쏘는 메커니즘1은 총알당 예산
+    formation.setTesting(true);
+    AllocationBudget.assertWithin("bossAttackMechanism1", 7 * 192,
+        WARMUP_TICKS, MEASURED_TICKS, () -> {
+          clock.tick();
+          formation.bossAttackMechanism1(fired);
+          recycle(fired);
+        });
+
+    // 나머지 메커니즘은 쿨다운에 따라 발사
+    formation.setTesting(false);
+    AllocationBudget.assertWithin("bossAttackMechanism2", 128,
+        WARMUP_TICKS, MEASURED_TICKS, () -> {
+          clock.tick();
+          formation.bossAttackMechanism2(fired);
+          recycle(fired);
+        });
+    AllocationBudget.assertWithin("bossAttackMechanism3", 128,
+        WARMUP_TICKS, MEASURED_TICKS, () -> {
+          clock.tick();
+          formation.bossAttackMechanism3(fired, target);
+          recycle(fired);
+        });
+    AllocationBudget.assertWithin("bossAttackMechanism4", 128,
+        WARMUP_TICKS, MEASURED_TICKS, () -> {
+          clock.tick();
+          formation.bossAttackMechanism4(fired, target);
+          recycle(fired);
+        });
+  }
+
+  /**
+   * 발사된 총알을 화면을 벗어난 것처럼 풀에 반환.
+   *
+   * @param fired 발사된 총알
+   */
+  private static void recycle(final Set<Bullet> fired) {
+    Core.getBulletPool().recycle(fired);
+    fired.clear();
+  }
+}
@@ -0,0 +1,94 @@
+package entity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import engine.Core;
+import engine.DrawManager.SpriteType;
+import engine.GameContext;
+import engine.ManualClock;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 테스트 클래스: ShipTest
+ */
+class ShipTest {
+
+  /**
+   * 테스트용 게임 시계.
+   */
+  private ManualClock clock;
+
+  /**
+   * 각 테스트마다 새 컨텍스트에서 시작.
+   */
+  @BeforeEach
+  void setUp() {
+    this.clock = new ManualClock(1);
+    new GameContext(this.clock).install();
+  }
+
+  /**
+   * 다른 테스트에 영향을 주지 않도록 전역 상태 복구.
+   */
+  @AfterEach
+  void tearDown() {
+    GameContext.uninstall();
+  }
+
+  /**
+   * 시계를 진행하고 타이머 휠을 따라가게 함.
+   */
+  private void advance(final long milliseconds) {
+    this.clock.advance(milliseconds);
+    Core.getTimerWheel().advanceTo(this.clock.millis());
+  }
+
+  @Test
+  void testEnemyAnimatesWithoutPolling() {
+    // 매 틱 update를 호출하지 않아도 타이머가 스프라이트를 바꾸고, 파괴되면 멈춰야 함
+    EnemyShip enemyShip = new EnemyShip(0, 0, SpriteType.EnemyShipA1);
+    advance(499);
+    assertEquals(SpriteType.EnemyShipA1, enemyShip.getSpriteType());
+    advance(1);
+    assertEquals(SpriteType.EnemyShipA2, enemyShip.getSpriteType());
+    advance(500);
+    assertEquals(SpriteType.EnemyShipA1, enemyShip.getSpriteType());
+
+    enemyShip.destroy();
+    assertEquals(0, Core.getTimerWheel().size());
+    advance(2000);
+    assertEquals(SpriteType.Explosion, enemyShip.getSpriteType());
+  }
+
+  @Test
+  void testShipStateSetByTimers() {
+    // 발사 간격과 파괴 시간이 끝나면 타이머가 함선 상태를 되돌려야 함
+    Ship ship = new Ship(100, 100);
+    Set<Bullet> bullets = new HashSet<Bullet>();
+    assertTrue(ship.shoot(bullets));
+    assertFalse(ship.shoot(bullets));
+    advance(750);
+    assertTrue(ship.shoot(bullets));
+
+    ship.destroy();
+    assertTrue(ship.isDestroyed());
+    assertEquals(SpriteType.ShipDestroyed, ship.getSpriteType());
+    advance(1000);
+    assertFalse(ship.isDestroyed());
+    assertEquals(SpriteType.Ship, ship.getSpriteType());
+    Core.getBulletPool().recycle(bullets);
+  }
+
+  @Test
+  void testNewLevelDropsTimers() {
+    // 새 레벨은 빈 타이머 휠로 시작해 이전 레벨 적의 애니메이션이 남지 않아야 함
+    new EnemyShip(0, 0, SpriteType.EnemyShipB1);
+    assertEquals(1, Core.getTimerWheel().size());
+    Core.resetTimerWheel();
+    assertEquals(0, Core.getTimerWheel().size());
+  }
+}
@@ -0,0 +1,184 @@
+package entity;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import engine.Core;
+import engine.DrawManager.SpriteType;
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 테스트 클래스: WorldTest
+ */
+class WorldTest {
+
+  /**
+   * 총알 크기.
+   */
+  private static final int SIZE = 6;
+
+  @Test
+  void testDespawnKeepsOtherEntities() {
+    // 중간 엔티티를 제거해도 나머지 엔티티의 컴포넌트는 id로 그대로 조회되어야 함
+    World world = new World();
+    int[] ids = new int[100];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = world.spawn(null, i, i * 2, SIZE, SIZE);
+      world.setSprite(ids[i], SpriteType.EnemyBullet);
+    }
+    for (int i = 0; i < ids.length; i += 3) {
+      world.despawn(ids[i]);
+      assertFalse(world.isSpawned(ids[i]));
+    }
+
+    assertEquals(66, world.size());
+    for (int i = 1; i < ids.length; i++) {
+      if (i % 3 != 0) {
+        assertEquals(i, world.getPositionX(ids[i]));
+        assertEquals(i * 2, world.getPositionY(ids[i]));
+        assertEquals(SpriteType.EnemyBullet, world.getSprite(ids[i]));
+      }
+    }
+
+    // 제거된 id는 다시 쓰이고, 새 엔티티는 기본 컴포넌트로 시작해야 함
+    int reused = world.spawn(null, 7, 7, SIZE, SIZE);
+    assertEquals(ids[99], reused);
+    assertNull(world.getSprite(reused));
+    assertEquals(World.PLAYER, world.getFaction(reused));
+    assertEquals(World.STRAIGHT, world.getMotion(reused));
+    assertEquals(1, world.getHealth(reused));
+    assertEquals(World.FOREVER, world.getLifetime(reused));
+  }
+
+  @Test
+  void testMoveStraightAndTurning() {
+    // 직선 엔티티는 세로로만, 회전 엔티티는 가로로도 움직이며 속도가 한계에서 되돌아와야 함
+    World world = new World();
+    int straight = world.spawn(null, 100, 100, SIZE, SIZE);
+    world.setVelocity(straight, 5, 3);
+    int turning = world.spawn(null, 100, 100, SIZE, SIZE);
+    world.setVelocity(turning, 5, 3);
+    world.setMotion(turning, World.TURNING_LEFT);
+
+    world.move();
+    assertEquals(100, world.getPositionX(straight));
+    assertEquals(103, world.getPositionY(straight));
+    assertEquals(105, world.getPositionX(turning));
+    assertEquals(103, world.getPositionY(turning));
+    assertEquals(4, world.getVelocityX(turning));
+    assertEquals(2, world.getVelocityY(turning));
+
+    int slowest = 0;
+    for (int tick = 0; tick < 30; tick++) {
+      world.move();
+      slowest = Math.min(slowest, world.getVelocityY(turning));
+    }
+    assertEquals(-6, slowest);
+    assertEquals(World.TOUCHED_X | World.TOUCHED_Y, world.getTouches(turning));
+    assertTrue(world.getVelocityY(turning) > 0);
+    assertEquals(5, world.getVelocityX(straight));
+  }
+
+  @Test
+  void testCullOffScreen() {
+    // 화면 밖으로 나간 엔티티만 수집하고, 이동해 나가면 다음 수집에 포함해야 함
+    World world = new World();
+    Entity above = new Entity(world, 0, 10, SIZE, SIZE, null);
+    Entity below = new Entity(world, 0, 500, SIZE, SIZE, null);
+    Entity leaving = new Entity(world, 0, 398, SIZE, SIZE, null);
+    world.setVelocity(leaving.id, 0, 3);
+    new Entity(world, 0, 200, SIZE, SIZE, null);
+
+    List<Entity> culled = new ArrayList<Entity>();
+    world.cull(Entity.class, 40, 400, culled);
+    assertEquals(List.of(above, below), culled);
+
+    culled.clear();
+    world.move();
+    world.cull(Entity.class, 40, 400, culled);
+    assertEquals(List.of(above, below, leaving), culled);
+  }
+
+  @Test
+  void testCullOnlyGivenType() {
+    // 같은 줄 밖에 있어도 요청한 타입의 엔티티만 수집해야 함
+    Core.getWorld().clear();
+    Bullet bullet = new Bullet(0, 10, -1);
+    new Ship(0, 10);
+
+    List<Bullet> culled = new ArrayList<Bullet>();
+    Core.getWorld().cull(Bullet.class, 40, 400, culled);
+    assertEquals(List.of(bullet), culled);
+
+    List<Entity> all = new ArrayList<Entity>();
+    Core.getWorld().collect(Entity.class, all);
+    assertEquals(2, all.size());
+    Core.getWorld().clear();
+  }
+
+  @Test
+  void testLifetimeCountsDown() {
+    // 수명이 있는 엔티티만 경과 시간만큼 줄고, 0이 되면 만료되어야 함
+    World world = new World();
+    Entity lasting = new Entity(world, 0, 0, SIZE, SIZE, null);
+    Entity expiring = new Entity(world, 0, 0, SIZE, SIZE, null);
+    expiring.setLifetime(500);
+
+    world.age(300);
+    assertEquals(200, world.getLifetime(expiring.id));
+    assertFalse(expiring.isExpired());
+    world.age(300);
+    assertTrue(expiring.isExpired());
+    assertFalse(lasting.isExpired());
+    assertEquals(World.FOREVER, world.getLifetime(lasting.id));
+  }
+
+  @Test
+  void testEnemyShipsInTheWorld() {
+    // 적 함선은 적 진영으로, 보스의 체력은 월드의 체력 컴포넌트로 저장되어야 함
+    Core.getWorld().clear();
+    EnemyShip boss = new EnemyShip(0, 0, 10, 10, SpriteType.BossA, Color.WHITE);
+    EnemyShip enemy = new EnemyShip(0, 0, SpriteType.EnemyShipA1);
+    assertEquals(2, Core.getWorld().size());
+    assertEquals(World.ENEMY, boss.getFaction());
+    assertEquals(10, boss.isHpValue());
+    boss.getDamage(3);
+    assertEquals(7, Core.getWorld().getHealth(boss.id));
+
+    // 월드를 비우면 엔티티는 게임 밖으로 빠져야 함
+    Core.getWorld().clear();
+    assertEquals(0, Core.getWorld().size());
+    assertFalse(enemy.despawn());
+    assertFalse(Core.getWorld().isSpawned(boss.id));
+  }
+
+  @Test
+  void testPooledBulletsLeaveTheWorld() {
+    // 풀에 반납된 총알은 월드에서 빠지고, 다시 꺼내면 새 상태로 돌아와야 함
+    BulletPool pool = new BulletPool();
+    World world = Core.getWorld();
+    int before = world.size();
+    Bullet bullet = pool.getBullet(50, 60, 4);
+    bullet.setIsTurningLeft();
+    assertEquals(before + 1, world.size());
+    assertEquals(SpriteType.EnemyBullet, bullet.getSpriteType());
+    assertEquals(World.ENEMY, bullet.getFaction());
+    assertEquals(SIZE, bullet.getWidth());
+
+    pool.recycle(Set.of(bullet));
+    assertEquals(before, world.size());
+    assertEquals(1, pool.size());
+
+    Bullet reused = pool.getBullet(50, 60, -4);
+    assertSame(bullet, reused);
+    assertEquals(before + 1, world.size());
+    assertEquals(SpriteType.Bullet, reused.getSpriteType());
+    assertEquals(World.PLAYER, reused.getFaction());
+    assertEquals(0, reused.getIsTurning());
+    assertEquals(60, reused.getPositionY());
+    pool.recycle(Set.of(reused));
+  }
+}
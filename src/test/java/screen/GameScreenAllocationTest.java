@@ -0,0 +1,110 @@
+package screen;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import engine.AllocationBudget;
+import engine.Core;
+import engine.GameSettings;
+import engine.GameState;
+import engine.HeadlessExtension;
+import engine.InputManager;
+import engine.InputSource;
+import java.awt.event.KeyEvent;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * 테스트 클래스: GameScreenAllocationTest
+ */
+@ExtendWith(HeadlessExtension.class)
+class GameScreenAllocationTest {
+
+  /**
+   * 테스트 설정 : 실제 설정과 같은 설정
+   */
+  private static final GameSettings SETTINGS_BASE_LEVEL =
+      new GameSettings(5, 4, 60, 2000);
+  /**
+   * 할당량 측정 전 워밍업 틱 수 (시작 카운트다운 포함)
+   */
+  private static final int WARMUP_TICKS = 1000;
+  /**
+   * 할당량을 측정할 틱 수
+   */
+  private static final int MEASURED_TICKS = 1000;
+  /**
+   * 마지막 레벨의 설정 번호
+   */
+  private static final int LAST_LEVEL = 6;
+  /**
+   * 측정 중에 레벨이 끝나지 않도록 넉넉히 준 목숨 수
+   */
+  private static final int SPARE_LIVES = 99;
+
+  @Test
+  void testUpdateAllocation() {
+    // 정상 상태의 GameScreen.update는 틱당 할당량이 예산 이내여야 함
+    GameScreen gameScreen = new GameScreen(new GameState(1, 0, 3, 0, 0, 77),
+        SETTINGS_BASE_LEVEL, false, 448, 520, 60);
+    gameScreen.initialize();
+
+    AllocationBudget.assertWithin("GameScreen.update", 2048,
+        WARMUP_TICKS, MEASURED_TICKS, gameScreen::step);
+  }
+
+  @Test
+  void testLateLevelUpdateAllocation() {
+    // 마지막 레벨에서 총알이 오가고 적이 격추되는 동안에도 틱당 할당량이 예산 이내여야 함
+    Core.getInputManager().setInputSource(new SweepingPlayer());
+    GameScreen gameScreen = new GameScreen(new GameState(7, 0, SPARE_LIVES, 0, 0, 77),
+        Core.getGameSettings().get(LAST_LEVEL), false, 448, 520, 60);
+    gameScreen.initialize();
+
+    AllocationBudget.assertWithin("GameScreen.update, level 7", 3072,
+        WARMUP_TICKS, MEASURED_TICKS, gameScreen::step);
+    assertTrue(gameScreen.step(), "측정 중에 레벨이 끝남");
+  }
+
+  @Test
+  void testBossStageUpdateAllocation() {
+    // 마지막 보스 스테이지에서 보스가 공격하는 동안에도 틱당 할당량이 예산 이내여야 함
+    List<GameSettings> settings = Core.getGameSettings();
+    GameScreen gameScreen = new GameScreen(new GameState(7, 0, SPARE_LIVES, 0, 0, 77),
+        settings.get(settings.size() - 1), false, 448, 520, 60);
+    gameScreen.initialize();
+
+    AllocationBudget.assertWithin("GameScreen.update, boss 7", 2048,
+        WARMUP_TICKS, MEASURED_TICKS, gameScreen::step);
+    assertTrue(gameScreen.step(), "측정 중에 스테이지가 끝남");
+  }
+
+  /**
+   * 발사 키를 누른 채 좌우로 오가는 플레이어
+   */
+  private static final class SweepingPlayer implements InputSource {
+
+    /**
+     * 방향을 바꾸기까지의 틱 수
+     */
+    private static final int SWEEP_TICKS = 120;
+    /**
+     * 지금까지 진행한 틱 수
+     */
+    private int tick;
+
+    @Override
+    public void nextTick(final InputManager inputManager) {
+      long now = System.nanoTime();
+      if (this.tick == 0) {
+        inputManager.applyEvent(KeyEvent.VK_SPACE, true, now);
+      }
+      if (this.tick % SWEEP_TICKS == 0) {
+        boolean right = this.tick / SWEEP_TICKS % 2 == 0;
+        inputManager.applyEvent(right ? KeyEvent.VK_LEFT : KeyEvent.VK_RIGHT, false, now);
+        inputManager.applyEvent(right ? KeyEvent.VK_RIGHT : KeyEvent.VK_LEFT, true, now);
+      }
+      this.tick++;
+    }
+  }
+}
@@ -281,7 +281,6 @@ class GameScreenTest {
           }
           gameScreen.update();
         }
-        ship.update();
 
         /** 가상 게임 종료*/
         assertTrue(gameScreen.isLevelFinished()); // 가상 게임 종료 후에는 LevelFinished 값이 True.